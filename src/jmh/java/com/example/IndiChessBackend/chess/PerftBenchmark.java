@@ -0,0 +1,71 @@
+package com.example.IndiChessBackend.chess;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// =========================
+// PERFT (move generator nodes/sec)
+// =========================
+// "nodes" in the JMH output is leaf nodes per second.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PerftBenchmark {
+
+    // https://www.chessprogramming.org/Perft_Results
+    @Param({"start", "kiwipete", "endgame", "promotions"})
+    public String position;
+
+    private Position pos;
+    private int depth;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Nodes {
+        public long nodes;
+    }
+
+    @Setup
+    public void setup() {
+        switch (position) {
+            case "start" -> {
+                pos = Position.startPosition();
+                depth = 4;
+            }
+            case "kiwipete" -> {
+                pos = Position.fromFen(
+                        "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+                depth = 3;
+            }
+            case "endgame" -> {
+                pos = Position.fromFen("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1");
+                depth = 5;
+            }
+            case "promotions" -> {
+                pos = Position.fromFen(
+                        "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8");
+                depth = 3;
+            }
+            default -> throw new IllegalArgumentException(position);
+        }
+    }
+
+    @Benchmark
+    public long perft(Nodes counter) {
+        long nodes = pos.perft(depth);
+        counter.nodes += nodes;
+        return nodes;
+    }
+
+    // Single client move -> validated encoded move (GameService hot path)
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public int findLegalMove() {
+        return pos.findLegalMove(Moves.square(6, 4), Moves.square(4, 4), Piece.NONE);
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.IndiChessBackend.chess;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// =========================
+// ENGINE SEARCH (COMPUTER games)
+// =========================
+// Time per engine reply at a fixed node budget; "nodes" is searched nodes/sec.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SearchBenchmark {
+
+    @Param({"start", "kiwipete", "endgame"})
+    public String position;
+
+    @Param({"100000", "500000"})
+    public long maxNodes;
+
+    private Position pos;
+    private Search search;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Nodes {
+        public long nodes;
+    }
+
+    @Setup
+    public void setup() {
+        pos = switch (position) {
+            case "start" -> Position.startPosition();
+            case "kiwipete" -> Position.fromFen(
+                    "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+            case "endgame" -> Position.fromFen("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1");
+            default -> throw new IllegalArgumentException(position);
+        };
+    }
+
+    // Fresh table per reply, like a cold engine thread
+    @Setup(Level.Invocation)
+    public void newSearch() {
+        search = new Search(new TranspositionTable(18));
+    }
+
+    @Benchmark
+    public int bestMove(Nodes counter) {
+        Search.Result result = search.search(pos, Search.MAX_PLY, maxNodes, 60_000);
+        counter.nodes += result.nodes();
+        return result.move();
+    }
+}
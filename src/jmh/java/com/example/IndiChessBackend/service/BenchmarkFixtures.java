@@ -0,0 +1,98 @@
+package com.example.IndiChessBackend.service;
+
+import com.example.IndiChessBackend.chess.TranspositionTable;
+import com.example.IndiChessBackend.model.User;
+import com.example.IndiChessBackend.repo.MatchAnalysisRepo;
+import com.example.IndiChessBackend.repo.MatchRepo;
+import com.example.IndiChessBackend.repo.MoveRepo;
+import com.example.IndiChessBackend.repo.UserRepo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.Principal;
+
+// Benchmark collaborators for GameService, built on ServiceFixtures (src/test)
+final class BenchmarkFixtures {
+
+    // 40 plies of the Ruy Lopez, Breyer: castling, no repetition, game stays in progress
+    static final String[] RUY_LOPEZ = (
+            "e2e4 e7e5 g1f3 b8c6 f1b5 a7a6 b5a4 g8f6 e1g1 f8e7 " +
+            "f1e1 b7b5 a4b3 d7d6 c2c3 e8g8 h2h3 c6b8 d2d4 b8d7 " +
+            "b1d2 c8b7 b3c2 f8e8 d2f1 e7f8 f1g3 g7g6 a2a4 c7c5 " +
+            "d4d5 c5c4 c1g5 h7h6 g5e3 d7c5 d1d2 h6h5 e3g5 f8e7"
+    ).split(" ");
+
+    static final User WHITE = ServiceFixtures.user(1L, "bench_white");
+    static final User BLACK = ServiceFixtures.user(2L, "bench_black");
+
+    static final Principal WHITE_PRINCIPAL = WHITE::getUsername;
+    static final Principal BLACK_PRINCIPAL = BLACK::getUsername;
+
+    private BenchmarkFixtures() {
+    }
+
+    // Matches between WHITE and BLACK
+    static ServiceFixtures.InMemoryMatches matches() {
+        return new ServiceFixtures.InMemoryMatches(WHITE, BLACK);
+    }
+
+    static UserRepo noUsers() {
+        return ServiceFixtures.unsupported(UserRepo.class);
+    }
+
+    // Benchmarks play human-vs-human games, so the engine is never asked to move
+    static ComputerPlayer idleEngine() {
+        return new ComputerPlayer(noUsers(), new TranspositionTable(10), new SimpleMeterRegistry(), "computer", 1_000, 50, 1, 1);
+    }
+
+    // Benchmarked games never finish, so nothing reaches the analysis queue
+    static GameAnalysisService idleAnalysis() {
+        return new GameAnalysisService(
+                ServiceFixtures.unsupported(MoveRepo.class),
+                ServiceFixtures.unsupported(MatchRepo.class),
+                ServiceFixtures.unsupported(MatchAnalysisRepo.class),
+                new TranspositionTable(10),
+                new SimpleMeterRegistry(),
+                1_000, 16, 1
+        );
+    }
+
+    // No STOMP sessions connect, so every move is credited 0 ms
+    static LagCompensator noLag() {
+        return new LagCompensator(ServiceFixtures.discardingTemplate(), new SimpleMeterRegistry(), 2_000, 500, 100, 1_000);
+    }
+
+    // Journal whose writer accepts and drops every batch
+    static MoveJournal discardingJournal() {
+        MoveJournal journal = new MoveJournal(ServiceFixtures.discardingJdbc(), new SimpleMeterRegistry(), 500, 50, 100_000);
+        journal.start();
+        return journal;
+    }
+
+    // Write-behind cache whose flusher drops every batch; game-over saves go to the repo
+    static MatchWriteBehind discardingWriteBehind(MatchRepo matchRepo) {
+        MatchWriteBehind writeBehind = new MatchWriteBehind(ServiceFixtures.discardingJdbc(), matchRepo, new SimpleMeterRegistry(), 1_000);
+        writeBehind.start();
+        return writeBehind;
+    }
+
+    // Crash-recovery log in a throwaway directory (real mmap appends)
+    static GameLog tempGameLog() {
+        try {
+            Path dir = Files.createTempDirectory("bench-game-log");
+            GameLog gameLog = new GameLog(new SimpleMeterRegistry(), dir.toString(), 64 << 20, 1_000, 30_000);
+            gameLog.start();
+            return gameLog;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Default-sized cache of finished games
+    static FinishedGames finishedGames() {
+        return new FinishedGames(new SimpleMeterRegistry(), 10_000, 120_000);
+    }
+}
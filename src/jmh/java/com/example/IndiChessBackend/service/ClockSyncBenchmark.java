@@ -0,0 +1,81 @@
+package com.example.IndiChessBackend.service;
+
+import com.example.IndiChessBackend.chess.Position;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// =========================
+// CLOCK SYNC SWEEP COST (us/sweep)
+// =========================
+// One ClockSync sweep over N active timed games with a discarding publisher.
+// steadyTick advances a virtual clock by the 100 ms minimum tick and moves
+// 1% of games per tick (a move every ~10 s per game); 5% of games are under
+// 10 s. CPU share of the sweeper thread = us/sweep x sweeps per second (at
+// most 10). fullResync is the worst case where every game is due at once.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ClockSyncBenchmark {
+
+    @Param({"50000"})
+    public int games;
+
+    private final Map<Long, GameState> active = new ConcurrentHashMap<>();
+    private GameState[] states;
+    private ClockSync clockSync;
+    private Blackhole sink;
+    private long now;
+    private int nextMover;
+
+    @Setup
+    public void setup(Blackhole bh) {
+        sink = bh;
+        clockSync = new ClockSync(active, (id, frame) -> sink.consume(frame));
+        states = new GameState[games];
+        Random random = new Random(7);
+
+        for (int i = 0; i < games; i++) {
+            GameState state = new GameState();
+            state.setPosition(Position.startPosition());
+            state.setStatus("IN_PROGRESS");
+            long clock = i % 20 == 0 ? 5_000L : 60_000L + random.nextInt(540_000);
+            state.setWhiteClockMs(clock);
+            state.setBlackClockMs(clock);
+            state.setTurnStartedNanos(0);
+            // Spread resyncs evenly over the second
+            state.setSyncedSeq(0);
+            state.setNextSyncNanos(random.nextInt(1_000_000_000));
+            states[i] = state;
+            active.put((long) i, state);
+        }
+        now = 0;
+    }
+
+    @Benchmark
+    public long steadyTick() {
+        now += ClockSync.LOW_TIME_RESYNC_NANOS;
+
+        for (int i = 0; i < games / 100; i++) {
+            GameState state = states[nextMover];
+            state.setSeq(state.getSeq() + 1);
+            state.setTurnStartedNanos(now);
+            nextMover = (nextMover + 1) % games;
+        }
+
+        return clockSync.sweep(now);
+    }
+
+    @Benchmark
+    public long fullResync() {
+        now += ClockSync.RESYNC_NANOS;
+        return clockSync.sweep(now);
+    }
+}
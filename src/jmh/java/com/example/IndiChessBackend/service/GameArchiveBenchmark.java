@@ -0,0 +1,119 @@
+package com.example.IndiChessBackend.service;
+
+import com.example.IndiChessBackend.chess.Position;
+import com.example.IndiChessBackend.model.GameType;
+import com.example.IndiChessBackend.model.MatchStatus;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// =========================
+// FULL-GAME LOAD (games/s)
+// =========================
+// One 40-ply game out of GAMES stored games, against in-memory H2:
+//   loadRows    - the moves rows of the match (uci + both FENs per ply)
+//   loadArchive - the archived_games blob, decoded; positions on demand
+//   loadArchiveAndReplay - the same, replayed to the final position
+// Prints the stored bytes per game for both layouts at setup.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GameArchiveBenchmark {
+
+    private static final int GAMES = 2_000;
+
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbc;
+
+    @Setup
+    public void setup() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:archive;DB_CLOSE_DELAY=-1");
+        dataSource.setMaximumPoolSize(4);
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS moves ("
+                + "id BIGINT AUTO_INCREMENT PRIMARY KEY, match_id BIGINT NOT NULL, ply INT NOT NULL, "
+                + "move_number INT NOT NULL, color VARCHAR(5), uci VARCHAR(255), san VARCHAR(255), "
+                + "fen_before VARCHAR(255), fen_after VARCHAR(255), move_time_ms INT, created_at TIMESTAMP, "
+                + "UNIQUE (match_id, ply))");
+        jdbc.execute("CREATE TABLE IF NOT EXISTS archived_games ("
+                + "id BIGINT AUTO_INCREMENT PRIMARY KEY, match_id BIGINT NOT NULL UNIQUE, plies INT NOT NULL, "
+                + "data BLOB NOT NULL, archived_at TIMESTAMP)");
+
+        String[] uci = BenchmarkFixtures.RUY_LOPEZ;
+        List<Object[]> moveRows = new ArrayList<>();
+        int[] moves = new int[uci.length];
+        int[] times = new int[uci.length];
+        Position position = Position.startPosition();
+        for (int i = 0; i < uci.length; i++) {
+            String fenBefore = position.toFen();
+            moves[i] = position.findLegalMove(uci[i]);
+            position.makeMove(moves[i]);
+            times[i] = 1_000 + i * 37;
+            moveRows.add(new Object[]{i + 1, (i + 2) / 2, i % 2 == 0 ? "WHITE" : "BLACK",
+                    uci[i], uci[i], fenBefore, position.toFen(), times[i]});
+        }
+        byte[] blob = GameArchive.encode(new GameArchive.Game("bench_white", "bench_black",
+                MatchStatus.DRAW, GameType.BLITZ, "C60", "Ruy Lopez", null,
+                System.currentTimeMillis(), System.currentTimeMillis(), moves, times));
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (long matchId = 1; matchId <= GAMES; matchId++) {
+            List<Object[]> batch = new ArrayList<>(moveRows.size());
+            for (Object[] row : moveRows) {
+                batch.add(new Object[]{matchId, row[0], row[1], row[2], row[3], row[4], row[5], row[6], row[7], now});
+            }
+            jdbc.batchUpdate("INSERT INTO moves (match_id, ply, move_number, color, uci, san, "
+                    + "fen_before, fen_after, move_time_ms, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", batch);
+            jdbc.update("INSERT INTO archived_games (match_id, plies, data, archived_at) VALUES (?, ?, ?, ?)",
+                    matchId, moves.length, blob, now);
+        }
+
+        int rowBytes = 0;
+        for (Object[] row : moveRows) {
+            rowBytes += 8 + 8 + 4 + 4 + 5 + 4 + 8 + ((String) row[3]).length() * 2
+                    + ((String) row[5]).length() + ((String) row[6]).length();
+        }
+        System.out.println("Per game: moves rows ~" + rowBytes + " bytes of columns, archive " + blob.length + " bytes");
+    }
+
+    @TearDown
+    public void tearDown() {
+        dataSource.close();
+    }
+
+    private static long anyMatch() {
+        return ThreadLocalRandom.current().nextLong(1, GAMES + 1);
+    }
+
+    @Benchmark
+    public List<String> loadRows() {
+        return jdbc.query(
+                "SELECT uci, fen_before, fen_after, move_time_ms FROM moves WHERE match_id = ? ORDER BY ply",
+                (rs, i) -> rs.getString(1) + rs.getString(2) + rs.getString(3) + rs.getInt(4),
+                anyMatch());
+    }
+
+    @Benchmark
+    public GameArchive.Game loadArchive() {
+        byte[] data = jdbc.queryForObject(
+                "SELECT data FROM archived_games WHERE match_id = ?", byte[].class, anyMatch());
+        return GameArchive.decode(data);
+    }
+
+    @Benchmark
+    public Position loadArchiveAndReplay() {
+        GameArchive.Game game = loadArchive();
+        return game.positionAt(game.plies());
+    }
+}
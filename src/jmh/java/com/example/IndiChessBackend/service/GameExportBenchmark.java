@@ -0,0 +1,82 @@
+package com.example.IndiChessBackend.service;
+
+import com.example.IndiChessBackend.chess.Position;
+import com.example.IndiChessBackend.model.GameType;
+import com.example.IndiChessBackend.model.MatchStatus;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+// =========================
+// EXPORT THROUGHPUT (games/s)
+// =========================
+// Formatting cost of one 40-ply game (SAN for every ply included), written
+// to a Writer that only counts chars - the database pages are not part of it.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class GameExportBenchmark {
+
+    private GameArchive.Game game;
+    private CountingWriter out;
+
+    @Setup
+    public void setup() {
+        String[] uci = BenchmarkFixtures.RUY_LOPEZ;
+        int[] moves = new int[uci.length];
+        int[] times = new int[uci.length];
+        Position position = Position.startPosition();
+        for (int i = 0; i < uci.length; i++) {
+            moves[i] = position.findLegalMove(uci[i]);
+            position.makeMove(moves[i]);
+            times[i] = 1_000 + i * 37;
+        }
+        game = new GameArchive.Game("bench_white", "bench_black", MatchStatus.DRAW, GameType.BLITZ,
+                "C60", "Ruy Lopez", null, System.currentTimeMillis(), System.currentTimeMillis(), moves, times);
+        out = new CountingWriter();
+    }
+
+    @Benchmark
+    public long pgn() throws IOException {
+        GameExportService.writePgn(out, 1L, game);
+        return out.chars;
+    }
+
+    @Benchmark
+    public long ndjson() throws IOException {
+        GameExportService.writeNdjson(out, 1L, game);
+        return out.chars;
+    }
+
+    static final class CountingWriter extends Writer {
+        long chars;
+
+        @Override
+        public void write(char[] buffer, int offset, int length) {
+            chars += length;
+        }
+
+        @Override
+        public void write(int c) {
+            chars++;
+        }
+
+        @Override
+        public void write(String value) {
+            chars += value.length();
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
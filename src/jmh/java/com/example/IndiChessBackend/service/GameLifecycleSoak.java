@@ -0,0 +1,98 @@
+package com.example.IndiChessBackend.service;
+
+import com.example.IndiChessBackend.model.DTO.MoveRequest;
+import com.example.IndiChessBackend.model.GameType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// =========================
+// ACTIVE-GAME MEMORY SOAK
+// =========================
+// Plays GAMES games (fool's mate, 4 plies) through GameService with a late
+// getGameDetails after each, and prints used heap after a full GC every
+// SAMPLE games. With finished games moving to FinishedGames, heap should be
+// flat after the cache fills:
+//   mvn -Pbenchmark test-compile exec:exec \
+//       -Dexec.mainClass=com.example.IndiChessBackend.service.GameLifecycleSoak
+// Optional argument: number of games (default 1,000,000). Exits 1 when the
+// last sample is more than MAX_GROWTH_MB above the first.
+public class GameLifecycleSoak {
+
+    private static final int SAMPLE = 100_000;
+    private static final long MAX_GROWTH_MB = 64;
+    private static final String[] FOOLS_MATE = {"f2f3", "e7e5", "g2g4", "d8h4"};
+
+    public static void main(String[] args) throws InterruptedException {
+
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ServiceFixtures.InMemoryMatches matches = BenchmarkFixtures.matches();
+        FinishedGames finishedGames = new FinishedGames(registry, 10_000, 120_000);
+        GameService gameService = new GameService(
+                matches.repo,
+                BenchmarkFixtures.noUsers(),
+                ServiceFixtures.discardingTemplate(),
+                new OpeningClassifier(),
+                BenchmarkFixtures.idleEngine(),
+                BenchmarkFixtures.idleAnalysis(),
+                BenchmarkFixtures.noLag(),
+                BenchmarkFixtures.discardingJournal(),
+                BenchmarkFixtures.discardingWriteBehind(matches.repo),
+                BenchmarkFixtures.tempGameLog(),
+                finishedGames,
+                new InProcessGameStateStore()
+        );
+        gameService.startClocks();
+        MoveRequest[] requests = ServiceFixtures.requests(FOOLS_MATE);
+
+        long firstMb = -1;
+        long lastMb = -1;
+        long started = System.nanoTime();
+
+        for (int i = 1; i <= games; i++) {
+            Long matchId = matches.newMatch(GameType.STANDARD).getId();
+
+            gameService.handlePlayerJoin(matchId, null, BenchmarkFixtures.WHITE_PRINCIPAL);
+            gameService.handlePlayerJoin(matchId, null, BenchmarkFixtures.BLACK_PRINCIPAL);
+            for (int ply = 0; ply < requests.length; ply++) {
+                gameService.processMove(matchId, requests[ply], ply % 2 == 0
+                        ? BenchmarkFixtures.WHITE_PRINCIPAL
+                        : BenchmarkFixtures.BLACK_PRINCIPAL);
+            }
+
+            // Result screen asking after the game is over
+            gameService.getGameDetails(matchId, BenchmarkFixtures.WHITE_PRINCIPAL);
+
+            // The stand-in database is not server heap
+            matches.rows.remove(matchId);
+
+            if (i % SAMPLE == 0) {
+                long usedMb = usedHeapMb();
+                if (firstMb < 0) {
+                    firstMb = usedMb;
+                }
+                lastMb = usedMb;
+                System.out.printf("%,10d games  %,6d MB used  active %,.0f  finished cached %,.0f  evicted %,.0f  (%d s)%n",
+                        i, usedMb,
+                        registry.get("games.active").gauge().value(),
+                        registry.get("games.finished.cached").gauge().value(),
+                        registry.get("games.evicted").counter().count(),
+                        (System.nanoTime() - started) / 1_000_000_000L);
+            }
+        }
+
+        gameService.stopClocks();
+        long growth = lastMb - firstMb;
+        System.out.printf("heap growth first -> last sample: %,d MB (limit %d MB)%n", growth, MAX_GROWTH_MB);
+        System.exit(growth > MAX_GROWTH_MB ? 1 : 0);
+    }
+
+    private static long usedHeapMb() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        return (runtime.totalMemory() - runtime.freeMemory()) >> 20;
+    }
+}
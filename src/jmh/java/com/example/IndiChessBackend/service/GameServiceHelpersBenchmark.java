@@ -0,0 +1,89 @@
+package com.example.IndiChessBackend.service;
+
+import com.example.IndiChessBackend.chess.Moves;
+import com.example.IndiChessBackend.chess.Position;
+import com.example.IndiChessBackend.chess.San;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// =========================
+// GAME SERVICE HELPERS (ns/op)
+// =========================
+// FEN, move notation and UCI as produced for every move.
+// legacyBoardScanFen is the removed convertBoardToFEN, kept as a baseline.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameServiceHelpersBenchmark {
+
+    private Position position;
+    private String[][] legacyBoard;
+    private Position beforeLastMove;
+    private int lastMove;
+
+    @Setup
+    public void setup() {
+        position = Position.startPosition();
+        for (String uci : BenchmarkFixtures.RUY_LOPEZ) {
+            int move = position.findLegalMove(uci);
+            beforeLastMove = position.copy();
+            lastMove = move;
+            position.makeMove(move);
+        }
+        legacyBoard = position.toBoardArray();
+    }
+
+    // Steady state: FEN already built for this position
+    @Benchmark
+    public String fenCached() {
+        return position.toFen();
+    }
+
+    // After a move: only the touched ranks are rebuilt
+    @Benchmark
+    public String fenAfterMove() {
+        position.unmakeMove();
+        position.makeMove(lastMove);
+        return position.toFen();
+    }
+
+    @Benchmark
+    public String legacyBoardScanFen() {
+        StringBuilder fen = new StringBuilder();
+        for (int r = 0; r < 8; r++) {
+            int empty = 0;
+            for (int c = 0; c < 8; c++) {
+                if (legacyBoard[r][c].isEmpty()) {
+                    empty++;
+                } else {
+                    if (empty > 0) {
+                        fen.append(empty);
+                        empty = 0;
+                    }
+                    fen.append(legacyBoard[r][c]);
+                }
+            }
+            if (empty > 0) fen.append(empty);
+            if (r < 7) fen.append("/");
+        }
+        fen.append(position.isWhiteToMove() ? " w " : " b ");
+        fen.append("KQkq - 0 1");
+        return fen.toString();
+    }
+
+    // SAN with disambiguation and check marker (replaces createMoveNotation)
+    @Benchmark
+    public String san() {
+        return San.of(beforeLastMove, lastMove);
+    }
+
+    // Replaces GameService.createUCI
+    @Benchmark
+    public String createUci() {
+        return Moves.toUci(lastMove);
+    }
+}
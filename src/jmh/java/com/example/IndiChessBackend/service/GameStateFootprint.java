@@ -0,0 +1,96 @@
+package com.example.IndiChessBackend.service;
+
+import com.example.IndiChessBackend.chess.Moves;
+import com.example.IndiChessBackend.chess.Position;
+import com.example.IndiChessBackend.model.GameType;
+import com.example.IndiChessBackend.model.Match;
+import com.example.IndiChessBackend.model.MatchStatus;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+
+// =========================
+// ACTIVE GAME FOOTPRINT
+// =========================
+// Retained heap per in-memory game, measured with JOL:
+//   mvn -Pbenchmark test-compile exec:exec \
+//       -Dexec.mainClass=com.example.IndiChessBackend.service.GameStateFootprint
+public class GameStateFootprint {
+
+    private static final int GAMES = 10_000;
+    private static final int PLIES = 40;
+    private static final long GB = 1L << 30;
+
+    public static void main(String[] args) {
+
+        SplittableRandom random = new SplittableRandom(42);
+        int[] moves = new int[Position.MAX_MOVES];
+
+        GameState[] games = new GameState[GAMES];
+        Object[] legacy = new Object[GAMES];
+
+        for (int i = 0; i < GAMES; i++) {
+            Position position = Position.startPosition();
+            for (int ply = 0; ply < PLIES; ply++) {
+                int count = position.generateLegalMoves(moves);
+                if (count == 0) break;
+                position.makeMove(moves[random.nextInt(count)]);
+            }
+            // FEN cache is filled on every move in production
+            String fen = position.toFen();
+
+            // Live match row with its players, as handlePlayerJoin loads it
+            Match match = new Match(
+                    ServiceFixtures.user(2L * i + 1, "white_player_" + i),
+                    ServiceFixtures.user(2L * i + 2, "black_player_" + i),
+                    MatchStatus.IN_PROGRESS,
+                    GameType.BLITZ
+            );
+            match.setId((long) i + 1);
+            match.setFenCurrent(fen);
+            match.setLastMoveUci(Moves.toUci(position.moveAt(position.ply() - 1)));
+            match.setCurrentPly(position.ply());
+
+            GameState state = new GameState();
+            state.setPosition(position);
+            state.setMatch(match);
+            state.setStatus("IN_PROGRESS");
+            state.setPlayer1Username("white_player_" + i);
+            state.setPlayer2Username("black_player_" + i);
+            state.setTurnStartedNanos(System.nanoTime());
+            state.setSeq(position.ply());
+            games[i] = state;
+
+            // What the previous GameState held for the same game
+            legacy[i] = new Object[]{
+                    copyOf(position.toBoardArray()),
+                    LocalDateTime.now(),
+                    "white_player_" + i,
+                    "black_player_" + i
+            };
+        }
+
+        long current = GraphLayout.parseInstance((Object[]) games).totalSize() / GAMES;
+        long previous = GraphLayout.parseInstance(legacy).totalSize() / GAMES;
+
+        System.out.printf("games measured          : %d (%d plies each)%n", GAMES, PLIES);
+        System.out.printf("GameState (+Match)      : %,d bytes/game -> %,d games per GB%n",
+                current, GB / current);
+        System.out.printf("legacy String[][] board : %,d bytes/game -> %,d games per GB%n",
+                previous, GB / previous);
+        System.out.println();
+        System.out.println(GraphLayout.parseInstance(games[0]).toFootprint());
+    }
+
+    // JSON-deserialized boards hold one String instance per occupied square
+    private static String[][] copyOf(String[][] board) {
+        String[][] copy = new String[8][8];
+        for (int r = 0; r < 8; r++) {
+            for (int c = 0; c < 8; c++) {
+                copy[r][c] = new String(board[r][c]);
+            }
+        }
+        return copy;
+    }
+}
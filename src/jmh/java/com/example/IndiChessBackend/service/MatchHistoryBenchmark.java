@@ -0,0 +1,159 @@
+package com.example.IndiChessBackend.service;
+
+import com.example.IndiChessBackend.model.GameType;
+import com.example.IndiChessBackend.model.MatchStatus;
+import com.example.IndiChessBackend.repo.MatchHeader;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// =========================
+// MATCH HISTORY PAGE LATENCY
+// =========================
+// One 20-game page of a player with `games` games (H2, same indexes as the
+// Match entity, plus as many games between other players):
+//   keysetFirst / keysetDeep - MatchRepo's two per-side queries + merge, at
+//                              the newest page and ~90% of the way back
+//   offsetDeep               - the same page by OFFSET over an OR predicate
+// keysetDeep should match keysetFirst whatever `games` is; offsetDeep grows with it.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MatchHistoryBenchmark {
+
+    private static final int PAGE = 20;
+    private static final long HERO = 1;
+    private static final int OPPONENTS = 1_000;
+
+    private static final String SELECT = "SELECT m.id, p1.user_name, p2.user_name, m.status, m.game_type, "
+            + "m.opening_eco, m.opening_name, m.started_at, m.finished_at, m.created_at, m.current_ply "
+            + "FROM matches m JOIN users p1 ON p1.id = m.player1_id JOIN users p2 ON p2.id = m.player2_id ";
+    private static final String KEYSET = "AND (m.created_at < ? OR (m.created_at = ? AND m.id < ?)) "
+            + "ORDER BY m.created_at DESC, m.id DESC LIMIT ?";
+
+    @Param({"1000", "100000"})
+    public int games;
+
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbc;
+    private MatchHistoryService.Cursor deepCursor;
+    private int deepOffset;
+
+    record Row(Long id, String white, String black, MatchStatus status, GameType gameType,
+               String openingEco, String openingName, LocalDateTime startedAt, LocalDateTime finishedAt,
+               LocalDateTime createdAt, Integer plies) implements MatchHeader {
+        public Long getId() { return id; }
+        public String getWhite() { return white; }
+        public String getBlack() { return black; }
+        public MatchStatus getStatus() { return status; }
+        public GameType getGameType() { return gameType; }
+        public String getOpeningEco() { return openingEco; }
+        public String getOpeningName() { return openingName; }
+        public LocalDateTime getStartedAt() { return startedAt; }
+        public LocalDateTime getFinishedAt() { return finishedAt; }
+        public LocalDateTime getCreatedAt() { return createdAt; }
+        public Integer getPlies() { return plies; }
+    }
+
+    private static final RowMapper<MatchHeader> ROW = (rs, i) -> new Row(
+            rs.getLong(1), rs.getString(2), rs.getString(3),
+            MatchStatus.valueOf(rs.getString(4)), GameType.valueOf(rs.getString(5)),
+            rs.getString(6), rs.getString(7),
+            rs.getTimestamp(8).toLocalDateTime(), rs.getTimestamp(9).toLocalDateTime(),
+            rs.getTimestamp(10).toLocalDateTime(), rs.getInt(11));
+
+    @Setup
+    public void setup() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:history" + games + ";DB_CLOSE_DELAY=-1");
+        dataSource.setMaximumPoolSize(4);
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE users (id BIGINT PRIMARY KEY, user_name VARCHAR(255) UNIQUE)");
+        jdbc.execute("CREATE TABLE matches (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                + "player1_id BIGINT NOT NULL, player2_id BIGINT NOT NULL, status VARCHAR(255), "
+                + "game_type VARCHAR(255), opening_eco VARCHAR(3), opening_name VARCHAR(100), "
+                + "started_at TIMESTAMP, finished_at TIMESTAMP, created_at TIMESTAMP NOT NULL, current_ply INT)");
+        jdbc.execute("CREATE INDEX idx_matches_p1_created ON matches (player1_id, created_at)");
+        jdbc.execute("CREATE INDEX idx_matches_p2_created ON matches (player2_id, created_at)");
+        jdbc.execute("CREATE INDEX idx_matches_p1_status_created ON matches (player1_id, status, created_at)");
+        jdbc.execute("CREATE INDEX idx_matches_p2_status_created ON matches (player2_id, status, created_at)");
+
+        List<Object[]> users = new ArrayList<>();
+        for (long id = HERO; id <= OPPONENTS + 1; id++) {
+            users.add(new Object[]{id, "user" + id});
+        }
+        jdbc.batchUpdate("INSERT INTO users (id, user_name) VALUES (?, ?)", users);
+
+        // The hero's games alternate colour; each is followed by a game between two others
+        LocalDateTime start = LocalDateTime.now().minusDays(365);
+        MatchStatus[] results = {MatchStatus.PLAYER1_WON, MatchStatus.DRAW, MatchStatus.PLAYER2_WON};
+        List<Object[]> batch = new ArrayList<>(10_000);
+        for (int i = 0; i < games; i++) {
+            Timestamp at = Timestamp.valueOf(start.plusSeconds(i * 60L));
+            long opponent = 2 + i % OPPONENTS;
+            long other = 2 + (i + 7) % OPPONENTS;
+            String result = results[i % 3].name();
+            batch.add(i % 2 == 0
+                    ? new Object[]{HERO, opponent, result, at, at, at}
+                    : new Object[]{opponent, HERO, result, at, at, at});
+            batch.add(new Object[]{opponent, other, result, at, at, at});
+            if (batch.size() >= 10_000 || i == games - 1) {
+                jdbc.batchUpdate("INSERT INTO matches (player1_id, player2_id, status, game_type, opening_eco, "
+                        + "opening_name, started_at, finished_at, created_at, current_ply) "
+                        + "VALUES (?, ?, ?, 'BLITZ', 'C60', 'Ruy Lopez', ?, ?, ?, 40)", batch);
+                batch.clear();
+            }
+        }
+
+        // Cursor of the page that starts ~90% of the way back
+        deepOffset = games * 9 / 10;
+        MatchHeader anchor = offsetPage(deepOffset - 1, 1).get(0);
+        deepCursor = new MatchHistoryService.Cursor(anchor.getCreatedAt(), anchor.getId());
+    }
+
+    @TearDown
+    public void tearDown() {
+        jdbc.execute("DROP ALL OBJECTS");
+        dataSource.close();
+    }
+
+    private List<MatchHeader> keysetPage(MatchHistoryService.Cursor from) {
+        Timestamp at = Timestamp.valueOf(from.createdAt());
+        List<MatchHeader> asPlayer1 = jdbc.query(SELECT + "WHERE m.player1_id = ? " + KEYSET,
+                ROW, HERO, at, at, from.id(), PAGE + 1);
+        List<MatchHeader> asPlayer2 = jdbc.query(SELECT + "WHERE m.player2_id = ? " + KEYSET,
+                ROW, HERO, at, at, from.id(), PAGE + 1);
+        return MatchHistoryService.merge(asPlayer1, asPlayer2, PAGE + 1);
+    }
+
+    private List<MatchHeader> offsetPage(int offset, int limit) {
+        return jdbc.query(SELECT + "WHERE m.player1_id = ? OR m.player2_id = ? "
+                        + "ORDER BY m.created_at DESC, m.id DESC LIMIT ? OFFSET ?",
+                ROW, HERO, HERO, limit, offset);
+    }
+
+    @Benchmark
+    public List<MatchHeader> keysetFirst() {
+        return keysetPage(MatchHistoryService.Cursor.FIRST);
+    }
+
+    @Benchmark
+    public List<MatchHeader> keysetDeep() {
+        return keysetPage(deepCursor);
+    }
+
+    @Benchmark
+    public List<MatchHeader> offsetDeep() {
+        return offsetPage(deepOffset, PAGE);
+    }
+}
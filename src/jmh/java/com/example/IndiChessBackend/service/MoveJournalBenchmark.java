@@ -0,0 +1,85 @@
+package com.example.IndiChessBackend.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+// =========================
+// MOVE PERSISTENCE THROUGHPUT (moves/s)
+// =========================
+// Same row, two ways, against in-memory H2 through a Hikari pool:
+//   syncInsert    - one INSERT per move on the caller's thread (a repo save
+//                   inside processMove, the DB on the move path)
+//   journalAppend - MoveJournal.append; the writer batches in the background.
+//                   The queue is bounded, so a writer that falls behind
+//                   throttles the score: this is sustained throughput.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MoveJournalBenchmark {
+
+    private static final String FEN = "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1";
+
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbc;
+    private MoveJournal journal;
+    private long matchId;
+    private int ply;
+
+    @Setup
+    public void setup() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:journal;DB_CLOSE_DELAY=-1");
+        dataSource.setMaximumPoolSize(4);
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS moves ("
+                + "id BIGINT AUTO_INCREMENT PRIMARY KEY, match_id BIGINT NOT NULL, ply INT NOT NULL, "
+                + "move_number INT NOT NULL, color VARCHAR(5), uci VARCHAR(255), san VARCHAR(255), "
+                + "fen_before VARCHAR(255), fen_after VARCHAR(255), move_time_ms INT, created_at TIMESTAMP, "
+                + "UNIQUE (match_id, ply))");
+
+        journal = new MoveJournal(jdbc, new SimpleMeterRegistry(), 500, 50, 10_000);
+        journal.start();
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        journal.stop();
+        dataSource.close();
+    }
+
+    // 40-ply games, so the (match_id, ply) key never repeats
+    private int nextPly() {
+        if (++ply > 40) {
+            ply = 1;
+            matchId++;
+        }
+        return ply;
+    }
+
+    @Benchmark
+    public int syncInsert() {
+        int p = nextPly();
+        return jdbc.update(
+                "INSERT INTO moves (match_id, ply, move_number, color, uci, san, "
+                        + "fen_before, fen_after, move_time_ms, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                matchId, p, (p + 1) / 2, p % 2 == 1 ? "WHITE" : "BLACK", "e2e4", "e4",
+                FEN, FEN, 1_500, Timestamp.valueOf(LocalDateTime.now())
+        );
+    }
+
+    @Benchmark
+    public long journalAppend() {
+        int p = nextPly();
+        return journal.append(matchId + 1_000_000_000L, p, p % 2 == 1 ? "WHITE" : "BLACK",
+                "e2e4", "e4", FEN, FEN, 1_500);
+    }
+}
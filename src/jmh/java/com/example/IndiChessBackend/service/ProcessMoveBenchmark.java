@@ -0,0 +1,88 @@
+package com.example.IndiChessBackend.service;
+
+import com.example.IndiChessBackend.model.DTO.MoveRequest;
+import com.example.IndiChessBackend.model.GameType;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+// =========================
+// END-TO-END processMove (ns/move)
+// =========================
+// Plays a 40-ply game through GameService.processMove per invocation
+// against an in-memory MatchRepo and a discarding broker, so the number
+// is the service's own cost per move without MySQL or serialization.
+// Every invocation plays a new match; each iteration gets a fresh
+// GameService and store, so games left running never carry over.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ProcessMoveBenchmark {
+
+    private static final int PLIES = BenchmarkFixtures.RUY_LOPEZ.length;
+
+    @Param({"STANDARD", "BLITZ"})
+    public GameType gameType;
+
+    private final MoveRequest[] requests = ServiceFixtures.requests(BenchmarkFixtures.RUY_LOPEZ);
+
+    private ServiceFixtures.InMemoryMatches matches;
+    private MoveJournal journal;
+    private MatchWriteBehind writeBehind;
+    private GameLog gameLog;
+    private GameService gameService;
+    private Long matchId;
+
+    @Setup(Level.Iteration)
+    public void newService() {
+        matches = BenchmarkFixtures.matches();
+        journal = BenchmarkFixtures.discardingJournal();
+        writeBehind = BenchmarkFixtures.discardingWriteBehind(matches.repo);
+        gameLog = BenchmarkFixtures.tempGameLog();
+        gameService = new GameService(
+                matches.repo,
+                BenchmarkFixtures.noUsers(),
+                ServiceFixtures.discardingTemplate(),
+                new OpeningClassifier(),
+                BenchmarkFixtures.idleEngine(),
+                BenchmarkFixtures.idleAnalysis(),
+                BenchmarkFixtures.noLag(),
+                journal,
+                writeBehind,
+                gameLog,
+                BenchmarkFixtures.finishedGames(),
+                new InProcessGameStateStore()
+        );
+    }
+
+    @Setup(Level.Invocation)
+    public void newGame() {
+        matchId = matches.newMatch(gameType).getId();
+        gameService.handlePlayerJoin(matchId, null, BenchmarkFixtures.WHITE_PRINCIPAL);
+    }
+
+    @TearDown(Level.Iteration)
+    public void stopService() throws InterruptedException {
+        gameLog.stop();
+        writeBehind.stop();
+        journal.stop();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(40)
+    public void processMove(Blackhole bh) {
+        for (int i = 0; i < PLIES; i++) {
+            bh.consume(gameService.processMove(
+                    matchId,
+                    requests[i],
+                    i % 2 == 0
+                            ? BenchmarkFixtures.WHITE_PRINCIPAL
+                            : BenchmarkFixtures.BLACK_PRINCIPAL
+            ));
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.IndiChessBackend.chess;
+
+import java.util.Arrays;
+
+// Square index = rank * 8 + file (a1 = 0, h8 = 63)
+public final class Bitboards {
+
+    public static final long FILE_A = 0x0101010101010101L;
+    public static final long FILE_H = FILE_A << 7;
+    public static final long RANK_1 = 0xFFL;
+    public static final long RANK_8 = RANK_1 << 56;
+
+    // =========================
+    // LEAPER ATTACK TABLES
+    // =========================
+    public static final long[] KNIGHT_ATTACKS = new long[64];
+    public static final long[] KING_ATTACKS = new long[64];
+
+    // [color][square] -> squares a pawn of that color on that square attacks
+    public static final long[][] PAWN_ATTACKS = new long[2][64];
+
+    // =========================
+    // SLIDER MAGIC TABLES
+    // =========================
+    private static final int[][] ROOK_DIRS = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+    private static final int[][] BISHOP_DIRS = {{1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+
+    private static final long[] ROOK_MASKS = new long[64];
+    private static final long[] ROOK_MAGICS = new long[64];
+    private static final int[] ROOK_SHIFTS = new int[64];
+    private static final long[][] ROOK_TABLE = new long[64][];
+
+    private static final long[] BISHOP_MASKS = new long[64];
+    private static final long[] BISHOP_MAGICS = new long[64];
+    private static final int[] BISHOP_SHIFTS = new int[64];
+    private static final long[][] BISHOP_TABLE = new long[64][];
+
+    static {
+        initLeapers();
+
+        // Fixed seed -> identical tables on every node and every start
+        long[] seed = {0x9E3779B97F4A7C15L};
+        for (int sq = 0; sq < 64; sq++) {
+            initMagic(sq, ROOK_DIRS, ROOK_MASKS, ROOK_MAGICS, ROOK_SHIFTS, ROOK_TABLE, seed);
+            initMagic(sq, BISHOP_DIRS, BISHOP_MASKS, BISHOP_MAGICS, BISHOP_SHIFTS, BISHOP_TABLE, seed);
+        }
+    }
+
+    private Bitboards() {
+    }
+
+    // =========================
+    // LOOKUPS
+    // =========================
+    public static long rookAttacks(int sq, long occupied) {
+        int idx = (int) (((occupied & ROOK_MASKS[sq]) * ROOK_MAGICS[sq]) >>> ROOK_SHIFTS[sq]);
+        return ROOK_TABLE[sq][idx];
+    }
+
+    public static long bishopAttacks(int sq, long occupied) {
+        int idx = (int) (((occupied & BISHOP_MASKS[sq]) * BISHOP_MAGICS[sq]) >>> BISHOP_SHIFTS[sq]);
+        return BISHOP_TABLE[sq][idx];
+    }
+
+    public static long queenAttacks(int sq, long occupied) {
+        return rookAttacks(sq, occupied) | bishopAttacks(sq, occupied);
+    }
+
+    public static long bit(int sq) {
+        return 1L << sq;
+    }
+
+    // =========================
+    // TABLE SETUP
+    // =========================
+    private static void initLeapers() {
+        int[][] knight = {{1, 2}, {2, 1}, {2, -1}, {1, -2}, {-1, -2}, {-2, -1}, {-2, 1}, {-1, 2}};
+        int[][] king = {{1, 0}, {1, 1}, {0, 1}, {-1, 1}, {-1, 0}, {-1, -1}, {0, -1}, {1, -1}};
+
+        for (int sq = 0; sq < 64; sq++) {
+            int file = sq & 7;
+            int rank = sq >>> 3;
+
+            KNIGHT_ATTACKS[sq] = leaperAttacks(file, rank, knight);
+            KING_ATTACKS[sq] = leaperAttacks(file, rank, king);
+            PAWN_ATTACKS[Piece.WHITE][sq] = leaperAttacks(file, rank, new int[][]{{-1, 1}, {1, 1}});
+            PAWN_ATTACKS[Piece.BLACK][sq] = leaperAttacks(file, rank, new int[][]{{-1, -1}, {1, -1}});
+        }
+    }
+
+    private static long leaperAttacks(int file, int rank, int[][] deltas) {
+        long attacks = 0L;
+        for (int[] d : deltas) {
+            int f = file + d[0];
+            int r = rank + d[1];
+            if (f >= 0 && f < 8 && r >= 0 && r < 8) {
+                attacks |= 1L << (r * 8 + f);
+            }
+        }
+        return attacks;
+    }
+
+    // Ray walk used only while building tables
+    private static long slidingAttacks(int sq, long occupied, int[][] dirs) {
+        long attacks = 0L;
+        for (int[] d : dirs) {
+            int f = (sq & 7) + d[0];
+            int r = (sq >>> 3) + d[1];
+            while (f >= 0 && f < 8 && r >= 0 && r < 8) {
+                long b = 1L << (r * 8 + f);
+                attacks |= b;
+                if ((occupied & b) != 0) {
+                    break;
+                }
+                f += d[0];
+                r += d[1];
+            }
+        }
+        return attacks;
+    }
+
+    // Relevant occupancy: ray squares excluding the last square in each direction
+    private static long relevantMask(int sq, int[][] dirs) {
+        long mask = 0L;
+        for (int[] d : dirs) {
+            int f = (sq & 7) + d[0];
+            int r = (sq >>> 3) + d[1];
+            while (f + d[0] >= 0 && f + d[0] < 8 && r + d[1] >= 0 && r + d[1] < 8) {
+                mask |= 1L << (r * 8 + f);
+                f += d[0];
+                r += d[1];
+            }
+        }
+        return mask;
+    }
+
+    private static void initMagic(
+            int sq,
+            int[][] dirs,
+            long[] masks,
+            long[] magics,
+            int[] shifts,
+            long[][] tables,
+            long[] seed
+    ) {
+        long mask = relevantMask(sq, dirs);
+        int bits = Long.bitCount(mask);
+        int size = 1 << bits;
+
+        long[] occupancies = new long[size];
+        long[] attacks = new long[size];
+
+        // Carry-rippler enumeration of every subset of the mask
+        long subset = 0L;
+        int n = 0;
+        do {
+            occupancies[n] = subset;
+            attacks[n] = slidingAttacks(sq, subset, dirs);
+            n++;
+            subset = (subset - mask) & mask;
+        } while (subset != 0);
+
+        int shift = 64 - bits;
+        long[] table = new long[size];
+        int[] epoch = new int[size];
+
+        for (int attempt = 1; ; attempt++) {
+            long magic = nextRandom(seed) & nextRandom(seed) & nextRandom(seed);
+            if (Long.bitCount((mask * magic) & 0xFF00000000000000L) < 6) {
+                continue;
+            }
+
+            boolean ok = true;
+            for (int i = 0; i < size && ok; i++) {
+                int idx = (int) ((occupancies[i] * magic) >>> shift);
+                if (epoch[idx] != attempt) {
+                    epoch[idx] = attempt;
+                    table[idx] = attacks[i];
+                } else if (table[idx] != attacks[i]) {
+                    ok = false;
+                }
+            }
+
+            if (ok) {
+                masks[sq] = mask;
+                magics[sq] = magic;
+                shifts[sq] = shift;
+                tables[sq] = Arrays.copyOf(table, size);
+                return;
+            }
+        }
+    }
+
+    // xorshift64*
+    private static long nextRandom(long[] seed) {
+        long x = seed[0];
+        x ^= x >>> 12;
+        x ^= x << 25;
+        x ^= x >>> 27;
+        seed[0] = x;
+        return x * 0x2545F4914F6CDD1DL;
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.IndiChessBackend.chess;
+
+import static com.example.IndiChessBackend.chess.Piece.*;
+
+// Static evaluation: material + piece-square tables (centipawns, side to move).
+// Tables are the "Simplified Evaluation Function" ones, written from white's
+// side with rank 8 first, so white reads them at sq ^ 56 and black at sq.
+public final class Evaluation {
+
+    public static final int[] VALUE = {100, 320, 330, 500, 900, 0};
+
+    private static final int[] PAWN_TABLE = {
+             0,   0,   0,   0,   0,   0,   0,   0,
+            50,  50,  50,  50,  50,  50,  50,  50,
+            10,  10,  20,  30,  30,  20,  10,  10,
+             5,   5,  10,  25,  25,  10,   5,   5,
+             0,   0,   0,  20,  20,   0,   0,   0,
+             5,  -5, -10,   0,   0, -10,  -5,   5,
+             5,  10,  10, -20, -20,  10,  10,   5,
+             0,   0,   0,   0,   0,   0,   0,   0
+    };
+
+    private static final int[] KNIGHT_TABLE = {
+            -50, -40, -30, -30, -30, -30, -40, -50,
+            -40, -20,   0,   0,   0,   0, -20, -40,
+            -30,   0,  10,  15,  15,  10,   0, -30,
+            -30,   5,  15,  20,  20,  15,   5, -30,
+            -30,   0,  15,  20,  20,  15,   0, -30,
+            -30,   5,  10,  15,  15,  10,   5, -30,
+            -40, -20,   0,   5,   5,   0, -20, -40,
+            -50, -40, -30, -30, -30, -30, -40, -50
+    };
+
+    private static final int[] BISHOP_TABLE = {
+            -20, -10, -10, -10, -10, -10, -10, -20,
+            -10,   0,   0,   0,   0,   0,   0, -10,
+            -10,   0,   5,  10,  10,   5,   0, -10,
+            -10,   5,   5,  10,  10,   5,   5, -10,
+            -10,   0,  10,  10,  10,  10,   0, -10,
+            -10,  10,  10,  10,  10,  10,  10, -10,
+            -10,   5,   0,   0,   0,   0,   5, -10,
+            -20, -10, -10, -10, -10, -10, -10, -20
+    };
+
+    private static final int[] ROOK_TABLE = {
+             0,   0,   0,   0,   0,   0,   0,   0,
+             5,  10,  10,  10,  10,  10,  10,   5,
+            -5,   0,   0,   0,   0,   0,   0,  -5,
+            -5,   0,   0,   0,   0,   0,   0,  -5,
+            -5,   0,   0,   0,   0,   0,   0,  -5,
+            -5,   0,   0,   0,   0,   0,   0,  -5,
+            -5,   0,   0,   0,   0,   0,   0,  -5,
+             0,   0,   0,   5,   5,   0,   0,   0
+    };
+
+    private static final int[] QUEEN_TABLE = {
+            -20, -10, -10,  -5,  -5, -10, -10, -20,
+            -10,   0,   0,   0,   0,   0,   0, -10,
+            -10,   0,   5,   5,   5,   5,   0, -10,
+             -5,   0,   5,   5,   5,   5,   0,  -5,
+              0,   0,   5,   5,   5,   5,   0,  -5,
+            -10,   5,   5,   5,   5,   5,   0, -10,
+            -10,   0,   5,   0,   0,   0,   0, -10,
+            -20, -10, -10,  -5,  -5, -10, -10, -20
+    };
+
+    private static final int[] KING_MIDDLE_TABLE = {
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -20, -30, -30, -40, -40, -30, -30, -20,
+            -10, -20, -20, -20, -20, -20, -20, -10,
+             20,  20,   0,   0,   0,   0,  20,  20,
+             20,  30,  10,   0,   0,  10,  30,  20
+    };
+
+    private static final int[] KING_END_TABLE = {
+            -50, -40, -30, -20, -20, -30, -40, -50,
+            -30, -20, -10,   0,   0, -10, -20, -30,
+            -30, -10,  20,  30,  30,  20, -10, -30,
+            -30, -10,  30,  40,  40,  30, -10, -30,
+            -30, -10,  30,  40,  40,  30, -10, -30,
+            -30, -10,  20,  30,  30,  20, -10, -30,
+            -30, -30,   0,   0,   0,   0, -30, -30,
+            -50, -30, -30, -30, -30, -30, -30, -50
+    };
+
+    private static final int[][] TABLES = {
+            PAWN_TABLE, KNIGHT_TABLE, BISHOP_TABLE, ROOK_TABLE, QUEEN_TABLE
+    };
+
+    // Endgame once each side has at most a rook's worth of pieces besides pawns
+    private static final int ENDGAME_MATERIAL = 2 * VALUE[ROOK];
+
+    private Evaluation() {
+    }
+
+    public static int evaluate(Position pos) {
+        int score = 0;
+        int material = 0;
+
+        for (int type = PAWN; type <= QUEEN; type++) {
+            int[] table = TABLES[type];
+
+            for (long b = pos.pieces(Piece.of(WHITE, type)); b != 0; b &= b - 1) {
+                int sq = Long.numberOfTrailingZeros(b);
+                score += VALUE[type] + table[sq ^ 56];
+                if (type != PAWN) material += VALUE[type];
+            }
+            for (long b = pos.pieces(Piece.of(BLACK, type)); b != 0; b &= b - 1) {
+                int sq = Long.numberOfTrailingZeros(b);
+                score -= VALUE[type] + table[sq];
+                if (type != PAWN) material += VALUE[type];
+            }
+        }
+
+        int[] king = material <= ENDGAME_MATERIAL ? KING_END_TABLE : KING_MIDDLE_TABLE;
+        score += king[pos.kingSquare(WHITE) ^ 56];
+        score -= king[pos.kingSquare(BLACK)];
+
+        return pos.isWhiteToMove() ? score : -score;
+    }
+}
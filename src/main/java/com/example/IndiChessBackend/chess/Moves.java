@@ -0,0 +1,94 @@
+package com.example.IndiChessBackend.chess;
+
+// 16-bit move encoding: from (6 bits) | to (6 bits) << 6 | flag (4 bits) << 12
+public final class Moves {
+
+    public static final int NONE = 0;
+
+    // =========================
+    // FLAGS
+    // =========================
+    public static final int QUIET = 0;
+    public static final int DOUBLE_PUSH = 1;
+    public static final int KING_CASTLE = 2;
+    public static final int QUEEN_CASTLE = 3;
+    public static final int CAPTURE = 4;
+    public static final int EP_CAPTURE = 5;
+    public static final int PROMOTION = 8;          // + (promotion type - KNIGHT)
+    public static final int PROMOTION_CAPTURE = 12; // + (promotion type - KNIGHT)
+
+    private Moves() {
+    }
+
+    public static int of(int from, int to, int flag) {
+        return from | (to << 6) | (flag << 12);
+    }
+
+    public static int promotion(int from, int to, int type, boolean capture) {
+        int base = capture ? PROMOTION_CAPTURE : PROMOTION;
+        return of(from, to, base + (type - Piece.KNIGHT));
+    }
+
+    public static int from(int move) {
+        return move & 0x3F;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & 0x3F;
+    }
+
+    public static int flag(int move) {
+        return (move >>> 12) & 0xF;
+    }
+
+    public static boolean isCapture(int move) {
+        return (flag(move) & CAPTURE) != 0;
+    }
+
+    public static boolean isPromotion(int move) {
+        return (flag(move) & PROMOTION) != 0;
+    }
+
+    public static boolean isCastle(int move) {
+        int flag = flag(move);
+        return flag == KING_CASTLE || flag == QUEEN_CASTLE;
+    }
+
+    public static int promotionType(int move) {
+        return Piece.KNIGHT + (flag(move) & 3);
+    }
+
+    // =========================
+    // SQUARES
+    // =========================
+    // Legacy board rows start at rank 8 (row 0) and go down to rank 1 (row 7)
+    public static int square(int row, int col) {
+        return (7 - row) * 8 + col;
+    }
+
+    public static int row(int sq) {
+        return 7 - (sq >>> 3);
+    }
+
+    public static int col(int sq) {
+        return sq & 7;
+    }
+
+    public static String squareName(int sq) {
+        return "" + (char) ('a' + (sq & 7)) + (char) ('1' + (sq >>> 3));
+    }
+
+    // =========================
+    // UCI
+    // =========================
+    public static String toUci(int move) {
+        if (move == NONE) {
+            return "0000";
+        }
+        String uci = squareName(from(move)) + squareName(to(move));
+        if (isPromotion(move)) {
+            uci += Character.toLowerCase(Piece.toChar(promotionType(move)));
+        }
+        return uci;
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.IndiChessBackend.chess;
+
+public final class Piece {
+
+    // =========================
+    // COLORS
+    // =========================
+    public static final int WHITE = 0;
+    public static final int BLACK = 1;
+
+    // =========================
+    // PIECE TYPES
+    // =========================
+    public static final int PAWN = 0;
+    public static final int KNIGHT = 1;
+    public static final int BISHOP = 2;
+    public static final int ROOK = 3;
+    public static final int QUEEN = 4;
+    public static final int KING = 5;
+
+    // Piece code = color * 6 + type (0..11), NONE for empty squares
+    public static final int NONE = -1;
+
+    private static final String CHARS = "PNBRQKpnbrqk";
+
+    private Piece() {
+    }
+
+    public static int of(int color, int type) {
+        return color * 6 + type;
+    }
+
+    public static int type(int piece) {
+        return piece % 6;
+    }
+
+    public static int color(int piece) {
+        return piece / 6;
+    }
+
+    // FEN letter: uppercase = white, lowercase = black
+    public static char toChar(int piece) {
+        return CHARS.charAt(piece);
+    }
+
+    public static int fromChar(char c) {
+        return CHARS.indexOf(c);
+    }
+
+    // "q", "Q", "queen" -> QUEEN, anything else -> NONE
+    public static int typeFromName(String name) {
+        if (name == null || name.isEmpty()) {
+            return NONE;
+        }
+        // "knight" starts with k but means N
+        if (name.length() > 1 && name.regionMatches(true, 0, "kn", 0, 2)) {
+            return KNIGHT;
+        }
+        int idx = CHARS.indexOf(Character.toUpperCase(name.charAt(0)));
+        return idx < 0 ? NONE : idx;
+    }
+}
@@ -0,0 +1,846 @@
+package com.example.IndiChessBackend.chess;
+
+import java.util.Arrays;
+
+import static com.example.IndiChessBackend.chess.Bitboards.*;
+import static com.example.IndiChessBackend.chess.Piece.*;
+
+// Mutable bitboard position with make / unmake. Not thread-safe.
+public final class Position {
+
+    public static final String START_FEN =
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    public static final int MAX_MOVES = 256;
+
+    // =========================
+    // CASTLING RIGHTS
+    // =========================
+    public static final int WHITE_KINGSIDE = 1;
+    public static final int WHITE_QUEENSIDE = 2;
+    public static final int BLACK_KINGSIDE = 4;
+    public static final int BLACK_QUEENSIDE = 8;
+
+    // castling &= CASTLING_MASK[from] & CASTLING_MASK[to]
+    private static final int[] CASTLING_MASK = new int[64];
+
+    static {
+        Arrays.fill(CASTLING_MASK, 15);
+        CASTLING_MASK[0] = 15 & ~WHITE_QUEENSIDE;
+        CASTLING_MASK[4] = 15 & ~(WHITE_KINGSIDE | WHITE_QUEENSIDE);
+        CASTLING_MASK[7] = 15 & ~WHITE_KINGSIDE;
+        CASTLING_MASK[56] = 15 & ~BLACK_QUEENSIDE;
+        CASTLING_MASK[60] = 15 & ~(BLACK_KINGSIDE | BLACK_QUEENSIDE);
+        CASTLING_MASK[63] = 15 & ~BLACK_KINGSIDE;
+    }
+
+    // =========================
+    // BOARD STATE
+    // =========================
+    private final long[] pieces = new long[12];
+    private final long[] occupancy = new long[2];
+    private final byte[] board = new byte[64];
+
+    private int sideToMove = WHITE;
+    private int castling;
+    private int epSquare = -1;
+    private int halfmoveClock;
+    private int fullmoveNumber = 1;
+    private long hash;
+
+    // =========================
+    // HISTORY (one entry per ply)
+    // =========================
+    // undo = captured + 1 | castling << 4 | (ep + 1) << 8 | halfmove << 15
+    private int[] moveHistory = new int[32];
+    private int[] undoHistory = new int[32];
+    // Zobrist key of the position *before* each ply
+    private long[] hashHistory = new long[32];
+    private int ply;
+
+    // =========================
+    // FEN CACHE
+    // =========================
+    // Per-rank placement strings, rebuilt only for ranks a move touched
+    private final String[] rankFen = new String[8];
+    private int dirtyRanks = 0xFF;
+    // Full FEN, valid until the next make / unmake
+    private String fen;
+
+    private Position() {
+        Arrays.fill(board, (byte) NONE);
+    }
+
+    public static Position startPosition() {
+        return fromFen(START_FEN);
+    }
+
+    // Independent copy with full history (repetition still works), e.g. for a
+    // search that runs outside the game lock
+    public Position copy() {
+        Position copy = new Position();
+        System.arraycopy(pieces, 0, copy.pieces, 0, pieces.length);
+        System.arraycopy(occupancy, 0, copy.occupancy, 0, occupancy.length);
+        System.arraycopy(board, 0, copy.board, 0, board.length);
+        copy.sideToMove = sideToMove;
+        copy.castling = castling;
+        copy.epSquare = epSquare;
+        copy.halfmoveClock = halfmoveClock;
+        copy.fullmoveNumber = fullmoveNumber;
+        copy.hash = hash;
+        copy.moveHistory = moveHistory.clone();
+        copy.undoHistory = undoHistory.clone();
+        copy.hashHistory = hashHistory.clone();
+        copy.ply = ply;
+        System.arraycopy(rankFen, 0, copy.rankFen, 0, rankFen.length);
+        copy.dirtyRanks = dirtyRanks;
+        copy.fen = fen;
+        return copy;
+    }
+
+    // =========================
+    // FEN PARSING
+    // =========================
+    public static Position fromFen(String fen) {
+        if (fen == null || fen.isBlank()) {
+            throw new IllegalArgumentException("FEN cannot be empty");
+        }
+
+        String[] parts = fen.trim().split("\\s+");
+        Position pos = new Position();
+
+        int rank = 7;
+        int file = 0;
+        for (char c : parts[0].toCharArray()) {
+            if (c == '/') {
+                rank--;
+                file = 0;
+            } else if (c >= '1' && c <= '8') {
+                file += c - '0';
+            } else {
+                int piece = Piece.fromChar(c);
+                if (piece < 0 || rank < 0 || file > 7) {
+                    throw new IllegalArgumentException("Invalid FEN board: " + fen);
+                }
+                pos.putPiece(piece, rank * 8 + file);
+                file++;
+            }
+        }
+
+        if (Long.bitCount(pos.pieces[Piece.of(WHITE, KING)]) != 1 ||
+                Long.bitCount(pos.pieces[Piece.of(BLACK, KING)]) != 1) {
+            throw new IllegalArgumentException("FEN must have exactly one king per side: " + fen);
+        }
+
+        pos.sideToMove = parts.length > 1 && parts[1].equals("b") ? BLACK : WHITE;
+
+        if (parts.length > 2) {
+            for (char c : parts[2].toCharArray()) {
+                switch (c) {
+                    case 'K' -> pos.castling |= WHITE_KINGSIDE;
+                    case 'Q' -> pos.castling |= WHITE_QUEENSIDE;
+                    case 'k' -> pos.castling |= BLACK_KINGSIDE;
+                    case 'q' -> pos.castling |= BLACK_QUEENSIDE;
+                    default -> { }
+                }
+            }
+        }
+
+        if (parts.length > 3 && parts[3].length() == 2) {
+            int epFile = parts[3].charAt(0) - 'a';
+            int epRank = parts[3].charAt(1) - '1';
+            if (epFile >= 0 && epFile < 8 && (epRank == 2 || epRank == 5)) {
+                pos.epSquare = epRank * 8 + epFile;
+            }
+        }
+
+        if (parts.length > 4) {
+            pos.halfmoveClock = Integer.parseInt(parts[4]);
+        }
+        if (parts.length > 5) {
+            pos.fullmoveNumber = Math.max(1, Integer.parseInt(parts[5]));
+        }
+
+        pos.hash ^= Zobrist.CASTLING[pos.castling];
+        if (pos.epSquare >= 0) {
+            pos.hash ^= Zobrist.EP_FILE[pos.epSquare & 7];
+        }
+        if (pos.sideToMove == BLACK) {
+            pos.hash ^= Zobrist.SIDE;
+        }
+
+        return pos;
+    }
+
+    // =========================
+    // ACCESSORS
+    // =========================
+    public int pieceAt(int sq) {
+        return board[sq];
+    }
+
+    public int sideToMove() {
+        return sideToMove;
+    }
+
+    public boolean isWhiteToMove() {
+        return sideToMove == WHITE;
+    }
+
+    public int castlingRights() {
+        return castling;
+    }
+
+    public int epSquare() {
+        return epSquare;
+    }
+
+    public int halfmoveClock() {
+        return halfmoveClock;
+    }
+
+    public int fullmoveNumber() {
+        return fullmoveNumber;
+    }
+
+    public int ply() {
+        return ply;
+    }
+
+    // Zobrist key: equal for positions with the same pieces, side, castling and en passant
+    public long hash() {
+        return hash;
+    }
+
+    public int moveAt(int index) {
+        return moveHistory[index];
+    }
+
+    public long pieces(int piece) {
+        return pieces[piece];
+    }
+
+    public long occupancy(int color) {
+        return occupancy[color];
+    }
+
+    public long occupied() {
+        return occupancy[WHITE] | occupancy[BLACK];
+    }
+
+    public int kingSquare(int color) {
+        return Long.numberOfTrailingZeros(pieces[Piece.of(color, KING)]);
+    }
+
+    public boolean inCheck() {
+        return isSquareAttacked(kingSquare(sideToMove), sideToMove ^ 1);
+    }
+
+    // =========================
+    // GAME END
+    // =========================
+    // null while the game goes on. Mate is checked first: a mating move
+    // stands even if it also reaches the 50-move limit. A threefold
+    // repetition is left to a player's claim; the fifth occurrence ends it.
+    public Termination termination() {
+        if (!hasLegalMove()) {
+            return inCheck() ? Termination.CHECKMATE : Termination.STALEMATE;
+        }
+        if (isInsufficientMaterial()) {
+            return Termination.INSUFFICIENT_MATERIAL;
+        }
+        if (halfmoveClock >= 100) {
+            return Termination.FIFTY_MOVE_RULE;
+        }
+        if (isFivefoldRepetition()) {
+            return Termination.FIVEFOLD_REPETITION;
+        }
+        return null;
+    }
+
+    // K vs K, K+minor vs K, or only bishops all on one square color
+    public boolean isInsufficientMaterial() {
+        long heavy = pieces[Piece.of(WHITE, PAWN)] | pieces[Piece.of(BLACK, PAWN)] |
+                pieces[Piece.of(WHITE, ROOK)] | pieces[Piece.of(BLACK, ROOK)] |
+                pieces[Piece.of(WHITE, QUEEN)] | pieces[Piece.of(BLACK, QUEEN)];
+        if (heavy != 0) {
+            return false;
+        }
+
+        long knights = pieces[Piece.of(WHITE, KNIGHT)] | pieces[Piece.of(BLACK, KNIGHT)];
+        long bishops = pieces[Piece.of(WHITE, BISHOP)] | pieces[Piece.of(BLACK, BISHOP)];
+        if (Long.bitCount(knights | bishops) <= 1) {
+            return true;
+        }
+
+        long darkSquares = 0xAA55AA55AA55AA55L;
+        return knights == 0 &&
+                ((bishops & darkSquares) == 0 || (bishops & ~darkSquares) == 0);
+    }
+
+    // =========================
+    // FEN OUTPUT
+    // =========================
+    public String toFen() {
+        String cached = fen;
+        if (cached != null) {
+            return cached;
+        }
+
+        for (int dirty = dirtyRanks; dirty != 0; dirty &= dirty - 1) {
+            int rank = Integer.numberOfTrailingZeros(dirty);
+            rankFen[rank] = buildRankFen(rank);
+        }
+        dirtyRanks = 0;
+
+        StringBuilder sb = new StringBuilder(90);
+        for (int rank = 7; rank >= 0; rank--) {
+            sb.append(rankFen[rank]);
+            if (rank > 0) sb.append('/');
+        }
+
+        sb.append(sideToMove == WHITE ? " w " : " b ");
+
+        if (castling == 0) {
+            sb.append('-');
+        } else {
+            if ((castling & WHITE_KINGSIDE) != 0) sb.append('K');
+            if ((castling & WHITE_QUEENSIDE) != 0) sb.append('Q');
+            if ((castling & BLACK_KINGSIDE) != 0) sb.append('k');
+            if ((castling & BLACK_QUEENSIDE) != 0) sb.append('q');
+        }
+
+        sb.append(' ').append(epSquare >= 0 ? Moves.squareName(epSquare) : "-");
+        sb.append(' ').append(halfmoveClock);
+        sb.append(' ').append(fullmoveNumber);
+
+        fen = sb.toString();
+        return fen;
+    }
+
+    private String buildRankFen(int rank) {
+        StringBuilder sb = new StringBuilder(8);
+        int empty = 0;
+        for (int sq = rank * 8; sq < rank * 8 + 8; sq++) {
+            int piece = board[sq];
+            if (piece == NONE) {
+                empty++;
+            } else {
+                if (empty > 0) {
+                    sb.append(empty);
+                    empty = 0;
+                }
+                sb.append(Piece.toChar(piece));
+            }
+        }
+        if (empty > 0) sb.append(empty);
+        return sb.toString();
+    }
+
+    // =========================
+    // REPETITION
+    // =========================
+    // Earlier occurrences of the current position. Nothing before the last
+    // capture or pawn move can repeat, so the scan is bounded by the halfmove
+    // clock and only looks at same-side-to-move plies.
+    public int repetitionCount() {
+        int count = 0;
+        int limit = Math.max(0, ply - halfmoveClock);
+        for (int i = ply - 2; i >= limit; i -= 2) {
+            if (hashHistory[i] == hash) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public boolean isThreefoldRepetition() {
+        return repetitionCount() >= 2;
+    }
+
+    public boolean isFivefoldRepetition() {
+        return repetitionCount() >= 4;
+    }
+
+    // Piece code per square, a1..h8, Piece.NONE for empty
+    public byte[] squares() {
+        return board.clone();
+    }
+
+    public String[][] toBoardArray() {
+        return toBoardArray(board);
+    }
+
+    // Row 0 = rank 8, "" for empty squares (legacy client format)
+    public static String[][] toBoardArray(byte[] squares) {
+        String[][] rows = new String[8][8];
+        for (int sq = 0; sq < 64; sq++) {
+            int piece = squares[sq];
+            rows[Moves.row(sq)][Moves.col(sq)] =
+                    piece == NONE ? "" : String.valueOf(Piece.toChar(piece));
+        }
+        return rows;
+    }
+
+    // =========================
+    // ATTACKS
+    // =========================
+    public boolean isSquareAttacked(int sq, int byColor) {
+        long occ = occupancy[WHITE] | occupancy[BLACK];
+        int base = byColor * 6;
+
+        if ((PAWN_ATTACKS[byColor ^ 1][sq] & pieces[base + PAWN]) != 0) return true;
+        if ((KNIGHT_ATTACKS[sq] & pieces[base + KNIGHT]) != 0) return true;
+        if ((KING_ATTACKS[sq] & pieces[base + KING]) != 0) return true;
+
+        long queens = pieces[base + QUEEN];
+        if ((bishopAttacks(sq, occ) & (pieces[base + BISHOP] | queens)) != 0) return true;
+        return (rookAttacks(sq, occ) & (pieces[base + ROOK] | queens)) != 0;
+    }
+
+    // =========================
+    // MOVE LOOKUP (client move -> legal encoded move)
+    // =========================
+    // Returns Moves.NONE if the move is not legal in this position.
+    // promotionType is ignored unless the move is a promotion; NONE defaults to queen.
+    public int findLegalMove(int from, int to, int promotionType) {
+        if (from < 0 || from > 63 || to < 0 || to > 63 || from == to) {
+            return Moves.NONE;
+        }
+
+        int piece = board[from];
+        if (piece == NONE || Piece.color(piece) != sideToMove) {
+            return Moves.NONE;
+        }
+
+        int target = board[to];
+        if (target != NONE && Piece.color(target) == sideToMove) {
+            return Moves.NONE;
+        }
+
+        boolean capture = target != NONE;
+        long toBit = bit(to);
+        long occ = occupied();
+        int move = Moves.NONE;
+
+        switch (Piece.type(piece)) {
+            case PAWN -> move = findPawnMove(from, to, promotionType, capture);
+            case KNIGHT -> {
+                if ((KNIGHT_ATTACKS[from] & toBit) != 0) move = quietOrCapture(from, to, capture);
+            }
+            case BISHOP -> {
+                if ((bishopAttacks(from, occ) & toBit) != 0) move = quietOrCapture(from, to, capture);
+            }
+            case ROOK -> {
+                if ((rookAttacks(from, occ) & toBit) != 0) move = quietOrCapture(from, to, capture);
+            }
+            case QUEEN -> {
+                if ((queenAttacks(from, occ) & toBit) != 0) move = quietOrCapture(from, to, capture);
+            }
+            case KING -> {
+                if ((KING_ATTACKS[from] & toBit) != 0) {
+                    move = quietOrCapture(from, to, capture);
+                } else if (!capture) {
+                    move = findCastle(from, to);
+                }
+            }
+            default -> { }
+        }
+
+        if (move == Moves.NONE || !isLegal(move)) {
+            return Moves.NONE;
+        }
+        return move;
+    }
+
+    // "e2e4", "e7e8q"
+    public int findLegalMove(String uci) {
+        if (uci == null || uci.length() < 4) {
+            return Moves.NONE;
+        }
+        int from = parseSquare(uci, 0);
+        int to = parseSquare(uci, 2);
+        if (from < 0 || to < 0) {
+            return Moves.NONE;
+        }
+        int promo = uci.length() > 4 ? Piece.typeFromName(uci.substring(4)) : NONE;
+        return findLegalMove(from, to, promo);
+    }
+
+    private static int parseSquare(String s, int offset) {
+        int file = s.charAt(offset) - 'a';
+        int rank = s.charAt(offset + 1) - '1';
+        if (file < 0 || file > 7 || rank < 0 || rank > 7) {
+            return -1;
+        }
+        return rank * 8 + file;
+    }
+
+    private static int quietOrCapture(int from, int to, boolean capture) {
+        return Moves.of(from, to, capture ? Moves.CAPTURE : Moves.QUIET);
+    }
+
+    private int findPawnMove(int from, int to, int promotionType, boolean capture) {
+        int us = sideToMove;
+        int dir = us == WHITE ? 8 : -8;
+        int startRank = us == WHITE ? 1 : 6;
+        int promoRank = us == WHITE ? 7 : 0;
+
+        boolean promotes = (to >>> 3) == promoRank;
+        if (promotes && (promotionType < KNIGHT || promotionType > QUEEN)) {
+            promotionType = QUEEN;
+        }
+
+        if (to == from + dir && !capture) {
+            return promotes
+                    ? Moves.promotion(from, to, promotionType, false)
+                    : Moves.of(from, to, Moves.QUIET);
+        }
+
+        if (to == from + 2 * dir && !capture &&
+                (from >>> 3) == startRank && board[from + dir] == NONE) {
+            return Moves.of(from, to, Moves.DOUBLE_PUSH);
+        }
+
+        if ((PAWN_ATTACKS[us][from] & bit(to)) != 0) {
+            if (capture) {
+                return promotes
+                        ? Moves.promotion(from, to, promotionType, true)
+                        : Moves.of(from, to, Moves.CAPTURE);
+            }
+            if (to == epSquare) {
+                return Moves.of(from, to, Moves.EP_CAPTURE);
+            }
+        }
+
+        return Moves.NONE;
+    }
+
+    private int findCastle(int from, int to) {
+        int us = sideToMove;
+        int kingHome = us == WHITE ? 4 : 60;
+        if (from != kingHome) {
+            return Moves.NONE;
+        }
+
+        int kingside = us == WHITE ? WHITE_KINGSIDE : BLACK_KINGSIDE;
+        int queenside = us == WHITE ? WHITE_QUEENSIDE : BLACK_QUEENSIDE;
+        long occ = occupied();
+        int them = us ^ 1;
+
+        if (to == from + 2 && (castling & kingside) != 0 &&
+                board[from + 3] == Piece.of(us, ROOK) &&
+                (occ & (bit(from + 1) | bit(from + 2))) == 0 &&
+                !isSquareAttacked(from, them) &&
+                !isSquareAttacked(from + 1, them)) {
+            return Moves.of(from, to, Moves.KING_CASTLE);
+        }
+
+        if (to == from - 2 && (castling & queenside) != 0 &&
+                board[from - 4] == Piece.of(us, ROOK) &&
+                (occ & (bit(from - 1) | bit(from - 2) | bit(from - 3))) == 0 &&
+                !isSquareAttacked(from, them) &&
+                !isSquareAttacked(from - 1, them)) {
+            return Moves.of(from, to, Moves.QUEEN_CASTLE);
+        }
+
+        return Moves.NONE;
+    }
+
+    // Pseudo-legal move -> does it leave our own king safe?
+    public boolean isLegal(int move) {
+        int us = sideToMove;
+        makeMove(move);
+        boolean legal = !isSquareAttacked(kingSquare(us), us ^ 1);
+        unmakeMove();
+        return legal;
+    }
+
+    // =========================
+    // MOVE GENERATION
+    // =========================
+    public int generateLegalMoves(int[] out) {
+        int count = generatePseudoLegalMoves(out);
+        int legal = 0;
+        for (int i = 0; i < count; i++) {
+            if (isLegal(out[i])) {
+                out[legal++] = out[i];
+            }
+        }
+        return legal;
+    }
+
+    public boolean hasLegalMove() {
+        int[] buf = new int[MAX_MOVES];
+        int count = generatePseudoLegalMoves(buf);
+        for (int i = 0; i < count; i++) {
+            if (isLegal(buf[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int generatePseudoLegalMoves(int[] out) {
+        int us = sideToMove;
+        int them = us ^ 1;
+        long own = occupancy[us];
+        long enemy = occupancy[them];
+        long occ = own | enemy;
+        int n = 0;
+
+        n = generatePawnMoves(out, n, us, enemy, occ);
+
+        int base = us * 6;
+        for (long b = pieces[base + KNIGHT]; b != 0; b &= b - 1) {
+            int from = Long.numberOfTrailingZeros(b);
+            n = addTargets(out, n, from, KNIGHT_ATTACKS[from] & ~own, enemy);
+        }
+        for (long b = pieces[base + BISHOP]; b != 0; b &= b - 1) {
+            int from = Long.numberOfTrailingZeros(b);
+            n = addTargets(out, n, from, bishopAttacks(from, occ) & ~own, enemy);
+        }
+        for (long b = pieces[base + ROOK]; b != 0; b &= b - 1) {
+            int from = Long.numberOfTrailingZeros(b);
+            n = addTargets(out, n, from, rookAttacks(from, occ) & ~own, enemy);
+        }
+        for (long b = pieces[base + QUEEN]; b != 0; b &= b - 1) {
+            int from = Long.numberOfTrailingZeros(b);
+            n = addTargets(out, n, from, queenAttacks(from, occ) & ~own, enemy);
+        }
+
+        int king = kingSquare(us);
+        n = addTargets(out, n, king, KING_ATTACKS[king] & ~own, enemy);
+
+        int castle = findCastle(king, king + 2);
+        if (castle != Moves.NONE) out[n++] = castle;
+        castle = findCastle(king, king - 2);
+        if (castle != Moves.NONE) out[n++] = castle;
+
+        return n;
+    }
+
+    private static int addTargets(int[] out, int n, int from, long targets, long enemy) {
+        for (; targets != 0; targets &= targets - 1) {
+            int to = Long.numberOfTrailingZeros(targets);
+            out[n++] = Moves.of(from, to, (enemy & bit(to)) != 0 ? Moves.CAPTURE : Moves.QUIET);
+        }
+        return n;
+    }
+
+    private int generatePawnMoves(int[] out, int n, int us, long enemy, long occ) {
+        long pawns = pieces[us * 6 + PAWN];
+        long empty = ~occ;
+        long promoRank = us == WHITE ? RANK_8 : RANK_1;
+        int dir = us == WHITE ? 8 : -8;
+
+        long single = us == WHITE ? (pawns << 8) & empty : (pawns >>> 8) & empty;
+        long doubleRank = us == WHITE ? 0x00000000FF000000L : 0x000000FF00000000L;
+        long dbl = us == WHITE ? (single << 8) & empty & doubleRank : (single >>> 8) & empty & doubleRank;
+
+        for (long b = single & ~promoRank; b != 0; b &= b - 1) {
+            int to = Long.numberOfTrailingZeros(b);
+            out[n++] = Moves.of(to - dir, to, Moves.QUIET);
+        }
+        for (long b = single & promoRank; b != 0; b &= b - 1) {
+            int to = Long.numberOfTrailingZeros(b);
+            n = addPromotions(out, n, to - dir, to, false);
+        }
+        for (long b = dbl; b != 0; b &= b - 1) {
+            int to = Long.numberOfTrailingZeros(b);
+            out[n++] = Moves.of(to - 2 * dir, to, Moves.DOUBLE_PUSH);
+        }
+
+        for (long b = pawns; b != 0; b &= b - 1) {
+            int from = Long.numberOfTrailingZeros(b);
+            long attacks = PAWN_ATTACKS[us][from];
+
+            for (long t = attacks & enemy; t != 0; t &= t - 1) {
+                int to = Long.numberOfTrailingZeros(t);
+                if ((bit(to) & promoRank) != 0) {
+                    n = addPromotions(out, n, from, to, true);
+                } else {
+                    out[n++] = Moves.of(from, to, Moves.CAPTURE);
+                }
+            }
+
+            if (epSquare >= 0 && (attacks & bit(epSquare)) != 0) {
+                out[n++] = Moves.of(from, epSquare, Moves.EP_CAPTURE);
+            }
+        }
+
+        return n;
+    }
+
+    private static int addPromotions(int[] out, int n, int from, int to, boolean capture) {
+        for (int type = QUEEN; type >= KNIGHT; type--) {
+            out[n++] = Moves.promotion(from, to, type, capture);
+        }
+        return n;
+    }
+
+    // =========================
+    // MAKE / UNMAKE
+    // =========================
+    public void makeMove(int move) {
+        int from = Moves.from(move);
+        int to = Moves.to(move);
+        int flag = Moves.flag(move);
+        int us = sideToMove;
+        int piece = board[from];
+        int captured = NONE;
+
+        if (ply == moveHistory.length) {
+            moveHistory = Arrays.copyOf(moveHistory, ply * 2);
+            undoHistory = Arrays.copyOf(undoHistory, ply * 2);
+            hashHistory = Arrays.copyOf(hashHistory, ply * 2);
+        }
+        moveHistory[ply] = move;
+        undoHistory[ply] = (board[to] + 1) | (castling << 4) | ((epSquare + 1) << 8) | (halfmoveClock << 15);
+        hashHistory[ply] = hash;
+        ply++;
+        fen = null;
+
+        halfmoveClock++;
+        if (epSquare >= 0) {
+            hash ^= Zobrist.EP_FILE[epSquare & 7];
+            epSquare = -1;
+        }
+
+        if (flag == Moves.EP_CAPTURE) {
+            int capSq = us == WHITE ? to - 8 : to + 8;
+            captured = board[capSq];
+            removePiece(captured, capSq);
+        } else if ((flag & Moves.CAPTURE) != 0) {
+            captured = board[to];
+            removePiece(captured, to);
+        }
+
+        removePiece(piece, from);
+        if ((flag & Moves.PROMOTION) != 0) {
+            putPiece(Piece.of(us, Moves.promotionType(move)), to);
+        } else {
+            putPiece(piece, to);
+        }
+
+        if (flag == Moves.KING_CASTLE) {
+            int rook = board[to + 1];
+            removePiece(rook, to + 1);
+            putPiece(rook, to - 1);
+        } else if (flag == Moves.QUEEN_CASTLE) {
+            int rook = board[to - 2];
+            removePiece(rook, to - 2);
+            putPiece(rook, to + 1);
+        } else if (flag == Moves.DOUBLE_PUSH) {
+            // Only record en passant when an enemy pawn can actually take
+            int ep = (from + to) >>> 1;
+            if ((PAWN_ATTACKS[us][ep] & pieces[Piece.of(us ^ 1, PAWN)]) != 0) {
+                epSquare = ep;
+                hash ^= Zobrist.EP_FILE[ep & 7];
+            }
+        }
+
+        if (Piece.type(piece) == PAWN || captured != NONE) {
+            halfmoveClock = 0;
+        }
+
+        int rights = castling & CASTLING_MASK[from] & CASTLING_MASK[to];
+        if (rights != castling) {
+            hash ^= Zobrist.CASTLING[castling] ^ Zobrist.CASTLING[rights];
+            castling = rights;
+        }
+
+        if (us == BLACK) {
+            fullmoveNumber++;
+        }
+        sideToMove = us ^ 1;
+        hash ^= Zobrist.SIDE;
+    }
+
+    public void unmakeMove() {
+        ply--;
+        fen = null;
+        int move = moveHistory[ply];
+        int undo = undoHistory[ply];
+
+        int from = Moves.from(move);
+        int to = Moves.to(move);
+        int flag = Moves.flag(move);
+
+        sideToMove ^= 1;
+        int us = sideToMove;
+        if (us == BLACK) {
+            fullmoveNumber--;
+        }
+
+        castling = (undo >>> 4) & 0xF;
+        epSquare = ((undo >>> 8) & 0x7F) - 1;
+        halfmoveClock = undo >>> 15;
+
+        if (flag == Moves.KING_CASTLE) {
+            int rook = board[to - 1];
+            removePiece(rook, to - 1);
+            putPiece(rook, to + 1);
+        } else if (flag == Moves.QUEEN_CASTLE) {
+            int rook = board[to + 1];
+            removePiece(rook, to + 1);
+            putPiece(rook, to - 2);
+        }
+
+        int moved = board[to];
+        removePiece(moved, to);
+        putPiece((flag & Moves.PROMOTION) != 0 ? Piece.of(us, PAWN) : moved, from);
+
+        if (flag == Moves.EP_CAPTURE) {
+            putPiece(Piece.of(us ^ 1, PAWN), us == WHITE ? to - 8 : to + 8);
+        } else {
+            int captured = (undo & 0xF) - 1;
+            if (captured != NONE) {
+                putPiece(captured, to);
+            }
+        }
+
+        hash = hashHistory[ply];
+    }
+
+    private void putPiece(int piece, int sq) {
+        long b = bit(sq);
+        pieces[piece] |= b;
+        occupancy[Piece.color(piece)] |= b;
+        board[sq] = (byte) piece;
+        hash ^= Zobrist.PIECE_SQUARE[piece][sq];
+        dirtyRanks |= 1 << (sq >>> 3);
+    }
+
+    private void removePiece(int piece, int sq) {
+        long b = bit(sq);
+        pieces[piece] &= ~b;
+        occupancy[Piece.color(piece)] &= ~b;
+        board[sq] = (byte) NONE;
+        hash ^= Zobrist.PIECE_SQUARE[piece][sq];
+        dirtyRanks |= 1 << (sq >>> 3);
+    }
+
+    // =========================
+    // PERFT
+    // =========================
+    public long perft(int depth) {
+        return perft(depth, new int[depth + 1][MAX_MOVES]);
+    }
+
+    private long perft(int depth, int[][] buffers) {
+        int[] moves = buffers[depth];
+        int count = generateLegalMoves(moves);
+        if (depth <= 1) {
+            return depth == 1 ? count : 1;
+        }
+
+        long nodes = 0;
+        for (int i = 0; i < count; i++) {
+            makeMove(moves[i]);
+            nodes += perft(depth - 1, buffers);
+            unmakeMove();
+        }
+        return nodes;
+    }
+}
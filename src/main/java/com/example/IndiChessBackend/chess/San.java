@@ -0,0 +1,97 @@
+package com.example.IndiChessBackend.chess;
+
+// =========================
+// STANDARD ALGEBRAIC NOTATION
+// =========================
+// SAN of a legal move in the position it is played from: piece letter, the
+// from-file / rank / square when another piece of the same kind could reach
+// the same square, capture, promotion, and + / # from the resulting position.
+// The position is left as it was (the move is made and unmade once).
+public final class San {
+
+    private San() {
+    }
+
+    public static String of(Position position, int move) {
+        StringBuilder san = new StringBuilder(8);
+
+        int from = Moves.from(move);
+        int to = Moves.to(move);
+
+        if (Moves.isCastle(move)) {
+            san.append(Moves.flag(move) == Moves.KING_CASTLE ? "O-O" : "O-O-O");
+        } else {
+            int piece = position.pieceAt(from);
+            int type = Piece.type(piece);
+
+            if (type == Piece.PAWN) {
+                if (Moves.isCapture(move)) {
+                    san.append(file(from));
+                }
+            } else {
+                san.append(Piece.toChar(type));
+                if (type != Piece.KING) {
+                    disambiguate(san, position, move, piece);
+                }
+            }
+
+            if (Moves.isCapture(move)) {
+                san.append('x');
+            }
+            san.append(Moves.squareName(to));
+
+            if (Moves.isPromotion(move)) {
+                san.append('=').append(Piece.toChar(Moves.promotionType(move)));
+            }
+        }
+
+        position.makeMove(move);
+        if (position.inCheck()) {
+            san.append(position.hasLegalMove() ? '+' : '#');
+        }
+        position.unmakeMove();
+
+        return san.toString();
+    }
+
+    // File if that is enough, else rank, else both
+    private static void disambiguate(StringBuilder san, Position position, int move, int piece) {
+        int from = Moves.from(move);
+        int to = Moves.to(move);
+
+        int[] moves = new int[Position.MAX_MOVES];
+        int count = position.generateLegalMoves(moves);
+
+        boolean ambiguous = false;
+        boolean sameFile = false;
+        boolean sameRank = false;
+        for (int i = 0; i < count; i++) {
+            int other = Moves.from(moves[i]);
+            if (Moves.to(moves[i]) != to || other == from || position.pieceAt(other) != piece) {
+                continue;
+            }
+            ambiguous = true;
+            sameFile |= other % 8 == from % 8;
+            sameRank |= other / 8 == from / 8;
+        }
+
+        if (!ambiguous) {
+            return;
+        }
+        if (!sameFile) {
+            san.append(file(from));
+        } else if (!sameRank) {
+            san.append(rank(from));
+        } else {
+            san.append(file(from)).append(rank(from));
+        }
+    }
+
+    private static char file(int sq) {
+        return (char) ('a' + sq % 8);
+    }
+
+    private static char rank(int sq) {
+        return (char) ('1' + sq / 8);
+    }
+}
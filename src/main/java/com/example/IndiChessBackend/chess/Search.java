@@ -0,0 +1,319 @@
+package com.example.IndiChessBackend.chess;
+
+// =========================
+// ALPHA-BETA SEARCH
+// =========================
+// Iterative deepening negamax with a transposition table, quiescence on
+// captures, check extension and move ordering (TT move, MVV-LVA, killers,
+// history). Stops on a node or time budget; the result is always the best
+// move of the last completed iteration. One instance per thread.
+public final class Search {
+
+    public static final int INFINITE = 32000;
+    public static final int MATE = 31000;
+    public static final int MAX_PLY = 64;
+
+    private static final int MATE_BOUND = MATE - MAX_PLY;
+    private static final int CHECK_EVERY = 1023; // nodes between clock reads
+
+    private static final int TT_MOVE_SCORE = 1 << 30;
+    private static final int CAPTURE_SCORE = 1 << 28;
+    private static final int PROMOTION_SCORE = 1 << 27;
+    private static final int KILLER_SCORE = 1 << 26;
+
+    private final TranspositionTable table;
+
+    private final int[][] moves = new int[MAX_PLY + 1][Position.MAX_MOVES];
+    private final int[][] scores = new int[MAX_PLY + 1][Position.MAX_MOVES];
+    private final int[][] killers = new int[MAX_PLY + 1][2];
+    private final int[][] history = new int[12][64];
+
+    private Position position;
+    private long nodes;
+    private long maxNodes;
+    private long deadline; // System.nanoTime()
+    private boolean stopped;
+    private boolean mayStop; // false until depth 1 is complete
+    private int rootBest;
+
+    public record Result(int move, int score, int depth, long nodes) {
+    }
+
+    public Search(TranspositionTable table) {
+        this.table = table;
+    }
+
+    public Result search(Position position, int maxDepth, long maxNodes, long maxMillis) {
+        this.position = position;
+        this.nodes = 0;
+        this.maxNodes = maxNodes;
+        this.deadline = System.nanoTime() + maxMillis * 1_000_000L;
+        this.stopped = false;
+        this.mayStop = false;
+
+        for (int[] k : killers) {
+            k[0] = Moves.NONE;
+            k[1] = Moves.NONE;
+        }
+        for (int[] h : history) {
+            for (int sq = 0; sq < 64; sq++) {
+                h[sq] >>= 2;
+            }
+        }
+
+        int bestMove = Moves.NONE;
+        int bestScore = 0;
+        int completed = 0;
+
+        for (int depth = 1; depth <= Math.min(maxDepth, MAX_PLY - 1); depth++) {
+            int score = negamax(depth, -INFINITE, INFINITE, 0);
+
+            // Depth 1 always finishes, so there is always a move to play
+            if (stopped && depth > 1) {
+                break;
+            }
+
+            bestMove = rootBest;
+            bestScore = score;
+            completed = depth;
+            mayStop = true;
+
+            // A forced mate will not get better with more depth
+            if (Math.abs(score) >= MATE_BOUND || stopped) {
+                break;
+            }
+        }
+
+        return new Result(bestMove, bestScore, completed, nodes);
+    }
+
+    private int negamax(int depth, int alpha, int beta, int ply) {
+
+        if ((++nodes & CHECK_EVERY) == 0) {
+            checkLimits();
+        }
+        if (stopped && ply > 0) {
+            return 0;
+        }
+
+        if (ply > 0 && (position.halfmoveClock() >= 100 || position.repetitionCount() > 0)) {
+            return 0;
+        }
+
+        boolean inCheck = position.inCheck();
+        if (inCheck && ply < MAX_PLY - 1) {
+            depth++;
+        }
+
+        if (depth <= 0 || ply >= MAX_PLY - 1) {
+            return quiescence(alpha, beta, ply);
+        }
+
+        long key = position.hash();
+        long entry = table.probe(key);
+        int ttMove = Moves.NONE;
+
+        if (entry != 0) {
+            ttMove = TranspositionTable.move(entry);
+
+            if (ply > 0 && TranspositionTable.depth(entry) >= depth) {
+                int score = fromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+
+                if (bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER && score >= beta)
+                        || (bound == TranspositionTable.UPPER && score <= alpha)) {
+                    return score;
+                }
+            }
+        }
+
+        int[] list = moves[ply];
+        int count = position.generatePseudoLegalMoves(list);
+        scoreMoves(list, scores[ply], count, ttMove, ply);
+
+        int us = position.sideToMove();
+        int originalAlpha = alpha;
+        int bestScore = -INFINITE;
+        int bestMove = Moves.NONE;
+        int legal = 0;
+
+        for (int i = 0; i < count; i++) {
+            int move = pickNext(list, scores[ply], i, count);
+
+            position.makeMove(move);
+            if (position.isSquareAttacked(position.kingSquare(us), us ^ 1)) {
+                position.unmakeMove();
+                continue;
+            }
+            legal++;
+
+            int score = -negamax(depth - 1, -beta, -alpha, ply + 1);
+            position.unmakeMove();
+
+            if (stopped && ply > 0) {
+                return 0;
+            }
+
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+                if (ply == 0) {
+                    rootBest = move;
+                }
+
+                if (score > alpha) {
+                    alpha = score;
+
+                    if (alpha >= beta) {
+                        if (!Moves.isCapture(move) && !Moves.isPromotion(move)) {
+                            rememberQuiet(move, depth, ply);
+                        }
+                        break;
+                    }
+                }
+            }
+        }
+
+        if (stopped) {
+            return 0; // root of an abandoned iteration
+        }
+        if (legal == 0) {
+            return inCheck ? -MATE + ply : 0;
+        }
+
+        int bound = bestScore >= beta
+                ? TranspositionTable.LOWER
+                : bestScore > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER;
+        table.store(key, bestMove, toTable(bestScore, ply), depth, bound);
+
+        return bestScore;
+    }
+
+    // Captures and promotions only, until the position is quiet
+    private int quiescence(int alpha, int beta, int ply) {
+
+        if ((++nodes & CHECK_EVERY) == 0) {
+            checkLimits();
+        }
+        if (stopped) {
+            return 0;
+        }
+
+        int standPat = Evaluation.evaluate(position);
+        if (standPat >= beta || ply >= MAX_PLY) {
+            return standPat;
+        }
+        if (standPat > alpha) {
+            alpha = standPat;
+        }
+
+        int[] list = moves[ply];
+        int count = position.generatePseudoLegalMoves(list);
+
+        int tactical = 0;
+        for (int i = 0; i < count; i++) {
+            if (Moves.isCapture(list[i]) || Moves.isPromotion(list[i])) {
+                list[tactical++] = list[i];
+            }
+        }
+        scoreMoves(list, scores[ply], tactical, Moves.NONE, ply);
+
+        int us = position.sideToMove();
+
+        for (int i = 0; i < tactical; i++) {
+            int move = pickNext(list, scores[ply], i, tactical);
+
+            position.makeMove(move);
+            if (position.isSquareAttacked(position.kingSquare(us), us ^ 1)) {
+                position.unmakeMove();
+                continue;
+            }
+
+            int score = -quiescence(-beta, -alpha, ply + 1);
+            position.unmakeMove();
+
+            if (score >= beta) {
+                return score;
+            }
+            if (score > alpha) {
+                alpha = score;
+            }
+        }
+
+        return alpha;
+    }
+
+    // =========================
+    // MOVE ORDERING
+    // =========================
+    private void scoreMoves(int[] list, int[] out, int count, int ttMove, int ply) {
+        for (int i = 0; i < count; i++) {
+            int move = list[i];
+
+            if (move == ttMove) {
+                out[i] = TT_MOVE_SCORE;
+            } else if (Moves.isCapture(move)) {
+                // Most valuable victim, least valuable attacker
+                int victim = Moves.flag(move) == Moves.EP_CAPTURE
+                        ? Piece.PAWN
+                        : Piece.type(position.pieceAt(Moves.to(move)));
+                int attacker = Piece.type(position.pieceAt(Moves.from(move)));
+                out[i] = CAPTURE_SCORE + victim * 8 - attacker;
+            } else if (Moves.isPromotion(move)) {
+                out[i] = PROMOTION_SCORE + Moves.promotionType(move);
+            } else if (move == killers[ply][0]) {
+                out[i] = KILLER_SCORE + 1;
+            } else if (move == killers[ply][1]) {
+                out[i] = KILLER_SCORE;
+            } else {
+                out[i] = history[position.pieceAt(Moves.from(move))][Moves.to(move)];
+            }
+        }
+    }
+
+    // Selection sort one step at a time: cutoffs usually come early
+    private static int pickNext(int[] list, int[] score, int from, int count) {
+        int best = from;
+        for (int i = from + 1; i < count; i++) {
+            if (score[i] > score[best]) {
+                best = i;
+            }
+        }
+        int move = list[best];
+        list[best] = list[from];
+        list[from] = move;
+        int s = score[best];
+        score[best] = score[from];
+        score[from] = s;
+        return move;
+    }
+
+    private void rememberQuiet(int move, int depth, int ply) {
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+        int[] h = history[position.pieceAt(Moves.from(move))];
+        h[Moves.to(move)] = Math.min(h[Moves.to(move)] + depth * depth, KILLER_SCORE - 1);
+    }
+
+    private void checkLimits() {
+        if (mayStop && (nodes >= maxNodes || System.nanoTime() >= deadline)) {
+            stopped = true;
+        }
+    }
+
+    // Mate scores are stored relative to the node, not the root
+    private static int toTable(int score, int ply) {
+        if (score >= MATE_BOUND) return score + ply;
+        if (score <= -MATE_BOUND) return score - ply;
+        return score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if (score >= MATE_BOUND) return score - ply;
+        if (score <= -MATE_BOUND) return score + ply;
+        return score;
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.IndiChessBackend.chess;
+
+// Why a position ends the game (checked after every move)
+public enum Termination {
+    CHECKMATE,
+    STALEMATE,
+    INSUFFICIENT_MATERIAL,
+    FIFTY_MOVE_RULE,
+    FIVEFOLD_REPETITION; // threefold is only claimed (GameService.handleDrawClaim)
+
+    public boolean isDraw() {
+        return this != CHECKMATE;
+    }
+}
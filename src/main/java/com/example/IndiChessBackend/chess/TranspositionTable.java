@@ -0,0 +1,143 @@
+package com.example.IndiChessBackend.chess;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.atomic.LongAdder;
+
+// Fixed-size hash table of search results, stored off-heap and shared by every
+// search thread. Each 16-byte slot holds (key ^ data, data); a reader accepts
+// the entry only if the two words still XOR back to its key, so a slot torn by
+// two concurrent writers reads as a miss instead of a wrong move. No locks, no
+// per-entry objects, nothing for the GC to trace.
+public final class TranspositionTable {
+
+    public static final int EXACT = 0;
+    public static final int LOWER = 1; // fail high, score is a lower bound
+    public static final int UPPER = 2; // fail low, score is an upper bound
+
+    private static final int ENTRY_BYTES = 16;
+    private static final int SEGMENT_LOG2_ENTRIES = 26; // 1 GB per direct buffer
+
+    private static final VarHandle LONG =
+            MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private final ByteBuffer[] segments;
+    private final long mask;
+    private final int segmentShift;
+    private final long segmentMask;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder collisions = new LongAdder(); // slot held another position
+    private final LongAdder stores = new LongAdder();
+
+    public TranspositionTable(int log2Entries) {
+        long entries = 1L << log2Entries;
+        int perSegmentLog2 = Math.min(log2Entries, SEGMENT_LOG2_ENTRIES);
+        int perSegment = 1 << perSegmentLog2;
+
+        segments = new ByteBuffer[(int) (entries / perSegment)];
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = ByteBuffer.allocateDirect(perSegment * ENTRY_BYTES)
+                    .order(ByteOrder.nativeOrder());
+        }
+
+        mask = entries - 1;
+        segmentShift = perSegmentLog2;
+        segmentMask = perSegment - 1;
+    }
+
+    // Largest power-of-two table that fits in the given size
+    public static TranspositionTable ofMegabytes(int megabytes) {
+        long entries = Math.max(1L, (long) megabytes << 20) / ENTRY_BYTES;
+        return new TranspositionTable(63 - Long.numberOfLeadingZeros(Math.max(entries, 2)));
+    }
+
+    // Packed entry, or 0 when the key is not stored
+    public long probe(long key) {
+        long index = key & mask;
+        ByteBuffer segment = segments[(int) (index >>> segmentShift)];
+        int offset = (int) (index & segmentMask) * ENTRY_BYTES;
+
+        long check = (long) LONG.getOpaque(segment, offset);
+        long data = (long) LONG.getOpaque(segment, offset + 8);
+
+        if (data != 0 && (check ^ data) == key) {
+            hits.increment();
+            return data;
+        }
+        if (data != 0) {
+            collisions.increment();
+        }
+        misses.increment();
+        return 0L;
+    }
+
+    public void store(long key, int move, int score, int depth, int bound) {
+        long index = key & mask;
+        ByteBuffer segment = segments[(int) (index >>> segmentShift)];
+        int offset = (int) (index & segmentMask) * ENTRY_BYTES;
+
+        // Keep a deeper bound for the same position; anything else is replaced
+        long old = (long) LONG.getOpaque(segment, offset + 8);
+        long oldCheck = (long) LONG.getOpaque(segment, offset);
+        if (old != 0 && (oldCheck ^ old) == key && depth < depth(old) && bound != EXACT) {
+            return;
+        }
+
+        long data = (move & 0xFFFFL)
+                | ((long) (score + 32768) << 16)
+                | ((long) depth << 32)
+                | ((long) bound << 40)
+                | (1L << 42); // never 0, so a stored entry is always a hit
+
+        LONG.setOpaque(segment, offset, key ^ data);
+        LONG.setOpaque(segment, offset + 8, data);
+        stores.increment();
+    }
+
+    public static int move(long entry) {
+        return (int) (entry & 0xFFFF);
+    }
+
+    public static int score(long entry) {
+        return (int) ((entry >>> 16) & 0xFFFF) - 32768;
+    }
+
+    public static int depth(long entry) {
+        return (int) ((entry >>> 32) & 0xFF);
+    }
+
+    public static int bound(long entry) {
+        return (int) ((entry >>> 40) & 0x3);
+    }
+
+    // =========================
+    // STATS
+    // =========================
+    public long capacity() {
+        return mask + 1;
+    }
+
+    public long sizeBytes() {
+        return capacity() * ENTRY_BYTES;
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long collisions() {
+        return collisions.sum();
+    }
+
+    public long stores() {
+        return stores.sum();
+    }
+}
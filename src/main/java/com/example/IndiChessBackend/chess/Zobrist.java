@@ -0,0 +1,46 @@
+package com.example.IndiChessBackend.chess;
+
+import java.util.SplittableRandom;
+
+// Zobrist keys. Fixed seed so position keys are stable across restarts and nodes.
+public final class Zobrist {
+
+    static final long[][] PIECE_SQUARE = new long[12][64];
+    static final long[] CASTLING = new long[16];
+    static final long[] EP_FILE = new long[8];
+    static final long SIDE;
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x1D1C4E55L);
+
+        for (int piece = 0; piece < 12; piece++) {
+            for (int sq = 0; sq < 64; sq++) {
+                PIECE_SQUARE[piece][sq] = random.nextLong();
+            }
+        }
+
+        // Individual rights are XOR-combined so each mask has one key
+        long[] rights = new long[4];
+        for (int i = 0; i < 4; i++) {
+            rights[i] = random.nextLong();
+        }
+        for (int mask = 0; mask < 16; mask++) {
+            long key = 0L;
+            for (int i = 0; i < 4; i++) {
+                if ((mask & (1 << i)) != 0) {
+                    key ^= rights[i];
+                }
+            }
+            CASTLING[mask] = key;
+        }
+
+        for (int file = 0; file < 8; file++) {
+            EP_FILE[file] = random.nextLong();
+        }
+
+        SIDE = random.nextLong();
+    }
+
+    private Zobrist() {
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.IndiChessBackend.config;
+
+import com.example.IndiChessBackend.chess.TranspositionTable;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class EngineConfig {
+
+    // =========================
+    // SHARED TRANSPOSITION TABLE
+    // =========================
+    // One off-heap table for every engine workload (bot games, analysis), so
+    // positions searched by one are hits for the others
+    @Bean
+    public TranspositionTable transpositionTable(
+            @Value("${engine.tt-size-mb:64}") int sizeMb,
+            MeterRegistry registry
+    ) {
+        TranspositionTable table = TranspositionTable.ofMegabytes(sizeMb);
+
+        FunctionCounter.builder("engine.tt.hits", table, TranspositionTable::hits)
+                .description("Transposition table probes that found the position")
+                .register(registry);
+        FunctionCounter.builder("engine.tt.misses", table, TranspositionTable::misses)
+                .description("Transposition table probes that did not")
+                .register(registry);
+        FunctionCounter.builder("engine.tt.collisions", table, TranspositionTable::collisions)
+                .description("Misses where the slot held a different position")
+                .register(registry);
+        FunctionCounter.builder("engine.tt.stores", table, TranspositionTable::stores)
+                .register(registry);
+        Gauge.builder("engine.tt.size", table, TranspositionTable::sizeBytes)
+                .baseUnit("bytes")
+                .register(registry);
+
+        return table;
+    }
+}
@@ -4,6 +4,7 @@ import ch.qos.logback.classic.pattern.MessageConverter;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.simp.config.ChannelRegistration;
@@ -19,9 +20,40 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     private final WebSocketAuthInterceptor webSocketAuthInterceptor;
 
+    // =========================
+    // BROKER
+    // =========================
+    // One node: in-process broker. Several nodes (see GameStateStore): every
+    // node relays to one external STOMP broker (e.g. RabbitMQ), so a player
+    // gets the frames of a move whichever node handled it.
+    @Value("${websocket.relay-host:}")
+    private String relayHost;
+
+    @Value("${websocket.relay-port:61613}")
+    private int relayPort;
+
+    @Value("${websocket.relay-login:guest}")
+    private String relayLogin;
+
+    @Value("${websocket.relay-passcode:guest}")
+    private String relayPasscode;
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic", "/queue");
+        if (relayHost.isBlank()) {
+            config.enableSimpleBroker("/topic", "/queue");
+        } else {
+            config.enableStompBrokerRelay("/topic", "/queue")
+                    .setRelayHost(relayHost)
+                    .setRelayPort(relayPort)
+                    .setClientLogin(relayLogin)
+                    .setClientPasscode(relayPasscode)
+                    .setSystemLogin(relayLogin)
+                    .setSystemPasscode(relayPasscode)
+                    // /user/... sends to players connected to another node
+                    .setUserDestinationBroadcast("/topic/unresolved-user-destination")
+                    .setUserRegistryBroadcast("/topic/simp-user-registry");
+        }
         config.setApplicationDestinationPrefixes("/app");
         config.setUserDestinationPrefix("/user");
     }
@@ -1,16 +1,27 @@
 package com.example.IndiChessBackend.controller;
 
 import com.example.IndiChessBackend.model.DTO.*;
+import com.example.IndiChessBackend.model.MatchStatus;
+import com.example.IndiChessBackend.service.GameExportService;
 import com.example.IndiChessBackend.service.GameService;
+import com.example.IndiChessBackend.service.LagCompensator;
+import com.example.IndiChessBackend.service.MatchHistoryService;
+import com.example.IndiChessBackend.service.MoveHistoryService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.messaging.handler.annotation.DestinationVariable;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.annotation.SendToUser;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.security.Principal;
-import java.util.ArrayList;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -21,6 +32,10 @@ import java.util.Map;
 public class GameController {
 
     private final GameService gameService;
+    private final LagCompensator lagCompensator;
+    private final GameExportService gameExportService;
+    private final MoveHistoryService moveHistoryService;
+    private final MatchHistoryService matchHistoryService;
 
     // =========================
     // REST: GET GAME DETAILS
@@ -42,13 +57,16 @@ public class GameController {
     // =========================
     // WEBSOCKET: MAKE MOVE
     // =========================
+    // GameService publishes the move frames itself (full MoveDTO on
+    // /topic/game/{matchId}/move, deltas on /topic/game/{matchId}/delta)
+    // so a GAME_OVER from the same move always follows them.
     @MessageMapping("/game/{matchId}/move")
-    public MoveDTO handleMove(
+    public void handleMove(
             @DestinationVariable Long matchId,
             @Payload MoveRequest moveRequest,
             Principal principal
     ) {
-        return gameService.processMove(matchId, moveRequest, principal);
+        gameService.processMove(matchId, moveRequest, principal);
     }
 
     // =========================
@@ -63,6 +81,18 @@ public class GameController {
         return gameService.handlePlayerJoin(matchId, joinRequest, principal);
     }
 
+    // =========================
+    // WEBSOCKET: RESYNC (FULL SNAPSHOT)
+    // =========================
+    @MessageMapping("/game/{matchId}/resync")
+    @SendToUser("/queue/game-sync")
+    public GameStatusDTO handleResync(
+            @DestinationVariable Long matchId,
+            Principal principal
+    ) {
+        return gameService.handleResync(matchId, principal);
+    }
+
     // =========================
     // WEBSOCKET: RESIGN
     // =========================
@@ -96,6 +126,17 @@ public class GameController {
         gameService.handleDrawAccept(matchId, principal.getName());
     }
 
+    // =========================
+    // WEBSOCKET: DRAW CLAIM (REPETITION)
+    // =========================
+    @MessageMapping("/game/{matchId}/draw/claim")
+    public void handleDrawClaim(
+            @DestinationVariable Long matchId,
+            Principal principal
+    ) {
+        gameService.handleDrawClaim(matchId, principal.getName());
+    }
+
     // =========================
     // WEBSOCKET: DRAW REJECT
     // =========================
@@ -107,6 +148,17 @@ public class GameController {
         gameService.handleDrawReject(matchId, principal.getName());
     }
 
+    // =========================
+    // WEBSOCKET: PONG (LATENCY PROBE ECHO)
+    // =========================
+    @MessageMapping("/pong")
+    public void handlePong(
+            @Payload PingDTO pong,
+            SimpMessageHeaderAccessor headers
+    ) {
+        lagCompensator.onPong(headers.getSessionId(), pong.getToken());
+    }
+
     // =========================
     // WEBSOCKET: CHAT
     // =========================
@@ -141,16 +193,80 @@ public class GameController {
     }
 
     // =========================
-    // REST: MOVE HISTORY (OPTIONAL)
+    // REST: A PLAYER'S GAMES (KEYSET PAGES)
+    // =========================
+    // Newest first; follow nextCursor until it is null
+    @GetMapping("/history/{username}")
+    public ResponseEntity<MatchHistoryDTO> getMatchHistory(
+            @PathVariable String username,
+            @RequestParam(required = false) MatchStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit
+    ) {
+        try {
+            return ResponseEntity.ok(
+                    matchHistoryService.history(username, status, cursor, limit)
+            );
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    // =========================
+    // REST: EXPORT A PLAYER'S GAMES
     // =========================
+    // ?format=pgn (default) or ndjson; streamed, so any number of games
+    @GetMapping("/export/{username}")
+    public ResponseEntity<StreamingResponseBody> exportGames(
+            @PathVariable String username,
+            @RequestParam(defaultValue = "pgn") String format
+    ) {
+        GameExportService.Format exportFormat;
+        try {
+            exportFormat = GameExportService.Format.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        boolean pgn = exportFormat == GameExportService.Format.PGN;
+        String filename = username.replaceAll("[^A-Za-z0-9_.-]", "_") + (pgn ? ".pgn" : ".ndjson");
+
+        StreamingResponseBody body = out -> gameExportService.export(username, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(pgn ? "application/x-chess-pgn" : "application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
+    }
+
+    // =========================
+    // REST: MOVE HISTORY
+    // =========================
+    // ?since=ply returns only later plies. Finished games are immutable and
+    // cacheable; live ones revalidate, answered 304 while the ply is unchanged.
     @GetMapping("/{matchId}/moves")
-    public ResponseEntity<Map<String, Object>> getMoveHistory(
-            @PathVariable Long matchId
+    public ResponseEntity<MoveHistoryDTO> getMoveHistory(
+            @PathVariable Long matchId,
+            @RequestParam(defaultValue = "0") int since
     ) {
-        Map<String, Object> response = new HashMap<>();
-        response.put("matchId", matchId);
-        response.put("moves", new ArrayList<>());
-        response.put("count", 0);
-        return ResponseEntity.ok(response);
+        if (since < 0) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        MoveHistoryDTO history;
+        try {
+            history = moveHistoryService.history(matchId, since);
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+
+        // If-None-Match is checked against this ETag by Spring (304, no body)
+        return ResponseEntity.ok()
+                .eTag(MoveHistoryService.etag(history))
+                .cacheControl(history.isLive()
+                        ? CacheControl.noCache()
+                        : CacheControl.maxAge(Duration.ofDays(1)))
+                .body(history);
     }
 }
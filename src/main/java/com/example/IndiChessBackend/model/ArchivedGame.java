@@ -0,0 +1,31 @@
+package com.example.IndiChessBackend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Finished match in the compact archive format (see GameArchive), replacing its moves rows
+@Entity
+@Table(name = "archived_games")
+@Data
+@NoArgsConstructor
+public class ArchivedGame {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "match_id", nullable = false, unique = true)
+    private Match match;
+
+    private int plies;
+
+    @Lob
+    @Column(name = "data", nullable = false)
+    private byte[] data;
+
+    private LocalDateTime archivedAt;
+}
@@ -0,0 +1,17 @@
+package com.example.IndiChessBackend.model.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Server clock snapshot for /topic/game/{matchId}/clock, both sides in one frame
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClockSyncDTO {
+    private Long matchId;
+    private int seq;            // ply the snapshot belongs to
+    private long whiteTimeMs;   // remaining as of this frame
+    private long blackTimeMs;
+    private String running;     // "WHITE" / "BLACK": whose clock is ticking
+}
@@ -1,7 +1,8 @@
 package com.example.IndiChessBackend.model.DTO;
 
+import com.example.IndiChessBackend.chess.Position;
 import com.example.IndiChessBackend.model.GameType;
-import com.example.IndiChessBackend.model.User;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -15,8 +16,8 @@ public class GameDTO {
 
     private Long id;
 
-    private User player1;
-    private User player2;
+    private PlayerSummary player1;
+    private PlayerSummary player2;
 
     private String status;
 
@@ -25,17 +26,26 @@ public class GameDTO {
 
     private boolean isMyTurn;
 
-    private String[][] board;
+    // Packed piece codes (a1..h8); expanded for legacy clients in getBoard()
+    @JsonIgnore
+    private byte[] squares;
 
     private String fen;
 
-    // ⏱ TIME (seconds)
+    // ⏱ TIME (seconds, kept for older clients) and milliseconds
     private Integer whiteTime;
     private Integer blackTime;
+    private Long whiteTimeMs;
+    private Long blackTimeMs;
 
     // 🎮 GAME MODE
     private GameType gameType;
 
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+
+    // Legacy 8x8 board (row 0 = rank 8), built only at serialization time
+    public String[][] getBoard() {
+        return squares == null ? null : Position.toBoardArray(squares);
+    }
 }
@@ -1,5 +1,7 @@
 package com.example.IndiChessBackend.model.DTO;
 
+import com.example.IndiChessBackend.chess.Position;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -12,6 +14,23 @@ public class GameStatusDTO {
     private Long matchId;
     private String playerColor;
     private boolean isMyTurn;
-    private String[][] board;
+    // Packed piece codes (a1..h8); expanded for legacy clients in getBoard()
+    @JsonIgnore
+    private byte[] squares;
     private String fen;
-}
\ No newline at end of file
+
+    // ⏱ TIME (seconds, kept for older clients) and milliseconds
+    private Integer whiteTime;
+    private Integer blackTime;
+    private Long whiteTimeMs;
+    private Long blackTimeMs;
+
+    // Delta clients resume from this seq / position key
+    private int seq;
+    private String positionKey;
+
+    // Legacy 8x8 board (row 0 = rank 8), built only at serialization time
+    public String[][] getBoard() {
+        return squares == null ? null : Position.toBoardArray(squares);
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.IndiChessBackend.model.DTO;
+
+import com.example.IndiChessBackend.model.GameType;
+import com.example.IndiChessBackend.model.MatchStatus;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Read-only view of a match row + both players, built by a JPQL constructor
+// expression (MatchRepo.findSummaryById): one query, no managed entities
+@Data
+@NoArgsConstructor
+public class GameSummary {
+    private Long id;
+    private MatchStatus status;
+    private GameType gameType;
+    private Long whiteTimeMs;
+    private Long blackTimeMs;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private PlayerSummary player1;
+    private PlayerSummary player2;
+
+    public GameSummary(
+            Long id, MatchStatus status, GameType gameType,
+            Long whiteTimeMs, Long blackTimeMs,
+            LocalDateTime createdAt, LocalDateTime updatedAt,
+            Long player1Id, String player1Username, Integer player1Rating, String player1Country,
+            Long player2Id, String player2Username, Integer player2Rating, String player2Country
+    ) {
+        this.id = id;
+        this.status = status;
+        this.gameType = gameType;
+        this.whiteTimeMs = whiteTimeMs;
+        this.blackTimeMs = blackTimeMs;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.player1 = new PlayerSummary(player1Id, player1Username, player1Rating, player1Country);
+        this.player2 = new PlayerSummary(player2Id, player2Username, player2Rating, player2Country);
+    }
+}
@@ -11,5 +11,6 @@ import java.time.LocalDateTime;
 public class JoinRequest {
     private String type;
     private String playerColor;
+    private String mode; // "FULL" (default) or "DELTA" move frames
     private LocalDateTime timestamp;
 }
@@ -0,0 +1,17 @@
+package com.example.IndiChessBackend.model.DTO;
+
+import com.example.IndiChessBackend.repo.MatchHeader;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// One page of a player's games, newest first
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MatchHistoryDTO {
+    private List<MatchHeader> games;
+    private String nextCursor;  // pass back as ?cursor= for the next page, null on the last one
+}
@@ -1,5 +1,7 @@
 package com.example.IndiChessBackend.model.DTO;
 
+import com.example.IndiChessBackend.chess.Position;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -21,11 +23,19 @@ public class MoveDTO {
     private Boolean isPromotion;
     private String fenBefore;
     private String fenAfter;
-    private String[][] board;
+    // Packed piece codes (a1..h8); expanded for legacy clients in getBoard()
+    @JsonIgnore
+    private byte[] squares;
     private Boolean isWhiteTurn;
     private String playerColor;
     private Long matchId;
     private LocalDateTime timestamp;
+    private Integer moveTimeMs; // think time of this move
     private String moveNotation;
     private String playerUsername;
-}
\ No newline at end of file
+
+    // Legacy 8x8 board (row 0 = rank 8), built only at serialization time
+    public String[][] getBoard() {
+        return squares == null ? null : Position.toBoardArray(squares);
+    }
+}
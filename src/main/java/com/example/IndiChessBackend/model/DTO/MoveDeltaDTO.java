@@ -0,0 +1,19 @@
+package com.example.IndiChessBackend.model.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Compact move frame for /topic/game/{matchId}/delta (clients joined with mode=DELTA)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MoveDeltaDTO {
+    private Long matchId;
+    private int seq;            // ply number after this move
+    private String uci;         // e2e4, e7e8q
+    private Long whiteTimeMs;   // null for untimed games
+    private Long blackTimeMs;
+    private int moveTimeMs;     // think time of this move
+    private String hash;        // Zobrist key (hex) of the resulting position
+}
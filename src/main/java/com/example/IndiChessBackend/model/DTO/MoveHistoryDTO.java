@@ -0,0 +1,23 @@
+package com.example.IndiChessBackend.model.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// GET /api/games/{matchId}/moves: the plies after `since`, oldest first
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MoveHistoryDTO {
+    private Long matchId;
+    private boolean live;       // in progress, or rows not all written yet: poll again with since = ply
+    private int ply;            // plies in the game so far
+    private int since;
+    private List<MoveHistoryEntryDTO> moves;
+
+    public int getCount() {
+        return moves == null ? 0 : moves.size();
+    }
+}
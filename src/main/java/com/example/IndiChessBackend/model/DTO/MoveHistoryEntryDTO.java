@@ -0,0 +1,15 @@
+package com.example.IndiChessBackend.model.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MoveHistoryEntryDTO {
+    private int ply;            // 1..N
+    private String uci;         // e2e4
+    private String san;         // e4
+    private Integer moveTimeMs; // think time, null if unknown
+}
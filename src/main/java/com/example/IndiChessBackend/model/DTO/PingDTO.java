@@ -0,0 +1,13 @@
+package com.example.IndiChessBackend.model.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Latency probe: sent on /user/queue/ping, echoed unchanged to /app/pong
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PingDTO {
+    private long token;
+}
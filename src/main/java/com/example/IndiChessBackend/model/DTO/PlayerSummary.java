@@ -0,0 +1,21 @@
+package com.example.IndiChessBackend.model.DTO;
+
+import com.example.IndiChessBackend.model.User;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// What a game view may show about a player (never email, password, picture)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlayerSummary {
+    private Long id;
+    private String username;
+    private Integer rating;
+    private String country;
+
+    public static PlayerSummary of(User user) {
+        return new PlayerSummary(user.getUserId(), user.getUsername(), user.getRating(), user.getCountry());
+    }
+}
@@ -2,23 +2,26 @@ package com.example.IndiChessBackend.model;
 
 public enum GameType {
 
-    STANDARD(null, null),   // no time limit
-    BLITZ(180, 180),        // 3 minutes + 1 sec increment (handled later)
-    RAPID(600, 600);        // 10 minutes
+    STANDARD(null, 0),              // no time limit
+    BULLET(60_000L, 0),             // 1 minute
+    BLITZ(180_000L, 1_000),         // 3 minutes + 1 sec increment
+    RAPID(600_000L, 0),             // 10 minutes
+    COMPUTER(600_000L, 0);          // 10 minutes vs the built-in engine (engine plays black)
 
-    private final Integer whiteTime;
-    private final Integer blackTime;
+    // ⏱ Clock per side and increment added after each move (milliseconds)
+    private final Long initialMillis;
+    private final int incrementMillis;
 
-    GameType(Integer whiteTime, Integer blackTime) {
-        this.whiteTime = whiteTime;
-        this.blackTime = blackTime;
+    GameType(Long initialMillis, int incrementMillis) {
+        this.initialMillis = initialMillis;
+        this.incrementMillis = incrementMillis;
     }
 
-    public Integer getWhiteTime() {
-        return whiteTime;
+    public Long getInitialMillis() {
+        return initialMillis;
     }
 
-    public Integer getBlackTime() {
-        return blackTime;
+    public int getIncrementMillis() {
+        return incrementMillis;
     }
 }
@@ -0,0 +1,49 @@
+package com.example.IndiChessBackend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Running game shared by all nodes (see JdbcGameStateStore, which reads and
+// writes it with plain JDBC); mapped so the schema is created with the rest.
+// The moves are rows of live_game_moves; a write rewrites only `state`.
+@Entity
+@Table(
+        name = "live_games",
+        indexes = @Index(name = "idx_live_games_finished_updated", columnList = "finished, updated_at")
+)
+@Data
+@NoArgsConstructor
+public class LiveGame {
+
+    @Id
+    @Column(name = "match_id")
+    private Long matchId;
+
+    @Column(nullable = false)
+    private long version; // +1 per write, compare-and-set
+
+    @Column(nullable = false)
+    private boolean finished;
+
+    @Column(name = "root_fen", nullable = false, length = 100)
+    private String rootFen;
+
+    @Column(nullable = false)
+    private String player1;
+
+    @Column(nullable = false)
+    private String player2;
+
+    // Clocks, seq, draw offer, turn start, lag quotas, frame modes (a few dozen bytes)
+    @Column(name = "state", nullable = false, length = 512)
+    private byte[] state;
+
+    @Column(nullable = false)
+    private int plies; // rows in live_game_moves
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,32 @@
+package com.example.IndiChessBackend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One ply of a running game (see LiveGame), appended by the write that played it
+@Entity
+@Table(
+        name = "live_game_moves",
+        uniqueConstraints = @UniqueConstraint(name = "uk_live_game_moves_match_ply", columnNames = {"match_id", "ply"})
+)
+@Data
+@NoArgsConstructor
+public class LiveGameMove {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "match_id", nullable = false)
+    private Long matchId;
+
+    @Column(nullable = false)
+    private int ply; // 0-based from live_games.root_fen
+
+    @Column(nullable = false)
+    private int move; // packed, see Moves
+
+    @Column(name = "move_time_ms", nullable = false)
+    private int moveTimeMs; // -1 = unknown
+}
@@ -10,7 +10,16 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "matches")
+@Table(
+        name = "matches",
+        // Per-player history, newest first (InnoDB appends the id to every index)
+        indexes = {
+                @Index(name = "idx_matches_p1_created", columnList = "player1_id, created_at"),
+                @Index(name = "idx_matches_p2_created", columnList = "player2_id, created_at"),
+                @Index(name = "idx_matches_p1_status_created", columnList = "player1_id, status, created_at"),
+                @Index(name = "idx_matches_p2_status_created", columnList = "player2_id, status, created_at")
+        }
+)
 @Data
 public class Match {
 
@@ -18,11 +27,12 @@ public class Match {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    // Loaded only when asked for (MatchRepo.findWithPlayersById / projections)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "player1_id", nullable = false)
     private User player1;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "player2_id", nullable = false)
     private User player2;
 
@@ -49,12 +59,19 @@ public class Match {
     @Enumerated(EnumType.STRING)
     private GameType gameType;
 
-    // ⏱ TIME (seconds)
-    @Column(name = "white_time")
-    private Integer whiteTime;
+    // 📖 OPENING (set at game end)
+    @Column(name = "opening_eco", length = 3)
+    private String openingEco;
+
+    @Column(name = "opening_name", length = 100)
+    private String openingName;
 
-    @Column(name = "black_time")
-    private Integer blackTime;
+    // ⏱ TIME (milliseconds left, null for untimed games)
+    @Column(name = "white_time_ms")
+    private Long whiteTimeMs;
+
+    @Column(name = "black_time_ms")
+    private Long blackTimeMs;
 
     @PastOrPresent
     private LocalDateTime startedAt;
@@ -79,17 +96,9 @@ public class Match {
         this.createdAt = LocalDateTime.now();
         this.startedAt = LocalDateTime.now();
 
-        // set time by game type
-        if (gameType == GameType.BLITZ) {
-            this.whiteTime = 180; // 3 min
-            this.blackTime = 180;
-        } else if (gameType == GameType.RAPID) {
-            this.whiteTime = 600; // 10 min
-            this.blackTime = 600;
-        } else { // STANDARD
-            this.whiteTime = null;
-            this.blackTime = null;
-        }
+        // set time by game type (null for STANDARD)
+        this.whiteTimeMs = gameType.getInitialMillis();
+        this.blackTimeMs = gameType.getInitialMillis();
     }
 
     public Match() {}
@@ -0,0 +1,51 @@
+package com.example.IndiChessBackend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Post-game engine analysis, one row per finished match
+@Entity
+@Table(name = "match_analysis")
+@Data
+@NoArgsConstructor
+public class MatchAnalysis {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "match_id", nullable = false, unique = true)
+    private Match match;
+
+    private int plies;
+
+    // Centipawns from white's side for the start and after every ply, comma separated
+    @Lob
+    @Column(name = "evaluations")
+    private String evaluations;
+
+    // One char per ply: '-' good, 'I' inaccuracy, 'M' mistake, 'B' blunder
+    @Lob
+    @Column(name = "judgements")
+    private String judgements;
+
+    // 0..100, mean of per-move accuracy (win% lost per move)
+    private Double whiteAccuracy;
+    private Double blackAccuracy;
+
+    private int whiteInaccuracies;
+    private int whiteMistakes;
+    private int whiteBlunders;
+
+    private int blackInaccuracies;
+    private int blackMistakes;
+    private int blackBlunders;
+
+    private long nodes;
+
+    private LocalDateTime analyzedAt;
+}
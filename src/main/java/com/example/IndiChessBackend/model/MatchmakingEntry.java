@@ -0,0 +1,36 @@
+package com.example.IndiChessBackend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One waiting player, shared by all nodes (see JdbcGameStateStore)
+@Entity
+@Table(
+        name = "matchmaking_queue",
+        uniqueConstraints = @UniqueConstraint(name = "uk_matchmaking_type_user", columnNames = {"game_type", "username"})
+)
+@Data
+@NoArgsConstructor
+public class MatchmakingEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "game_type", nullable = false, length = 20)
+    private GameType gameType;
+
+    @Column(nullable = false)
+    private String username;
+
+    @Column(name = "since_millis", nullable = false)
+    private long sinceMillis;
+
+    @Column(nullable = false)
+    private boolean claimed; // an opponent's node is creating the match
+
+    @Column(name = "match_id")
+    private Long matchId;
+}
@@ -33,7 +33,7 @@ public class Move {
     private String fenBefore;
     private String fenAfter;
 
-//    private Integer moveTimeMs;
+    private Integer moveTimeMs; // think time for this ply
 
     private LocalDateTime createdAt;
 }
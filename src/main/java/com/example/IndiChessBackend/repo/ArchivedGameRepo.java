@@ -0,0 +1,26 @@
+package com.example.IndiChessBackend.repo;
+
+import com.example.IndiChessBackend.model.ArchivedGame;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ArchivedGameRepo extends JpaRepository<ArchivedGame, Long> {
+
+    Optional<ArchivedGame> findByMatchId(Long matchId);
+
+    interface Blob {
+        Long getMatchId();
+
+        byte[] getData();
+    }
+
+    @Query("select a.match.id as matchId, a.data as data from ArchivedGame a where a.match.id in :matchIds")
+    List<Blob> findBlobsByMatchIds(@Param("matchIds") Collection<Long> matchIds);
+}
@@ -0,0 +1,13 @@
+package com.example.IndiChessBackend.repo;
+
+import com.example.IndiChessBackend.model.MatchAnalysis;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface MatchAnalysisRepo extends JpaRepository<MatchAnalysis, Long> {
+
+    Optional<MatchAnalysis> findByMatchId(Long matchId);
+}
@@ -0,0 +1,32 @@
+package com.example.IndiChessBackend.repo;
+
+import com.example.IndiChessBackend.model.GameType;
+import com.example.IndiChessBackend.model.MatchStatus;
+
+import java.time.LocalDateTime;
+
+// Read-only match columns for listings and exports (no entity, no player graphs)
+public interface MatchHeader {
+
+    Long getId();
+
+    String getWhite();
+
+    String getBlack();
+
+    MatchStatus getStatus();
+
+    GameType getGameType();
+
+    String getOpeningEco();
+
+    String getOpeningName();
+
+    LocalDateTime getStartedAt();
+
+    LocalDateTime getFinishedAt();
+
+    LocalDateTime getCreatedAt();
+
+    Integer getPlies();
+}
@@ -1,9 +1,131 @@
 package com.example.IndiChessBackend.repo;
 
+import com.example.IndiChessBackend.model.DTO.GameSummary;
 import com.example.IndiChessBackend.model.Match;
+import com.example.IndiChessBackend.model.MatchStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface MatchRepo extends JpaRepository<Match, Long> {
+
+    // MatchHeader columns; usernames come from a PK join per returned row
+    String HEADER = "select m.id as id, p1.username as white, p2.username as black, m.status as status, "
+            + "m.gameType as gameType, m.openingEco as openingEco, m.openingName as openingName, "
+            + "m.startedAt as startedAt, m.finishedAt as finishedAt, "
+            + "m.createdAt as createdAt, m.currentPly as plies "
+            + "from Match m join m.player1 p1 join m.player2 p2 ";
+
+    // Keyset (createdAt, id) below the cursor, newest first
+    String BEFORE_CURSOR = "and (m.createdAt < :createdAt or (m.createdAt = :createdAt and m.id < :id)) "
+            + "order by m.createdAt desc, m.id desc";
+
+    // Keyset (createdAt, id) above the cursor, oldest first
+    String AFTER_CURSOR = "and (m.createdAt > :createdAt or (m.createdAt = :createdAt and m.id > :id)) "
+            + "order by m.createdAt, m.id";
+
+    // The row a game runs on, players joined in the same statement
+    @EntityGraph(attributePaths = {"player1", "player2"})
+    Optional<Match> findWithPlayersById(Long id);
+
+    // Read-only game view: one statement, no entities
+    @Query("select new com.example.IndiChessBackend.model.DTO.GameSummary("
+            + "m.id, m.status, m.gameType, m.whiteTimeMs, m.blackTimeMs, m.createdAt, m.updatedAt, "
+            + "p1.userId, p1.username, p1.rating, p1.country, "
+            + "p2.userId, p2.username, p2.rating, p2.country) "
+            + "from Match m join m.player1 p1 join m.player2 p2 where m.id = :id")
+    Optional<GameSummary> findSummaryById(@Param("id") Long id);
+
+    // Finished before the cutoff and not archived yet, oldest first after afterId
+    @Query("select m.id from Match m where m.status <> :inProgress "
+            + "and (m.finishedAt is null or m.finishedAt < :before) "
+            + "and m.id > :afterId "
+            + "and not exists (select a.id from ArchivedGame a where a.match = m) "
+            + "order by m.id")
+    List<Long> findArchivable(
+            @Param("inProgress") MatchStatus inProgress,
+            @Param("before") LocalDateTime before,
+            @Param("afterId") Long afterId,
+            Pageable page
+    );
+
+    // Status and ply count without loading the row (or its players)
+    interface Progress {
+        MatchStatus getStatus();
+
+        Integer getCurrentPly();
+    }
+
+    @Query("select m.status as status, m.currentPly as currentPly from Match m where m.id = :id")
+    Optional<Progress> findProgress(@Param("id") Long id);
+
+    // One player's finished games after a (createdAt, id) cursor, oldest
+    // first: one range scan of idx_matches_p1_created / _p2_created per
+    // side, merged by GameExportService (running games are filtered in the
+    // scan, a handful per player)
+    @Query(HEADER + "where m.player1.id = :userId and m.status <> :inProgress " + AFTER_CURSOR)
+    List<MatchHeader> findFinishedAsPlayer1(
+            @Param("userId") Long userId,
+            @Param("inProgress") MatchStatus inProgress,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Pageable page
+    );
+
+    @Query(HEADER + "where m.player2.id = :userId and m.status <> :inProgress " + AFTER_CURSOR)
+    List<MatchHeader> findFinishedAsPlayer2(
+            @Param("userId") Long userId,
+            @Param("inProgress") MatchStatus inProgress,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Pageable page
+    );
+
+    // =========================
+    // PER-PLAYER HISTORY (KEYSET)
+    // =========================
+    // One query per side so each is a single range scan of its index
+    // (idx_matches_p1_created / idx_matches_p1_status_created and the p2
+    // pair); MatchHistoryService merges the two pages.
+    @Query(HEADER + "where m.player1.id = :userId " + BEFORE_CURSOR)
+    List<MatchHeader> findHistoryAsPlayer1(
+            @Param("userId") Long userId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Pageable page
+    );
+
+    @Query(HEADER + "where m.player2.id = :userId " + BEFORE_CURSOR)
+    List<MatchHeader> findHistoryAsPlayer2(
+            @Param("userId") Long userId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Pageable page
+    );
+
+    @Query(HEADER + "where m.player1.id = :userId and m.status = :status " + BEFORE_CURSOR)
+    List<MatchHeader> findHistoryAsPlayer1WithStatus(
+            @Param("userId") Long userId,
+            @Param("status") MatchStatus status,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Pageable page
+    );
+
+    @Query(HEADER + "where m.player2.id = :userId and m.status = :status " + BEFORE_CURSOR)
+    List<MatchHeader> findHistoryAsPlayer2WithStatus(
+            @Param("userId") Long userId,
+            @Param("status") MatchStatus status,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Pageable page
+    );
 }
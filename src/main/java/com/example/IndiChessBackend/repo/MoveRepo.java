@@ -2,8 +2,51 @@ package com.example.IndiChessBackend.repo;
 
 import com.example.IndiChessBackend.model.Move;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface MoveRepo extends JpaRepository<Move, Long> {
+
+    List<Move> findByMatchIdOrderByPlyAsc(Long matchId);
+
+    // Just what a replay needs, for a page of matches at once
+    interface PlyRow {
+        Long getMatchId();
+
+        int getPly();
+
+        String getUci();
+
+        Integer getMoveTimeMs();
+    }
+
+    @Query("select m.match.id as matchId, m.ply as ply, m.uci as uci, m.moveTimeMs as moveTimeMs "
+            + "from Move m where m.match.id in :matchIds order by m.match.id, m.ply")
+    List<PlyRow> findPliesByMatchIds(@Param("matchIds") Collection<Long> matchIds);
+
+    // Move history endpoint: no FENs, no match join
+    interface HistoryRow {
+        int getPly();
+
+        String getUci();
+
+        String getSan();
+
+        Integer getMoveTimeMs();
+    }
+
+    @Query("select m.ply as ply, m.uci as uci, m.san as san, m.moveTimeMs as moveTimeMs "
+            + "from Move m where m.match.id = :matchId and m.ply > :since order by m.ply")
+    List<HistoryRow> findHistory(@Param("matchId") Long matchId, @Param("since") int since);
+
+    // Archived games drop their rows in one statement
+    @Modifying
+    @Query("delete from Move m where m.match.id = :matchId")
+    int deleteByMatchId(@Param("matchId") Long matchId);
 }
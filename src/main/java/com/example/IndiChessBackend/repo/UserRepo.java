@@ -2,8 +2,12 @@ package com.example.IndiChessBackend.repo;
 
 import com.example.IndiChessBackend.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 
 @Repository
 public interface UserRepo extends JpaRepository<User, Long> {
@@ -17,4 +21,7 @@ public interface UserRepo extends JpaRepository<User, Long> {
     User getUserByEmailId(String email);
 
     boolean existsByUsername(String username);
+
+    @Query("select u.id from User u where u.username = :username")
+    Optional<Long> findIdByUsername(@Param("username") String username);
 }
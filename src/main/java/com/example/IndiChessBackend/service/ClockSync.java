@@ -0,0 +1,136 @@
+package com.example.IndiChessBackend.service;
+
+import com.example.IndiChessBackend.model.DTO.ClockSyncDTO;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiConsumer;
+
+// =========================
+// CLOCK SYNC BROADCASTER
+// =========================
+// One thread sweeps every active timed game and sends at most one clock frame
+// per game per sweep. A game gets a frame when a move changed its clocks, or
+// when its periodic resync is due: every second normally, every 100 ms once
+// the side to move is under 10 s. Everything else is skipped. The thread
+// sleeps until the earliest due game (100 ms .. 1 s), so the sweep rate
+// follows the games that need it and the thread count never grows.
+final class ClockSync {
+
+    static final long RESYNC_NANOS = 1_000_000_000L;
+    static final long LOW_TIME_RESYNC_NANOS = 100_000_000L;
+    static final long LOW_TIME_MILLIS = 10_000;
+
+    private final Map<Long, GameState> games;
+    private final BiConsumer<Long, ClockSyncDTO> publisher;
+
+    private final AtomicBoolean moved = new AtomicBoolean();
+    private volatile Thread sweeper;
+
+    ClockSync(Map<Long, GameState> games, BiConsumer<Long, ClockSyncDTO> publisher) {
+        this.games = games;
+        this.publisher = publisher;
+    }
+
+    // A move changed some game's clocks: sweep early, at most once per minimum tick
+    void touch() {
+        if (!moved.getAndSet(true)) {
+            Thread thread = sweeper;
+            if (thread != null) {
+                LockSupport.unpark(thread);
+            }
+        }
+    }
+
+    // =========================
+    // SWEEP
+    // =========================
+    // Sends every due frame and returns when the next game falls due
+    long sweep(long nowNanos) {
+        long nextDue = nowNanos + RESYNC_NANOS;
+
+        for (Map.Entry<Long, GameState> entry : games.entrySet()) {
+            GameState state = entry.getValue();
+            ClockSyncDTO frame;
+
+            synchronized (state) {
+                if (state.getWhiteClockMs() == null || !"IN_PROGRESS".equals(state.getStatus())) {
+                    continue;
+                }
+
+                // Unchanged since the last frame and not due yet: nothing to say
+                if (state.getSeq() == state.getSyncedSeq() && nowNanos < state.getNextSyncNanos()) {
+                    nextDue = Math.min(nextDue, state.getNextSyncNanos());
+                    continue;
+                }
+
+                boolean whiteRunning = state.isWhiteTurn();
+                long elapsed = Math.max(0, (nowNanos - state.getTurnStartedNanos()) / 1_000_000L);
+                long white = Math.max(0, state.getWhiteClockMs() - (whiteRunning ? elapsed : 0));
+                long black = Math.max(0, state.getBlackClockMs() - (whiteRunning ? 0 : elapsed));
+
+                long interval = (whiteRunning ? white : black) < LOW_TIME_MILLIS
+                        ? LOW_TIME_RESYNC_NANOS
+                        : RESYNC_NANOS;
+
+                state.setSyncedSeq(state.getSeq());
+                state.setNextSyncNanos(nowNanos + interval);
+                nextDue = Math.min(nextDue, nowNanos + interval);
+
+                frame = new ClockSyncDTO(
+                        entry.getKey(),
+                        state.getSeq(),
+                        white,
+                        black,
+                        whiteRunning ? "WHITE" : "BLACK"
+                );
+            }
+
+            publisher.accept(entry.getKey(), frame);
+        }
+
+        return nextDue;
+    }
+
+    // =========================
+    // THREAD
+    // =========================
+    void start(String threadName) {
+        Thread thread = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                long started = System.nanoTime();
+                moved.set(false);
+
+                long nextDue;
+                try {
+                    nextDue = sweep(started);
+                } catch (RuntimeException e) {
+                    System.out.println("Clock sync sweep failed: " + e.getMessage());
+                    nextDue = started + RESYNC_NANOS;
+                }
+
+                // Never sweep more often than the low-time cadence
+                long wakeAt = Math.max(nextDue, started + LOW_TIME_RESYNC_NANOS);
+                long minWake = started + LOW_TIME_RESYNC_NANOS;
+                long now;
+                while ((now = System.nanoTime()) < wakeAt && !Thread.currentThread().isInterrupted()) {
+                    if (moved.get() && now >= minWake) {
+                        break;
+                    }
+                    LockSupport.parkNanos((moved.get() ? minWake : wakeAt) - now);
+                }
+            }
+        }, threadName);
+        thread.setDaemon(true);
+        sweeper = thread;
+        thread.start();
+    }
+
+    void stop() {
+        Thread thread = sweeper;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+}
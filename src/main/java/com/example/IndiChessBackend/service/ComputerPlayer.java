@@ -0,0 +1,160 @@
+package com.example.IndiChessBackend.service;
+
+import com.example.IndiChessBackend.chess.Position;
+import com.example.IndiChessBackend.chess.Search;
+import com.example.IndiChessBackend.chess.TranspositionTable;
+import com.example.IndiChessBackend.model.User;
+import com.example.IndiChessBackend.repo.UserRepo;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// =========================
+// BUILT-IN ENGINE (COMPUTER GAMES)
+// =========================
+// Searches run on a small fixed pool with a bounded queue, so bot games can
+// never take threads from human move processing. When the queue is full the
+// search is resubmitted a little later; the wait comes off the engine's
+// clock, and nothing runs on the caller's (STOMP) thread.
+@Component
+public class ComputerPlayer {
+
+    private static final long RETRY_MILLIS = 100;
+    private static final long MIN_MOVE_MILLIS = 50;
+    private static final int MOVES_TO_GO = 30; // spread the clock over ~30 moves
+
+    private final UserRepo userRepo;
+    private final String username;
+    private final long maxNodes;
+    private final long maxMoveMillis;
+    private final ThreadPoolExecutor executor;
+    private final Executor retryLater = CompletableFuture.delayedExecutor(RETRY_MILLIS, TimeUnit.MILLISECONDS);
+    private final Counter deferred;
+
+    // Search buffers per engine thread; the table behind them is shared
+    private final ThreadLocal<Search> searches;
+
+    private volatile User account;
+
+    public ComputerPlayer(
+            UserRepo userRepo,
+            TranspositionTable table,
+            MeterRegistry registry,
+            @Value("${engine.username:computer}") String username,
+            @Value("${engine.max-nodes:500000}") long maxNodes,
+            @Value("${engine.max-move-millis:2000}") long maxMoveMillis,
+            @Value("${engine.threads:2}") int threads,
+            @Value("${engine.queue-capacity:256}") int queueCapacity
+    ) {
+        this.userRepo = userRepo;
+        this.searches = ThreadLocal.withInitial(() -> new Search(table));
+        this.username = username;
+        this.maxNodes = maxNodes;
+        this.maxMoveMillis = maxMoveMillis;
+
+        AtomicInteger ids = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                task -> {
+                    Thread thread = new Thread(task, "engine-" + ids.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+
+        this.deferred = Counter.builder("engine.searches.deferred")
+                .description("Searches resubmitted later because the engine queue was full")
+                .register(registry);
+        Gauge.builder("engine.queue.size", executor, pool -> pool.getQueue().size())
+                .description("Searches waiting for an engine thread")
+                .register(registry);
+    }
+
+    public String username() {
+        return username;
+    }
+
+    // Engine account used as the opponent on COMPUTER matches (created once)
+    public User account() {
+        User user = account;
+        if (user != null) {
+            return user;
+        }
+        synchronized (this) {
+            if (account == null) {
+                user = userRepo.getUserByUsername(username);
+                if (user == null) {
+                    user = new User();
+                    user.setUsername(username);
+                    user.setEmailId(username + "@engine.indichess.local");
+                    // Random, never handed out: the account cannot log in
+                    user.setPassword(UUID.randomUUID().toString());
+                    user.setRating(1500);
+                    user = userRepo.save(user);
+                }
+                account = user;
+            }
+            return account;
+        }
+    }
+
+    // =========================
+    // SEARCH
+    // =========================
+    // position must be a private copy; clockMillis is the engine's remaining
+    // time (null = untimed). Completes with Moves.NONE only if there is no move.
+    public CompletableFuture<Integer> bestMove(Position position, Long clockMillis) {
+        CompletableFuture<Integer> reply = new CompletableFuture<>();
+        submit(reply, position, clockMillis, System.nanoTime());
+        return reply;
+    }
+
+    private void submit(CompletableFuture<Integer> reply, Position position, Long clockMillis, long requestedAt) {
+        try {
+            executor.execute(() -> {
+                try {
+                    // Time spent queued or deferred is already off the engine's clock
+                    long waited = (System.nanoTime() - requestedAt) / 1_000_000L;
+                    reply.complete(searches.get()
+                            .search(position, Search.MAX_PLY, maxNodes, moveBudget(clockMillis, waited))
+                            .move());
+                } catch (Throwable e) {
+                    reply.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            if (executor.isShutdown()) {
+                reply.completeExceptionally(e);
+                return;
+            }
+            deferred.increment();
+            retryLater.execute(() -> submit(reply, position, clockMillis, requestedAt));
+        }
+    }
+
+    private long moveBudget(Long clockMillis, long waitedMillis) {
+        if (clockMillis == null) {
+            return maxMoveMillis;
+        }
+        long remaining = clockMillis - waitedMillis;
+        long budget = remaining / MOVES_TO_GO;
+        return Math.max(MIN_MOVE_MILLIS, Math.min(budget, maxMoveMillis));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
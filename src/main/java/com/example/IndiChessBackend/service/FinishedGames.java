@@ -0,0 +1,97 @@
+package com.example.IndiChessBackend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// =========================
+// RECENTLY FINISHED GAMES
+// =========================
+// Where a game goes when it leaves GameService.activeGames: late
+// getGameDetails / join / resync calls (result screen, reconnects) are served
+// from here for a grace period instead of reloading the row and
+// re-registering the game as active. Bounded by both age and count, so heap
+// stays flat however many games have been played since startup.
+@Component
+public class FinishedGames {
+
+    private record Finished(GameState state, long finishedNanos) {
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final int capacity;
+    private final long graceNanos;
+    private final Counter evicted;
+
+    // matchId -> finished game, oldest finish first
+    private final LinkedHashMap<Long, Finished> games = new LinkedHashMap<>();
+
+    public FinishedGames(
+            MeterRegistry meterRegistry,
+            @Value("${games.finished-cache-size:10000}") int capacity,
+            @Value("${games.finished-grace-ms:120000}") long graceMillis
+    ) {
+        this.meterRegistry = meterRegistry;
+        this.capacity = capacity;
+        this.graceNanos = graceMillis * 1_000_000L;
+
+        Gauge.builder("games.finished.cached", this, FinishedGames::size)
+                .description("Finished games kept in memory for late reads")
+                .register(meterRegistry);
+        this.evicted = Counter.builder("games.evicted")
+                .description("Finished games dropped from memory (grace period over or cache full)")
+                .register(meterRegistry);
+    }
+
+    // GameService's live map, reported next to the finished ones
+    void gaugeActive(Map<Long, GameState> activeGames) {
+        Gauge.builder("games.active", activeGames, Map::size)
+                .description("Games held in memory while in progress")
+                .register(meterRegistry);
+    }
+
+    void add(Long matchId, GameState state) {
+        add(matchId, state, System.nanoTime());
+    }
+
+    GameState get(Long matchId) {
+        return get(matchId, System.nanoTime());
+    }
+
+    synchronized void add(Long matchId, GameState state, long nowNanos) {
+        games.remove(matchId);
+        games.put(matchId, new Finished(state, nowNanos));
+        expire(nowNanos);
+        while (games.size() > capacity) {
+            Iterator<Finished> oldest = games.values().iterator();
+            oldest.next();
+            oldest.remove();
+            evicted.increment();
+        }
+    }
+
+    synchronized GameState get(Long matchId, long nowNanos) {
+        expire(nowNanos);
+        Finished finished = games.get(matchId);
+        return finished == null ? null : finished.state();
+    }
+
+    synchronized int size() {
+        return games.size();
+    }
+
+    // Oldest first, so only expired entries are visited
+    private void expire(long nowNanos) {
+        Iterator<Finished> oldest = games.values().iterator();
+        while (oldest.hasNext() && nowNanos - oldest.next().finishedNanos() > graceNanos) {
+            oldest.remove();
+            evicted.increment();
+        }
+    }
+}
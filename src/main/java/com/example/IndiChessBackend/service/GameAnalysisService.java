@@ -0,0 +1,410 @@
+package com.example.IndiChessBackend.service;
+
+import com.example.IndiChessBackend.chess.Moves;
+import com.example.IndiChessBackend.chess.Position;
+import com.example.IndiChessBackend.chess.Search;
+import com.example.IndiChessBackend.chess.TranspositionTable;
+import com.example.IndiChessBackend.model.MatchAnalysis;
+import com.example.IndiChessBackend.model.Move;
+import com.example.IndiChessBackend.repo.MatchAnalysisRepo;
+import com.example.IndiChessBackend.repo.MatchRepo;
+import com.example.IndiChessBackend.repo.MoveRepo;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// =========================
+// POST-GAME ANALYSIS
+// =========================
+// Finished games wait in a bounded queue, most recently finished first. One
+// dispatcher takes a game at a time and evaluates all of its plies in parallel
+// on a fork-join pool sized below the core count, so a burst of finished games
+// (tournament round) queues up instead of competing with live move traffic.
+// When the queue is full the oldest waiting game is shed.
+@Service
+public class GameAnalysisService {
+
+    private static final int SPLIT_THRESHOLD = 4; // plies per leaf task
+    private static final long MAX_MILLIS_PER_PLY = 5_000; // node budget normally ends first
+    private static final long WINDOW_MILLIS = 60_000;
+
+    // Win% lost by one move (Lichess thresholds on winning chances)
+    private static final double INACCURACY = 5;
+    private static final double MISTAKE = 10;
+    private static final double BLUNDER = 15;
+
+    private final MoveRepo moveRepo;
+    private final MatchRepo matchRepo;
+    private final MatchAnalysisRepo analysisRepo;
+
+    private final long nodesPerPly;
+    private final int queueCapacity;
+    private final ForkJoinPool pool;
+    private final ExecutorService dispatcher;
+
+    // Highest priority last: pollLast() = newest, pollFirst() = oldest
+    private final TreeSet<AnalysisJob> queue = new TreeSet<>(
+            Comparator.comparingLong(AnalysisJob::finishedAt)
+                    .thenComparingLong(AnalysisJob::matchId));
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+
+    // Search buffers per fork-join worker, over the shared engine table
+    private final ThreadLocal<Search> searches;
+
+    // Completion times within the last minute, for games/min
+    private final ArrayDeque<Long> completions = new ArrayDeque<>();
+
+    private final Counter analyzed;
+    private final Counter dropped;
+    private final Timer gameTimer;
+
+    record AnalysisJob(long matchId, long finishedAt, String startFen, int[] moves) {
+    }
+
+    public GameAnalysisService(
+            MoveRepo moveRepo,
+            MatchRepo matchRepo,
+            MatchAnalysisRepo analysisRepo,
+            TranspositionTable table,
+            MeterRegistry registry,
+            @Value("${analysis.nodes-per-ply:20000}") long nodesPerPly,
+            @Value("${analysis.queue-capacity:10000}") int queueCapacity,
+            @Value("${analysis.parallelism:0}") int parallelism
+    ) {
+        this.moveRepo = moveRepo;
+        this.matchRepo = matchRepo;
+        this.analysisRepo = analysisRepo;
+        this.nodesPerPly = nodesPerPly;
+        this.queueCapacity = queueCapacity;
+        this.searches = ThreadLocal.withInitial(() -> new Search(table));
+
+        // Default: half the cores, the rest stay with the web / broker threads
+        int workers = parallelism > 0
+                ? parallelism
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.pool = new ForkJoinPool(workers);
+
+        this.dispatcher = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "analysis-dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.analyzed = Counter.builder("analysis.games")
+                .description("Games analyzed")
+                .register(registry);
+        this.dropped = Counter.builder("analysis.games.dropped")
+                .description("Games shed because the analysis queue was full")
+                .register(registry);
+        this.gameTimer = Timer.builder("analysis.game.duration")
+                .description("Wall time to analyze one game")
+                .register(registry);
+        Gauge.builder("analysis.queue.size", this, GameAnalysisService::queuedGames)
+                .description("Games waiting for analysis")
+                .register(registry);
+        Gauge.builder("analysis.throughput", this, GameAnalysisService::gamesPerMinute)
+                .description("Games analyzed in the last minute")
+                .baseUnit("games/min")
+                .register(registry);
+    }
+
+    @PostConstruct
+    void start() {
+        dispatcher.execute(this::dispatchLoop);
+    }
+
+    // =========================
+    // SUBMIT
+    // =========================
+    // Caller holds the game lock; the move list is copied here
+    public void submit(Long matchId, Position position) {
+
+        Position start = position.copy();
+        int plies = start.ply();
+        if (plies == 0) {
+            return;
+        }
+
+        int[] moves = new int[plies];
+        for (int i = 0; i < plies; i++) {
+            moves[i] = start.moveAt(i);
+        }
+        for (int i = 0; i < plies; i++) {
+            start.unmakeMove();
+        }
+
+        AnalysisJob job = new AnalysisJob(matchId, System.currentTimeMillis(), start.toFen(), moves);
+
+        lock.lock();
+        try {
+            if (queue.size() >= queueCapacity) {
+                queue.pollFirst();
+                dropped.increment();
+            }
+            queue.add(job);
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Newest waiting game; blocks while the queue is empty
+    AnalysisJob next() throws InterruptedException {
+        lock.lock();
+        try {
+            while (queue.isEmpty()) {
+                notEmpty.await();
+            }
+            return queue.pollLast();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void dispatchLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            AnalysisJob job;
+            try {
+                job = next();
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            try {
+                gameTimer.record(() -> analyze(job));
+                analyzed.increment();
+                recordCompletion();
+            } catch (RuntimeException e) {
+                System.out.println("Analysis failed for match " + job.matchId() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    // =========================
+    // ANALYSIS
+    // =========================
+    private void analyze(AnalysisJob job) {
+
+        Position[] positions = replay(job);
+        int plies = positions.length - 1;
+
+        // Side-to-move score of every position, plies evaluated in parallel
+        int[] scores = new int[positions.length];
+        long[] nodes = new long[positions.length];
+        pool.invoke(new EvaluateRange(positions, scores, nodes, 0, positions.length));
+
+        MatchAnalysis analysis = analysisRepo.findByMatchId(job.matchId())
+                .orElseGet(MatchAnalysis::new);
+        analysis.setMatch(matchRepo.getReferenceById(job.matchId()));
+        analysis.setPlies(plies);
+
+        StringBuilder evaluations = new StringBuilder(plies * 5);
+        StringBuilder judgements = new StringBuilder(plies);
+        double[] accuracySum = new double[2];
+        int[] moveCount = new int[2];
+        int[][] counts = new int[2][3]; // inaccuracies, mistakes, blunders
+
+        boolean whiteToMove = positions[0].isWhiteToMove();
+        evaluations.append(whiteToMove ? scores[0] : -scores[0]);
+
+        for (int ply = 0; ply < plies; ply++) {
+            int side = positions[ply].isWhiteToMove() ? 0 : 1;
+
+            // Best available vs what was played, both from the mover's side
+            double before = winPercent(scores[ply]);
+            double after = winPercent(-scores[ply + 1]);
+            double lost = Math.max(0, before - after);
+
+            char judgement = judgement(lost);
+            switch (judgement) {
+                case 'I' -> counts[side][0]++;
+                case 'M' -> counts[side][1]++;
+                case 'B' -> counts[side][2]++;
+                default -> {
+                }
+            }
+            judgements.append(judgement);
+
+            accuracySum[side] += moveAccuracy(lost);
+            moveCount[side]++;
+
+            int next = positions[ply + 1].isWhiteToMove() ? scores[ply + 1] : -scores[ply + 1];
+            evaluations.append(',').append(next);
+        }
+
+        analysis.setEvaluations(evaluations.toString());
+        analysis.setJudgements(judgements.toString());
+        analysis.setWhiteAccuracy(moveCount[0] == 0 ? null : accuracySum[0] / moveCount[0]);
+        analysis.setBlackAccuracy(moveCount[1] == 0 ? null : accuracySum[1] / moveCount[1]);
+        analysis.setWhiteInaccuracies(counts[0][0]);
+        analysis.setWhiteMistakes(counts[0][1]);
+        analysis.setWhiteBlunders(counts[0][2]);
+        analysis.setBlackInaccuracies(counts[1][0]);
+        analysis.setBlackMistakes(counts[1][1]);
+        analysis.setBlackBlunders(counts[1][2]);
+        analysis.setNodes(Arrays.stream(nodes).sum());
+        analysis.setAnalyzedAt(LocalDateTime.now());
+
+        analysisRepo.save(analysis);
+    }
+
+    // Persisted plies when the moves table has the whole game (the journal may
+    // still be flushing the tail), else the in-memory list
+    private Position[] replay(AnalysisJob job) {
+
+        List<Move> stored = moveRepo.findByMatchIdOrderByPlyAsc(job.matchId());
+
+        Position position;
+        int[] moves;
+
+        if (!stored.isEmpty() && stored.get(0).getPly() == 1 && stored.size() >= job.moves().length) {
+            position = Position.startPosition();
+            moves = new int[stored.size()];
+            Position scratch = Position.startPosition();
+            for (int i = 0; i < moves.length; i++) {
+                moves[i] = scratch.findLegalMove(stored.get(i).getUci());
+                if (moves[i] == Moves.NONE) {
+                    throw new IllegalStateException("Stored move " + stored.get(i).getUci()
+                            + " is illegal at ply " + (i + 1));
+                }
+                scratch.makeMove(moves[i]);
+            }
+        } else {
+            position = Position.fromFen(job.startFen());
+            moves = job.moves();
+        }
+
+        Position[] positions = new Position[moves.length + 1];
+        positions[0] = position.copy();
+        for (int i = 0; i < moves.length; i++) {
+            position.makeMove(moves[i]);
+            positions[i + 1] = position.copy();
+        }
+        return positions;
+    }
+
+    private final class EvaluateRange extends RecursiveAction {
+
+        private final Position[] positions;
+        private final int[] scores;
+        private final long[] nodes;
+        private final int from;
+        private final int to;
+
+        EvaluateRange(Position[] positions, int[] scores, long[] nodes, int from, int to) {
+            this.positions = positions;
+            this.scores = scores;
+            this.nodes = nodes;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                Search search = searches.get();
+                for (int i = from; i < to; i++) {
+                    Search.Result result = search.search(
+                            positions[i], Search.MAX_PLY, nodesPerPly, MAX_MILLIS_PER_PLY);
+                    scores[i] = result.score();
+                    nodes[i] = result.nodes();
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(
+                    new EvaluateRange(positions, scores, nodes, from, mid),
+                    new EvaluateRange(positions, scores, nodes, mid, to)
+            );
+        }
+    }
+
+    // Lichess win% model: centipawns -> 0..100 for the side to move
+    static double winPercent(int centipawns) {
+        int cp = Math.max(-1000, Math.min(1000, centipawns));
+        return 50 + 50 * (2 / (1 + Math.exp(-0.00368208 * cp)) - 1);
+    }
+
+    static double moveAccuracy(double winPercentLost) {
+        double accuracy = 103.1668 * Math.exp(-0.04354 * winPercentLost) - 3.1669;
+        return Math.max(0, Math.min(100, accuracy));
+    }
+
+    // '-' good, 'I' inaccuracy, 'M' mistake, 'B' blunder
+    static char judgement(double winPercentLost) {
+        if (winPercentLost >= BLUNDER) {
+            return 'B';
+        }
+        if (winPercentLost >= MISTAKE) {
+            return 'M';
+        }
+        if (winPercentLost >= INACCURACY) {
+            return 'I';
+        }
+        return '-';
+    }
+
+    // =========================
+    // METRICS
+    // =========================
+    private void recordCompletion() {
+        long now = System.currentTimeMillis();
+        synchronized (completions) {
+            completions.addLast(now);
+            pruneCompletions(now);
+        }
+    }
+
+    private double gamesPerMinute() {
+        synchronized (completions) {
+            pruneCompletions(System.currentTimeMillis());
+            return completions.size();
+        }
+    }
+
+    private void pruneCompletions(long now) {
+        while (!completions.isEmpty() && completions.peekFirst() < now - WINDOW_MILLIS) {
+            completions.pollFirst();
+        }
+    }
+
+    public int queuedGames() {
+        lock.lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        pool.shutdownNow();
+        try {
+            dispatcher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.IndiChessBackend.service;
+
+import com.example.IndiChessBackend.chess.Moves;
+import com.example.IndiChessBackend.chess.Position;
+import com.example.IndiChessBackend.model.GameType;
+import com.example.IndiChessBackend.model.MatchStatus;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+// =========================
+// ARCHIVED GAME FORMAT
+// =========================
+// A finished game as one small blob instead of a moves row per ply:
+//
+//   byte    version
+//   string  white, black, game type, opening ECO, opening name, start FEN
+//   varint  result code (zigzag), started / finished (epoch ms, 0 = unknown)
+//   varint  plies
+//   u16     move per ply (Moves encoding)
+//   varint  think time per ply + 1 (0 = unknown)
+//
+// Strings are varint length + UTF-8, empty for null; an empty start FEN is the
+// standard start. FENs and SAN are not stored: positions come from replaying
+// the moves (see positionAt), which is cheap next to reading them back.
+public final class GameArchive {
+
+    static final byte VERSION = 1;
+
+    public record Game(
+            String white,
+            String black,
+            MatchStatus result,
+            GameType gameType,
+            String openingEco,
+            String openingName,
+            String startFen,
+            long startedAtMillis,
+            long finishedAtMillis,
+            int[] moves,
+            int[] moveTimesMs // -1 where unknown
+    ) {
+
+        public int plies() {
+            return moves.length;
+        }
+
+        public Position startPosition() {
+            return startFen == null ? Position.startPosition() : Position.fromFen(startFen);
+        }
+
+        // Position after the given number of plies (0 = start)
+        public Position positionAt(int ply) {
+            Position position = startPosition();
+            for (int i = 0; i < ply; i++) {
+                position.makeMove(moves[i]);
+            }
+            return position;
+        }
+    }
+
+    // One stored ply as read back from the moves table
+    public record Ply(int ply, String uci, Integer moveTimeMs) {
+    }
+
+    private GameArchive() {
+    }
+
+    // The header's game with the longest legal run of plies from ply 1;
+    // anything after a gap or an illegal move cannot be replayed
+    public static Game withPlies(Game header, List<Ply> plies) {
+        Position position = header.startPosition();
+        int[] moves = new int[plies.size()];
+        int[] moveTimes = new int[plies.size()];
+        int count = 0;
+
+        for (Ply ply : plies) {
+            if (ply.ply() != count + 1) {
+                break;
+            }
+            int move = position.findLegalMove(ply.uci());
+            if (move == Moves.NONE) {
+                break;
+            }
+            position.makeMove(move);
+            moves[count] = move;
+            moveTimes[count] = ply.moveTimeMs() == null ? -1 : ply.moveTimeMs();
+            count++;
+        }
+
+        return new Game(header.white(), header.black(), header.result(), header.gameType(),
+                header.openingEco(), header.openingName(), header.startFen(),
+                header.startedAtMillis(), header.finishedAtMillis(),
+                Arrays.copyOf(moves, count), Arrays.copyOf(moveTimes, count));
+    }
+
+    // =========================
+    // ENCODE
+    // =========================
+    public static byte[] encode(Game game) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64 + game.plies() * 4);
+        out.write(VERSION);
+        writeString(out, game.white());
+        writeString(out, game.black());
+        writeString(out, game.gameType() == null ? null : game.gameType().name());
+        writeString(out, game.openingEco());
+        writeString(out, game.openingName());
+        writeString(out, game.startFen());
+        writeVarint(out, zigzag(game.result().getCode()));
+        writeVarint(out, game.startedAtMillis());
+        writeVarint(out, game.finishedAtMillis());
+
+        writeVarint(out, game.plies());
+        for (int move : game.moves()) {
+            out.write(move >>> 8);
+            out.write(move);
+        }
+        for (int millis : game.moveTimesMs()) {
+            writeVarint(out, millis + 1L);
+        }
+        return out.toByteArray();
+    }
+
+    // =========================
+    // DECODE
+    // =========================
+    public static Game decode(byte[] data) {
+        ByteBuffer in = ByteBuffer.wrap(data);
+        byte version = in.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unknown archive version " + version);
+        }
+
+        String white = readString(in);
+        String black = readString(in);
+        String gameType = readString(in);
+        String openingEco = readString(in);
+        String openingName = readString(in);
+        String startFen = readString(in);
+        MatchStatus result = MatchStatus.fromCode((int) unzigzag(readVarint(in)));
+        long startedAt = readVarint(in);
+        long finishedAt = readVarint(in);
+
+        int plies = (int) readVarint(in);
+        int[] moves = new int[plies];
+        for (int i = 0; i < plies; i++) {
+            moves[i] = in.getShort() & 0xFFFF;
+        }
+        int[] moveTimes = new int[plies];
+        for (int i = 0; i < plies; i++) {
+            moveTimes[i] = (int) (readVarint(in) - 1);
+        }
+
+        return new Game(white, black, result,
+                gameType == null ? null : GameType.valueOf(gameType),
+                openingEco, openingName, startFen, startedAt, finishedAt, moves, moveTimes);
+    }
+
+    // =========================
+    // PRIMITIVES
+    // =========================
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarint(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeString(ByteArrayOutputStream out, String value) {
+        byte[] bytes = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+        writeVarint(out, bytes.length);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = (int) readVarint(in);
+        if (length == 0) {
+            return null;
+        }
+        String value = new String(in.array(), in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+}
@@ -0,0 +1,239 @@
+package com.example.IndiChessBackend.service;
+
+import com.example.IndiChessBackend.chess.Position;
+import com.example.IndiChessBackend.model.ArchivedGame;
+import com.example.IndiChessBackend.model.Match;
+import com.example.IndiChessBackend.model.MatchStatus;
+import com.example.IndiChessBackend.model.Move;
+import com.example.IndiChessBackend.repo.ArchivedGameRepo;
+import com.example.IndiChessBackend.repo.MatchRepo;
+import com.example.IndiChessBackend.repo.MoveRepo;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.LockSupport;
+
+// =========================
+// GAME ARCHIVER
+// =========================
+// Background migration of finished matches from their moves rows into one
+// GameArchive blob each (archived_games), after which the rows are deleted.
+// Games are only picked up min-age after they finished, so the move journal
+// has long written their last plies. A game whose rows still do not replay
+// to matches.current_ply is left as it is (rows kept) and retried on the next
+// pass: archiving it would delete the plies after the gap for good.
+// load() is the single way to read a whole game: the blob when archived, the
+// rows otherwise.
+@Component
+public class GameArchiver {
+
+    private final MatchRepo matchRepo;
+    private final MoveRepo moveRepo;
+    private final ArchivedGameRepo archivedGameRepo;
+    private final MoveJournal moveJournal;
+    private final TransactionTemplate transactionTemplate;
+    private final long intervalMillis;
+    private final long minAgeMillis;
+    private final int batchSize;
+
+    private final Counter archived;
+    private final Counter incomplete;
+    private final Counter rowsDeleted;
+    private final DistributionSummary archiveBytes;
+
+    private volatile Thread archiver;
+    private long resumeAfterId; // archiver thread only: a pass walks matches by id
+
+    public GameArchiver(
+            MatchRepo matchRepo,
+            MoveRepo moveRepo,
+            ArchivedGameRepo archivedGameRepo,
+            MoveJournal moveJournal,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${archive.interval-ms:60000}") long intervalMillis,
+            @Value("${archive.min-age-ms:300000}") long minAgeMillis,
+            @Value("${archive.batch-size:100}") int batchSize
+    ) {
+        this.matchRepo = matchRepo;
+        this.moveRepo = moveRepo;
+        this.archivedGameRepo = archivedGameRepo;
+        this.moveJournal = moveJournal;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.intervalMillis = intervalMillis;
+        this.minAgeMillis = minAgeMillis;
+        this.batchSize = batchSize;
+
+        this.archived = Counter.builder("archive.games")
+                .description("Finished games moved into the archive format")
+                .register(meterRegistry);
+        this.incomplete = Counter.builder("archive.games.incomplete")
+                .description("Finished games left unarchived because their moves rows are incomplete")
+                .register(meterRegistry);
+        this.rowsDeleted = Counter.builder("archive.move.rows.deleted")
+                .description("Moves rows replaced by archive blobs")
+                .register(meterRegistry);
+        this.archiveBytes = DistributionSummary.builder("archive.game.bytes")
+                .description("Size of one archived game")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    // =========================
+    // LOAD
+    // =========================
+    // Whole finished (or running) game, one blob read once archived
+    public Optional<GameArchive.Game> load(Long matchId) {
+        Optional<ArchivedGame> archive = archivedGameRepo.findByMatchId(matchId);
+        if (archive.isPresent()) {
+            return Optional.of(GameArchive.decode(archive.get().getData()));
+        }
+        return matchRepo.findWithPlayersById(matchId)
+                .map(match -> fromRows(match, moveRepo.findByMatchIdOrderByPlyAsc(matchId)));
+    }
+
+    // =========================
+    // MIGRATION
+    // =========================
+    @PostConstruct
+    void start() {
+        Thread thread = new Thread(() -> {
+            long intervalNanos = intervalMillis * 1_000_000L;
+            while (!Thread.currentThread().isInterrupted()) {
+                LockSupport.parkNanos(intervalNanos);
+                try {
+                    archiveBatch();
+                } catch (RuntimeException e) {
+                    System.out.println("Game archiving failed: " + e.getMessage());
+                }
+            }
+        }, "game-archiver");
+        thread.setDaemon(true);
+        archiver = thread;
+        thread.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        Thread thread = archiver;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    // One page of candidates; each game in its own transaction. Games that
+    // fail stay behind the cursor until the next pass, so they never block
+    // the ones after them.
+    int archiveBatch() {
+        // Moves this node journaled before the pass are on disk first; while
+        // the database is behind, nothing is archived
+        try {
+            if (!moveJournal.awaitFlushed(moveJournal.lastSeq(), intervalMillis)) {
+                System.out.println("Game archiving skipped: move journal still behind");
+                return 0;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        }
+
+        LocalDateTime cutoff = LocalDateTime.now().minusNanos(minAgeMillis * 1_000_000L);
+        List<Long> matchIds = matchRepo.findArchivable(
+                MatchStatus.IN_PROGRESS, cutoff, resumeAfterId, PageRequest.of(0, batchSize));
+
+        int done = 0;
+        for (Long matchId : matchIds) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> archive(matchId));
+                done++;
+            } catch (RuntimeException e) {
+                System.out.println("Archiving match " + matchId + " failed: " + e.getMessage());
+            }
+        }
+
+        // A short page ends the pass: start again from the oldest
+        resumeAfterId = matchIds.size() < batchSize ? 0 : matchIds.get(matchIds.size() - 1);
+        return done;
+    }
+
+    private void archive(Long matchId) {
+        Match match = matchRepo.findWithPlayersById(matchId)
+                .orElseThrow(() -> new RuntimeException("Match not found"));
+        List<Move> rows = moveRepo.findByMatchIdOrderByPlyAsc(matchId);
+
+        GameArchive.Game game = fromRows(match, rows);
+        if (!isComplete(match, rows, game)) {
+            incomplete.increment();
+            throw new RuntimeException("moves rows incomplete (" + game.plies() + " replayable of "
+                    + rows.size() + " rows, current ply " + match.getCurrentPly() + "), left unarchived");
+        }
+
+        byte[] data = GameArchive.encode(game);
+
+        ArchivedGame archive = new ArchivedGame();
+        archive.setMatch(match);
+        archive.setPlies(game.plies());
+        archive.setData(data);
+        archive.setArchivedAt(LocalDateTime.now());
+        archivedGameRepo.save(archive);
+
+        rowsDeleted.increment(moveRepo.deleteByMatchId(matchId));
+        archived.increment();
+        archiveBytes.record(data.length);
+    }
+
+    // Every row replayed and none missing: only then may the rows be deleted
+    static boolean isComplete(Match match, List<Move> rows, GameArchive.Game game) {
+        int expected = match.getCurrentPly() == null ? 0 : match.getCurrentPly();
+        return game.plies() == rows.size() && game.plies() >= expected;
+    }
+
+    // Rows after a gap or an illegal move cannot be replayed and are left out
+    static GameArchive.Game fromRows(Match match, List<Move> rows) {
+        String startFen = rows.isEmpty() || rows.get(0).getPly() != 1 ? null : rows.get(0).getFenBefore();
+        if (startFen != null && startFen.equals(Position.START_FEN)) {
+            startFen = null;
+        }
+        if (startFen != null) {
+            try {
+                Position.fromFen(startFen);
+            } catch (IllegalArgumentException e) {
+                startFen = null;
+            }
+        }
+
+        GameArchive.Game header = new GameArchive.Game(
+                match.getPlayer1().getUsername(),
+                match.getPlayer2().getUsername(),
+                match.getStatus(),
+                match.getGameType(),
+                match.getOpeningEco(),
+                match.getOpeningName(),
+                startFen,
+                epochMillis(match.getStartedAt()),
+                epochMillis(match.getFinishedAt()),
+                new int[0],
+                new int[0]
+        );
+
+        return GameArchive.withPlies(header, rows.stream()
+                .map(row -> new GameArchive.Ply(row.getPly(), row.getUci(), row.getMoveTimeMs()))
+                .toList());
+    }
+
+    static long epochMillis(LocalDateTime time) {
+        return time == null ? 0 : time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,333 @@
+package com.example.IndiChessBackend.service;
+
+import com.example.IndiChessBackend.chess.Moves;
+import com.example.IndiChessBackend.chess.Position;
+import com.example.IndiChessBackend.chess.San;
+import com.example.IndiChessBackend.model.GameType;
+import com.example.IndiChessBackend.model.MatchStatus;
+import com.example.IndiChessBackend.repo.ArchivedGameRepo;
+import com.example.IndiChessBackend.repo.MatchHeader;
+import com.example.IndiChessBackend.repo.MatchRepo;
+import com.example.IndiChessBackend.repo.MoveRepo;
+import com.example.IndiChessBackend.repo.UserRepo;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+
+// =========================
+// GAME EXPORT
+// =========================
+// All of a player's finished games, streamed page by page as PGN or NDJSON,
+// oldest first. Pages are keyset on (createdAt, id), one indexed query per
+// side merged as in MatchHistoryService, so a page never scans other
+// players' games. Each page is read as projections - never managed
+// entities - written, flushed and dropped, so memory is one page whatever
+// the number of games.
+@Service
+@RequiredArgsConstructor
+public class GameExportService {
+
+    static final int PAGE_SIZE = 200;
+    private static final int LINE_WIDTH = 80;
+    private static final DateTimeFormatter PGN_DATE = DateTimeFormatter.ofPattern("yyyy.MM.dd");
+
+    public enum Format {
+        PGN, NDJSON
+    }
+
+    private static final Comparator<MatchHeader> OLDEST_FIRST = Comparator
+            .comparing(MatchHeader::getCreatedAt)
+            .thenComparing(MatchHeader::getId);
+
+    // Below anything stored
+    private static final LocalDateTime BEFORE_ALL = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final MatchRepo matchRepo;
+    private final UserRepo userRepo;
+    private final MoveRepo moveRepo;
+    private final ArchivedGameRepo archivedGameRepo;
+
+    public int export(String username, Format format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+
+        Long userId = userRepo.findIdByUsername(username).orElse(null);
+        if (userId == null) {
+            writer.flush();
+            return 0;
+        }
+
+        // One extra row per side tells whether another page exists
+        PageRequest page = PageRequest.of(0, PAGE_SIZE + 1);
+        LocalDateTime afterCreatedAt = BEFORE_ALL;
+        long afterId = 0;
+        int exported = 0;
+        while (true) {
+            List<MatchHeader> merged = MatchHistoryService.merge(
+                    matchRepo.findFinishedAsPlayer1(userId, MatchStatus.IN_PROGRESS, afterCreatedAt, afterId, page),
+                    matchRepo.findFinishedAsPlayer2(userId, MatchStatus.IN_PROGRESS, afterCreatedAt, afterId, page),
+                    OLDEST_FIRST,
+                    PAGE_SIZE + 1
+            );
+            if (merged.isEmpty()) {
+                break;
+            }
+            List<MatchHeader> headers = merged.subList(0, Math.min(PAGE_SIZE, merged.size()));
+
+            for (Map.Entry<Long, GameArchive.Game> entry : loadPage(headers).entrySet()) {
+                if (format == Format.PGN) {
+                    writePgn(writer, entry.getKey(), entry.getValue());
+                } else {
+                    writeNdjson(writer, entry.getKey(), entry.getValue());
+                }
+                exported++;
+            }
+            writer.flush();
+
+            MatchHeader last = headers.get(headers.size() - 1);
+            afterCreatedAt = last.getCreatedAt();
+            afterId = last.getId();
+            if (merged.size() <= PAGE_SIZE) {
+                break;
+            }
+        }
+        writer.flush();
+        return exported;
+    }
+
+    // Archived games from their blobs, the rest from their moves rows (two queries per page)
+    private Map<Long, GameArchive.Game> loadPage(List<MatchHeader> headers) {
+        List<Long> ids = headers.stream().map(MatchHeader::getId).toList();
+
+        Map<Long, byte[]> blobs = new HashMap<>();
+        for (ArchivedGameRepo.Blob blob : archivedGameRepo.findBlobsByMatchIds(ids)) {
+            blobs.put(blob.getMatchId(), blob.getData());
+        }
+
+        Map<Long, List<GameArchive.Ply>> plies = new HashMap<>();
+        List<Long> unarchived = ids.stream().filter(id -> !blobs.containsKey(id)).toList();
+        if (!unarchived.isEmpty()) {
+            for (MoveRepo.PlyRow row : moveRepo.findPliesByMatchIds(unarchived)) {
+                plies.computeIfAbsent(row.getMatchId(), id -> new ArrayList<>())
+                        .add(new GameArchive.Ply(row.getPly(), row.getUci(), row.getMoveTimeMs()));
+            }
+        }
+
+        Map<Long, GameArchive.Game> games = new LinkedHashMap<>();
+        for (MatchHeader header : headers) {
+            byte[] blob = blobs.get(header.getId());
+            games.put(header.getId(), blob != null
+                    ? GameArchive.decode(blob)
+                    : GameArchive.withPlies(headerGame(header), plies.getOrDefault(header.getId(), List.of())));
+        }
+        return games;
+    }
+
+    private static GameArchive.Game headerGame(MatchHeader header) {
+        return new GameArchive.Game(
+                header.getWhite(),
+                header.getBlack(),
+                header.getStatus(),
+                header.getGameType(),
+                header.getOpeningEco(),
+                header.getOpeningName(),
+                null,
+                GameArchiver.epochMillis(header.getStartedAt()),
+                GameArchiver.epochMillis(header.getFinishedAt()),
+                new int[0],
+                new int[0]
+        );
+    }
+
+    // =========================
+    // PGN
+    // =========================
+    static void writePgn(Writer out, long matchId, GameArchive.Game game) throws IOException {
+        String result = result(game.result());
+
+        tag(out, "Event", "IndiChess " + (game.gameType() == null ? "casual" : game.gameType().name().toLowerCase()) + " game");
+        tag(out, "Site", "IndiChess");
+        tag(out, "Date", game.startedAtMillis() == 0 ? "????.??.??" : PGN_DATE.format(date(game.startedAtMillis())));
+        tag(out, "Round", "-");
+        tag(out, "White", game.white());
+        tag(out, "Black", game.black());
+        tag(out, "Result", result);
+        if (game.startFen() != null) {
+            tag(out, "SetUp", "1");
+            tag(out, "FEN", game.startFen());
+        }
+        if (game.openingEco() != null) {
+            tag(out, "ECO", game.openingEco());
+        }
+        if (game.openingName() != null) {
+            tag(out, "Opening", game.openingName());
+        }
+        tag(out, "TimeControl", timeControl(game.gameType()));
+        tag(out, "PlyCount", String.valueOf(game.plies()));
+        tag(out, "GameId", String.valueOf(matchId));
+        out.write('\n');
+
+        // Movetext wrapped at LINE_WIDTH
+        Position position = game.startPosition();
+        int lineLength = 0;
+        StringBuilder token = new StringBuilder(16);
+        for (int i = 0; i <= game.plies(); i++) {
+            token.setLength(0);
+            if (i == game.plies()) {
+                token.append(result);
+            } else {
+                if (position.isWhiteToMove()) {
+                    token.append(position.fullmoveNumber()).append(". ");
+                } else if (i == 0) {
+                    token.append(position.fullmoveNumber()).append("... ");
+                }
+                token.append(San.of(position, game.moves()[i]));
+                position.makeMove(game.moves()[i]);
+            }
+
+            if (lineLength > 0 && lineLength + 1 + token.length() > LINE_WIDTH) {
+                out.write('\n');
+                lineLength = 0;
+            } else if (lineLength > 0) {
+                out.write(' ');
+                lineLength++;
+            }
+            out.append(token);
+            lineLength += token.length();
+        }
+        out.write("\n\n");
+    }
+
+    private static void tag(Writer out, String name, String value) throws IOException {
+        out.write('[');
+        out.write(name);
+        out.write(" \"");
+        out.write(value == null ? "?" : value.replace("\\", "\\\\").replace("\"", "\\\""));
+        out.write("\"]\n");
+    }
+
+    private static String timeControl(GameType gameType) {
+        if (gameType == null || gameType.getInitialMillis() == null) {
+            return "-";
+        }
+        return gameType.getInitialMillis() / 1000 + "+" + gameType.getIncrementMillis() / 1000;
+    }
+
+    // =========================
+    // NDJSON
+    // =========================
+    // One JSON object per line; moveTimesMs is null when any time is unknown
+    static void writeNdjson(Writer out, long matchId, GameArchive.Game game) throws IOException {
+        Position position = game.startPosition();
+        StringBuilder san = new StringBuilder(game.plies() * 6);
+        StringBuilder uci = new StringBuilder(game.plies() * 5);
+        boolean timesKnown = true;
+        for (int i = 0; i < game.plies(); i++) {
+            int move = game.moves()[i];
+            if (i > 0) {
+                san.append(' ');
+                uci.append(' ');
+            }
+            san.append(San.of(position, move));
+            uci.append(Moves.toUci(move));
+            position.makeMove(move);
+            timesKnown &= game.moveTimesMs()[i] >= 0;
+        }
+
+        out.write("{\"id\":");
+        out.write(String.valueOf(matchId));
+        out.write(",\"white\":");
+        json(out, game.white());
+        out.write(",\"black\":");
+        json(out, game.black());
+        out.write(",\"result\":");
+        json(out, result(game.result()));
+        out.write(",\"status\":");
+        json(out, game.result() == null ? null : game.result().name());
+        out.write(",\"gameType\":");
+        json(out, game.gameType() == null ? null : game.gameType().name());
+        out.write(",\"eco\":");
+        json(out, game.openingEco());
+        out.write(",\"opening\":");
+        json(out, game.openingName());
+        if (game.startFen() != null) {
+            out.write(",\"fen\":");
+            json(out, game.startFen());
+        }
+        out.write(",\"startedAt\":");
+        json(out, game.startedAtMillis() == 0 ? null : Instant.ofEpochMilli(game.startedAtMillis()).toString());
+        out.write(",\"finishedAt\":");
+        json(out, game.finishedAtMillis() == 0 ? null : Instant.ofEpochMilli(game.finishedAtMillis()).toString());
+        out.write(",\"moves\":");
+        json(out, san.toString());
+        out.write(",\"uci\":");
+        json(out, uci.toString());
+        out.write(",\"moveTimesMs\":");
+        if (timesKnown) {
+            out.write('[');
+            for (int i = 0; i < game.plies(); i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                out.write(String.valueOf(game.moveTimesMs()[i]));
+            }
+            out.write(']');
+        } else {
+            out.write("null");
+        }
+        out.write("}\n");
+    }
+
+    private static void json(Writer out, String value) throws IOException {
+        if (value == null) {
+            out.write("null");
+            return;
+        }
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> out.write("\\\"");
+                case '\\' -> out.write("\\\\");
+                case '\n' -> out.write("\\n");
+                case '\r' -> out.write("\\r");
+                case '\t' -> out.write("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.write(c);
+                    }
+                }
+            }
+        }
+        out.write('"');
+    }
+
+    // =========================
+    // HELPERS
+    // =========================
+    private static String result(MatchStatus status) {
+        if (status == null) {
+            return "*";
+        }
+        return switch (status) {
+            case PLAYER1_WON -> "1-0";
+            case PLAYER2_WON -> "0-1";
+            case DRAW -> "1/2-1/2";
+            case IN_PROGRESS -> "*";
+        };
+    }
+
+    private static LocalDate date(long epochMillis) {
+        return Instant.ofEpochMilli(epochMillis).atZone(ZoneId.systemDefault()).toLocalDate();
+    }
+}
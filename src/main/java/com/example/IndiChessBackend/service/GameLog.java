@@ -0,0 +1,591 @@
+package com.example.IndiChessBackend.service;
+
+import com.example.IndiChessBackend.chess.Position;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+// =========================
+// GAME LOG (CRASH RECOVERY)
+// =========================
+// Append-only log of what active games do (open, move, draw offer, game
+// over), written into memory-mapped segment files. A write lands in the page
+// cache, so a killed JVM loses nothing; the log thread forces the mapping to
+// disk once per sync interval. Every snapshot interval it rolls to a fresh
+// segment, writes every active game compactly (root FEN + packed moves +
+// clocks) and deletes the segments the snapshot covers. On startup the
+// latest snapshot plus the segments after it rebuild the active games.
+//
+// Record: int length | int crc32 | byte type | payload. The length is written
+// last, so a record torn by a crash reads as the end of the log. Replay is
+// idempotent (moves carry their ply), which lets the snapshot be taken after
+// the roll without blocking the games.
+@Component
+public class GameLog {
+
+    static final byte OPEN = 1;
+    static final byte MOVE = 2;
+    static final byte DRAW_OFFER = 3;
+    static final byte DRAW_CLEAR = 4;
+    static final byte GAME_OVER = 5;
+
+    private static final int HEADER_BYTES = 8;
+    private static final int SNAPSHOT_MAGIC = 0x49434753; // "ICGS"
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String SNAPSHOT_SUFFIX = ".snap";
+
+    // One game as the log stores it, taken under the game lock
+    record GameRecord(
+            long matchId,
+            int seq,
+            String rootFen,
+            int[] moves,
+            Long whiteTimeMs,
+            Long blackTimeMs,
+            String player1,
+            String player2,
+            String drawOfferFrom
+    ) {
+    }
+
+    // A game rebuilt from snapshot + log tail
+    static final class RecoveredGame {
+        final long matchId;
+        final String player1;
+        final String player2;
+        Position position;
+        int seq;
+        Long whiteTimeMs;
+        Long blackTimeMs;
+        String drawOfferFrom;
+
+        RecoveredGame(GameRecord record) {
+            this.matchId = record.matchId();
+            this.player1 = record.player1();
+            this.player2 = record.player2();
+            this.position = Position.fromFen(record.rootFen());
+            for (int move : record.moves()) {
+                position.makeMove(move);
+            }
+            this.seq = record.seq();
+            this.whiteTimeMs = record.whiteTimeMs();
+            this.blackTimeMs = record.blackTimeMs();
+            this.drawOfferFrom = record.drawOfferFrom();
+        }
+    }
+
+    private final Path dir;
+    private final int segmentBytes;
+    private final long syncIntervalMillis;
+    private final long snapshotIntervalMillis;
+
+    private final Object lock = new Object();
+    private final CRC32 crc = new CRC32();
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private long segment;
+    private long firstSegment; // first one written by this run
+
+    private volatile Supplier<Collection<GameRecord>> snapshotSource;
+
+    // Latest wall-clock time the previous run can have written to the log
+    private long previousRunEndMillis;
+
+    private final Counter appended;
+    private final Timer snapshotTimer;
+
+    private volatile Thread syncer;
+
+    public GameLog(
+            MeterRegistry meterRegistry,
+            @Value("${game-log.dir:data/game-log}") String dir,
+            @Value("${game-log.segment-bytes:16777216}") int segmentBytes,
+            @Value("${game-log.sync-interval-ms:1000}") long syncIntervalMillis,
+            @Value("${game-log.snapshot-interval-ms:30000}") long snapshotIntervalMillis
+    ) {
+        this.dir = Paths.get(dir);
+        this.segmentBytes = segmentBytes;
+        this.syncIntervalMillis = syncIntervalMillis;
+        this.snapshotIntervalMillis = snapshotIntervalMillis;
+
+        this.appended = Counter.builder("game.log.records")
+                .description("Records appended to the game log")
+                .register(meterRegistry);
+        this.snapshotTimer = Timer.builder("game.log.snapshot")
+                .description("Writing one snapshot of all active games")
+                .register(meterRegistry);
+    }
+
+    // =========================
+    // APPEND
+    // =========================
+    // Called under the game's lock, so one game's records keep their order
+    public void open(GameRecord game) {
+        append(OPEN, out -> writeGame(out, game));
+    }
+
+    public void move(long matchId, int seq, int move, Long whiteTimeMs, Long blackTimeMs) {
+        append(MOVE, out -> {
+            out.writeLong(matchId);
+            out.writeInt(seq);
+            out.writeShort(move);
+            writeClock(out, whiteTimeMs);
+            writeClock(out, blackTimeMs);
+        });
+    }
+
+    public void drawOffer(long matchId, String from) {
+        append(DRAW_OFFER, out -> {
+            out.writeLong(matchId);
+            out.writeUTF(from);
+        });
+    }
+
+    public void drawClear(long matchId) {
+        append(DRAW_CLEAR, out -> out.writeLong(matchId));
+    }
+
+    public void gameOver(long matchId) {
+        append(GAME_OVER, out -> out.writeLong(matchId));
+    }
+
+    private interface Body {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private void append(byte type, Body body) {
+        byte[] payload = encode(type, body);
+        if (HEADER_BYTES + payload.length > segmentBytes) {
+            throw new RuntimeException("Game log record of " + payload.length + " bytes exceeds a segment");
+        }
+
+        synchronized (lock) {
+            if (buffer.remaining() < HEADER_BYTES + payload.length) {
+                roll();
+            }
+            int start = buffer.position();
+            crc.reset();
+            crc.update(payload);
+            buffer.putInt(start + 4, (int) crc.getValue());
+            buffer.put(start + HEADER_BYTES, payload);
+            buffer.putInt(start, payload.length);
+            buffer.position(start + HEADER_BYTES + payload.length);
+        }
+        appended.increment();
+    }
+
+    // =========================
+    // SEGMENTS
+    // =========================
+    @PostConstruct
+    void start() throws IOException {
+        Files.createDirectories(dir);
+
+        // Never append to a segment from before the restart: recovery reads those
+        synchronized (lock) {
+            segment = Math.max(lastNumber(SEGMENT_SUFFIX), lastNumber(SNAPSHOT_SUFFIX)) + 1;
+            firstSegment = segment;
+            mapSegment();
+        }
+
+        Thread thread = new Thread(this::syncLoop, "game-log");
+        thread.setDaemon(true);
+        syncer = thread;
+        thread.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        Thread thread = syncer;
+        if (thread != null) {
+            thread.interrupt();
+        }
+        synchronized (lock) {
+            buffer.force();
+            closeChannel();
+        }
+    }
+
+    // GameService hands over its active games once recovery is done
+    void snapshotFrom(Supplier<Collection<GameRecord>> source) {
+        this.snapshotSource = source;
+    }
+
+    private void roll() {
+        buffer.force();
+        closeChannel();
+        segment++;
+        mapSegment();
+    }
+
+    private void mapSegment() {
+        try {
+            channel = FileChannel.open(segmentPath(segment),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot map game log segment " + segment, e);
+        }
+    }
+
+    private void closeChannel() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.out.println("Closing game log segment " + segment + " failed: " + e.getMessage());
+        }
+    }
+
+    private void syncLoop() {
+        long intervalNanos = syncIntervalMillis * 1_000_000L;
+        long nextSnapshot = System.nanoTime() + snapshotIntervalMillis * 1_000_000L;
+
+        while (!Thread.currentThread().isInterrupted()) {
+            LockSupport.parkNanos(intervalNanos);
+            try {
+                synchronized (lock) {
+                    buffer.force();
+                }
+                if (System.nanoTime() - nextSnapshot >= 0 && snapshotSource != null) {
+                    snapshot();
+                    nextSnapshot = System.nanoTime() + snapshotIntervalMillis * 1_000_000L;
+                }
+            } catch (RuntimeException e) {
+                System.out.println("Game log sync failed: " + e.getMessage());
+            }
+        }
+    }
+
+    // =========================
+    // SNAPSHOT
+    // =========================
+    // Everything before the returned segment is covered by the snapshot
+    long snapshot() {
+        long covers;
+        synchronized (lock) {
+            roll();
+            covers = segment;
+        }
+
+        Collection<GameRecord> games = snapshotSource.get();
+        snapshotTimer.record(() -> writeSnapshot(covers, games));
+
+        // Older segments and snapshots are now redundant
+        for (Path path : list()) {
+            long number = number(path);
+            if (number < covers) {
+                delete(path);
+            }
+        }
+        return covers;
+    }
+
+    private void writeSnapshot(long covers, Collection<GameRecord> games) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(games.size());
+            for (GameRecord game : games) {
+                writeGame(out, game);
+            }
+            CRC32 sum = new CRC32();
+            sum.update(bytes.toByteArray());
+            out.writeInt((int) sum.getValue());
+
+            // Write aside, force, then rename: a crash leaves the old snapshot in place
+            Path tmp = dir.resolve(name(covers) + SNAPSHOT_SUFFIX + ".tmp");
+            Files.write(tmp, bytes.toByteArray());
+            try (FileChannel file = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                file.force(true);
+            }
+            Files.move(tmp, dir.resolve(name(covers) + SNAPSHOT_SUFFIX), StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Game log snapshot failed", e);
+        }
+    }
+
+    // =========================
+    // RECOVERY
+    // =========================
+    // Latest readable snapshot, then every segment from the one it covers on
+    Collection<RecoveredGame> recover() {
+        Map<Long, RecoveredGame> games = new LinkedHashMap<>();
+        List<Path> files = list();
+
+        long from = 0;
+        for (int i = files.size() - 1; i >= 0; i--) {
+            Path path = files.get(i);
+            if (path.toString().endsWith(SNAPSHOT_SUFFIX) && readSnapshot(path, games)) {
+                from = number(path);
+                break;
+            }
+        }
+
+        for (Path path : files) {
+            if (path.toString().endsWith(SEGMENT_SUFFIX) && number(path) >= from && number(path) < firstSegment) {
+                replay(path, games);
+            }
+        }
+        previousRunEndMillis = lastWrittenMillis(files);
+        return games.values();
+    }
+
+    // When the previous run went down, read from its files after recover().
+    // An mmap write moves a file's mtime only on the first write after a
+    // force, so the last writes may be up to one sync interval later.
+    long previousRunEndMillis() {
+        return previousRunEndMillis;
+    }
+
+    private long lastWrittenMillis(List<Path> files) {
+        long latest = 0;
+        for (Path path : files) {
+            if (number(path) >= firstSegment) {
+                continue;
+            }
+            try {
+                latest = Math.max(latest, Files.getLastModifiedTime(path).toMillis());
+            } catch (IOException e) {
+                System.out.println("Cannot read game log file time " + path + ": " + e.getMessage());
+            }
+        }
+        return latest == 0 ? 0 : latest + syncIntervalMillis;
+    }
+
+    private boolean readSnapshot(Path path, Map<Long, RecoveredGame> games) {
+        try {
+            byte[] bytes = Files.readAllBytes(path);
+            if (bytes.length < 12) {
+                return false;
+            }
+            CRC32 sum = new CRC32();
+            sum.update(bytes, 0, bytes.length - 4);
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+            if (in.readInt() != SNAPSHOT_MAGIC
+                    || (int) sum.getValue() != ByteBuffer.wrap(bytes, bytes.length - 4, 4).getInt()) {
+                System.out.println("Skipping damaged game log snapshot " + path);
+                return false;
+            }
+
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                GameRecord game = readGame(in);
+                games.put(game.matchId(), new RecoveredGame(game));
+            }
+            return true;
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Skipping unreadable game log snapshot " + path + ": " + e.getMessage());
+            games.clear();
+            return false;
+        }
+    }
+
+    private void replay(Path path, Map<Long, RecoveredGame> games) {
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer log = file.map(FileChannel.MapMode.READ_ONLY, 0, file.size());
+            CRC32 sum = new CRC32();
+
+            while (log.remaining() >= HEADER_BYTES) {
+                int start = log.position();
+                int length = log.getInt(start);
+                if (length <= 0 || length > log.remaining() - HEADER_BYTES) {
+                    return; // end of log (or a record cut short)
+                }
+                byte[] payload = new byte[length];
+                log.get(start + HEADER_BYTES, payload);
+                sum.reset();
+                sum.update(payload);
+                if ((int) sum.getValue() != log.getInt(start + 4)) {
+                    System.out.println("Game log " + path + " ends in a damaged record at " + start);
+                    return;
+                }
+                apply(payload, games);
+                log.position(start + HEADER_BYTES + length);
+            }
+        } catch (IOException e) {
+            System.out.println("Cannot read game log segment " + path + ": " + e.getMessage());
+        }
+    }
+
+    private void apply(byte[] payload, Map<Long, RecoveredGame> games) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        byte type = in.readByte();
+
+        switch (type) {
+            case OPEN -> {
+                GameRecord game = readGame(in);
+                RecoveredGame known = games.get(game.matchId());
+                if (known == null || game.seq() > known.seq) {
+                    games.put(game.matchId(), new RecoveredGame(game));
+                }
+            }
+            case MOVE -> {
+                RecoveredGame game = games.get(in.readLong());
+                int seq = in.readInt();
+                int move = in.readShort() & 0xFFFF;
+                Long white = readClock(in);
+                Long black = readClock(in);
+                // Already in the snapshot, or a gap we cannot bridge
+                if (game == null || seq != game.seq + 1 || !game.position.isLegal(move)) {
+                    return;
+                }
+                game.position.makeMove(move);
+                game.seq = seq;
+                game.whiteTimeMs = white;
+                game.blackTimeMs = black;
+                game.drawOfferFrom = null;
+            }
+            case DRAW_OFFER -> {
+                RecoveredGame game = games.get(in.readLong());
+                String from = in.readUTF();
+                if (game != null) {
+                    game.drawOfferFrom = from;
+                }
+            }
+            case DRAW_CLEAR -> {
+                RecoveredGame game = games.get(in.readLong());
+                if (game != null) {
+                    game.drawOfferFrom = null;
+                }
+            }
+            case GAME_OVER -> games.remove(in.readLong());
+            default -> throw new IOException("Unknown game log record type " + type);
+        }
+    }
+
+    // =========================
+    // ENCODING
+    // =========================
+    private static byte[] encode(byte type, Body body) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(type);
+            body.write(out);
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeGame(DataOutputStream out, GameRecord game) throws IOException {
+        out.writeLong(game.matchId());
+        out.writeInt(game.seq());
+        out.writeUTF(game.rootFen());
+        out.writeShort(game.moves().length);
+        for (int move : game.moves()) {
+            out.writeShort(move);
+        }
+        writeClock(out, game.whiteTimeMs());
+        writeClock(out, game.blackTimeMs());
+        out.writeUTF(game.player1());
+        out.writeUTF(game.player2());
+        out.writeUTF(game.drawOfferFrom() == null ? "" : game.drawOfferFrom());
+    }
+
+    private static GameRecord readGame(DataInputStream in) throws IOException {
+        long matchId = in.readLong();
+        int seq = in.readInt();
+        String rootFen = in.readUTF();
+        int[] moves = new int[in.readUnsignedShort()];
+        for (int i = 0; i < moves.length; i++) {
+            moves[i] = in.readShort() & 0xFFFF;
+        }
+        Long white = readClock(in);
+        Long black = readClock(in);
+        String player1 = in.readUTF();
+        String player2 = in.readUTF();
+        String offer = in.readUTF();
+        return new GameRecord(matchId, seq, rootFen, moves, white, black,
+                player1, player2, offer.isEmpty() ? null : offer);
+    }
+
+    // Untimed games have no clock: -1
+    private static void writeClock(DataOutputStream out, Long clock) throws IOException {
+        out.writeLong(clock == null ? -1 : clock);
+    }
+
+    private static Long readClock(DataInputStream in) throws IOException {
+        long clock = in.readLong();
+        return clock < 0 ? null : clock;
+    }
+
+    // =========================
+    // FILES
+    // =========================
+    // Segments and snapshots share one numbering: NNNN.log, NNNN.snap
+    private Path segmentPath(long number) {
+        return dir.resolve(name(number) + SEGMENT_SUFFIX);
+    }
+
+    private static String name(long number) {
+        return String.format("%016d", number);
+    }
+
+    private static long number(Path path) {
+        String file = path.getFileName().toString();
+        return Long.parseLong(file.substring(0, file.indexOf('.')));
+    }
+
+    // Sorted by number, a snapshot after the segments it shares a number with
+    private List<Path> list() {
+        try (Stream<Path> files = Files.list(dir)) {
+            List<Path> result = new ArrayList<>();
+            files.filter(path -> path.toString().endsWith(SEGMENT_SUFFIX)
+                            || path.toString().endsWith(SNAPSHOT_SUFFIX))
+                    .sorted((a, b) -> {
+                        int byNumber = Long.compare(number(a), number(b));
+                        return byNumber != 0 ? byNumber : a.getFileName().compareTo(b.getFileName());
+                    })
+                    .forEach(result::add);
+            return result;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot list game log directory " + dir, e);
+        }
+    }
+
+    private long lastNumber(String suffix) {
+        return list().stream()
+                .filter(path -> path.toString().endsWith(suffix))
+                .mapToLong(GameLog::number)
+                .max()
+                .orElse(0);
+    }
+
+    private static void delete(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            System.out.println("Cannot delete old game log file " + path + ": " + e.getMessage());
+        }
+    }
+}
@@ -1,14 +1,19 @@
 package com.example.IndiChessBackend.service;
 
+import com.example.IndiChessBackend.chess.Moves;
+import com.example.IndiChessBackend.chess.Piece;
+import com.example.IndiChessBackend.chess.Position;
+import com.example.IndiChessBackend.chess.San;
+import com.example.IndiChessBackend.chess.Termination;
 import com.example.IndiChessBackend.model.DTO.*;
 import com.example.IndiChessBackend.model.GameType;
 import com.example.IndiChessBackend.model.Match;
 import com.example.IndiChessBackend.model.MatchStatus;
+import com.example.IndiChessBackend.model.PieceColor;
 import com.example.IndiChessBackend.repo.MatchRepo;
 import com.example.IndiChessBackend.repo.UserRepo;
-import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
@@ -25,29 +30,31 @@ public class GameService {
     private final MatchRepo matchRepo;
     private final UserRepo userRepo;
     private final SimpMessagingTemplate messagingTemplate;
+    private final OpeningClassifier openingClassifier;
+    private final ComputerPlayer computerPlayer;
+    private final GameAnalysisService gameAnalysisService;
+    private final LagCompensator lagCompensator;
+    private final MoveJournal moveJournal;
+    private final MatchWriteBehind matchWriteBehind;
+    private final GameLog gameLog;
+    private final FinishedGames finishedGames;
+    private final GameStateStore gameStateStore;
 
-    private static final int BLITZ_INCREMENT = 1; // +1 second increment for blitz
+    private static final long CLOCK_TICK_MILLIS = 10;
+
+    // ⏱ One flag deadline per timed game, re-armed on every move
+    private final TimingWheel clockWheel = new TimingWheel(CLOCK_TICK_MILLIS, this::flagGame);
 
     // =========================
     // IN-MEMORY GAME STORAGE
     // =========================
+    // In-progress games only; finished ones move to FinishedGames (bounded).
+    // Copies of GameStateStore entries, checked against it on every access.
     private final Map<Long, GameState> activeGames = new ConcurrentHashMap<>();
     private final Map<Long, List<String>> gamePlayers = new ConcurrentHashMap<>();
 
-    // =========================
-    // GAME STATE CLASS
-    // =========================
-    @Data
-    @NoArgsConstructor
-    @AllArgsConstructor
-    private static class GameState {
-        private String[][] board;
-        private boolean isWhiteTurn;
-        private String status;
-        private String player1Username;
-        private String player2Username;
-        private LocalDateTime lastMoveTime;
-    }
+    // ⏱ Periodic clock frames for every timed game, from one sweeper thread
+    private final ClockSync clockSync = new ClockSync(activeGames, this::publishClock);
 
     // =========================
     // GET GAME DETAILS (REST)
@@ -60,41 +67,48 @@ public class GameService {
 
         String username = principal.getName();
 
-        Match match = matchRepo.findById(matchId)
-                .orElseThrow(() -> new RuntimeException("Game not found"));
+        // Active and recently finished games answer from their cached row
+        GameState gameState = knownGame(matchId);
+        Match match = gameState != null
+                ? gameState.getMatch()
+                : matchRepo.findWithPlayersById(matchId)
+                        .orElseThrow(() -> new RuntimeException("Game not found"));
 
         // Determine player color
         String playerColor = determinePlayerColor(match, username);
 
-        // Determine if it's this player's turn
-        boolean isMyTurn = determineMyTurn(match, username);
-
-        // Get or initialize game state
-        GameState gameState = activeGames.get(matchId);
+        // Get or initialize game state (finished games are not re-activated)
         if (gameState == null) {
-            gameState = initializeGameState(match);
-            activeGames.put(matchId, gameState);
-
-            // Store players
-            gamePlayers.put(matchId, List.of(
-                    match.getPlayer1().getUsername(),
-                    match.getPlayer2().getUsername()
-            ));
+            if (match.getStatus() == MatchStatus.IN_PROGRESS) {
+                gameState = activate(match);
+                if (gameState == null) {
+                    throw new RuntimeException("Game just finished, retry");
+                }
+                match = gameState.getMatch();
+            } else {
+                gameState = initializeGameState(match);
+                finishedGames.add(matchId, gameState);
+            }
         }
 
+        // Determine if it's this player's turn
+        boolean isMyTurn = determineMyTurn(match, gameState, username);
+
         // Build response DTO
         GameDTO gameDTO = new GameDTO();
         gameDTO.setId(match.getId());
-        gameDTO.setPlayer1(match.getPlayer1());
-        gameDTO.setPlayer2(match.getPlayer2());
+        gameDTO.setPlayer1(PlayerSummary.of(match.getPlayer1()));
+        gameDTO.setPlayer2(PlayerSummary.of(match.getPlayer2()));
         gameDTO.setStatus(gameState.getStatus());
         gameDTO.setPlayerColor(playerColor);
         gameDTO.setMyTurn(isMyTurn);
-        gameDTO.setBoard(gameState.getBoard());
-        gameDTO.setFen(convertBoardToFEN(
-                gameState.getBoard(),
-                gameState.isWhiteTurn()
-        ));
+        gameDTO.setSquares(currentSquares(gameState));
+        gameDTO.setFen(currentFen(gameState));
+        gameDTO.setWhiteTime(clockSeconds(match.getWhiteTimeMs()));
+        gameDTO.setBlackTime(clockSeconds(match.getBlackTimeMs()));
+        gameDTO.setWhiteTimeMs(match.getWhiteTimeMs());
+        gameDTO.setBlackTimeMs(match.getBlackTimeMs());
+        gameDTO.setGameType(match.getGameType());
         gameDTO.setCreatedAt(match.getCreatedAt());
         gameDTO.setUpdatedAt(match.getUpdatedAt());
 
@@ -116,14 +130,7 @@ public class GameService {
     // =========================
     // TURN LOGIC
     // =========================
-    private boolean determineMyTurn(Match match, String username) {
-        GameState gameState = activeGames.get(match.getId());
-
-        // First move → white starts
-        if (gameState == null) {
-            return match.getPlayer1().getUsername().equals(username);
-        }
-
+    private boolean determineMyTurn(Match match, GameState gameState, String username) {
         boolean isWhiteTurn = gameState.isWhiteTurn();
         return isWhiteTurn
                 ? match.getPlayer1().getUsername().equals(username)
@@ -134,85 +141,131 @@ public class GameService {
     // INITIAL BOARD SETUP
     // =========================
     private GameState initializeGameState(Match match) {
+        return initializeGameState(match, loadPosition(match));
+    }
 
-        String[][] initialBoard = {
-                {"r", "n", "b", "q", "k", "b", "n", "r"},
-                {"p", "p", "p", "p", "p", "p", "p", "p"},
-                {"", "", "", "", "", "", "", ""},
-                {"", "", "", "", "", "", "", ""},
-                {"", "", "", "", "", "", "", ""},
-                {"", "", "", "", "", "", "", ""},
-                {"P", "P", "P", "P", "P", "P", "P", "P"},
-                {"R", "N", "B", "Q", "K", "B", "N", "R"}
-        };
-
-        return new GameState(
-                initialBoard,
-                true,
-                "IN_PROGRESS",
-                match.getPlayer1().getUsername(),
-                match.getPlayer2().getUsername(),
-                LocalDateTime.now()
-        );
+    // The turn starts now: time spent while the game was not loaded is not charged
+    private GameState initializeGameState(Match match, Position position) {
+
+        GameState gameState = new GameState();
+        gameState.setPosition(position);
+        gameState.setMatch(match);
+        gameState.setStatus(match.getStatus() == MatchStatus.IN_PROGRESS
+                ? "IN_PROGRESS"
+                : "GAME_OVER");
+        gameState.setPlayer1Username(match.getPlayer1().getUsername());
+        gameState.setPlayer2Username(match.getPlayer2().getUsername());
+        gameState.setTurnStartedNanos(System.nanoTime());
+        mirrorClocks(gameState, match);
+        gameState.setWhiteLagQuotaMs(lagCompensator.initialQuota());
+        gameState.setBlackLagQuotaMs(lagCompensator.initialQuota());
+        gameState.setSeq(match.getCurrentPly() == null ? 0 : match.getCurrentPly());
+        gameState.setRootFen(rootFen(position));
+
+        // Resumed games re-enter the book by position key (root for a new game)
+        int node = openingClassifier.locate(position.hash());
+        gameState.setOpeningNode(node);
+        gameState.setOpening(openingClassifier.openingAt(node));
+
+        if (match.getStatus() == MatchStatus.IN_PROGRESS) {
+            scheduleFlag(match.getId(), gameState, match);
+        }
+
+        return gameState;
+    }
+
+    // FEN before the first move the position holds
+    private static String rootFen(Position position) {
+        Position root = position.copy();
+        for (int ply = position.ply(); ply > 0; ply--) {
+            root.unmakeMove();
+        }
+        return root.toFen();
+    }
+
+    // fenCurrent is written by the server, so an existing game resumes from it
+    private Position loadPosition(Match match) {
+
+        if (match.getFenCurrent() == null || match.getFenCurrent().isBlank()) {
+            return Position.startPosition();
+        }
+
+        try {
+            return Position.fromFen(match.getFenCurrent());
+        } catch (IllegalArgumentException e) {
+            return Position.startPosition();
+        }
     }
 
     // =========================
 // CLOCK UPDATE
 // =========================
-    private void updateClock(
+    // Charges the mover's think time (ms, already net of lag credit). A clock
+    // that hits zero loses before the increment is added.
+    static void updateClock(
             Match match,
             boolean wasWhiteTurn,
-            LocalDateTime lastMoveTime
+            long thinkMs
     ) {
 
         // No clock for standard games
-        if (match.getGameType() == GameType.STANDARD) {
+        Long clock = wasWhiteTurn ? match.getWhiteTimeMs() : match.getBlackTimeMs();
+        if (clock == null) {
             return;
         }
 
-        long secondsUsed = java.time.Duration
-                .between(lastMoveTime, LocalDateTime.now())
-                .getSeconds();
+        long remaining = clock - thinkMs;
 
-        // Safety check
-        if (secondsUsed < 0) {
-            secondsUsed = 0;
+        if (remaining <= 0) {
+            // Time over
+            remaining = 0;
+            match.setStatus(wasWhiteTurn ? MatchStatus.PLAYER2_WON : MatchStatus.PLAYER1_WON);
+        } else {
+            remaining += match.getGameType().getIncrementMillis();
         }
 
         if (wasWhiteTurn) {
+            match.setWhiteTimeMs(remaining);
+        } else {
+            match.setBlackTimeMs(remaining);
+        }
+    }
 
-            int newWhiteTime = match.getWhiteTime() - (int) secondsUsed;
+    // 📶 Gives back estimated network transit, bounded by the mover's lag bank
+    private int compensateLag(GameState gameState, Match match, boolean wasWhiteTurn, String username, long thinkMs) {
 
-            // Blitz increment (+1)
-            if (match.getGameType() == GameType.BLITZ) {
-                newWhiteTime += BLITZ_INCREMENT;
-            }
+        if ((wasWhiteTurn ? match.getWhiteTimeMs() : match.getBlackTimeMs()) == null) {
+            return 0;
+        }
 
-            match.setWhiteTime(Math.max(newWhiteTime, 0));
-
-            // Time over
-            if (match.getWhiteTime() <= 0) {
-                match.setWhiteTime(0);
-                match.setStatus(MatchStatus.PLAYER2_WON);
-            }
+        int quota = wasWhiteTurn ? gameState.getWhiteLagQuotaMs() : gameState.getBlackLagQuotaMs();
+        int credit = lagCompensator.credit(username, thinkMs, quota);
+        int refilled = lagCompensator.refill(quota, credit);
 
+        if (wasWhiteTurn) {
+            gameState.setWhiteLagQuotaMs(refilled);
         } else {
+            gameState.setBlackLagQuotaMs(refilled);
+        }
+        return credit;
+    }
 
-            int newBlackTime = match.getBlackTime() - (int) secondsUsed;
-
-            // Blitz increment (+1)
-            if (match.getGameType() == GameType.BLITZ) {
-                newBlackTime += BLITZ_INCREMENT;
-            }
+    // Extra time the flag waits for: the credit the side to move could still get
+    private int lagAllowance(GameState gameState) {
+        boolean white = gameState.isWhiteTurn();
+        return lagCompensator.allowance(
+                white ? gameState.getPlayer1Username() : gameState.getPlayer2Username(),
+                white ? gameState.getWhiteLagQuotaMs() : gameState.getBlackLagQuotaMs()
+        );
+    }
 
-            match.setBlackTime(Math.max(newBlackTime, 0));
+    private static long elapsedMillis(long sinceNanos) {
+        return Math.max(0, (System.nanoTime() - sinceNanos) / 1_000_000L);
+    }
 
-            // Time over
-            if (match.getBlackTime() <= 0) {
-                match.setBlackTime(0);
-                match.setStatus(MatchStatus.PLAYER1_WON);
-            }
-        }
+    // Whole seconds for clients that still read the old time fields
+    static Integer clockSeconds(Long millis) {
+        return millis == null ? null : (int) (millis / 1000);
     }
 
     // =========================
@@ -238,6 +291,13 @@ public class GameService {
             throw new RuntimeException("Move coordinates cannot be null");
         }
 
+        if (!onBoard(moveRequest.getFromRow()) ||
+                !onBoard(moveRequest.getFromCol()) ||
+                !onBoard(moveRequest.getToRow()) ||
+                !onBoard(moveRequest.getToCol())) {
+            throw new RuntimeException("Move coordinates out of range");
+        }
+
         if (moveRequest.getPiece() == null ||
                 moveRequest.getPiece().isEmpty()) {
             throw new RuntimeException("Piece cannot be null");
@@ -247,10 +307,48 @@ public class GameService {
             throw new RuntimeException("Player color cannot be null");
         }
 
+        // This node's copy is tried without reading the store first: the
+        // write that makes the move checks the version anyway (see publish).
+        // Only if the copy turns the move down is the stored game consulted,
+        // and the move retried once when another node had moved on.
         GameState gameState = activeGames.get(matchId);
+        if (gameState != null) {
+            long version = gameState.getStoreVersion();
+            try {
+                // One move at a time per game (Position is not thread-safe)
+                synchronized (gameState) {
+                    return applyMove(matchId, gameState, moveRequest, username);
+                }
+            } catch (RuntimeException e) {
+                // Decided by a write of this copy (flag fall), or the copy was
+                // current: a real rejection
+                if (gameState.getStoreVersion() != version) {
+                    throw e;
+                }
+                GameState current = activeGame(matchId);
+                if (current == gameState) {
+                    throw e;
+                }
+                gameState = current;
+            }
+        } else {
+            gameState = activeGame(matchId);
+        }
+
         if (gameState == null) {
             throw new RuntimeException("Game not active");
         }
+        synchronized (gameState) {
+            return applyMove(matchId, gameState, moveRequest, username);
+        }
+    }
+
+    private MoveDTO applyMove(
+            Long matchId,
+            GameState gameState,
+            MoveRequest moveRequest,
+            String username
+    ) {
 
         // ❌ Do not allow moves after game end
         if (!"IN_PROGRESS".equals(gameState.getStatus())) {
@@ -266,28 +364,124 @@ public class GameService {
             throw new RuntimeException("Not your turn");
         }
 
-        Match match = matchRepo.findById(matchId)
-                .orElseThrow(() -> new RuntimeException("Match not found"));
+        // ✅ Validate against the server position (client board is never trusted)
+        Position position = gameState.getPosition();
+        int from = Moves.square(moveRequest.getFromRow(), moveRequest.getFromCol());
+        int to = Moves.square(moveRequest.getToRow(), moveRequest.getToCol());
+        int move = position.findLegalMove(
+                from,
+                to,
+                Piece.typeFromName(moveRequest.getPromotedTo())
+        );
 
-        // ⏱ Update clock BEFORE move
-        updateClock(match, isWhiteTurn, gameState.getLastMoveTime());
-        matchRepo.save(match);
+        if (move == Moves.NONE) {
+            throw new RuntimeException("Illegal move");
+        }
+
+        Match match = gameState.getMatch();
+
+        // ⏱ Update clock BEFORE move (think time minus estimated transit)
+        long thinkMs = elapsedMillis(gameState.getTurnStartedNanos());
+        thinkMs -= compensateLag(gameState, match, isWhiteTurn, username, thinkMs);
+        int moveTimeMs = (int) Math.min(thinkMs, Integer.MAX_VALUE);
+        updateClock(match, isWhiteTurn, thinkMs);
 
         // ❌ Stop if time over
         if (match.getStatus() != MatchStatus.IN_PROGRESS) {
+            endOnTime(matchId, gameState, match);
+            throw new RuntimeException("Time over");
+        }
 
-            String winner =
-                    match.getStatus() == MatchStatus.PLAYER1_WON
-                            ? match.getPlayer1().getUsername()
-                            : match.getPlayer2().getUsername();
+        mirrorClocks(gameState, match);
 
-            gameState.setStatus("GAME_OVER");
-            activeGames.put(matchId, gameState);
+        int movedPiece = position.pieceAt(from);
+        int capturedPiece = Moves.flag(move) == Moves.EP_CAPTURE
+                ? Piece.of(position.sideToMove() ^ 1, Piece.PAWN)
+                : position.pieceAt(to);
+        String fenBefore = position.toFen();
+        String notation = San.of(position, move);
+
+        // ✅ Update game state
+        position.makeMove(move);
+        gameState.recordMoveTime(position.ply() - 1, moveTimeMs);
+        String fenAfter = position.toFen();
+        gameState.setTurnStartedNanos(System.nanoTime());
+        gameState.setSeq(gameState.getSeq() + 1);
+        classifyOpening(gameState, move, position.hash());
+
+        // 🏁 Mate / stalemate / draw rules, decided in the same pass as the move
+        Termination termination = position.termination();
+        MatchStatus result = resultOf(termination, isWhiteTurn);
+
+        // A move also withdraws any pending draw offer
+        gameState.setDrawOfferFrom(null);
+
+        // 🌐 The move counts once the store has it; nothing is sent before
+        publish(matchId, gameState, termination != null);
+
+        String uci = Moves.toUci(move);
+
+        // 📝 Move row goes to the async journal, not through the DB here
+        moveJournal.append(
+                matchId,
+                gameState.getSeq(),
+                (isWhiteTurn ? PieceColor.WHITE : PieceColor.BLACK).name(),
+                uci,
+                notation,
+                fenBefore,
+                fenAfter,
+                moveTimeMs
+        );
+
+        // 💾 Crash-recovery log
+        gameLog.move(matchId, gameState.getSeq(), move, match.getWhiteTimeMs(), match.getBlackTimeMs());
+
+        // Update the cached row (FEN, ply, UCI, result); written behind
+        updateMatch(match, fenAfter, uci, result, gameState);
+
+        // 📡 Compact frame for clients that negotiated delta mode
+        if (gameState.anyDeltaSubscriber()) {
+            MoveDeltaDTO delta = new MoveDeltaDTO(
+                    matchId,
+                    gameState.getSeq(),
+                    uci,
+                    match.getWhiteTimeMs(),
+                    match.getBlackTimeMs(),
+                    moveTimeMs,
+                    Long.toHexString(position.hash())
+            );
+
+            messagingTemplate.convertAndSend(
+                    "/topic/game/" + matchId + "/delta",
+                    (Object) delta
+            );
+        }
+
+        // Legacy full frame on /topic/game/{id}/move
+        MoveDTO moveDTO = null;
+        if (gameState.anyFullSubscriber()) {
+            moveDTO = buildMoveDTO(
+                    matchId, moveRequest, username, position,
+                    move, movedPiece, capturedPiece, notation, fenBefore, fenAfter
+            );
+            moveDTO.setMoveTimeMs(moveTimeMs);
+
+            messagingTemplate.convertAndSend(
+                    "/topic/game/" + matchId + "/move",
+                    (Object) moveDTO
+            );
+        }
+
+        // Game over goes out after the final move frame
+        if (termination != null) {
+            closeGame(matchId, gameState);
 
             Map<String, Object> payload = new HashMap<>();
             payload.put("type", "GAME_OVER");
-            payload.put("reason", "TIME_OUT");
-            payload.put("winner", winner);
+            payload.put("reason", termination.name());
+            if (!termination.isDraw()) {
+                payload.put("winner", username);
+            }
             payload.put("matchId", matchId);
             payload.put("timestamp", System.currentTimeMillis());
 
@@ -295,29 +489,66 @@ public class GameService {
                     "/topic/game-state/" + matchId,
                     (Object) payload
             );
+        } else {
+            scheduleFlag(matchId, gameState, match);
+            clockSync.touch();
 
-            throw new RuntimeException("Time over");
+            // 🤖 Engine reply for COMPUTER games, searched off this thread
+            requestEngineMove(matchId, gameState, match);
         }
 
-        // ✅ Update game state
-        gameState.setBoard(moveRequest.getBoard());
-        gameState.setWhiteTurn(!isWhiteTurn);
-        gameState.setLastMoveTime(LocalDateTime.now());
-        gameState.setStatus("IN_PROGRESS");
+        return moveDTO;
+    }
 
-        activeGames.put(matchId, gameState);
+    // Mover wins on checkmate, every other termination is a draw
+    private MatchStatus resultOf(Termination termination, boolean moverIsWhite) {
+        if (termination == null) {
+            return null;
+        }
+        if (termination.isDraw()) {
+            return MatchStatus.DRAW;
+        }
+        return moverIsWhite ? MatchStatus.PLAYER1_WON : MatchStatus.PLAYER2_WON;
+    }
 
-        // Update DB (FEN, ply, UCI)
-        updateMatchInDatabase(matchId, moveRequest);
+    private MoveDTO buildMoveDTO(
+            Long matchId,
+            MoveRequest moveRequest,
+            String username,
+            Position position,
+            int move,
+            int movedPiece,
+            int capturedPiece,
+            String notation,
+            String fenBefore,
+            String fenAfter
+    ) {
 
-        // Build move response
+        // Build move response from the server's view of the move
         MoveDTO moveDTO = new MoveDTO();
         moveDTO.setMatchId(matchId);
         moveDTO.setPlayerUsername(username);
-        moveDTO.setBoard(moveRequest.getBoard());
+        moveDTO.setFromRow(moveRequest.getFromRow());
+        moveDTO.setFromCol(moveRequest.getFromCol());
+        moveDTO.setToRow(moveRequest.getToRow());
+        moveDTO.setToCol(moveRequest.getToCol());
+        moveDTO.setPiece(String.valueOf(Piece.toChar(movedPiece)));
+        moveDTO.setCapturedPiece(capturedPiece == Piece.NONE
+                ? null
+                : String.valueOf(Piece.toChar(capturedPiece)));
+        moveDTO.setCastled(Moves.isCastle(move));
+        moveDTO.setIsEnPassant(Moves.flag(move) == Moves.EP_CAPTURE);
+        moveDTO.setIsPromotion(Moves.isPromotion(move));
+        if (Moves.isPromotion(move)) {
+            moveDTO.setPromotedTo(String.valueOf(Piece.toChar(
+                    Piece.of(Piece.color(movedPiece), Moves.promotionType(move)))));
+        }
+        moveDTO.setFenBefore(fenBefore);
+        moveDTO.setFenAfter(fenAfter);
+        moveDTO.setSquares(position.squares());
         moveDTO.setPlayerColor(moveRequest.getPlayerColor());
-        moveDTO.setIsWhiteTurn(!isWhiteTurn);
-        moveDTO.setMoveNotation(createMoveNotation(moveRequest));
+        moveDTO.setIsWhiteTurn(position.isWhiteToMove());
+        moveDTO.setMoveNotation(notation);
         moveDTO.setTimestamp(LocalDateTime.now());
 
         return moveDTO;
@@ -326,67 +557,248 @@ public class GameService {
 
 
     // =========================
-    // MOVE NOTATION
+    // BOARD COORDINATES
+    // =========================
+    private static boolean onBoard(int coordinate) {
+        return coordinate >= 0 && coordinate < 8;
+    }
+
+    // =========================
+    // CLOCK FLAGGING
     // =========================
-    private String createMoveNotation(MoveRequest move) {
+    @PostConstruct
+    void startClocks() {
+        // Games cut off by a restart resume before the clocks run
+        recoverGames();
+        finishedGames.gaugeActive(activeGames);
+        clockWheel.start("clock-wheel");
+        clockSync.start("clock-sync");
+    }
+
+    @PreDestroy
+    void stopClocks() {
+        clockWheel.stop();
+        clockSync.stop();
+    }
+
+    private void mirrorClocks(GameState gameState, Match match) {
+        gameState.setWhiteClockMs(match.getWhiteTimeMs());
+        gameState.setBlackClockMs(match.getBlackTimeMs());
+    }
+
+    private void publishClock(Long matchId, ClockSyncDTO frame) {
+        messagingTemplate.convertAndSend(
+                "/topic/game/" + matchId + "/clock",
+                (Object) frame
+        );
+    }
+
+    // Deadline = what the side to move has left, counted from its turn start
+    private void scheduleFlag(Long matchId, GameState gameState, Match match) {
+
+        Long remaining = gameState.isWhiteTurn() ? match.getWhiteTimeMs() : match.getBlackTimeMs();
+        if (remaining == null) {
+            return;
+        }
 
-        if (move.getCastled()) {
-            return move.getToCol() == 6 ? "O-O" : "O-O-O";
+        clockWheel.schedule(matchId,
+                remaining + lagAllowance(gameState) - elapsedMillis(gameState.getTurnStartedNanos()));
+    }
+
+    // Clock-wheel thread: the side to move ran out of time without moving
+    private void flagGame(long matchId) {
+
+        // Another node may have moved since this deadline was set
+        GameState gameState = activeGame(matchId);
+        if (gameState == null) {
+            return;
         }
 
-        String piece = move.getPiece().equalsIgnoreCase("p")
-                ? ""
-                : move.getPiece().toUpperCase();
+        synchronized (gameState) {
 
-        String capture =
-                move.getCapturedPiece() != null ? "x" : "";
+            if (!"IN_PROGRESS".equals(gameState.getStatus())) {
+                return;
+            }
 
-        return piece + capture +
-                colToFile(move.getToCol()) +
-                (8 - move.getToRow());
+            Match match = gameState.getMatch();
+            if (match.getStatus() != MatchStatus.IN_PROGRESS) {
+                return;
+            }
+
+            boolean whiteToMove = gameState.isWhiteTurn();
+            Long remaining = whiteToMove ? match.getWhiteTimeMs() : match.getBlackTimeMs();
+            if (remaining == null) {
+                return;
+            }
+
+            // A move may have landed between expiry and this lock: re-arm instead
+            long left = remaining + lagAllowance(gameState) - elapsedMillis(gameState.getTurnStartedNanos());
+            if (left > 0) {
+                clockWheel.schedule(matchId, left);
+                return;
+            }
+
+            if (whiteToMove) {
+                match.setWhiteTimeMs(0L);
+                match.setStatus(MatchStatus.PLAYER2_WON);
+            } else {
+                match.setBlackTimeMs(0L);
+                match.setStatus(MatchStatus.PLAYER1_WON);
+            }
+
+            endOnTime(matchId, gameState, match);
+        }
     }
 
-    private String colToFile(int col) {
-        return String.valueOf((char) ('a' + col));
+    private void endOnTime(Long matchId, GameState gameState, Match match) {
+
+        publish(matchId, gameState, true);
+
+        String winner =
+                match.getStatus() == MatchStatus.PLAYER1_WON
+                        ? match.getPlayer1().getUsername()
+                        : match.getPlayer2().getUsername();
+
+        match.setFinishedAt(LocalDateTime.now());
+        recordOpening(match, gameState);
+        matchWriteBehind.flushNow(match);
+
+        closeGame(matchId, gameState);
+
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("type", "GAME_OVER");
+        payload.put("reason", "TIME_OUT");
+        payload.put("winner", winner);
+        payload.put("matchId", matchId);
+        payload.put("timestamp", System.currentTimeMillis());
+
+        messagingTemplate.convertAndSend(
+                "/topic/game-state/" + matchId,
+                (Object) payload
+        );
     }
 
     // =========================
-    // DB UPDATE
+    // COMPUTER OPPONENT
     // =========================
-    private void updateMatchInDatabase(
-            Long matchId,
-            MoveRequest moveRequest
-    ) {
+    // Caller holds the game lock. The engine searches a copy of the position
+    // and its reply goes through processMove like any player's move.
+    private void requestEngineMove(Long matchId, GameState gameState, Match match) {
 
-        matchRepo.findById(matchId).ifPresent(match -> {
+        if (match.getGameType() != GameType.COMPUTER
+                || gameState.isEngineThinking()
+                || !"IN_PROGRESS".equals(gameState.getStatus())) {
+            return;
+        }
 
-            if (moveRequest.getFenAfter() != null) {
-                match.setFenCurrent(moveRequest.getFenAfter());
-            }
+        boolean whiteToMove = gameState.isWhiteTurn();
+        String toMove = whiteToMove
+                ? gameState.getPlayer1Username()
+                : gameState.getPlayer2Username();
+
+        if (!computerPlayer.username().equals(toMove)) {
+            return;
+        }
 
-            match.setLastMoveUci(createUCI(moveRequest));
+        Position snapshot = gameState.getPosition().copy();
+        Long clock = whiteToMove ? match.getWhiteTimeMs() : match.getBlackTimeMs();
+        gameState.setEngineThinking(true);
 
-            Integer ply = match.getCurrentPly() == null ? 0 : match.getCurrentPly();
-            match.setCurrentPly(ply + 1);
+        computerPlayer.bestMove(snapshot, clock)
+                .thenAccept(move -> playEngineMove(matchId, gameState, snapshot, move))
+                .exceptionally(e -> {
+                    synchronized (gameState) {
+                        gameState.setEngineThinking(false);
+                    }
+                    System.out.println("Engine search failed for match " + matchId + ": " + e);
+                    return null;
+                });
+    }
 
-            matchRepo.save(match);
-        });
+    private void playEngineMove(Long matchId, GameState gameState, Position snapshot, int move) {
+
+        synchronized (gameState) {
+            gameState.setEngineThinking(false);
+        }
+
+        if (move == Moves.NONE) {
+            return;
+        }
+
+        int from = Moves.from(move);
+        int to = Moves.to(move);
+
+        MoveRequest request = new MoveRequest();
+        request.setFromRow(Moves.row(from));
+        request.setFromCol(Moves.col(from));
+        request.setToRow(Moves.row(to));
+        request.setToCol(Moves.col(to));
+        request.setPiece(String.valueOf(Piece.toChar(snapshot.pieceAt(from))));
+        if (Moves.isPromotion(move)) {
+            request.setPromotedTo(String.valueOf(Piece.toChar(Moves.promotionType(move))));
+        }
+        request.setPlayerColor(snapshot.isWhiteToMove() ? "white" : "black");
+
+        try {
+            processMove(matchId, request, computerPlayer::username);
+        } catch (RuntimeException e) {
+            // Game ended (resignation, flag) while the engine was thinking
+            System.out.println("Engine move dropped for match " + matchId + ": " + e.getMessage());
+        }
+    }
+
+    // =========================
+    // OPENING (ECO)
+    // =========================
+    // Called under the game lock; the label sticks once the game leaves book
+    private void classifyOpening(GameState gameState, int move, long positionKey) {
+        int node = openingClassifier.next(gameState.getOpeningNode(), move, positionKey);
+        gameState.setOpeningNode(node);
+
+        int opening = openingClassifier.openingAt(node);
+        if (opening != OpeningClassifier.UNKNOWN) {
+            gameState.setOpening(opening);
+        }
+    }
+
+    private void recordOpening(Match match, GameState gameState) {
+        int opening = gameState.getOpening();
+        if (opening != OpeningClassifier.UNKNOWN) {
+            match.setOpeningEco(openingClassifier.eco(opening));
+            match.setOpeningName(openingClassifier.name(opening));
+        }
     }
 
-    private String createUCI(MoveRequest move) {
+    // =========================
+    // MATCH UPDATE (WRITE-BEHIND)
+    // =========================
+    private void updateMatch(
+            Match match,
+            String fen,
+            String uci,
+            MatchStatus result,
+            GameState gameState
+    ) {
+
+        // Server FEN only, MoveRequest.fenAfter is not trusted
+        match.setFenCurrent(fen);
+
+        match.setLastMoveUci(uci);
 
-        if (move.getFromCol() == null ||
-                move.getFromRow() == null ||
-                move.getToCol() == null ||
-                move.getToRow() == null) {
-            return "";
+        Integer ply = match.getCurrentPly() == null ? 0 : match.getCurrentPly();
+        match.setCurrentPly(ply + 1);
+
+        if (result != null && match.getStatus() == MatchStatus.IN_PROGRESS) {
+            match.setStatus(result);
+            match.setFinishedAt(LocalDateTime.now());
+            recordOpening(match, gameState);
+
+            // Results are not left in the cache
+            matchWriteBehind.flushNow(match);
+            return;
         }
 
-        return "" +
-                (char) ('a' + move.getFromCol()) +
-                (8 - move.getFromRow()) +
-                (char) ('a' + move.getToCol()) +
-                (8 - move.getToRow());
+        matchWriteBehind.markDirty(match.getId(), gameState);
     }
 
     // =========================
@@ -404,46 +816,116 @@ public class GameService {
 
         String username = principal.getName();
 
-        // Fetch match
-        Match match = matchRepo.findById(matchId)
-                .orElseThrow(() -> new RuntimeException("Game not found"));
+        // Fetch match (cached row while the game is active or recently finished)
+        GameState known = knownGame(matchId);
+        Match loaded = known != null
+                ? known.getMatch()
+                : matchRepo.findWithPlayersById(matchId)
+                        .orElseThrow(() -> new RuntimeException("Game not found"));
 
         // ✅ Ensure user is part of this match
-        boolean isPlayer1 = match.getPlayer1().getUsername().equals(username);
-        boolean isPlayer2 = match.getPlayer2().getUsername().equals(username);
+        boolean isPlayer1 = loaded.getPlayer1().getUsername().equals(username);
+        boolean isPlayer2 = loaded.getPlayer2().getUsername().equals(username);
 
         if (!isPlayer1 && !isPlayer2) {
             throw new RuntimeException("User not part of this game");
         }
 
+        // A finished game is only shown, never registered as active again
+        if (loaded.getStatus() != MatchStatus.IN_PROGRESS) {
+            GameState finished = known;
+            if (finished == null) {
+                finished = initializeGameState(loaded);
+                finishedGames.add(matchId, finished);
+            }
+            return buildSnapshot(loaded, finished, username);
+        }
+
         // Get or initialize game state
-        GameState gameState = activeGames.computeIfAbsent(
-                matchId,
-                id -> initializeGameState(match)
-        );
+        GameState gameState = known != null ? known : activate(loaded);
+        if (gameState == null) {
+            throw new RuntimeException("Game not active");
+        }
+        Match match = gameState.getMatch();
+
+        // 📡 Move frame mode for this player (default: full MoveDTO)
+        boolean delta = joinRequest != null &&
+                "DELTA".equalsIgnoreCase(joinRequest.getMode());
+        synchronized (gameState) {
+            boolean changed = (isPlayer1 ? gameState.isWhiteDelta() : gameState.isBlackDelta()) != delta;
+            if (isPlayer1) {
+                gameState.setWhiteDelta(delta);
+            } else {
+                gameState.setBlackDelta(delta);
+            }
 
-        // ✅ Store players (used by resign, draw, chat)
-        gamePlayers.putIfAbsent(
-                matchId,
-                List.of(
-                        match.getPlayer1().getUsername(),
-                        match.getPlayer2().getUsername()
-                )
-        );
+            // Every node sends this game's frames, so the mode is stored with it
+            if (changed && "IN_PROGRESS".equals(gameState.getStatus())) {
+                publish(matchId, gameState, false);
+            }
+
+            // 💾 (Re)register the game in the crash-recovery log
+            if ("IN_PROGRESS".equals(gameState.getStatus())) {
+                gameLog.open(logRecord(matchId, gameState));
+            }
+
+            // A draw offer still waiting for this player (e.g. made before a restart)
+            String offeredBy = gameState.getDrawOfferFrom();
+            if (offeredBy != null && !offeredBy.equals(username)) {
+                sendDrawOffer(matchId, offeredBy, username);
+            }
+
+            // Resumed COMPUTER game where the engine is to move
+            requestEngineMove(matchId, gameState, match);
+        }
+
+        return buildSnapshot(match, gameState, username);
+    }
+
+    // =========================
+// HANDLE RESYNC
+// =========================
+    // Full snapshot on request, e.g. after a delta client detects a seq gap
+    public GameStatusDTO handleResync(Long matchId, Principal principal) {
+
+        if (principal == null) {
+            throw new RuntimeException("User not authenticated");
+        }
+
+        GameState gameState = knownGame(matchId);
+        if (gameState == null) {
+            throw new RuntimeException("Game not active");
+        }
+
+        return buildSnapshot(gameState.getMatch(), gameState, principal.getName());
+    }
+
+    private GameStatusDTO buildSnapshot(
+            Match match,
+            GameState gameState,
+            String username
+    ) {
 
         // Determine color (DO NOT trust frontend blindly)
-        String playerColor = isPlayer1 ? "white" : "black";
+        String playerColor = determinePlayerColor(match, username);
 
         GameStatusDTO dto = new GameStatusDTO();
-        dto.setMatchId(matchId);
+        dto.setMatchId(match.getId());
         dto.setStatus(gameState.getStatus());
         dto.setPlayerColor(playerColor);
-        dto.setMyTurn(determineMyTurn(match, username));
-        dto.setBoard(gameState.getBoard());
-        dto.setFen(convertBoardToFEN(
-                gameState.getBoard(),
-                gameState.isWhiteTurn()
-        ));
+        dto.setMyTurn(determineMyTurn(match, gameState, username));
+        dto.setWhiteTime(clockSeconds(match.getWhiteTimeMs()));
+        dto.setBlackTime(clockSeconds(match.getBlackTimeMs()));
+        dto.setWhiteTimeMs(match.getWhiteTimeMs());
+        dto.setBlackTimeMs(match.getBlackTimeMs());
+
+        synchronized (gameState) {
+            Position position = gameState.getPosition();
+            dto.setSquares(position.squares());
+            dto.setFen(position.toFen());
+            dto.setSeq(gameState.getSeq());
+            dto.setPositionKey(Long.toHexString(position.hash()));
+        }
 
         return dto;
     }
@@ -453,37 +935,42 @@ public class GameService {
 // =========================
     public void handleResignation(Long matchId, String username) {
 
-        GameState gameState = activeGames.get(matchId);
+        GameState gameState = activeGame(matchId);
         if (gameState == null) {
             throw new RuntimeException("Game not active");
         }
 
-        // ❌ Do not allow resignation if game already finished
-        if (!"IN_PROGRESS".equals(gameState.getStatus())) {
-            throw new RuntimeException("Game already finished");
-        }
-
-        // Update in-memory state
-        gameState.setStatus("GAME_OVER");
-        activeGames.put(matchId, gameState);
-
         // Determine winner
         String winner;
 
-        Match match = matchRepo.findById(matchId)
-                .orElseThrow(() -> new RuntimeException("Match not found"));
+        Match match = gameState.getMatch();
 
-        if (match.getPlayer1().getUsername().equals(username)) {
-            match.setStatus(MatchStatus.PLAYER2_WON);
-            winner = match.getPlayer2().getUsername();
-        } else if (match.getPlayer2().getUsername().equals(username)) {
-            match.setStatus(MatchStatus.PLAYER1_WON);
-            winner = match.getPlayer1().getUsername();
-        } else {
-            throw new RuntimeException("User not part of this match");
+        synchronized (gameState) {
+
+            // ❌ Do not allow resignation if game already finished
+            if (!"IN_PROGRESS".equals(gameState.getStatus())) {
+                throw new RuntimeException("Game already finished");
+            }
+
+            if (match.getPlayer1().getUsername().equals(username)) {
+                match.setStatus(MatchStatus.PLAYER2_WON);
+                winner = match.getPlayer2().getUsername();
+            } else if (match.getPlayer2().getUsername().equals(username)) {
+                match.setStatus(MatchStatus.PLAYER1_WON);
+                winner = match.getPlayer1().getUsername();
+            } else {
+                throw new RuntimeException("User not part of this match");
+            }
+
+            publish(matchId, gameState, true);
         }
 
-        matchRepo.save(match);
+        // Update in-memory state
+        closeGame(matchId, gameState);
+
+        match.setFinishedAt(LocalDateTime.now());
+        recordOpening(match, gameState);
+        matchWriteBehind.flushNow(match);
 
         // ✅ Unified GAME_OVER payload
         Map<String, Object> payload = new HashMap<>();
@@ -507,7 +994,7 @@ public class GameService {
 // =========================
     public void handleDrawOffer(Long matchId, String username) {
 
-        GameState gameState = activeGames.get(matchId);
+        GameState gameState = activeGame(matchId);
         if (gameState == null) {
             throw new RuntimeException("Game not active");
         }
@@ -522,15 +1009,30 @@ public class GameService {
             throw new RuntimeException("Opponent not found");
         }
 
+        // 💾 Remembered until a move, reject or game end
+        synchronized (gameState) {
+            if (!"IN_PROGRESS".equals(gameState.getStatus())) {
+                throw new RuntimeException("Cannot offer draw. Game already finished");
+            }
+            gameState.setDrawOfferFrom(username);
+            publish(matchId, gameState, false);
+            gameLog.drawOffer(matchId, username);
+        }
+
+        sendDrawOffer(matchId, username, opponent);
+    }
+
+    private void sendDrawOffer(Long matchId, String from, String to) {
+
         Map<String, Object> payload = new HashMap<>();
         payload.put("type", "DRAW_OFFER");
-        payload.put("from", username);
+        payload.put("from", from);
         payload.put("matchId", matchId);
         payload.put("timestamp", System.currentTimeMillis());
 
         // ✅ Safe WebSocket send
         messagingTemplate.convertAndSendToUser(
-                opponent,
+                to,
                 "/queue/draw-offers",
                 payload
         );
@@ -541,33 +1043,38 @@ public class GameService {
 // =========================
     public void handleDrawAccept(Long matchId, String username) {
 
-        GameState gameState = activeGames.get(matchId);
+        GameState gameState = activeGame(matchId);
         if (gameState == null) {
             throw new RuntimeException("Game not active");
         }
 
-        // ❌ Do not allow if game already ended
-        if (!"IN_PROGRESS".equals(gameState.getStatus())) {
-            throw new RuntimeException("Game already finished");
-        }
-
         // ✅ Ensure user is part of match
         String opponent = getOpponentUsername(matchId, username);
         if (opponent == null) {
             throw new RuntimeException("User not part of this game");
         }
 
+        synchronized (gameState) {
+
+            // ❌ Do not allow if game already ended
+            if (!"IN_PROGRESS".equals(gameState.getStatus())) {
+                throw new RuntimeException("Game already finished");
+            }
+
+            publish(matchId, gameState, true);
+        }
+
         // Update in-memory state
-        gameState.setStatus("GAME_OVER");
-        activeGames.put(matchId, gameState);
+        closeGame(matchId, gameState);
 
         // Update DB (prevent double update)
-        matchRepo.findById(matchId).ifPresent(match -> {
-            if (match.getStatus() == MatchStatus.IN_PROGRESS) {
-                match.setStatus(MatchStatus.DRAW);
-                matchRepo.save(match);
-            }
-        });
+        Match match = gameState.getMatch();
+        if (match.getStatus() == MatchStatus.IN_PROGRESS) {
+            match.setStatus(MatchStatus.DRAW);
+            match.setFinishedAt(LocalDateTime.now());
+            recordOpening(match, gameState);
+            matchWriteBehind.flushNow(match);
+        }
 
         // ✅ Unified GAME_OVER payload
         Map<String, Object> payload = new HashMap<>();
@@ -583,12 +1090,63 @@ public class GameService {
         );
     }
 
+    // =========================
+// DRAW CLAIM (THREEFOLD REPETITION)
+// =========================
+    public void handleDrawClaim(Long matchId, String username) {
+
+        GameState gameState = activeGame(matchId);
+        if (gameState == null) {
+            throw new RuntimeException("Game not active");
+        }
+
+        // ✅ Ensure user is part of match
+        if (getOpponentUsername(matchId, username) == null) {
+            throw new RuntimeException("User not part of this game");
+        }
+
+        synchronized (gameState) {
+
+            if (!"IN_PROGRESS".equals(gameState.getStatus())) {
+                throw new RuntimeException("Game already finished");
+            }
+
+            // O(plies since last capture / pawn move) hash scan
+            if (!gameState.getPosition().isThreefoldRepetition()) {
+                throw new RuntimeException("No threefold repetition to claim");
+            }
+
+            publish(matchId, gameState, true);
+            closeGame(matchId, gameState);
+        }
+
+        Match match = gameState.getMatch();
+        if (match.getStatus() == MatchStatus.IN_PROGRESS) {
+            match.setStatus(MatchStatus.DRAW);
+            match.setFinishedAt(LocalDateTime.now());
+            recordOpening(match, gameState);
+            matchWriteBehind.flushNow(match);
+        }
+
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("type", "GAME_OVER");
+        payload.put("reason", "THREEFOLD_REPETITION");
+        payload.put("claimedBy", username);
+        payload.put("matchId", matchId);
+        payload.put("timestamp", System.currentTimeMillis());
+
+        messagingTemplate.convertAndSend(
+                "/topic/game-state/" + matchId,
+                (Object) payload
+        );
+    }
+
     // =========================
 // DRAW REJECT
 // =========================
     public void handleDrawReject(Long matchId, String username) {
 
-        GameState gameState = activeGames.get(matchId);
+        GameState gameState = activeGame(matchId);
         if (gameState == null || !"IN_PROGRESS".equals(gameState.getStatus())) {
             return;
         }
@@ -596,6 +1154,15 @@ public class GameService {
         String opponent = getOpponentUsername(matchId, username);
         if (opponent == null) return;
 
+        synchronized (gameState) {
+            if (!"IN_PROGRESS".equals(gameState.getStatus())) {
+                return;
+            }
+            gameState.setDrawOfferFrom(null);
+            publish(matchId, gameState, false);
+            gameLog.drawClear(matchId);
+        }
+
         Map<String, Object> payload = new HashMap<>();
         payload.put("type", "DRAW_REJECTED");
         payload.put("matchId", matchId);
@@ -609,9 +1176,392 @@ public class GameService {
         );
     }
 
+    // =========================
+// POSITION KEY
+// =========================
+    // Zobrist key of the current position, for caches / lookups in other subsystems
+    public long getPositionKey(Long matchId) {
+
+        GameState gameState = activeGame(matchId);
+        if (gameState == null) {
+            throw new RuntimeException("Game not active");
+        }
+
+        synchronized (gameState) {
+            return gameState.getPosition().hash();
+        }
+    }
+
+    // =========================
+    // MOVE HISTORY (IN MEMORY)
+    // =========================
+    // Plies after `since` from the in-memory position, for running games and
+    // ones finished within the grace period (their moves rows may still be in
+    // the journal). Empty when the game is not held here or its position does
+    // not reach back to `since` (loaded from fenCurrent): the caller reads the
+    // moves rows instead.
+    public Optional<MoveHistoryDTO> heldMoveHistory(Long matchId, int since) {
+
+        GameState gameState = knownGame(matchId);
+        if (gameState == null) {
+            return Optional.empty();
+        }
+
+        synchronized (gameState) {
+            boolean live = "IN_PROGRESS".equals(gameState.getStatus());
+
+            Position position = gameState.getPosition();
+            int seq = gameState.getSeq();
+            int firstHeld = seq - position.ply(); // plies before this one are not in memory
+            if (since < firstHeld) {
+                return Optional.empty();
+            }
+
+            int from = Math.min(since, seq);
+            Position replay = position.copy();
+            for (int ply = seq; ply > from; ply--) {
+                replay.unmakeMove();
+            }
+
+            List<MoveHistoryEntryDTO> moves = new ArrayList<>(seq - from);
+            for (int ply = from + 1; ply <= seq; ply++) {
+                int index = ply - firstHeld - 1;
+                int move = position.moveAt(index);
+                int moveTimeMs = gameState.moveTimeMs(index);
+                moves.add(new MoveHistoryEntryDTO(
+                        ply,
+                        Moves.toUci(move),
+                        San.of(replay, move),
+                        moveTimeMs < 0 ? null : moveTimeMs
+                ));
+                replay.makeMove(move);
+            }
+
+            return Optional.of(new MoveHistoryDTO(matchId, live, seq, since, moves));
+        }
+    }
+
+    // Finished games leave the active set immediately and go to analysis
+    private void closeGame(Long matchId, GameState gameState) {
+        synchronized (gameState) {
+            gameState.setStatus("GAME_OVER");
+            gameAnalysisService.submit(matchId, gameState.getPosition());
+        }
+        clockWheel.cancel(matchId);
+        gameLog.gameOver(matchId);
+        activeGames.remove(matchId, gameState); // already in FinishedGames (see publish)
+        gamePlayers.remove(matchId);
+    }
+
+    // =========================
+    // CRASH RECOVERY (GAME LOG)
+    // =========================
+    // Rebuilds the games that were active when the server went down from the
+    // log (snapshot + tail), which is ahead of the write-behind matches rows.
+    // Each resumed game starts its turn now, so the outage costs no clock time.
+    private void recoverGames() {
+        long started = System.nanoTime();
+        int resumed = 0;
+
+        for (GameLog.RecoveredGame recovered : gameLog.recover()) {
+
+            Match match = matchRepo.findWithPlayersById(recovered.matchId).orElse(null);
+            if (match == null || match.getStatus() != MatchStatus.IN_PROGRESS) {
+                continue;
+            }
+
+            // The store is never behind the log: another node may have carried on since
+            if (gameStateStore.head(recovered.matchId).isPresent()) {
+                if (resumeStored(recovered.matchId, gameLog.previousRunEndMillis()) != null) {
+                    resumed++;
+                }
+                continue;
+            }
+
+            Position position = recovered.position;
+            restoreMatch(match, position, recovered.seq, recovered.whiteTimeMs, recovered.blackTimeMs);
+
+            GameState gameState = initializeGameState(match, position);
+            gameState.setDrawOfferFrom(recovered.drawOfferFrom);
+            if (!gameStateStore.create(match.getId(), sharedGame(match.getId(), gameState))) {
+                continue;
+            }
+            gameState.setStoreVersion(1);
+            gameState.setStoredPlies(position.ply());
+            activeGames.put(match.getId(), gameState);
+            gamePlayers.put(match.getId(), List.of(recovered.player1, recovered.player2));
+
+            synchronized (gameState) {
+                matchWriteBehind.markDirty(match.getId(), gameState);
+                requestEngineMove(match.getId(), gameState, match);
+            }
+            resumed++;
+        }
+
+        gameLog.snapshotFrom(this::snapshotGames);
+        System.out.println("Resumed " + resumed + " games from the game log in "
+                + elapsedMillis(started) + " ms");
+    }
+
+    // A stored game nobody has written since this node went down was not
+    // carried on elsewhere: its clock stood still with the outage, so the
+    // turn is restarted now in the store before the game is adopted
+    private GameState resumeStored(Long matchId, long downSinceMillis) {
+        GameStateStore.Versioned stored = gameStateStore.load(matchId).orElse(null);
+        if (stored != null && !stored.game().finished() && stored.writtenAtMillis() <= downSinceMillis) {
+            gameStateStore.compareAndSet(matchId, stored.version(), turnRestarted(stored.game()));
+        }
+        return activeGame(matchId);
+    }
+
+    // The stored game unchanged but for its turn start
+    private static GameStateStore.Update turnRestarted(GameStateStore.SharedGame shared) {
+        GameLog.GameRecord game = shared.game();
+        return new GameStateStore.Update(
+                game.seq(),
+                game.whiteTimeMs(),
+                game.blackTimeMs(),
+                game.drawOfferFrom(),
+                System.currentTimeMillis(),
+                shared.whiteLagQuotaMs(),
+                shared.blackLagQuotaMs(),
+                shared.whiteDelta(),
+                shared.blackDelta(),
+                game.moves().length,
+                new int[0],
+                new int[0],
+                false
+        );
+    }
+
+    // Live columns of the row from a game rebuilt elsewhere (log or store)
+    private static void restoreMatch(Match match, Position position, int seq, Long whiteTimeMs, Long blackTimeMs) {
+        match.setFenCurrent(position.toFen());
+        match.setCurrentPly(seq);
+        if (position.ply() > 0) {
+            match.setLastMoveUci(Moves.toUci(position.moveAt(position.ply() - 1)));
+        }
+        match.setWhiteTimeMs(whiteTimeMs);
+        match.setBlackTimeMs(blackTimeMs);
+    }
+
+    private Collection<GameLog.GameRecord> snapshotGames() {
+        List<GameLog.GameRecord> games = new ArrayList<>(activeGames.size());
+        activeGames.forEach((matchId, gameState) -> {
+            synchronized (gameState) {
+                if ("IN_PROGRESS".equals(gameState.getStatus())) {
+                    games.add(logRecord(matchId, gameState));
+                }
+            }
+        });
+        return games;
+    }
+
+    private void logOpen(Long matchId, GameState gameState) {
+        synchronized (gameState) {
+            if ("IN_PROGRESS".equals(gameState.getStatus())) {
+                gameLog.open(logRecord(matchId, gameState));
+            }
+        }
+    }
+
+    // Caller holds the game lock. Root FEN + packed moves keep the repetition history.
+    private GameLog.GameRecord logRecord(Long matchId, GameState gameState) {
+        Position position = gameState.getPosition();
+        int[] moves = new int[position.ply()];
+        for (int i = 0; i < moves.length; i++) {
+            moves[i] = position.moveAt(i);
+        }
+
+        Match match = gameState.getMatch();
+        return new GameLog.GameRecord(
+                matchId,
+                gameState.getSeq(),
+                gameState.getRootFen(),
+                moves,
+                match.getWhiteTimeMs(),
+                match.getBlackTimeMs(),
+                gameState.getPlayer1Username(),
+                gameState.getPlayer2Username(),
+                gameState.getDrawOfferFrom()
+        );
+    }
+
+    // =========================
+    // SHARED STATE (GAME STATE STORE)
+    // =========================
+    // This node's copy of a running game, checked against the store first:
+    // another node may have moved in it, or finished it, since this copy was
+    // last used. Null when the game is not running. Only the version is read
+    // while the copy is current; the whole game only when it is not.
+    private GameState activeGame(Long matchId) {
+        GameState local = activeGames.get(matchId);
+        GameStateStore.Head head = gameStateStore.head(matchId).orElse(null);
+
+        if (head != null && !head.finished() && local != null && local.getStoreVersion() == head.version()) {
+            return local;
+        }
+
+        GameStateStore.Versioned stored = head == null || head.finished()
+                ? null
+                : gameStateStore.load(matchId).orElse(null);
+        if (stored == null || stored.game().finished()) {
+            if (local != null && activeGames.remove(matchId, local)) {
+                clockWheel.cancel(matchId);
+                gamePlayers.remove(matchId);
+                gameLog.gameOver(matchId);
+            }
+            return null;
+        }
+        return adopt(matchId, stored);
+    }
+
+    // Replaces this node's copy with the stored game. The row is read again
+    // for what the store does not carry (players, game type); its live
+    // columns may be behind and are taken from the store.
+    private GameState adopt(Long matchId, GameStateStore.Versioned stored) {
+        Match match = matchRepo.findWithPlayersById(matchId).orElse(null);
+        if (match == null) {
+            return null;
+        }
+
+        GameStateStore.SharedGame shared = stored.game();
+        GameLog.RecoveredGame game = new GameLog.RecoveredGame(shared.game());
+        restoreMatch(match, game.position, game.seq, game.whiteTimeMs, game.blackTimeMs);
+        match.setStatus(MatchStatus.IN_PROGRESS);
+
+        GameState gameState = initializeGameState(match, game.position);
+        synchronized (gameState) {
+            long sinceTurnStart = Math.max(0, System.currentTimeMillis() - shared.turnStartedAtMillis());
+            gameState.setTurnStartedNanos(System.nanoTime() - sinceTurnStart * 1_000_000L);
+            gameState.setWhiteLagQuotaMs(shared.whiteLagQuotaMs());
+            gameState.setBlackLagQuotaMs(shared.blackLagQuotaMs());
+            gameState.setWhiteDelta(shared.whiteDelta());
+            gameState.setBlackDelta(shared.blackDelta());
+            gameState.setDrawOfferFrom(game.drawOfferFrom);
+            gameState.setMoveTimesMs(shared.moveTimesMs());
+            gameState.setStoreVersion(stored.version());
+            gameState.setStoredPlies(game.position.ply());
+
+            // Deadline from the real turn start, not from now
+            scheduleFlag(matchId, gameState, match);
+        }
+
+        activeGames.put(matchId, gameState);
+        gamePlayers.put(matchId, List.of(game.player1, game.player2));
+        return gameState;
+    }
+
+    // The first node to load a running game registers it in the store; one
+    // that loses that race adopts the stored game instead
+    private GameState activate(Match match) {
+        Long matchId = match.getId();
+        GameState gameState = initializeGameState(match);
+
+        boolean created;
+        synchronized (gameState) {
+            created = gameStateStore.create(matchId, sharedGame(matchId, gameState));
+            if (created) {
+                gameState.setStoreVersion(1);
+                gameState.setStoredPlies(gameState.getPosition().ply());
+            }
+        }
+        if (!created) {
+            return activeGame(matchId);
+        }
+
+        activeGames.put(matchId, gameState);
+        gamePlayers.put(matchId, List.of(
+                match.getPlayer1().getUsername(),
+                match.getPlayer2().getUsername()
+        ));
+        logOpen(matchId, gameState);
+        return gameState;
+    }
+
+    // Caller holds the game lock and has just changed the game: the change
+    // only counts once the store takes it. If another node wrote first, this
+    // copy is dropped and the client's retry starts from the stored game.
+    // Only the plies since the last write are sent, not the whole game.
+    private void publish(Long matchId, GameState gameState, boolean finished) {
+        long version = gameState.getStoreVersion();
+        if (!gameStateStore.compareAndSet(matchId, version, storeUpdate(gameState, finished))) {
+            activeGames.remove(matchId, gameState);
+            throw new RuntimeException("Game was updated on another server, retry");
+        }
+        gameState.setStoreVersion(version + 1);
+        gameState.setStoredPlies(gameState.getPosition().ply());
+
+        // From here on late reads on this node find the game in FinishedGames,
+        // never a row that may not show the result yet
+        if (finished) {
+            finishedGames.add(matchId, gameState);
+        }
+    }
+
+    // Caller holds the game lock. The whole game, for its first write.
+    private GameStateStore.SharedGame sharedGame(Long matchId, GameState gameState) {
+        int plies = gameState.getPosition().ply();
+        int[] moveTimesMs = new int[plies];
+        for (int i = 0; i < plies; i++) {
+            moveTimesMs[i] = gameState.moveTimeMs(i);
+        }
+
+        return new GameStateStore.SharedGame(
+                logRecord(matchId, gameState),
+                turnStartedAtMillis(gameState),
+                gameState.getWhiteLagQuotaMs(),
+                gameState.getBlackLagQuotaMs(),
+                gameState.isWhiteDelta(),
+                gameState.isBlackDelta(),
+                moveTimesMs,
+                false
+        );
+    }
+
+    // Caller holds the game lock. What changed since the stored version.
+    private GameStateStore.Update storeUpdate(GameState gameState, boolean finished) {
+        Position position = gameState.getPosition();
+        int from = gameState.getStoredPlies();
+        int[] moves = new int[position.ply() - from];
+        int[] moveTimesMs = new int[moves.length];
+        for (int i = 0; i < moves.length; i++) {
+            moves[i] = position.moveAt(from + i);
+            moveTimesMs[i] = gameState.moveTimeMs(from + i);
+        }
+
+        Match match = gameState.getMatch();
+        return new GameStateStore.Update(
+                gameState.getSeq(),
+                match.getWhiteTimeMs(),
+                match.getBlackTimeMs(),
+                gameState.getDrawOfferFrom(),
+                turnStartedAtMillis(gameState),
+                gameState.getWhiteLagQuotaMs(),
+                gameState.getBlackLagQuotaMs(),
+                gameState.isWhiteDelta(),
+                gameState.isBlackDelta(),
+                from,
+                moves,
+                moveTimesMs,
+                finished
+        );
+    }
+
+    // Wall clock: nanoTime does not cross JVMs
+    private static long turnStartedAtMillis(GameState gameState) {
+        return System.currentTimeMillis() - elapsedMillis(gameState.getTurnStartedNanos());
+    }
+
     // =========================
 // HELPERS
 // =========================
+    // In progress, or finished within the grace period (see FinishedGames)
+    private GameState knownGame(Long matchId) {
+        GameState gameState = activeGame(matchId);
+        return gameState != null ? gameState : finishedGames.get(matchId);
+    }
+
     private String getOpponentUsername(Long matchId, String username) {
 
         List<String> players = gamePlayers.get(matchId);
@@ -622,33 +1572,17 @@ public class GameService {
                 : players.get(0);
     }
 
-    private String convertBoardToFEN(
-            String[][] board,
-            boolean isWhiteTurn
-    ) {
-
-        StringBuilder fen = new StringBuilder();
-
-        for (int r = 0; r < 8; r++) {
-            int empty = 0;
-            for (int c = 0; c < 8; c++) {
-                if (board[r][c].isEmpty()) {
-                    empty++;
-                } else {
-                    if (empty > 0) {
-                        fen.append(empty);
-                        empty = 0;
-                    }
-                    fen.append(board[r][c]);
-                }
-            }
-            if (empty > 0) fen.append(empty);
-            if (r < 7) fen.append("/");
+    // Packed copy of the board; DTOs expand it to String[][] only when serialized
+    private byte[] currentSquares(GameState gameState) {
+        synchronized (gameState) {
+            return gameState.getPosition().squares();
         }
+    }
 
-        fen.append(isWhiteTurn ? " w " : " b ");
-        fen.append("KQkq - 0 1");
-
-        return fen.toString();
+    // Maintained incrementally by Position and cached until the next move
+    private String currentFen(GameState gameState) {
+        synchronized (gameState) {
+            return gameState.getPosition().toFen();
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,88 @@
+package com.example.IndiChessBackend.service;
+
+import com.example.IndiChessBackend.chess.Position;
+import com.example.IndiChessBackend.model.Match;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Arrays;
+
+// =========================
+// IN-MEMORY GAME STATE
+// =========================
+// One per active game on this node: a cache of its GameStateStore entry.
+// The board lives only in Position (bitboards + 64-byte mailbox); the legacy
+// String[][] is produced at the DTO edge.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+class GameState {
+    private static final int[] NO_MOVE_TIMES = new int[0];
+
+    private Position position; // server-authoritative position
+    private Match match; // live row, written behind (see MatchWriteBehind)
+    private String status;
+    private String player1Username;
+    private String player2Username;
+    private long turnStartedNanos; // System.nanoTime() when the side to move got the turn
+    private int seq; // plies applied, carried on every delta frame
+
+    // Move frame mode negotiated on join (false = legacy full MoveDTO)
+    private boolean whiteDelta;
+    private boolean blackDelta;
+
+    // ECO classification, advanced once per ply (see OpeningClassifier)
+    private int openingNode;
+    private int opening = OpeningClassifier.UNKNOWN;
+
+    // COMPUTER games: a search for the engine's reply is queued or running
+    private boolean engineThinking;
+
+    // ⏱ Clocks at turn start (ms, null = untimed), mirrored from Match for ClockSync
+    private Long whiteClockMs;
+    private Long blackClockMs;
+    private int syncedSeq = -1; // seq of the last clock frame sent
+    private long nextSyncNanos;
+
+    // Lag compensation bank per side (ms), see LagCompensator
+    private int whiteLagQuotaMs;
+    private int blackLagQuotaMs;
+
+    // Pending draw offer (username), kept so it survives a restart (see GameLog)
+    private String drawOfferFrom;
+
+    // Think time per ply held in position (index = position ply - 1, -1 = unknown)
+    private int[] moveTimesMs = NO_MOVE_TIMES;
+
+    // Version of the stored game this copy was built from or last wrote (see GameStateStore)
+    private long storeVersion;
+    private int storedPlies; // plies of position the store already holds
+    // FEN before the first move held in position, for the stored / logged record
+    private String rootFen;
+
+    boolean isWhiteTurn() {
+        return position.isWhiteToMove();
+    }
+
+    boolean anyFullSubscriber() {
+        return !whiteDelta || !blackDelta;
+    }
+
+    boolean anyDeltaSubscriber() {
+        return whiteDelta || blackDelta;
+    }
+
+    void recordMoveTime(int index, int millis) {
+        if (index >= moveTimesMs.length) {
+            int held = moveTimesMs.length;
+            moveTimesMs = Arrays.copyOf(moveTimesMs, Math.max(16, index * 2));
+            Arrays.fill(moveTimesMs, held, moveTimesMs.length, -1);
+        }
+        moveTimesMs[index] = millis;
+    }
+
+    int moveTimeMs(int index) {
+        return index < moveTimesMs.length ? moveTimesMs[index] : -1;
+    }
+}
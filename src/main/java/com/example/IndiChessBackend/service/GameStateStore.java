@@ -0,0 +1,100 @@
+package com.example.IndiChessBackend.service;
+
+import com.example.IndiChessBackend.model.GameType;
+
+import java.util.List;
+import java.util.Optional;
+
+// =========================
+// GAME STATE STORE
+// =========================
+// The live state every node has to agree on: running games and the
+// matchmaking queues. A node's GameState is only a cache of its stored game.
+// Each stored game has a version that goes up by one per write, and a write
+// lands only while the writer's version is still current (compare-and-set).
+// The loser of a race reloads and its client retries, so any node can serve
+// any request for any game.
+//
+// A write after the create carries only what changed: the few fields
+// rewritten every move plus the plies played since the expected version, so
+// a game costs O(plies) in the store, not O(plies²).
+//
+//   InProcessGameStateStore - one node (default, game-store.type=local)
+//   JdbcGameStateStore      - several nodes on one database (game-store.type=jdbc)
+public interface GameStateStore {
+
+    // One game as the store holds it
+    record SharedGame(
+            GameLog.GameRecord game, // root FEN + moves, clocks, players, draw offer
+            long turnStartedAtMillis, // wall clock: nanoTime does not cross JVMs
+            int whiteLagQuotaMs,
+            int blackLagQuotaMs,
+            boolean whiteDelta,
+            boolean blackDelta,
+            int[] moveTimesMs, // per move in game.moves, -1 = unknown
+            boolean finished
+    ) {
+    }
+
+    // writtenAtMillis: wall clock of the version's write
+    record Versioned(long version, SharedGame game, long writtenAtMillis) {
+    }
+
+    // What a node checks before each use of its copy
+    record Head(long version, boolean finished) {
+    }
+
+    // One write: the per-move fields, then the plies after fromPly
+    record Update(
+            int seq,
+            Long whiteTimeMs,
+            Long blackTimeMs,
+            String drawOfferFrom,
+            long turnStartedAtMillis,
+            int whiteLagQuotaMs,
+            int blackLagQuotaMs,
+            boolean whiteDelta,
+            boolean blackDelta,
+            int fromPly, // plies the store holds at the expected version
+            int[] moves, // usually one, none for a draw offer or resignation
+            int[] moveTimesMs,
+            boolean finished
+    ) {
+    }
+
+    // A waiting player: claimed once a node pairs them, matchId once the match exists
+    record Waiting(long sinceMillis, boolean claimed, Long matchId) {
+    }
+
+    // =========================
+    // GAMES
+    // =========================
+    Optional<Head> head(long matchId);
+
+    Optional<Versioned> load(long matchId);
+
+    // Version 1 of a game; false when it is already stored
+    boolean create(long matchId, SharedGame game);
+
+    // False when the stored version is another
+    boolean compareAndSet(long matchId, long expectedVersion, Update update);
+
+    // =========================
+    // MATCHMAKING
+    // =========================
+    // False when the user already has an entry in this queue
+    boolean enqueue(GameType type, String username, long sinceMillis);
+
+    // Unclaimed players, longest waiting first
+    List<String> waiting(GameType type);
+
+    Optional<Waiting> waiter(GameType type, String username);
+
+    // Unclaimed -> claimed: true for exactly one caller, on any node
+    boolean claim(GameType type, String username);
+
+    // The claimed player's match, picked up by their next check
+    void paired(GameType type, String username, long matchId);
+
+    boolean dequeue(GameType type, String username);
+}
@@ -0,0 +1,179 @@
+package com.example.IndiChessBackend.service;
+
+import com.example.IndiChessBackend.model.GameType;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+// =========================
+// IN-PROCESS GAME STATE STORE
+// =========================
+// Single node: the shared state is just this JVM's maps, with the same
+// compare-and-set rules as the JDBC store. A finished game is dropped on its
+// last write; late reads of it are served by FinishedGames on this node.
+@Component
+@ConditionalOnProperty(name = "game-store.type", havingValue = "local", matchIfMissing = true)
+public class InProcessGameStateStore implements GameStateStore {
+
+    // One stored version. Moves grow in place: a write only fills slots past
+    // `plies`, which no earlier version reads, so versions share the arrays.
+    private record Stored(
+            long version,
+            String rootFen,
+            String player1,
+            String player2,
+            Update state,
+            int[] moves,
+            int[] moveTimesMs,
+            int plies,
+            long writtenAtMillis
+    ) {
+    }
+
+    private final Map<Long, Stored> games = new ConcurrentHashMap<>();
+    private final Map<GameType, Map<String, Waiting>> queues = new ConcurrentHashMap<>();
+
+    // =========================
+    // GAMES
+    // =========================
+    @Override
+    public Optional<Head> head(long matchId) {
+        Stored stored = games.get(matchId);
+        return stored == null ? Optional.empty() : Optional.of(new Head(stored.version(), false));
+    }
+
+    @Override
+    public Optional<Versioned> load(long matchId) {
+        Stored stored = games.get(matchId);
+        if (stored == null) {
+            return Optional.empty();
+        }
+
+        Update state = stored.state();
+        GameLog.GameRecord game = new GameLog.GameRecord(
+                matchId,
+                state.seq(),
+                stored.rootFen(),
+                Arrays.copyOf(stored.moves(), stored.plies()),
+                state.whiteTimeMs(),
+                state.blackTimeMs(),
+                stored.player1(),
+                stored.player2(),
+                state.drawOfferFrom()
+        );
+        return Optional.of(new Versioned(stored.version(), new SharedGame(
+                game,
+                state.turnStartedAtMillis(),
+                state.whiteLagQuotaMs(),
+                state.blackLagQuotaMs(),
+                state.whiteDelta(),
+                state.blackDelta(),
+                Arrays.copyOf(stored.moveTimesMs(), stored.plies()),
+                false
+        ), stored.writtenAtMillis()));
+    }
+
+    @Override
+    public boolean create(long matchId, SharedGame shared) {
+        GameLog.GameRecord game = shared.game();
+        Update state = new Update(
+                game.seq(),
+                game.whiteTimeMs(),
+                game.blackTimeMs(),
+                game.drawOfferFrom(),
+                shared.turnStartedAtMillis(),
+                shared.whiteLagQuotaMs(),
+                shared.blackLagQuotaMs(),
+                shared.whiteDelta(),
+                shared.blackDelta(),
+                0,
+                new int[0],
+                new int[0],
+                false
+        );
+        Stored stored = new Stored(1, game.rootFen(), game.player1(), game.player2(), state,
+                game.moves().clone(), shared.moveTimesMs().clone(), game.moves().length, System.currentTimeMillis());
+        return games.putIfAbsent(matchId, stored) == null;
+    }
+
+    @Override
+    public boolean compareAndSet(long matchId, long expectedVersion, Update update) {
+        boolean[] written = {false};
+        games.computeIfPresent(matchId, (id, current) -> {
+            if (current.version() != expectedVersion || current.plies() != update.fromPly()) {
+                return current;
+            }
+            written[0] = true;
+            if (update.finished()) {
+                return null;
+            }
+
+            int[] moves = current.moves();
+            int[] moveTimesMs = current.moveTimesMs();
+            int plies = current.plies() + update.moves().length;
+            if (plies > moves.length) {
+                int capacity = Math.max(plies, moves.length * 2);
+                moves = Arrays.copyOf(moves, capacity);
+                moveTimesMs = Arrays.copyOf(moveTimesMs, capacity);
+            }
+            System.arraycopy(update.moves(), 0, moves, current.plies(), update.moves().length);
+            System.arraycopy(update.moveTimesMs(), 0, moveTimesMs, current.plies(), update.moves().length);
+
+            return new Stored(current.version() + 1, current.rootFen(), current.player1(), current.player2(),
+                    update, moves, moveTimesMs, plies, System.currentTimeMillis());
+        });
+        return written[0];
+    }
+
+    // =========================
+    // MATCHMAKING
+    // =========================
+    private Map<String, Waiting> queue(GameType type) {
+        return queues.computeIfAbsent(type, t -> new ConcurrentHashMap<>());
+    }
+
+    @Override
+    public boolean enqueue(GameType type, String username, long sinceMillis) {
+        return queue(type).putIfAbsent(username, new Waiting(sinceMillis, false, null)) == null;
+    }
+
+    @Override
+    public List<String> waiting(GameType type) {
+        return queue(type).entrySet().stream()
+                .filter(entry -> !entry.getValue().claimed())
+                .sorted(Comparator.comparingLong(entry -> entry.getValue().sinceMillis()))
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    @Override
+    public Optional<Waiting> waiter(GameType type, String username) {
+        return Optional.ofNullable(queue(type).get(username));
+    }
+
+    @Override
+    public boolean claim(GameType type, String username) {
+        Map<String, Waiting> queue = queue(type);
+        Waiting waiting = queue.get(username);
+        return waiting != null
+                && !waiting.claimed()
+                && queue.replace(username, waiting, new Waiting(waiting.sinceMillis(), true, null));
+    }
+
+    @Override
+    public void paired(GameType type, String username, long matchId) {
+        queue(type).computeIfPresent(username,
+                (name, waiting) -> new Waiting(waiting.sinceMillis(), true, matchId));
+    }
+
+    @Override
+    public boolean dequeue(GameType type, String username) {
+        return queue(type).remove(username) != null;
+    }
+}
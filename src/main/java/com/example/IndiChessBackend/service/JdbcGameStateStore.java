@@ -0,0 +1,320 @@
+package com.example.IndiChessBackend.service;
+
+import com.example.IndiChessBackend.model.GameType;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.LockSupport;
+
+// =========================
+// JDBC GAME STATE STORE
+// =========================
+// Several nodes on one database. A game is one live_games row (version,
+// root FEN, players and a small state blob) plus one live_game_moves row per
+// ply. A write is one transaction: UPDATE ... WHERE version = ? rewrites the
+// state blob, and only if that matched are the new plies inserted, so each
+// move costs a constant number of bytes whatever the game's length. A create
+// is an INSERT, where the primary key turns away a second creator. Nothing
+// is locked between requests. A finished game's moves go at once; its row
+// stays as a tombstone for finished-ttl, so no node re-activates it from a
+// matches row that does not show the result yet.
+//
+// A waiting player is one matchmaking_queue row; claiming them is an UPDATE
+// that matches only while the row is unclaimed, so one node wins.
+@Component
+@ConditionalOnProperty(name = "game-store.type", havingValue = "jdbc")
+public class JdbcGameStateStore implements GameStateStore {
+
+    private static final String SELECT_HEAD =
+            "SELECT version, finished FROM live_games WHERE match_id = ?";
+    private static final String SELECT_GAME =
+            "SELECT version, finished, root_fen, player1, player2, state, plies, updated_at FROM live_games "
+                    + "WHERE match_id = ?";
+    private static final String SELECT_MOVES =
+            "SELECT move, move_time_ms FROM live_game_moves WHERE match_id = ? AND ply < ? ORDER BY ply";
+    private static final String INSERT_GAME =
+            "INSERT INTO live_games (match_id, version, finished, root_fen, player1, player2, state, plies, updated_at) "
+                    + "VALUES (?, 1, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_GAME =
+            "UPDATE live_games SET version = version + 1, finished = ?, state = ?, plies = ?, updated_at = ? "
+                    + "WHERE match_id = ? AND version = ? AND plies = ?";
+    private static final String INSERT_MOVE =
+            "INSERT INTO live_game_moves (match_id, ply, move, move_time_ms) VALUES (?, ?, ?, ?)";
+    private static final String DELETE_MOVES = "DELETE FROM live_game_moves WHERE match_id = ?";
+    private static final String PURGE_FINISHED = "DELETE FROM live_games WHERE finished = ? AND updated_at < ?";
+
+    private static final String INSERT_WAITING =
+            "INSERT INTO matchmaking_queue (game_type, username, since_millis, claimed) VALUES (?, ?, ?, ?)";
+    private static final String SELECT_WAITING =
+            "SELECT username FROM matchmaking_queue WHERE game_type = ? AND claimed = ? ORDER BY since_millis, id";
+    private static final String SELECT_WAITER =
+            "SELECT since_millis, claimed, match_id FROM matchmaking_queue WHERE game_type = ? AND username = ?";
+    private static final String CLAIM =
+            "UPDATE matchmaking_queue SET claimed = ? WHERE game_type = ? AND username = ? AND claimed = ?";
+    private static final String PAIR =
+            "UPDATE matchmaking_queue SET match_id = ? WHERE game_type = ? AND username = ?";
+    private static final String DEQUEUE = "DELETE FROM matchmaking_queue WHERE game_type = ? AND username = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final long finishedTtlMillis;
+    private final long purgeIntervalMillis;
+
+    private volatile Thread purger;
+
+    public JdbcGameStateStore(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${game-store.finished-ttl-ms:600000}") long finishedTtlMillis,
+            @Value("${game-store.purge-interval-ms:60000}") long purgeIntervalMillis
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.finishedTtlMillis = finishedTtlMillis;
+        this.purgeIntervalMillis = purgeIntervalMillis;
+    }
+
+    // =========================
+    // GAMES
+    // =========================
+    @Override
+    public Optional<Head> head(long matchId) {
+        List<Head> rows = jdbcTemplate.query(SELECT_HEAD,
+                (rs, i) -> new Head(rs.getLong(1), rs.getBoolean(2)),
+                matchId);
+        return rows.isEmpty() ? Optional.empty() : Optional.of(rows.get(0));
+    }
+
+    private record Row(long version, boolean finished, String rootFen, String player1, String player2,
+                       byte[] state, int plies, Timestamp updatedAt) {
+    }
+
+    // Moves below the row's ply count never change, so the two reads agree
+    // even when a write lands between them
+    @Override
+    public Optional<Versioned> load(long matchId) {
+        List<Row> rows = jdbcTemplate.query(SELECT_GAME,
+                (rs, i) -> new Row(rs.getLong(1), rs.getBoolean(2), rs.getString(3), rs.getString(4),
+                        rs.getString(5), rs.getBytes(6), rs.getInt(7), rs.getTimestamp(8)),
+                matchId);
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        Row row = rows.get(0);
+
+        int[] moves = new int[row.plies()];
+        int[] moveTimesMs = new int[row.plies()];
+        int[] read = {0};
+        if (!row.finished()) {
+            jdbcTemplate.query(SELECT_MOVES, (RowCallbackHandler) rs -> {
+                moves[read[0]] = rs.getInt(1);
+                moveTimesMs[read[0]] = rs.getInt(2);
+                read[0]++;
+            }, matchId, row.plies());
+            if (read[0] < row.plies()) {
+                throw new IllegalStateException("Live game " + matchId + " has " + read[0]
+                        + " of " + row.plies() + " moves");
+            }
+        }
+
+        Update state = decodeState(row.state());
+        GameLog.GameRecord game = new GameLog.GameRecord(matchId, state.seq(), row.rootFen(), moves,
+                state.whiteTimeMs(), state.blackTimeMs(), row.player1(), row.player2(), state.drawOfferFrom());
+        return Optional.of(new Versioned(row.version(), new SharedGame(game, state.turnStartedAtMillis(),
+                state.whiteLagQuotaMs(), state.blackLagQuotaMs(), state.whiteDelta(), state.blackDelta(),
+                moveTimesMs, row.finished()), row.updatedAt().getTime()));
+    }
+
+    @Override
+    public boolean create(long matchId, SharedGame shared) {
+        GameLog.GameRecord game = shared.game();
+        Update state = new Update(game.seq(), game.whiteTimeMs(), game.blackTimeMs(), game.drawOfferFrom(),
+                shared.turnStartedAtMillis(), shared.whiteLagQuotaMs(), shared.blackLagQuotaMs(),
+                shared.whiteDelta(), shared.blackDelta(), 0, game.moves(), shared.moveTimesMs(), shared.finished());
+        try {
+            return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                jdbcTemplate.update(INSERT_GAME, matchId, shared.finished(), game.rootFen(),
+                        game.player1(), game.player2(), encodeState(state), game.moves().length, now());
+                insertMoves(matchId, state);
+                return true;
+            }));
+        } catch (DuplicateKeyException e) {
+            return false; // another node created it first
+        }
+    }
+
+    @Override
+    public boolean compareAndSet(long matchId, long expectedVersion, Update update) {
+        byte[] state = encodeState(update);
+        int plies = update.fromPly() + update.moves().length;
+
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            int matched = jdbcTemplate.update(UPDATE_GAME, update.finished(), state, plies, now(),
+                    matchId, expectedVersion, update.fromPly());
+            if (matched != 1) {
+                return false;
+            }
+            if (update.finished()) {
+                jdbcTemplate.update(DELETE_MOVES, matchId); // a tombstone needs no moves
+            } else {
+                insertMoves(matchId, update);
+            }
+            return true;
+        }));
+    }
+
+    private void insertMoves(long matchId, Update update) {
+        int[] moves = update.moves();
+        List<Object[]> rows = new ArrayList<>(moves.length);
+        for (int i = 0; i < moves.length; i++) {
+            rows.add(new Object[]{matchId, update.fromPly() + i, moves[i], update.moveTimesMs()[i]});
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_MOVE, rows);
+        }
+    }
+
+    int purgeFinished() {
+        LocalDateTime cutoff = LocalDateTime.now().minusNanos(finishedTtlMillis * 1_000_000L);
+        return jdbcTemplate.update(PURGE_FINISHED, true, Timestamp.valueOf(cutoff));
+    }
+
+    private static Timestamp now() {
+        return Timestamp.valueOf(LocalDateTime.now());
+    }
+
+    @PostConstruct
+    void start() {
+        Thread thread = new Thread(() -> {
+            long intervalNanos = purgeIntervalMillis * 1_000_000L;
+            while (!Thread.currentThread().isInterrupted()) {
+                LockSupport.parkNanos(intervalNanos);
+                try {
+                    purgeFinished();
+                } catch (RuntimeException e) {
+                    System.out.println("Purging finished live games failed: " + e.getMessage());
+                }
+            }
+        }, "live-game-purger");
+        thread.setDaemon(true);
+        purger = thread;
+        thread.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        Thread thread = purger;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    // =========================
+    // MATCHMAKING
+    // =========================
+    @Override
+    public boolean enqueue(GameType type, String username, long sinceMillis) {
+        try {
+            return jdbcTemplate.update(INSERT_WAITING, type.name(), username, sinceMillis, false) == 1;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public List<String> waiting(GameType type) {
+        return jdbcTemplate.queryForList(SELECT_WAITING, String.class, type.name(), false);
+    }
+
+    @Override
+    public Optional<Waiting> waiter(GameType type, String username) {
+        List<Waiting> rows = jdbcTemplate.query(SELECT_WAITER,
+                (rs, i) -> new Waiting(rs.getLong(1), rs.getBoolean(2), rs.getObject(3, Long.class)),
+                type.name(), username);
+        return rows.isEmpty() ? Optional.empty() : Optional.of(rows.get(0));
+    }
+
+    @Override
+    public boolean claim(GameType type, String username) {
+        return jdbcTemplate.update(CLAIM, true, type.name(), username, false) == 1;
+    }
+
+    @Override
+    public void paired(GameType type, String username, long matchId) {
+        jdbcTemplate.update(PAIR, matchId, type.name(), username);
+    }
+
+    @Override
+    public boolean dequeue(GameType type, String username) {
+        return jdbcTemplate.update(DEQUEUE, type.name(), username) == 1;
+    }
+
+    // =========================
+    // ENCODING
+    // =========================
+    // The per-move fields of an Update; the moves go to their own rows
+    static byte[] encodeState(Update state) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(state.seq());
+            out.writeLong(state.whiteTimeMs() == null ? -1 : state.whiteTimeMs()); // untimed: -1
+            out.writeLong(state.blackTimeMs() == null ? -1 : state.blackTimeMs());
+            out.writeUTF(state.drawOfferFrom() == null ? "" : state.drawOfferFrom());
+            out.writeLong(state.turnStartedAtMillis());
+            out.writeInt(state.whiteLagQuotaMs());
+            out.writeInt(state.blackLagQuotaMs());
+            out.writeBoolean(state.whiteDelta());
+            out.writeBoolean(state.blackDelta());
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static Update decodeState(byte[] data) {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+            int seq = in.readInt();
+            long white = in.readLong();
+            long black = in.readLong();
+            String offer = in.readUTF();
+            return new Update(
+                    seq,
+                    white < 0 ? null : white,
+                    black < 0 ? null : black,
+                    offer.isEmpty() ? null : offer,
+                    in.readLong(),
+                    in.readInt(),
+                    in.readInt(),
+                    in.readBoolean(),
+                    in.readBoolean(),
+                    0,
+                    new int[0],
+                    new int[0],
+                    false
+            );
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.example.IndiChessBackend.service;
+
+import com.example.IndiChessBackend.model.DTO.PingDTO;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.security.Principal;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+
+// =========================
+// NETWORK LAG COMPENSATION
+// =========================
+// The server pings every STOMP session (/user/queue/ping) and the client
+// echoes the token to /app/pong; the round trip feeds a smoothed RTT per
+// session (EWMA, 1/8 gain). A move is credited half the mover's RTT, capped
+// per move and drawn from a per-player bank that refills a little on every
+// move, so a faked slow link cannot buy more than the bank holds.
+@Component
+public class LagCompensator {
+
+    private static final int RTT_GAIN = 8;
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final long pingIntervalMillis;
+    private final int maxCreditMillis;
+    private final int quotaGainMillis;
+    private final int quotaMaxMillis;
+
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final Map<String, Session> latestByUser = new ConcurrentHashMap<>();
+
+    private final DistributionSummary rttSamples;
+    private final DistributionSummary sessionRtts;
+    private final DistributionSummary credits;
+
+    private volatile Thread pinger;
+
+    private static final class Session {
+        final String id;
+        final String username;
+        long pingToken;
+        long pingSentNanos;
+        double rttMillis = Double.NaN; // smoothed, NaN until the first pong
+
+        Session(String id, String username) {
+            this.id = id;
+            this.username = username;
+        }
+
+        synchronized double rtt() {
+            return rttMillis;
+        }
+    }
+
+    public LagCompensator(
+            SimpMessagingTemplate messagingTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${lag.ping-interval-ms:2000}") long pingIntervalMillis,
+            @Value("${lag.max-credit-ms:500}") int maxCreditMillis,
+            @Value("${lag.quota-gain-ms:100}") int quotaGainMillis,
+            @Value("${lag.quota-max-ms:1000}") int quotaMaxMillis
+    ) {
+        this.messagingTemplate = messagingTemplate;
+        this.pingIntervalMillis = pingIntervalMillis;
+        this.maxCreditMillis = maxCreditMillis;
+        this.quotaGainMillis = quotaGainMillis;
+        this.quotaMaxMillis = quotaMaxMillis;
+
+        this.rttSamples = DistributionSummary.builder("lag.rtt")
+                .description("Measured ping round trips")
+                .baseUnit("milliseconds")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        // One untagged distribution over all sessions: a tag per session or
+        // user would grow without bound and put usernames in the metrics
+        this.sessionRtts = DistributionSummary.builder("lag.session.rtt")
+                .description("Smoothed round trip of a session, after each pong")
+                .baseUnit("milliseconds")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.credits = DistributionSummary.builder("lag.credit")
+                .description("Clock time credited back per move")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+
+        Gauge.builder("lag.sessions", sessions, Map::size)
+                .description("STOMP sessions with a latency estimate")
+                .register(meterRegistry);
+    }
+
+    // =========================
+    // SESSIONS
+    // =========================
+    @EventListener
+    public void onConnected(SessionConnectedEvent event) {
+        Principal user = event.getUser();
+        String sessionId = StompHeaderAccessor.wrap(event.getMessage()).getSessionId();
+        if (user == null || sessionId == null) {
+            return;
+        }
+        register(sessionId, user.getName());
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        unregister(event.getSessionId());
+    }
+
+    void register(String sessionId, String username) {
+        Session session = new Session(sessionId, username);
+        sessions.put(sessionId, session);
+        latestByUser.put(username, session);
+    }
+
+    void unregister(String sessionId) {
+        Session session = sessions.remove(sessionId);
+        if (session == null) {
+            return;
+        }
+        latestByUser.remove(session.username, session);
+    }
+
+    // =========================
+    // PING / PONG
+    // =========================
+    private void ping(Session session) {
+        long token = ThreadLocalRandom.current().nextLong();
+        synchronized (session) {
+            session.pingToken = token;
+            session.pingSentNanos = System.nanoTime();
+        }
+
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        headers.setSessionId(session.id);
+        headers.setLeaveMutable(true);
+
+        messagingTemplate.convertAndSendToUser(
+                session.username,
+                "/queue/ping",
+                new PingDTO(token),
+                headers.getMessageHeaders()
+        );
+    }
+
+    // Only the echo of the latest outstanding token counts
+    public void onPong(String sessionId, long token) {
+        Session session = sessions.get(sessionId);
+        if (session == null) {
+            return;
+        }
+
+        double sample;
+        synchronized (session) {
+            if (session.pingSentNanos == 0 || token != session.pingToken) {
+                return;
+            }
+            sample = (System.nanoTime() - session.pingSentNanos) / 1_000_000.0;
+            session.pingSentNanos = 0;
+        }
+        observe(session, sample);
+    }
+
+    // Folds one round trip into the session's smoothed RTT
+    void observe(String sessionId, double sampleMillis) {
+        Session session = sessions.get(sessionId);
+        if (session != null) {
+            observe(session, sampleMillis);
+        }
+    }
+
+    private void observe(Session session, double sample) {
+        double smoothed;
+        synchronized (session) {
+            smoothed = Double.isNaN(session.rttMillis)
+                    ? sample
+                    : session.rttMillis + (sample - session.rttMillis) / RTT_GAIN;
+            session.rttMillis = smoothed;
+        }
+        rttSamples.record(sample);
+        sessionRtts.record(smoothed);
+    }
+
+    @PostConstruct
+    void start() {
+        Thread thread = new Thread(() -> {
+            long intervalNanos = pingIntervalMillis * 1_000_000L;
+            while (!Thread.currentThread().isInterrupted()) {
+                LockSupport.parkNanos(intervalNanos);
+                for (Session session : sessions.values()) {
+                    try {
+                        ping(session);
+                    } catch (RuntimeException e) {
+                        System.out.println("Ping failed for session " + session.id + ": " + e.getMessage());
+                    }
+                }
+            }
+        }, "lag-ping");
+        thread.setDaemon(true);
+        pinger = thread;
+        thread.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        Thread thread = pinger;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    // =========================
+    // CREDIT
+    // =========================
+    // One-way transit estimate for the user's most recent session (0 if unknown)
+    public long transitMillis(String username) {
+        Session session = latestByUser.get(username);
+        if (session == null) {
+            return 0;
+        }
+        double rtt = session.rtt();
+        return Double.isNaN(rtt) ? 0 : (long) (rtt / 2);
+    }
+
+    // What a move may be credited: transit, capped per move, by the bank and by the think time
+    public int allowance(String username, int quotaMillis) {
+        return (int) Math.min(transitMillis(username), Math.min(maxCreditMillis, quotaMillis));
+    }
+
+    public int credit(String username, long thinkMillis, int quotaMillis) {
+        int credit = (int) Math.min(allowance(username, quotaMillis), thinkMillis);
+        if (credit > 0) {
+            credits.record(credit);
+        }
+        return credit;
+    }
+
+    // Bank after a move: spend the credit, earn the per-move gain, never above the cap
+    public int refill(int quotaMillis, int credit) {
+        return Math.min(quotaMaxMillis, quotaMillis - credit + quotaGainMillis);
+    }
+
+    public int initialQuota() {
+        return quotaMaxMillis;
+    }
+}
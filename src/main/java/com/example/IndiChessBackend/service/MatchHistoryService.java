@@ -0,0 +1,117 @@
+package com.example.IndiChessBackend.service;
+
+import com.example.IndiChessBackend.model.DTO.MatchHistoryDTO;
+import com.example.IndiChessBackend.model.MatchStatus;
+import com.example.IndiChessBackend.repo.MatchHeader;
+import com.example.IndiChessBackend.repo.MatchRepo;
+import com.example.IndiChessBackend.repo.UserRepo;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+// =========================
+// MATCH HISTORY
+// =========================
+// A player's games newest first, paged by a (createdAt, id) cursor instead of
+// an offset: every page is an index seek plus `limit` rows, on page 1 or
+// page 5000. The player's games as player1 and as player2 come from two
+// queries (one index each) and are merged here.
+@Service
+@RequiredArgsConstructor
+public class MatchHistoryService {
+
+    static final int MAX_LIMIT = 100;
+
+    private static final Comparator<MatchHeader> NEWEST_FIRST = Comparator
+            .comparing(MatchHeader::getCreatedAt)
+            .thenComparing(MatchHeader::getId)
+            .reversed();
+
+    private final MatchRepo matchRepo;
+    private final UserRepo userRepo;
+
+    public MatchHistoryDTO history(String username, MatchStatus status, String cursor, int limit) {
+
+        Long userId = userRepo.findIdByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        int size = Math.max(1, Math.min(limit, MAX_LIMIT));
+        Cursor from = cursor == null || cursor.isBlank() ? Cursor.FIRST : Cursor.parse(cursor);
+
+        // One extra row per side tells whether another page exists
+        PageRequest page = PageRequest.of(0, size + 1);
+        List<MatchHeader> asPlayer1 = status == null
+                ? matchRepo.findHistoryAsPlayer1(userId, from.createdAt, from.id, page)
+                : matchRepo.findHistoryAsPlayer1WithStatus(userId, status, from.createdAt, from.id, page);
+        List<MatchHeader> asPlayer2 = status == null
+                ? matchRepo.findHistoryAsPlayer2(userId, from.createdAt, from.id, page)
+                : matchRepo.findHistoryAsPlayer2WithStatus(userId, status, from.createdAt, from.id, page);
+
+        return page(merge(asPlayer1, asPlayer2, size + 1), size);
+    }
+
+    // Both inputs newest first; a game against oneself is in both and kept once
+    static List<MatchHeader> merge(List<MatchHeader> a, List<MatchHeader> b, int limit) {
+        return merge(a, b, NEWEST_FIRST, limit);
+    }
+
+    // Both inputs in `order` (see GameExportService for oldest first)
+    static List<MatchHeader> merge(List<MatchHeader> a, List<MatchHeader> b, Comparator<MatchHeader> order, int limit) {
+        List<MatchHeader> merged = new ArrayList<>(Math.min(limit, a.size() + b.size()));
+        int i = 0;
+        int j = 0;
+        while (merged.size() < limit && (i < a.size() || j < b.size())) {
+            MatchHeader next;
+            if (j >= b.size() || (i < a.size() && order.compare(a.get(i), b.get(j)) <= 0)) {
+                next = a.get(i++);
+            } else {
+                next = b.get(j++);
+            }
+            if (merged.isEmpty() || !merged.get(merged.size() - 1).getId().equals(next.getId())) {
+                merged.add(next);
+            }
+        }
+        return merged;
+    }
+
+    static MatchHistoryDTO page(List<MatchHeader> merged, int size) {
+        if (merged.size() <= size) {
+            return new MatchHistoryDTO(merged, null);
+        }
+        List<MatchHeader> games = merged.subList(0, size);
+        MatchHeader last = games.get(size - 1);
+        return new MatchHistoryDTO(games, new Cursor(last.getCreatedAt(), last.getId()).toString());
+    }
+
+    // =========================
+    // CURSOR
+    // =========================
+    // "<createdAt>_<id>" of the last game returned, e.g. 2026-01-31T18:02:11.123_48213
+    record Cursor(LocalDateTime createdAt, Long id) {
+
+        // Above anything stored: rows are never created in the future
+        static final Cursor FIRST = new Cursor(LocalDateTime.of(9999, 12, 31, 0, 0), Long.MAX_VALUE);
+
+        static Cursor parse(String value) {
+            int split = value.lastIndexOf('_');
+            try {
+                return new Cursor(
+                        LocalDateTime.parse(value.substring(0, split)),
+                        Long.parseLong(value.substring(split + 1))
+                );
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + value);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return createdAt + "_" + id;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.IndiChessBackend.service;
 
+import com.example.IndiChessBackend.model.DTO.GameSummary;
 import com.example.IndiChessBackend.model.GameType;
 import com.example.IndiChessBackend.model.Match;
 import com.example.IndiChessBackend.model.MatchStatus;
@@ -11,7 +12,6 @@ import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class MatchService {
@@ -19,37 +19,34 @@ public class MatchService {
     // =========================
     // MATCHMAKING STORAGE
     // =========================
-
-    // Waiting players per game type
-    private static final Map<GameType, Map<String, Long>> waitingPlayers =
-            new ConcurrentHashMap<>();
-
-    // When user started waiting
-    private static final Map<String, Long> waitingStartTime =
-            new ConcurrentHashMap<>();
+    // Waiting players live in the GameStateStore, so every node pairs from
+    // the same queues. The lock per game type only orders this node's calls.
+    private final Map<GameType, Object> queueLocks = new EnumMap<>(GameType.class);
 
     private static final long MAX_WAIT_TIME = 90_000; // 90 seconds
 
-    // matchId -> [player1, player2]
-    private static final Map<Long, String[]> matchPlayers =
-            new ConcurrentHashMap<>();
-
     private final JwtService jwtService;
     private final UserRepo userRepo;
     private final MatchRepo matchRepo;
+    private final ComputerPlayer computerPlayer;
+    private final GameStateStore gameStateStore;
 
     public MatchService(
             JwtService jwtService,
             UserRepo userRepo,
-            MatchRepo matchRepo
+            MatchRepo matchRepo,
+            ComputerPlayer computerPlayer,
+            GameStateStore gameStateStore
     ) {
         this.jwtService = jwtService;
         this.userRepo = userRepo;
         this.matchRepo = matchRepo;
+        this.computerPlayer = computerPlayer;
+        this.gameStateStore = gameStateStore;
 
-        // Init queue for each game type
+        // Init lock for each game type
         for (GameType type : GameType.values()) {
-            waitingPlayers.put(type, new ConcurrentHashMap<>());
+            queueLocks.put(type, new Object());
         }
     }
 
@@ -88,17 +85,20 @@ public class MatchService {
             return Optional.empty();
         }
 
-        Map<String, Long> queue = waitingPlayers.get(gameType);
+        // 🤖 Versus computer: no queue, paired with the engine right away
+        if (gameType == GameType.COMPUTER) {
+            return createComputerMatch(username);
+        }
 
-        synchronized (queue) {
+        synchronized (queueLocks.get(gameType)) {
 
             // Already waiting → do not add again
-            if (queue.containsKey(username)) {
+            if (gameStateStore.waiter(gameType, username).isPresent()) {
                 return Optional.of(-1L); // still waiting
             }
 
             // Try to find opponent
-            for (String waitingUser : queue.keySet()) {
+            for (String waitingUser : gameStateStore.waiting(gameType)) {
 
                 if (!waitingUser.equals(username)) {
 
@@ -109,6 +109,11 @@ public class MatchService {
                         continue;
                     }
 
+                    // Another node may be pairing them right now: one claim wins
+                    if (!gameStateStore.claim(gameType, waitingUser)) {
+                        continue;
+                    }
+
                     Match match = new Match(
                             p1,
                             p2,
@@ -116,39 +121,43 @@ public class MatchService {
                             gameType
                     );
 
-                    // ⏱ TIME CONTROL
-                    if (gameType == GameType.RAPID) {
-                        match.setWhiteTime(600); // 10 minutes
-                        match.setBlackTime(600);
-                    } else if (gameType == GameType.BLITZ) {
-                        match.setWhiteTime(180); // 3 minutes
-                        match.setBlackTime(180);
-                    }
-
                     matchRepo.save(match);
 
                     Long matchId = match.getId();
 
-                    matchPlayers.put(
-                            matchId,
-                            new String[]{waitingUser, username}
-                    );
-
-                    queue.remove(waitingUser);
-                    waitingStartTime.remove(waitingUser);
+                    // Picked up by the waiting player's next check
+                    gameStateStore.paired(gameType, waitingUser, matchId);
 
                     return Optional.of(matchId);
                 }
             }
 
             // No opponent → start waiting
-            queue.put(username, -1L);
-            waitingStartTime.put(username, System.currentTimeMillis());
+            gameStateStore.enqueue(gameType, username, System.currentTimeMillis());
 
             return Optional.of(-1L); // waiting
         }
     }
 
+    // Human plays white, the engine answers as black
+    private Optional<Long> createComputerMatch(String username) {
+
+        User human = userRepo.getUserByUsername(username);
+        if (human == null) {
+            return Optional.empty();
+        }
+
+        Match match = new Match(
+                human,
+                computerPlayer.account(),
+                MatchStatus.IN_PROGRESS,
+                GameType.COMPUTER
+        );
+        matchRepo.save(match);
+
+        return Optional.of(match.getId());
+    }
+
     // =========================
     // CHECK MATCH
     // =========================
@@ -167,50 +176,31 @@ public class MatchService {
 
         if (username == null) return Optional.empty();
 
-        Map<String, Long> queue = waitingPlayers.get(gameType);
-        if (queue == null) return Optional.empty();
+        synchronized (queueLocks.get(gameType)) {
 
-        synchronized (queue) {
+            GameStateStore.Waiting waiting = gameStateStore.waiter(gameType, username).orElse(null);
+            if (waiting == null) {
+                return Optional.empty();
+            }
 
             // ✅ MATCH FOUND (check first)
-            for (Map.Entry<Long, String[]> entry : matchPlayers.entrySet()) {
-
-                String[] players = entry.getValue();
-
-                if (players[0].equals(username) ||
-                        players[1].equals(username)) {
-
-                    Long matchId = entry.getKey();
-
-                    matchPlayers.remove(matchId);
-                    queue.remove(players[0]);
-                    queue.remove(players[1]);
-                    waitingStartTime.remove(players[0]);
-                    waitingStartTime.remove(players[1]);
-
-                    return Optional.of(matchId);
-                }
+            if (waiting.matchId() != null) {
+                gameStateStore.dequeue(gameType, username);
+                return Optional.of(waiting.matchId());
             }
 
-            // ⏳ TIMEOUT CHECK
-            Long startTime = waitingStartTime.get(username);
-            if (startTime != null) {
-                long waited = System.currentTimeMillis() - startTime;
-
-                if (waited > MAX_WAIT_TIME) {
-                    queue.remove(username);
-                    waitingStartTime.remove(username);
-                    return Optional.of(-2L); // timeout
-                }
+            // ⏳ TIMEOUT CHECK: claimed first so no node pairs them on the way out
+            // (a claim still without a match this late is from a node that died)
+            long waited = System.currentTimeMillis() - waiting.sinceMillis();
+            if (waited > MAX_WAIT_TIME
+                    && (waiting.claimed() || gameStateStore.claim(gameType, username))) {
+                gameStateStore.dequeue(gameType, username);
+                return Optional.of(-2L); // timeout
             }
 
-            // ⏳ STILL WAITING
-            if (queue.containsKey(username)) {
-                return Optional.of(-1L);
-            }
+            // ⏳ STILL WAITING (or claimed, match being created)
+            return Optional.of(-1L);
         }
-
-        return Optional.empty();
     }
 
 
@@ -234,14 +224,8 @@ public class MatchService {
             return false;
         }
 
-        Map<String, Long> queue = waitingPlayers.get(gameType);
-        if (queue == null) {
-            return false;
-        }
-
         // Remove from waiting
-        waitingStartTime.remove(username);
-        return queue.remove(username) != null;
+        return gameStateStore.dequeue(gameType, username);
     }
 
     // =========================
@@ -262,7 +246,8 @@ public class MatchService {
             throw new RuntimeException("Invalid token");
         }
 
-        Match match = matchRepo.findById(matchId)
+        // One query: match columns + player summaries, no entities
+        GameSummary match = matchRepo.findSummaryById(matchId)
                 .orElseThrow(() -> new RuntimeException("Game not found"));
 
         // Ensure user is part of this match
@@ -279,8 +264,10 @@ public class MatchService {
         res.put("matchId", matchId);
         res.put("playerColor", isWhite ? "white" : "black");
         res.put("status", match.getStatus());
-        res.put("whiteTime", match.getWhiteTime());
-        res.put("blackTime", match.getBlackTime());
+        res.put("whiteTime", GameService.clockSeconds(match.getWhiteTimeMs()));
+        res.put("blackTime", GameService.clockSeconds(match.getBlackTimeMs()));
+        res.put("whiteTimeMs", match.getWhiteTimeMs());
+        res.put("blackTimeMs", match.getBlackTimeMs());
         res.put("gameType", match.getGameType());
 
         return res;
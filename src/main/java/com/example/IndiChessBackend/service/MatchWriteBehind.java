@@ -0,0 +1,185 @@
+package com.example.IndiChessBackend.service;
+
+import com.example.IndiChessBackend.model.Match;
+import com.example.IndiChessBackend.repo.MatchRepo;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.LockSupport;
+
+// =========================
+// WRITE-BEHIND MATCH CACHE
+// =========================
+// An active game owns its Match row (GameState.match); moves change it in
+// memory and only mark the game dirty. Every flush interval one thread
+// writes the live columns of all dirty games in a single JDBC batch, so a
+// burst of moves in one game costs one UPDATE. Status changes (game over)
+// do not wait: flushNow saves the whole row right away.
+@Component
+public class MatchWriteBehind {
+
+    // Several nodes may write one game's row: it never goes back to an earlier ply
+    private static final String UPDATE_LIVE =
+            "UPDATE matches SET fen_current = ?, last_move_uci = ?, current_ply = ?, "
+                    + "white_time_ms = ?, black_time_ms = ?, updated_at = ? "
+                    + "WHERE id = ? AND COALESCE(current_ply, 0) <= ?";
+
+    record LiveRow(
+            long matchId,
+            String fenCurrent,
+            String lastMoveUci,
+            Integer currentPly,
+            Long whiteTimeMs,
+            Long blackTimeMs,
+            LocalDateTime updatedAt
+    ) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MatchRepo matchRepo;
+    private final long flushIntervalMillis;
+
+    private final Map<Long, GameState> dirty = new ConcurrentHashMap<>();
+
+    private final Counter rowsWritten;
+
+    private volatile Thread flusher;
+
+    public MatchWriteBehind(
+            JdbcTemplate jdbcTemplate,
+            MatchRepo matchRepo,
+            MeterRegistry meterRegistry,
+            @Value("${match-cache.flush-interval-ms:1000}") long flushIntervalMillis
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.matchRepo = matchRepo;
+        this.flushIntervalMillis = flushIntervalMillis;
+
+        this.rowsWritten = Counter.builder("match.cache.rows.written")
+                .description("Live match rows written by the write-behind flusher")
+                .register(meterRegistry);
+        Gauge.builder("match.cache.dirty", dirty, Map::size)
+                .description("Active games with unwritten changes")
+                .register(meterRegistry);
+    }
+
+    // Called under the game's lock after its Match changed
+    public void markDirty(long matchId, GameState gameState) {
+        dirty.put(matchId, gameState);
+    }
+
+    // Status changes: write the whole row now, nothing left pending
+    public Match flushNow(Match match) {
+        dirty.remove(match.getId());
+        return matchRepo.save(match);
+    }
+
+    // =========================
+    // FLUSH
+    // =========================
+    int flush() {
+        List<LiveRow> rows = new ArrayList<>(dirty.size());
+        List<GameState> games = new ArrayList<>(dirty.size());
+
+        for (Map.Entry<Long, GameState> entry : dirty.entrySet()) {
+            GameState gameState = entry.getValue();
+
+            // A change after this point marks the game dirty again
+            if (!dirty.remove(entry.getKey(), gameState)) {
+                continue;
+            }
+
+            synchronized (gameState) {
+                Match match = gameState.getMatch();
+                rows.add(new LiveRow(
+                        match.getId(),
+                        match.getFenCurrent(),
+                        match.getLastMoveUci(),
+                        match.getCurrentPly(),
+                        match.getWhiteTimeMs(),
+                        match.getBlackTimeMs(),
+                        LocalDateTime.now()
+                ));
+                games.add(gameState);
+            }
+        }
+
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_LIVE, rows, rows.size(), MatchWriteBehind::bind);
+        } catch (RuntimeException e) {
+            // Keep them pending for the next round unless a newer change already is
+            for (int i = 0; i < rows.size(); i++) {
+                dirty.putIfAbsent(rows.get(i).matchId(), games.get(i));
+            }
+            throw e;
+        }
+        rowsWritten.increment(rows.size());
+        return rows.size();
+    }
+
+    @PostConstruct
+    void start() {
+        Thread thread = new Thread(() -> {
+            long intervalNanos = flushIntervalMillis * 1_000_000L;
+            while (!Thread.currentThread().isInterrupted()) {
+                LockSupport.parkNanos(intervalNanos);
+                try {
+                    flush();
+                } catch (RuntimeException e) {
+                    System.out.println("Match write-behind flush failed: " + e.getMessage());
+                }
+            }
+        }, "match-write-behind");
+        thread.setDaemon(true);
+        flusher = thread;
+        thread.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        Thread thread = flusher;
+        if (thread != null) {
+            thread.interrupt();
+        }
+        flush();
+    }
+
+    private static void bind(PreparedStatement ps, LiveRow row) throws SQLException {
+        ps.setString(1, row.fenCurrent());
+        ps.setString(2, row.lastMoveUci());
+        if (row.currentPly() == null) {
+            ps.setNull(3, Types.INTEGER);
+        } else {
+            ps.setInt(3, row.currentPly());
+        }
+        if (row.whiteTimeMs() == null) {
+            ps.setNull(4, Types.BIGINT);
+            ps.setNull(5, Types.BIGINT);
+        } else {
+            ps.setLong(4, row.whiteTimeMs());
+            ps.setLong(5, row.blackTimeMs());
+        }
+        ps.setTimestamp(6, Timestamp.valueOf(row.updatedAt()));
+        ps.setLong(7, row.matchId());
+        ps.setInt(8, row.currentPly() == null ? 0 : row.currentPly());
+    }
+}
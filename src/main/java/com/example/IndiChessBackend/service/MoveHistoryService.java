@@ -0,0 +1,139 @@
+package com.example.IndiChessBackend.service;
+
+import com.example.IndiChessBackend.chess.Moves;
+import com.example.IndiChessBackend.chess.Position;
+import com.example.IndiChessBackend.chess.San;
+import com.example.IndiChessBackend.model.DTO.MoveHistoryDTO;
+import com.example.IndiChessBackend.model.DTO.MoveHistoryEntryDTO;
+import com.example.IndiChessBackend.model.MatchStatus;
+import com.example.IndiChessBackend.repo.ArchivedGameRepo;
+import com.example.IndiChessBackend.repo.MatchRepo;
+import com.example.IndiChessBackend.repo.MoveRepo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+// =========================
+// MOVE HISTORY
+// =========================
+// Live and just-finished games answer from GameService's in-memory position.
+// Older finished games are read once (archive blob or moves rows) and kept in
+// a small LRU, so repeated polls never reach the database; with the ETag
+// (match id + ply) they do not even get a body back.
+@Service
+public class MoveHistoryService {
+
+    private final GameService gameService;
+    private final MatchRepo matchRepo;
+    private final MoveRepo moveRepo;
+    private final ArchivedGameRepo archivedGameRepo;
+
+    // matchId -> whole history of a finished game (access order)
+    private final Map<Long, MoveHistoryDTO> finished;
+
+    public MoveHistoryService(
+            GameService gameService,
+            MatchRepo matchRepo,
+            MoveRepo moveRepo,
+            ArchivedGameRepo archivedGameRepo,
+            @Value("${move-history.cache-size:1000}") int cacheSize
+    ) {
+        this.gameService = gameService;
+        this.matchRepo = matchRepo;
+        this.moveRepo = moveRepo;
+        this.archivedGameRepo = archivedGameRepo;
+        this.finished = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, MoveHistoryDTO> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    public MoveHistoryDTO history(Long matchId, int since) {
+
+        Optional<MoveHistoryDTO> held = gameService.heldMoveHistory(matchId, since);
+        if (held.isPresent()) {
+            return held.get();
+        }
+
+        MoveHistoryDTO cached = finished.get(matchId);
+        if (cached != null) {
+            return slice(cached, since);
+        }
+
+        MatchRepo.Progress progress = matchRepo.findProgress(matchId)
+                .orElseThrow(() -> new RuntimeException("Game not found"));
+
+        // Still running (not loaded here, or resumed from a FEN): rows only, never cached
+        if (progress.getStatus() == MatchStatus.IN_PROGRESS) {
+            List<MoveHistoryEntryDTO> moves = fromRows(matchId, since);
+            int ply = Math.max(progress.getCurrentPly() == null ? 0 : progress.getCurrentPly(),
+                    moves.isEmpty() ? since : moves.get(moves.size() - 1).getPly());
+            return new MoveHistoryDTO(matchId, true, ply, since, moves);
+        }
+
+        List<ArchivedGameRepo.Blob> blobs = archivedGameRepo.findBlobsByMatchIds(List.of(matchId));
+        List<MoveHistoryEntryDTO> moves = blobs.isEmpty()
+                ? fromRows(matchId, 0)
+                : fromArchive(GameArchive.decode(blobs.get(0).getData()));
+
+        int ply = moves.isEmpty() ? 0 : moves.get(moves.size() - 1).getPly();
+
+        // Rows still in the move journal: serve what is there as live (revalidated,
+        // never cached), cache once complete
+        int expected = progress.getCurrentPly() == null ? 0 : progress.getCurrentPly();
+        boolean complete = !blobs.isEmpty() || ply >= expected;
+        MoveHistoryDTO whole = new MoveHistoryDTO(matchId, !complete, ply, 0, moves);
+        if (complete) {
+            finished.put(matchId, whole);
+        }
+        return slice(whole, since);
+    }
+
+    // Strong validator: a finished game's history never changes, a live one only
+    // grows, so match id + ply (+ live) identifies the body for a given `since`
+    public static String etag(MoveHistoryDTO history) {
+        return "\"" + history.getMatchId() + "-" + history.getPly() + (history.isLive() ? "-live" : "") + "\"";
+    }
+
+    private List<MoveHistoryEntryDTO> fromRows(Long matchId, int since) {
+        List<MoveHistoryEntryDTO> moves = new ArrayList<>();
+        for (MoveRepo.HistoryRow row : moveRepo.findHistory(matchId, since)) {
+            moves.add(new MoveHistoryEntryDTO(row.getPly(), row.getUci(), row.getSan(), row.getMoveTimeMs()));
+        }
+        return moves;
+    }
+
+    // Archives hold no SAN: it comes from replaying the moves
+    static List<MoveHistoryEntryDTO> fromArchive(GameArchive.Game game) {
+        Position position = game.startPosition();
+        List<MoveHistoryEntryDTO> moves = new ArrayList<>(game.plies());
+        for (int i = 0; i < game.plies(); i++) {
+            int move = game.moves()[i];
+            int moveTimeMs = game.moveTimesMs()[i];
+            moves.add(new MoveHistoryEntryDTO(
+                    i + 1,
+                    Moves.toUci(move),
+                    San.of(position, move),
+                    moveTimeMs < 0 ? null : moveTimeMs
+            ));
+            position.makeMove(move);
+        }
+        return moves;
+    }
+
+    static MoveHistoryDTO slice(MoveHistoryDTO whole, int since) {
+        List<MoveHistoryEntryDTO> moves = whole.getMoves();
+        int start = Math.min(since, moves.size());
+        while (start > 0 && moves.get(start - 1).getPly() > since) {
+            start--;
+        }
+        while (start < moves.size() && moves.get(start).getPly() <= since) {
+            start++;
+        }
+        return new MoveHistoryDTO(whole.getMatchId(), whole.isLive(), whole.getPly(), since,
+                moves.subList(start, moves.size()));
+    }
+}
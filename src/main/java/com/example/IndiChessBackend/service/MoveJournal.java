@@ -0,0 +1,301 @@
+package com.example.IndiChessBackend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// =========================
+// MOVE JOURNAL (ASYNC, BATCHED)
+// =========================
+// processMove appends a row and returns; one writer thread drains the queue
+// into the moves table with JDBC batch inserts, whenever a batch fills or the
+// flush interval passes. Every entry gets a sequence number and flushedSeq()
+// acknowledges everything up to it, so callers that need the rows on disk
+// can wait for their own seq (GameArchiver does before each pass). While the
+// database is unreachable the writer keeps its batch and retries with
+// backoff; only rows the database rejects outright are dropped. The queue is
+// bounded: when the database falls that far behind, append blocks instead
+// of dropping history.
+@Component
+public class MoveJournal {
+
+    private static final String INSERT_MOVE =
+            "INSERT INTO moves (match_id, ply, move_number, color, uci, san, "
+                    + "fen_before, fen_after, move_time_ms, created_at) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final long SHUTDOWN_WAIT_MILLIS = 10_000;
+    private static final long POLL_SLICE_NANOS = 10_000_000L;
+    private static final long RETRY_MIN_MILLIS = 50;
+    private static final long RETRY_MAX_MILLIS = 5_000;
+
+    public record Entry(
+            long seq,
+            long matchId,
+            int ply,
+            String color,
+            String uci,
+            String san,
+            String fenBefore,
+            String fenAfter,
+            Integer moveTimeMs,
+            LocalDateTime createdAt
+    ) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+
+    private final BlockingQueue<Entry> queue;
+    private final AtomicLong lastSeq = new AtomicLong();
+    private final Object ack = new Object();
+    private volatile long flushedSeq;
+
+    private final Counter written;
+    private final Counter failed;
+    private final Counter retries;
+    private final Timer flushTimer;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public MoveJournal(
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${journal.batch-size:500}") int batchSize,
+            @Value("${journal.flush-interval-ms:50}") long flushIntervalMillis,
+            @Value("${journal.capacity:100000}") int capacity
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+
+        this.written = Counter.builder("journal.moves.written")
+                .description("Move rows inserted by the journal writer")
+                .register(meterRegistry);
+        this.failed = Counter.builder("journal.moves.failed")
+                .description("Move rows the database rejected")
+                .register(meterRegistry);
+        this.retries = Counter.builder("journal.flush.retries")
+                .description("Writes retried after a database error")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("journal.flush")
+                .description("One batch insert")
+                .register(meterRegistry);
+        Gauge.builder("journal.backlog", queue, BlockingQueue::size)
+                .description("Moves appended but not yet flushed")
+                .register(meterRegistry);
+    }
+
+    // =========================
+    // APPEND
+    // =========================
+    // Called under the game's lock, so per-match seqs follow ply order
+    public long append(
+            long matchId,
+            int ply,
+            String color,
+            String uci,
+            String san,
+            String fenBefore,
+            String fenAfter,
+            Integer moveTimeMs
+    ) {
+        synchronized (lastSeq) {
+            long seq = lastSeq.incrementAndGet();
+            Entry entry = new Entry(seq, matchId, ply, color, uci, san,
+                    fenBefore, fenAfter, moveTimeMs, LocalDateTime.now());
+            try {
+                queue.put(entry);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while journaling move");
+            }
+            return seq;
+        }
+    }
+
+    public long flushedSeq() {
+        return flushedSeq;
+    }
+
+    public long lastSeq() {
+        return lastSeq.get();
+    }
+
+    // Blocks until seq is on disk (or rejected as a bad row); false on timeout
+    public boolean awaitFlushed(long seq, long timeoutMillis) throws InterruptedException {
+        long deadline = System.nanoTime() + timeoutMillis * 1_000_000L;
+        synchronized (ack) {
+            while (flushedSeq < seq) {
+                long left = (deadline - System.nanoTime()) / 1_000_000L;
+                if (left <= 0) {
+                    return false;
+                }
+                ack.wait(left);
+            }
+        }
+        return true;
+    }
+
+    // =========================
+    // WRITER
+    // =========================
+    @PostConstruct
+    void start() {
+        running = true;
+        writer = new Thread(this::drainLoop, "move-journal");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // Everything appended before shutdown is written before the pool closes
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        Thread thread = writer;
+        if (thread != null) {
+            thread.join(SHUTDOWN_WAIT_MILLIS);
+        }
+        if (flushedSeq < lastSeq.get()) {
+            System.out.println("Move journal stopped with " + (lastSeq.get() - flushedSeq) + " unwritten moves");
+        }
+    }
+
+    private void drainLoop() {
+        List<Entry> batch = new ArrayList<>(batchSize);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                collect(batch);
+            } catch (InterruptedException e) {
+                running = false;
+            }
+            if (batch.isEmpty()) {
+                continue;
+            }
+
+            // Returns once every row is written or rejected, however long that takes
+            flush(batch);
+            acknowledge(batch.get(batch.size() - 1).seq());
+            batch.clear();
+        }
+    }
+
+    // Waits out the flush interval for a fuller batch unless one is ready.
+    // Polls in short slices so stop() is noticed without interrupting a write.
+    private void collect(List<Entry> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + flushIntervalMillis * 1_000_000L;
+
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long left = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || left <= 0 || !running) {
+                return;
+            }
+            Entry next = queue.poll(Math.min(left, POLL_SLICE_NANOS), TimeUnit.NANOSECONDS);
+            if (next != null) {
+                batch.add(next);
+            }
+        }
+    }
+
+    void flush(List<Entry> batch) {
+        long backoffMillis = RETRY_MIN_MILLIS;
+        while (true) {
+            try {
+                flushTimer.record(() -> {
+                    jdbcTemplate.batchUpdate(INSERT_MOVE, batch, batch.size(), MoveJournal::bind);
+                });
+                written.increment(batch.size());
+                return;
+            } catch (DataIntegrityViolationException e) {
+                // One bad row (or one a half-applied earlier try already wrote)
+                // fails the whole batch: write row by row, keep the rest
+                System.out.println("Move batch of " + batch.size() + " rejected, writing singly: " + e.getMessage());
+                for (Entry entry : batch) {
+                    insert(entry);
+                }
+                return;
+            } catch (RuntimeException e) {
+                // Database down or busy: keep the batch, nothing is acknowledged
+                retries.increment();
+                System.out.println("Move batch of " + batch.size() + " failed, retrying in "
+                        + backoffMillis + " ms: " + e.getMessage());
+                backoffMillis = pause(backoffMillis);
+            }
+        }
+    }
+
+    private void insert(Entry entry) {
+        long backoffMillis = RETRY_MIN_MILLIS;
+        while (true) {
+            try {
+                jdbcTemplate.update(INSERT_MOVE, ps -> bind(ps, entry));
+                written.increment();
+                return;
+            } catch (DuplicateKeyException e) {
+                return; // written by the failed batch
+            } catch (DataIntegrityViolationException e) {
+                failed.increment();
+                System.out.println("Dropped move " + entry.matchId() + "/" + entry.ply() + ": " + e.getMessage());
+                return;
+            } catch (RuntimeException e) {
+                retries.increment();
+                backoffMillis = pause(backoffMillis);
+            }
+        }
+    }
+
+    private static long pause(long backoffMillis) {
+        LockSupport.parkNanos(backoffMillis * 1_000_000L);
+        return Math.min(backoffMillis * 2, RETRY_MAX_MILLIS);
+    }
+
+    private void acknowledge(long seq) {
+        synchronized (ack) {
+            flushedSeq = seq;
+            ack.notifyAll();
+        }
+    }
+
+    private static void bind(PreparedStatement ps, Entry entry) throws SQLException {
+        ps.setLong(1, entry.matchId());
+        ps.setInt(2, entry.ply());
+        ps.setInt(3, (entry.ply() + 1) / 2);
+        ps.setString(4, entry.color());
+        ps.setString(5, entry.uci());
+        ps.setString(6, entry.san());
+        ps.setString(7, entry.fenBefore());
+        ps.setString(8, entry.fenAfter());
+        if (entry.moveTimeMs() == null) {
+            ps.setNull(9, Types.INTEGER);
+        } else {
+            ps.setInt(9, entry.moveTimeMs());
+        }
+        ps.setTimestamp(10, Timestamp.valueOf(entry.createdAt()));
+    }
+}
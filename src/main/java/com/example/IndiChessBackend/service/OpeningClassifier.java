@@ -0,0 +1,210 @@
+package com.example.IndiChessBackend.service;
+
+import com.example.IndiChessBackend.chess.Moves;
+import com.example.IndiChessBackend.chess.Position;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// =========================
+// ECO OPENING CLASSIFIER
+// =========================
+// Move trie over the ECO lines in eco/openings.tsv, built once at startup.
+// Children are keyed by (node, move) and every book position by its Zobrist
+// key, so a transposed move order lands on the same node. Both maps are flat
+// open-addressing tables: one probe sequence per ply, no boxing.
+@Component
+public class OpeningClassifier {
+
+    public static final int OUT_OF_BOOK = -1;
+    public static final int UNKNOWN = -1;
+
+    private static final String RESOURCE = "/eco/openings.tsv";
+    private static final int ROOT = 0;
+
+    private final String[] ecoCodes;
+    private final String[] names;
+
+    private final int[] openingOfNode; // deepest labelled line on the path
+    private final LongIntTable children;
+    private final LongIntTable positions;
+
+    public OpeningClassifier() {
+        this(readLines());
+    }
+
+    OpeningClassifier(List<String> lines) {
+
+        List<String> eco = new ArrayList<>();
+        List<String> name = new ArrayList<>();
+
+        List<Integer> parents = new ArrayList<>();
+        List<Integer> labels = new ArrayList<>();
+        Map<Long, Integer> childMap = new HashMap<>();
+        Map<Long, Integer> positionMap = new HashMap<>();
+
+        parents.add(ROOT);
+        labels.add(UNKNOWN);
+        positionMap.put(Position.startPosition().hash(), ROOT);
+
+        for (String line : lines) {
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+
+            String[] fields = line.split("\t");
+            if (fields.length != 3) {
+                throw new IllegalStateException("Bad ECO line: " + line);
+            }
+
+            int opening = eco.size();
+            eco.add(fields[0]);
+            name.add(fields[1]);
+
+            Position position = Position.startPosition();
+            int node = ROOT;
+
+            for (String uci : fields[2].trim().split("\\s+")) {
+                int move = position.findLegalMove(uci);
+                if (move == Moves.NONE) {
+                    throw new IllegalStateException("Illegal move " + uci + " in ECO line: " + line);
+                }
+                position.makeMove(move);
+
+                Long key = childKey(node, move);
+                Integer child = childMap.get(key);
+                if (child == null) {
+                    child = parents.size();
+                    parents.add(node);
+                    labels.add(UNKNOWN);
+                    childMap.put(key, child);
+                    positionMap.putIfAbsent(position.hash(), child);
+                }
+                node = child;
+            }
+
+            // First line to end on a node names it
+            if (labels.get(node) == UNKNOWN) {
+                labels.set(node, opening);
+            }
+        }
+
+        // Parents are created before children, so one forward pass inherits labels
+        openingOfNode = new int[parents.size()];
+        for (int node = 0; node < openingOfNode.length; node++) {
+            int label = labels.get(node);
+            openingOfNode[node] = label != UNKNOWN || node == ROOT
+                    ? label
+                    : openingOfNode[parents.get(node)];
+        }
+
+        ecoCodes = eco.toArray(new String[0]);
+        names = name.toArray(new String[0]);
+        children = new LongIntTable(childMap);
+        positions = new LongIntTable(positionMap);
+    }
+
+    // =========================
+    // LOOKUP
+    // =========================
+    public int root() {
+        return ROOT;
+    }
+
+    // Node for a position reached without move history (game resumed from FEN)
+    public int locate(long positionKey) {
+        return positions.get(positionKey, OUT_OF_BOOK);
+    }
+
+    // O(1) per ply: follow the move edge, else try the position key (transposition)
+    public int next(int node, int move, long positionKeyAfter) {
+        if (node != OUT_OF_BOOK) {
+            int child = children.get(childKey(node, move), OUT_OF_BOOK);
+            if (child != OUT_OF_BOOK) {
+                return child;
+            }
+        }
+        return positions.get(positionKeyAfter, OUT_OF_BOOK);
+    }
+
+    public int openingAt(int node) {
+        return node == OUT_OF_BOOK ? UNKNOWN : openingOfNode[node];
+    }
+
+    public String eco(int opening) {
+        return opening == UNKNOWN ? null : ecoCodes[opening];
+    }
+
+    public String name(int opening) {
+        return opening == UNKNOWN ? null : names[opening];
+    }
+
+    public int size() {
+        return openingOfNode.length;
+    }
+
+    private static long childKey(int node, int move) {
+        return ((long) node << 16) | move;
+    }
+
+    private static List<String> readLines() {
+        InputStream in = OpeningClassifier.class.getResourceAsStream(RESOURCE);
+        if (in == null) {
+            throw new IllegalStateException("Missing resource " + RESOURCE);
+        }
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            return reader.lines().toList();
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read " + RESOURCE, e);
+        }
+    }
+
+    // Frozen long -> int map, linear probing at load factor <= 0.5
+    private static final class LongIntTable {
+
+        private final long[] keys;
+        private final int[] values; // value + 1, 0 = empty slot
+        private final int mask;
+
+        LongIntTable(Map<Long, Integer> entries) {
+            int capacity = Integer.highestOneBit(Math.max(entries.size(), 1) * 4 - 1);
+            keys = new long[capacity];
+            values = new int[capacity];
+            mask = capacity - 1;
+
+            entries.forEach((key, value) -> {
+                int slot = slot(key);
+                while (values[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+                values[slot] = value + 1;
+            });
+        }
+
+        int get(long key, int missing) {
+            int slot = slot(key);
+            while (values[slot] != 0) {
+                if (keys[slot] == key) {
+                    return values[slot] - 1;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return missing;
+        }
+
+        private int slot(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & mask;
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.example.IndiChessBackend.service;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongConsumer;
+import java.util.function.LongSupplier;
+
+// =========================
+// HIERARCHICAL TIMING WHEEL
+// =========================
+// One deadline per key (match id). 4 levels x 64 slots at 10 ms ticks cover
+// 0.64 s / 41 s / 44 min / 46 h; longer delays park in the top level and are
+// re-placed when it cascades. Schedule, reschedule and cancel are O(1) and
+// reuse the key's node, so a move costs no allocation. One ticker thread
+// advances the wheel and runs the expiry callback.
+public final class TimingWheel {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long MAX_DELTA = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+    private final long tickMillis;
+    private final LongSupplier nanoClock;
+    private final LongConsumer onExpire;
+    private final long originNanos;
+
+    // slots[level][slot] is the sentinel of a circular doubly linked list
+    private final Node[][] slots = new Node[LEVELS][SLOTS];
+    private final Map<Long, Node> nodes = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private long currentTick;
+    private volatile Thread ticker;
+
+    private static final class Node {
+        long key;
+        long deadlineTick;
+        Node prev = this;
+        Node next = this;
+
+        boolean linked() {
+            return next != this;
+        }
+    }
+
+    public TimingWheel(long tickMillis, LongConsumer onExpire) {
+        this(tickMillis, System::nanoTime, onExpire);
+    }
+
+    TimingWheel(long tickMillis, LongSupplier nanoClock, LongConsumer onExpire) {
+        this.tickMillis = tickMillis;
+        this.nanoClock = nanoClock;
+        this.onExpire = onExpire;
+        this.originNanos = nanoClock.getAsLong();
+
+        for (int level = 0; level < LEVELS; level++) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                slots[level][slot] = new Node();
+            }
+        }
+    }
+
+    // =========================
+    // SCHEDULE / CANCEL
+    // =========================
+    // (Re)arms the key to fire delayMillis from now; replaces any earlier deadline
+    public void schedule(long key, long delayMillis) {
+        long deadline = elapsedMillis() + Math.max(0, delayMillis);
+        long deadlineTick = (deadline + tickMillis - 1) / tickMillis;
+
+        lock.lock();
+        try {
+            Node node = nodes.get(key);
+            if (node == null) {
+                node = new Node();
+                node.key = key;
+                nodes.put(key, node);
+            } else {
+                unlink(node);
+            }
+            // A tick that already passed would only come round a full rotation later
+            node.deadlineTick = Math.max(deadlineTick, currentTick + 1);
+            place(node);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean cancel(long key) {
+        lock.lock();
+        try {
+            Node node = nodes.remove(key);
+            if (node == null) {
+                return false;
+            }
+            unlink(node);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return nodes.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // =========================
+    // ADVANCE
+    // =========================
+    // Fires every key whose deadline is at or before now; callbacks run after
+    // the lock is released, on the calling (ticker) thread
+    void advance() {
+        long nowTick = elapsedMillis() / tickMillis;
+        long[] expired = null;
+        int count = 0;
+
+        lock.lock();
+        try {
+            while (currentTick < nowTick) {
+                currentTick++;
+
+                // Higher levels drop into lower ones when their range begins
+                for (int level = 1; level < LEVELS; level++) {
+                    if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) != 0) {
+                        break;
+                    }
+                    cascade(slots[level][(int) (currentTick >>> (SLOT_BITS * level)) & SLOT_MASK]);
+                }
+
+                Node head = slots[0][(int) currentTick & SLOT_MASK];
+                while (head.linked()) {
+                    Node node = head.next;
+                    unlink(node);
+                    nodes.remove(node.key);
+                    if (expired == null) {
+                        expired = new long[8];
+                    } else if (count == expired.length) {
+                        expired = Arrays.copyOf(expired, count * 2);
+                    }
+                    expired[count++] = node.key;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        for (int i = 0; i < count; i++) {
+            try {
+                onExpire.accept(expired[i]);
+            } catch (RuntimeException e) {
+                System.out.println("Clock expiry failed for " + expired[i] + ": " + e.getMessage());
+            }
+        }
+    }
+
+    public void start(String threadName) {
+        Thread thread = new Thread(() -> {
+            long tickNanos = tickMillis * 1_000_000L;
+            while (!Thread.currentThread().isInterrupted()) {
+                LockSupport.parkNanos(tickNanos);
+                advance();
+            }
+        }, threadName);
+        thread.setDaemon(true);
+        ticker = thread;
+        thread.start();
+    }
+
+    public void stop() {
+        Thread thread = ticker;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    // =========================
+    // INTERNALS (lock held)
+    // =========================
+    private void place(Node node) {
+        long delta = node.deadlineTick - currentTick;
+
+        if (delta <= 0) {
+            // Cascaded onto the tick being advanced: the level-0 pass picks it up
+            link(slots[0][(int) currentTick & SLOT_MASK], node);
+            return;
+        }
+
+        long tick = currentTick + Math.min(delta, MAX_DELTA);
+        int level = 0;
+        while (level < LEVELS - 1 && Math.min(delta, MAX_DELTA) >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        link(slots[level][(int) (tick >>> (SLOT_BITS * level)) & SLOT_MASK], node);
+    }
+
+    private void cascade(Node head) {
+        while (head.linked()) {
+            Node node = head.next;
+            unlink(node);
+            place(node);
+        }
+    }
+
+    private static void link(Node head, Node node) {
+        node.prev = head.prev;
+        node.next = head;
+        head.prev.next = node;
+        head.prev = node;
+    }
+
+    private static void unlink(Node node) {
+        node.prev.next = node.next;
+        node.next.prev = node.prev;
+        node.prev = node;
+        node.next = node;
+    }
+
+    private long elapsedMillis() {
+        return (nanoClock.getAsLong() - originNanos) / 1_000_000L;
+    }
+}
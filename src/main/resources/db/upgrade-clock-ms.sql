@@ -0,0 +1,20 @@
+-- =========================
+-- UPGRADE: CLOCKS IN MS, BULLET + COMPUTER GAME TYPES
+-- =========================
+-- Run once against a database created before clocks moved to milliseconds.
+-- ddl-auto=update adds white_time_ms / black_time_ms but leaves them NULL
+-- (an untimed game) on existing rows, and never alters an existing MySQL
+-- enum(...) column, so inserting a BULLET or COMPUTER match or rating fails.
+--
+-- Order: start one upgraded server so the columns exist, stop it before any
+-- game is played, run this, then start the nodes.
+
+-- Seconds -> ms for existing games (STANDARD stays NULL)
+UPDATE matches SET white_time_ms = white_time * 1000 WHERE white_time IS NOT NULL AND white_time_ms IS NULL;
+UPDATE matches SET black_time_ms = black_time * 1000 WHERE black_time IS NOT NULL AND black_time_ms IS NULL;
+
+ALTER TABLE matches MODIFY COLUMN game_type ENUM('STANDARD', 'BULLET', 'BLITZ', 'RAPID', 'COMPUTER') NULL;
+ALTER TABLE user_ratings MODIFY COLUMN game_type ENUM('STANDARD', 'BULLET', 'BLITZ', 'RAPID', 'COMPUTER') NOT NULL;
+
+-- The old seconds columns are no longer mapped; drop them once no node reads them
+-- ALTER TABLE matches DROP COLUMN white_time, DROP COLUMN black_time;
@@ -0,0 +1,205 @@
+package com.example.IndiChessBackend.chess;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PositionTest {
+
+    // Reference counts from https://www.chessprogramming.org/Perft_Results
+    @Test
+    void perftStartPosition() {
+        assertEquals(197281, Position.startPosition().perft(4));
+    }
+
+    @Test
+    void perftKiwipete() {
+        Position pos = Position.fromFen(
+                "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        assertEquals(97862, pos.perft(3));
+    }
+
+    @Test
+    void perftEnPassantAndPins() {
+        Position pos = Position.fromFen("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1");
+        assertEquals(43238, pos.perft(4));
+    }
+
+    @Test
+    void perftPromotions() {
+        Position pos = Position.fromFen(
+                "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8");
+        assertEquals(62379, pos.perft(3));
+    }
+
+    @Test
+    void rejectsIllegalMoves() {
+        Position pos = Position.startPosition();
+
+        // e2e4 is legal, e2e5 is not, black cannot move first
+        assertNotEquals(Moves.NONE, pos.findLegalMove("e2e4"));
+        assertEquals(Moves.NONE, pos.findLegalMove("e2e5"));
+        assertEquals(Moves.NONE, pos.findLegalMove("e7e5"));
+        assertEquals(Moves.NONE, pos.findLegalMove("f1c4"));
+    }
+
+    @Test
+    void pinnedPieceCannotMove() {
+        Position pos = Position.fromFen("4k3/8/8/8/8/8/4r3/4K2R w K - 0 1");
+
+        // King in check from e2: castling is illegal, capturing the checker is fine
+        assertEquals(Moves.NONE, pos.findLegalMove("e1g1"));
+        assertNotEquals(Moves.NONE, pos.findLegalMove("e1e2"));
+    }
+
+    @Test
+    void makeUnmakeRestoresPosition() {
+        Position pos = Position.startPosition();
+        String[][] before = pos.toBoardArray();
+
+        for (String uci : new String[]{"e2e4", "d7d5", "e4d5", "g8f6"}) {
+            pos.makeMove(pos.findLegalMove(uci));
+        }
+        for (int i = 0; i < 4; i++) {
+            pos.unmakeMove();
+        }
+
+        assertArrayEquals(before, pos.toBoardArray());
+        assertTrue(pos.isWhiteToMove());
+        assertEquals(0, pos.ply());
+    }
+
+    @Test
+    void detectsThreefoldRepetition() {
+        Position pos = Position.startPosition();
+        long start = pos.hash();
+
+        String[] shuffle = {"g1f3", "g8f6", "f3g1", "f6g8"};
+        for (int round = 0; round < 2; round++) {
+            assertFalse(pos.isThreefoldRepetition());
+            for (String uci : shuffle) {
+                pos.makeMove(pos.findLegalMove(uci));
+            }
+        }
+
+        assertEquals(start, pos.hash());
+        assertTrue(pos.isThreefoldRepetition());
+    }
+
+    @Test
+    void hashMatchesFenForSamePosition() {
+        Position played = Position.startPosition();
+        for (String uci : new String[]{"e2e4", "a7a6", "e4e5", "d7d5"}) {
+            played.makeMove(played.findLegalMove(uci));
+        }
+
+        Position parsed = Position.fromFen(
+                "rnbqkbnr/1pp1pppp/p7/3pP3/8/8/PPPP1PPP/RNBQKBNR w KQkq d6 0 3");
+        assertEquals(parsed.hash(), played.hash());
+    }
+
+    @Test
+    void fenTracksAllSixFields() {
+        Position pos = Position.startPosition();
+        assertEquals(Position.START_FEN, pos.toFen());
+
+        for (String uci : new String[]{"e2e4", "a7a6", "e4e5", "d7d5"}) {
+            pos.makeMove(pos.findLegalMove(uci));
+        }
+        assertEquals("rnbqkbnr/1pp1pppp/p7/3pP3/8/8/PPPP1PPP/RNBQKBNR w KQkq d6 0 3", pos.toFen());
+
+        pos.makeMove(pos.findLegalMove("e1e2"));
+        assertEquals("rnbqkbnr/1pp1pppp/p7/3pP3/8/8/PPPPKPPP/RNBQ1BNR b kq - 1 3", pos.toFen());
+
+        pos.unmakeMove();
+        assertEquals("rnbqkbnr/1pp1pppp/p7/3pP3/8/8/PPPP1PPP/RNBQKBNR w KQkq d6 0 3", pos.toFen());
+    }
+
+    @Test
+    void checkmateAndStalemateEndTheGame() {
+        Position mate = Position.startPosition();
+        for (String uci : new String[]{"f2f3", "e7e5", "g2g4"}) {
+            mate.makeMove(mate.findLegalMove(uci));
+            assertNull(mate.termination());
+        }
+        mate.makeMove(mate.findLegalMove("d8h4"));
+        assertEquals(Termination.CHECKMATE, mate.termination());
+
+        // Black king h8 has no move and is not in check
+        Position stalemate = Position.fromFen("7k/5Q2/6K1/8/8/8/8/8 b - - 0 1");
+        assertEquals(Termination.STALEMATE, stalemate.termination());
+    }
+
+    @Test
+    void loneMinorPieceIsInsufficientMaterial() {
+        assertEquals(Termination.INSUFFICIENT_MATERIAL,
+                Position.fromFen("8/8/8/4k3/8/8/8/4K3 w - - 0 1").termination());
+        assertEquals(Termination.INSUFFICIENT_MATERIAL,
+                Position.fromFen("8/8/8/4k3/8/8/8/4KN2 w - - 0 1").termination());
+        assertEquals(Termination.INSUFFICIENT_MATERIAL,
+                Position.fromFen("8/8/8/4k3/8/8/8/4KB2 w - - 0 1").termination());
+
+        // A pawn or a rook can still mate
+        assertFalse(Position.fromFen("8/8/8/4k3/8/8/4P3/4K3 w - - 0 1").isInsufficientMaterial());
+        assertFalse(Position.fromFen("8/8/8/4k3/8/8/8/R3K3 w - - 0 1").isInsufficientMaterial());
+    }
+
+    @Test
+    void bishopsOnlyDrawWhenAllOnOneSquareColor() {
+        // c1 and f8 are both dark
+        Position same = Position.fromFen("5b2/8/8/4k3/8/8/8/2B1K3 w - - 0 1");
+        assertTrue(same.isInsufficientMaterial());
+        assertEquals(Termination.INSUFFICIENT_MATERIAL, same.termination());
+
+        // c1 dark, c8 light
+        Position opposite = Position.fromFen("2b5/8/8/4k3/8/8/8/2B1K3 w - - 0 1");
+        assertFalse(opposite.isInsufficientMaterial());
+        assertNull(opposite.termination());
+
+        // Bishop + knight can mate
+        assertFalse(Position.fromFen("8/8/8/4k3/8/8/8/2B1KN2 w - - 0 1").isInsufficientMaterial());
+    }
+
+    @Test
+    void hundredthQuietHalfmoveIsAFiftyMoveDraw() {
+        Position pos = Position.fromFen("4k3/8/8/8/8/8/8/R3K3 w - - 99 80");
+        assertNull(pos.termination());
+
+        pos.makeMove(pos.findLegalMove("a1a2"));
+        assertEquals(100, pos.halfmoveClock());
+        assertEquals(Termination.FIFTY_MOVE_RULE, pos.termination());
+    }
+
+    @Test
+    void mateOnTheHundredthHalfmoveStillWins() {
+        Position pos = Position.fromFen("6k1/5ppp/8/8/8/8/8/R5K1 w - - 99 80");
+        assertNull(pos.termination());
+
+        pos.makeMove(pos.findLegalMove("a1a8"));
+        assertEquals(100, pos.halfmoveClock());
+        assertEquals(Termination.CHECKMATE, pos.termination());
+    }
+
+    @Test
+    void threefoldIsClaimableAndFivefoldEndsTheGame() {
+        Position pos = Position.startPosition();
+        String[] shuffle = {"g1f3", "g8f6", "f3g1", "f6g8"};
+
+        for (int round = 0; round < 2; round++) {
+            for (String uci : shuffle) {
+                pos.makeMove(pos.findLegalMove(uci));
+            }
+        }
+        assertTrue(pos.isThreefoldRepetition());
+        assertNull(pos.termination());
+
+        for (int round = 0; round < 2; round++) {
+            for (String uci : shuffle) {
+                assertNull(pos.termination());
+                pos.makeMove(pos.findLegalMove(uci));
+            }
+        }
+        assertTrue(pos.isFivefoldRepetition());
+        assertEquals(Termination.FIVEFOLD_REPETITION, pos.termination());
+    }
+}
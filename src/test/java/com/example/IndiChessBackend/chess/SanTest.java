@@ -0,0 +1,57 @@
+package com.example.IndiChessBackend.chess;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SanTest {
+
+    private static String san(String fen, String uci) {
+        Position position = Position.fromFen(fen);
+        int move = position.findLegalMove(uci);
+        assertNotEquals(Moves.NONE, move, uci);
+
+        String before = position.toFen();
+        String san = San.of(position, move);
+        assertEquals(before, position.toFen(), "position must be left as it was");
+        return san;
+    }
+
+    private static String sanAfter(String uci, String... played) {
+        Position position = Position.startPosition();
+        for (String move : played) {
+            position.makeMove(position.findLegalMove(move));
+        }
+        return San.of(position, position.findLegalMove(uci));
+    }
+
+    @Test
+    void plainMovesAndCaptures() {
+        assertEquals("e4", sanAfter("e2e4"));
+        assertEquals("Nf3", sanAfter("g1f3"));
+        assertEquals("exd5", sanAfter("e4d5", "e2e4", "d7d5"));
+        assertEquals("exd6", san("4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 1", "e5d6"));
+    }
+
+    @Test
+    void disambiguatesByFileThenRankThenBoth() {
+        assertEquals("Nbd2", san("4k3/8/8/8/8/5N2/8/1N2K3 w - - 0 1", "b1d2"));
+        assertEquals("R1a3", san("4k3/8/8/R7/8/8/8/R3K3 w - - 0 1", "a1a3"));
+        assertEquals("Qa1b2", san("4k3/8/8/8/8/Q7/8/Q1Q1K3 w - - 0 1", "a1b2"));
+    }
+
+    @Test
+    void pinnedPieceDoesNotNeedDisambiguation() {
+        // The e2 knight also reaches d4 but is pinned to the king
+        assertEquals("Nd4", san("4k3/4r3/8/8/8/1N6/4N3/4K3 w - - 0 1", "b3d4"));
+    }
+
+    @Test
+    void castlingPromotionCheckAndMate() {
+        assertEquals("O-O", san("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1", "e1g1"));
+        assertEquals("O-O-O", san("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1", "e1c1"));
+        assertEquals("bxa8=Q+", san("r3k3/1P6/8/8/8/8/8/4K3 w - - 0 1", "b7a8q"));
+        assertEquals("Qh5+", sanAfter("d1h5", "e2e4", "f7f5"));
+        assertEquals("Qh4#", sanAfter("d8h4", "f2f3", "e7e5", "g2g4"));
+    }
+}
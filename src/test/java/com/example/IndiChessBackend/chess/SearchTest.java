@@ -0,0 +1,37 @@
+package com.example.IndiChessBackend.chess;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchTest {
+
+    private final Search search = new Search(new TranspositionTable(16));
+
+    @Test
+    void findsMateInOne() {
+        Position pos = Position.fromFen("6k1/5ppp/8/8/8/8/5PPP/R5K1 w - - 0 1");
+        Search.Result result = search.search(pos, 10, 100_000, 1_000);
+
+        assertEquals("a1a8", Moves.toUci(result.move()));
+        assertTrue(result.score() > Search.MATE - Search.MAX_PLY);
+    }
+
+    @Test
+    void winsHangingQueen() {
+        Position pos = Position.fromFen("rnb1kbnr/pppp1ppp/8/4p1q1/3P4/2N5/PPP1PPPP/R1BQKBNR w KQkq - 0 3");
+        assertEquals("c1g5", Moves.toUci(search.search(pos, 4, 1_000_000, 5_000).move()));
+    }
+
+    @Test
+    void respectsNodeBudgetAndLeavesPositionUntouched() {
+        Position pos = Position.startPosition();
+        String fen = pos.toFen();
+
+        Search.Result result = search.search(pos, Search.MAX_PLY, 20_000, 5_000);
+
+        assertTrue(pos.isLegal(result.move()));
+        assertTrue(result.nodes() < 40_000);
+        assertEquals(fen, pos.toFen());
+    }
+}
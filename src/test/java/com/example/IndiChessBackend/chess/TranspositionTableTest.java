@@ -0,0 +1,68 @@
+package com.example.IndiChessBackend.chess;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TranspositionTableTest {
+
+    @Test
+    void storesAndProbesEntries() {
+        TranspositionTable table = new TranspositionTable(10);
+        long key = 0x9E3779B97F4A7C15L;
+
+        assertEquals(0L, table.probe(key));
+
+        table.store(key, Moves.of(12, 28, Moves.DOUBLE_PUSH), -250, 7, TranspositionTable.LOWER);
+        long entry = table.probe(key);
+
+        assertEquals(Moves.of(12, 28, Moves.DOUBLE_PUSH), TranspositionTable.move(entry));
+        assertEquals(-250, TranspositionTable.score(entry));
+        assertEquals(7, TranspositionTable.depth(entry));
+        assertEquals(TranspositionTable.LOWER, TranspositionTable.bound(entry));
+        assertEquals(1, table.hits());
+        assertEquals(1, table.misses());
+    }
+
+    @Test
+    void sizesToPowerOfTwoMegabytes() {
+        TranspositionTable table = TranspositionTable.ofMegabytes(3);
+        assertEquals(1L << 17, table.capacity());
+        assertEquals(2L << 20, table.sizeBytes());
+    }
+
+    // Writers race on a tiny table; a reader must never see a move stored for another key
+    @Test
+    void concurrentWritersNeverProduceForeignEntries() throws Exception {
+        TranspositionTable table = new TranspositionTable(6);
+        AtomicInteger corrupted = new AtomicInteger();
+
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            long seed = t;
+            threads[t] = new Thread(() -> {
+                SplittableRandom random = new SplittableRandom(seed);
+                for (int i = 0; i < 200_000; i++) {
+                    // The stored move is derived from the key, so it can be checked
+                    long key = random.nextLong(1 << 12) * 0x9E3779B97F4A7C15L;
+                    table.store(key, (int) (key >>> 48), 0, 1, TranspositionTable.EXACT);
+
+                    long other = random.nextLong(1 << 12) * 0x9E3779B97F4A7C15L;
+                    long entry = table.probe(other);
+                    if (entry != 0 && TranspositionTable.move(entry) != (int) (other >>> 48)) {
+                        corrupted.incrementAndGet();
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(0, corrupted.get());
+    }
+}
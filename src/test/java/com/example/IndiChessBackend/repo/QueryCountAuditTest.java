@@ -0,0 +1,153 @@
+package com.example.IndiChessBackend.repo;
+
+import com.example.IndiChessBackend.model.DTO.GameSummary;
+import com.example.IndiChessBackend.model.GameType;
+import com.example.IndiChessBackend.model.Match;
+import com.example.IndiChessBackend.model.MatchStatus;
+import com.example.IndiChessBackend.model.Move;
+import com.example.IndiChessBackend.model.PieceColor;
+import com.example.IndiChessBackend.model.User;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Every query behind a game read path is exactly one SQL statement and, for
+// the projections, loads no entity at all (Hibernate statistics, H2)
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class QueryCountAuditTest {
+
+    @Autowired
+    private MatchRepo matchRepo;
+    @Autowired
+    private MoveRepo moveRepo;
+    @Autowired
+    private ArchivedGameRepo archivedGameRepo;
+    @Autowired
+    private UserRepo userRepo;
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+    private Long matchId;
+    private Long aliceId;
+
+    private User user(String username, int rating) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmailId(username + "@example.com");
+        user.setPassword("not-a-real-hash");
+        user.setPfpUrl("https://example.com/" + username + ".png");
+        user.setCountry("IN");
+        user.setRating(rating);
+        entityManager.persist(user);
+        return user;
+    }
+
+    @BeforeEach
+    void seed() {
+        User alice = user("alice", 1500);
+        User bob = user("bobby", 1420);
+
+        Match match = new Match(alice, bob, MatchStatus.PLAYER1_WON, GameType.BLITZ);
+        entityManager.persist(match);
+
+        String[] uci = {"e2e4", "e7e5", "g1f3"};
+        for (int i = 0; i < uci.length; i++) {
+            Move move = new Move();
+            move.setMatch(match);
+            move.setPly(i + 1);
+            move.setMoveNumber(i / 2 + 1);
+            move.setColor(i % 2 == 0 ? PieceColor.WHITE : PieceColor.BLACK);
+            move.setUci(uci[i]);
+            move.setSan(uci[i]);
+            move.setMoveTimeMs(1_000);
+            entityManager.persist(move);
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+
+        matchId = match.getId();
+        aliceId = alice.getUserId();
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    // Runs the query on an empty persistence context and counts what it cost
+    private <T> T audit(long expectedEntities, Supplier<T> query) {
+        entityManager.clear();
+        statistics.clear();
+        T result = query.get();
+        assertEquals(1, statistics.getPrepareStatementCount(), "SQL statements");
+        assertEquals(expectedEntities, statistics.getEntityLoadCount(), "entities loaded");
+        return result;
+    }
+
+    @Test
+    void gameRowComesWithItsPlayersInOneStatement() {
+        Match match = audit(3, () -> matchRepo.findWithPlayersById(matchId).orElseThrow());
+
+        // Detached, as GameState holds it: no lazy load left to fail
+        entityManager.clear();
+        assertEquals("alice", match.getPlayer1().getUsername());
+        assertEquals("bobby", match.getPlayer2().getUsername());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void plainLoadNoLongerJoinsUsers() {
+        Match match = audit(1, () -> matchRepo.findById(matchId).orElseThrow());
+
+        assertFalse(Hibernate.isInitialized(match.getPlayer1()));
+        assertFalse(Hibernate.isInitialized(match.getPlayer2()));
+    }
+
+    @Test
+    void gameSummaryIsOneStatementAndNoEntities() {
+        GameSummary summary = audit(0, () -> matchRepo.findSummaryById(matchId).orElseThrow());
+
+        assertEquals(MatchStatus.PLAYER1_WON, summary.getStatus());
+        assertEquals("alice", summary.getPlayer1().getUsername());
+        assertEquals(1500, summary.getPlayer1().getRating());
+        assertEquals("IN", summary.getPlayer1().getCountry());
+        assertEquals("bobby", summary.getPlayer2().getUsername());
+    }
+
+    @Test
+    void listingsAndHistoriesAreOneStatementAndNoEntities() {
+        LocalDateTime future = LocalDateTime.now().plusDays(1);
+
+        List<MatchHeader> history = audit(0, () ->
+                matchRepo.findHistoryAsPlayer1(aliceId, future, Long.MAX_VALUE, PageRequest.of(0, 20)));
+        assertEquals(1, history.size());
+        assertEquals("bobby", history.get(0).getBlack());
+
+        LocalDateTime past = LocalDateTime.of(1970, 1, 1, 0, 0);
+        Long bobId = userRepo.findIdByUsername("bobby").orElseThrow();
+        List<MatchHeader> finished = audit(0, () ->
+                matchRepo.findFinishedAsPlayer2(bobId, MatchStatus.IN_PROGRESS, past, 0L, PageRequest.of(0, 20)));
+        assertEquals(List.of(matchId), finished.stream().map(MatchHeader::getId).toList());
+        assertTrue(audit(0, () -> matchRepo.findFinishedAsPlayer1(bobId, MatchStatus.IN_PROGRESS, past, 0L,
+                PageRequest.of(0, 20))).isEmpty());
+
+        assertEquals(MatchStatus.PLAYER1_WON, audit(0, () -> matchRepo.findProgress(matchId).orElseThrow()).getStatus());
+        assertEquals(2, audit(0, () -> moveRepo.findHistory(matchId, 1)).size());
+        assertEquals(3, audit(0, () -> moveRepo.findPliesByMatchIds(List.of(matchId))).size());
+        assertTrue(audit(0, () -> archivedGameRepo.findBlobsByMatchIds(List.of(matchId))).isEmpty());
+        assertEquals(aliceId, audit(0, () -> userRepo.findIdByUsername("alice").orElseThrow()));
+    }
+}
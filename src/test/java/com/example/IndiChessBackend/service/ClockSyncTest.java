@@ -0,0 +1,77 @@
+package com.example.IndiChessBackend.service;
+
+import com.example.IndiChessBackend.chess.Position;
+import com.example.IndiChessBackend.model.DTO.ClockSyncDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClockSyncTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    private final Map<Long, GameState> games = new ConcurrentHashMap<>();
+    private final List<ClockSyncDTO> sent = new ArrayList<>();
+    private final ClockSync clockSync = new ClockSync(games, (id, frame) -> sent.add(frame));
+
+    private GameState game(long id, Long clockMs, String status) {
+        GameState state = new GameState();
+        state.setPosition(Position.startPosition());
+        state.setStatus(status);
+        state.setWhiteClockMs(clockMs);
+        state.setBlackClockMs(clockMs);
+        state.setTurnStartedNanos(0);
+        games.put(id, state);
+        return state;
+    }
+
+    @Test
+    void oneFramePerTimedGameAndUntimedOrFinishedSkipped() {
+        game(1, 60_000L, "IN_PROGRESS");
+        game(2, null, "IN_PROGRESS");
+        game(3, 60_000L, "GAME_OVER");
+
+        clockSync.sweep(2 * SECOND);
+
+        assertEquals(1, sent.size());
+        ClockSyncDTO frame = sent.get(0);
+        assertEquals(1L, frame.getMatchId());
+        assertEquals("WHITE", frame.getRunning());
+        assertEquals(58_000, frame.getWhiteTimeMs());
+        assertEquals(60_000, frame.getBlackTimeMs());
+    }
+
+    @Test
+    void unchangedGameWaitsForResyncButMoveIsSentNextSweep() {
+        GameState state = game(1, 60_000L, "IN_PROGRESS");
+
+        long next = clockSync.sweep(0);
+        assertEquals(ClockSync.RESYNC_NANOS, next);
+
+        clockSync.sweep(SECOND / 2);
+        assertEquals(1, sent.size());
+
+        state.setSeq(1);
+        clockSync.sweep(SECOND / 2 + 1);
+        assertEquals(2, sent.size());
+
+        clockSync.sweep(SECOND / 2 + 1 + ClockSync.RESYNC_NANOS);
+        assertEquals(3, sent.size());
+    }
+
+    @Test
+    void lowClockResyncsFaster() {
+        game(1, 9_000L, "IN_PROGRESS");
+
+        long next = clockSync.sweep(0);
+
+        assertEquals(ClockSync.LOW_TIME_RESYNC_NANOS, next);
+        clockSync.sweep(ClockSync.LOW_TIME_RESYNC_NANOS);
+        assertEquals(2, sent.size());
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.IndiChessBackend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FinishedGamesTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final FinishedGames finished = new FinishedGames(registry, 3, 60_000);
+
+    private double evicted() {
+        return registry.get("games.evicted").counter().count();
+    }
+
+    @Test
+    void servedDuringGracePeriodThenEvicted() {
+        GameState game = new GameState();
+        finished.add(1L, game, 0);
+
+        assertSame(game, finished.get(1L, 59 * SECOND));
+        assertNull(finished.get(1L, 61 * SECOND));
+        assertEquals(0, finished.size());
+        assertEquals(1, evicted());
+    }
+
+    @Test
+    void fullCacheDropsTheOldestFinish() {
+        for (long id = 1; id <= 5; id++) {
+            finished.add(id, new GameState(), id * SECOND);
+        }
+
+        assertEquals(3, finished.size());
+        assertNull(finished.get(1L, 6 * SECOND));
+        assertNull(finished.get(2L, 6 * SECOND));
+        assertNotNull(finished.get(5L, 6 * SECOND));
+        assertEquals(2, evicted());
+        assertEquals(3, registry.get("games.finished.cached").gauge().value());
+    }
+
+    @Test
+    void boundedAfterAMillionGames() {
+        for (long id = 1; id <= 1_000_000; id++) {
+            finished.add(id, new GameState(), id * 1_000L);
+        }
+
+        assertEquals(3, finished.size());
+        assertEquals(999_997, evicted());
+    }
+}
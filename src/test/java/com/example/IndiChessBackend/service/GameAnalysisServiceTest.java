@@ -0,0 +1,82 @@
+package com.example.IndiChessBackend.service;
+
+import com.example.IndiChessBackend.chess.Position;
+import com.example.IndiChessBackend.chess.TranspositionTable;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameAnalysisServiceTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    // Never started: the test takes jobs itself instead of the dispatcher
+    private final GameAnalysisService analysis = new GameAnalysisService(
+            null, null, null, new TranspositionTable(10), registry, 1_000, 2, 1);
+
+    @AfterEach
+    void tearDown() {
+        analysis.shutdown();
+    }
+
+    private static Position played(String... uci) {
+        Position position = Position.startPosition();
+        for (String move : uci) {
+            position.makeMove(position.findLegalMove(move));
+        }
+        return position;
+    }
+
+    @Test
+    void fullQueueShedsTheOldestAndNewestIsTakenFirst() throws InterruptedException {
+        analysis.submit(1L, played("e2e4"));
+        analysis.submit(2L, played("d2d4"));
+        analysis.submit(3L, played("c2c4", "e7e5"));
+
+        assertEquals(2, analysis.queuedGames());
+        assertEquals(1, registry.get("analysis.games.dropped").counter().count());
+
+        GameAnalysisService.AnalysisJob newest = analysis.next();
+        assertEquals(3L, newest.matchId());
+        assertEquals(Position.START_FEN, newest.startFen());
+        assertEquals(2, newest.moves().length);
+
+        assertEquals(2L, analysis.next().matchId());
+        assertEquals(0, analysis.queuedGames());
+    }
+
+    @Test
+    void gamesWithoutMovesAreNotQueued() {
+        analysis.submit(1L, Position.startPosition());
+        assertEquals(0, analysis.queuedGames());
+    }
+
+    @Test
+    void winPercentIsSymmetricAndClamped() {
+        assertEquals(50, GameAnalysisService.winPercent(0), 1e-9);
+        assertEquals(100 - GameAnalysisService.winPercent(300), GameAnalysisService.winPercent(-300), 1e-9);
+        assertTrue(GameAnalysisService.winPercent(300) > GameAnalysisService.winPercent(100));
+        assertEquals(GameAnalysisService.winPercent(1_000), GameAnalysisService.winPercent(30_000), 1e-9);
+    }
+
+    @Test
+    void accuracyFallsWithWinPercentLostAndStaysInRange() {
+        assertEquals(100, GameAnalysisService.moveAccuracy(0), 0.001);
+        assertTrue(GameAnalysisService.moveAccuracy(5) > GameAnalysisService.moveAccuracy(15));
+        assertEquals(0, GameAnalysisService.moveAccuracy(100), 1e-9);
+    }
+
+    @Test
+    void judgementThresholds() {
+        assertEquals('-', GameAnalysisService.judgement(0));
+        assertEquals('-', GameAnalysisService.judgement(4.99));
+        assertEquals('I', GameAnalysisService.judgement(5));
+        assertEquals('I', GameAnalysisService.judgement(9.99));
+        assertEquals('M', GameAnalysisService.judgement(10));
+        assertEquals('M', GameAnalysisService.judgement(14.99));
+        assertEquals('B', GameAnalysisService.judgement(15));
+        assertEquals('B', GameAnalysisService.judgement(100));
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.IndiChessBackend.service;
+
+import com.example.IndiChessBackend.chess.Position;
+import com.example.IndiChessBackend.model.GameType;
+import com.example.IndiChessBackend.model.Match;
+import com.example.IndiChessBackend.model.MatchStatus;
+import com.example.IndiChessBackend.model.Move;
+import com.example.IndiChessBackend.model.User;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameArchiveTest {
+
+    // Ruy Lopez, closed: 40 plies
+    private static final String[] GAME = (
+            "e2e4 e7e5 g1f3 b8c6 f1b5 a7a6 b5a4 g8f6 e1g1 f8e7 f1e1 b7b5 a4b3 d7d6 c2c3 e8g8 "
+                    + "h2h3 c6a5 b3c2 c7c5 d2d4 d8c7 b1d2 c5d4 c3d4 a5c6 d2b3 a6a5 c1e3 a5a4 "
+                    + "b3d2 c8d7 a1c1 c7b7 d2f1 f8c8 f1g3 c6b4 c2b1 a8a5"
+    ).split(" ");
+
+    private static Match match() {
+        User white = new User();
+        white.setUsername("alice");
+        User black = new User();
+        black.setUsername("bob");
+        Match match = new Match(white, black, MatchStatus.DRAW, GameType.BLITZ);
+        match.setOpeningEco("C96");
+        match.setOpeningName("Ruy Lopez: Closed");
+        return match;
+    }
+
+    // The rows the move journal writes for GAME
+    private static List<Move> rows() {
+        List<Move> rows = new ArrayList<>();
+        Position position = Position.startPosition();
+        for (int i = 0; i < GAME.length; i++) {
+            Move row = new Move();
+            row.setPly(i + 1);
+            row.setMoveNumber(i / 2 + 1);
+            row.setUci(GAME[i]);
+            row.setSan(GAME[i]);
+            row.setFenBefore(position.toFen());
+            position.makeMove(position.findLegalMove(GAME[i]));
+            row.setFenAfter(position.toFen());
+            row.setMoveTimeMs(1_000 + i * 37);
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    @Test
+    void roundTripReplaysTheSamePositions() {
+        GameArchive.Game game = GameArchiver.fromRows(match(), rows());
+        GameArchive.Game decoded = GameArchive.decode(GameArchive.encode(game));
+
+        assertEquals("alice", decoded.white());
+        assertEquals("bob", decoded.black());
+        assertEquals(MatchStatus.DRAW, decoded.result());
+        assertEquals(GameType.BLITZ, decoded.gameType());
+        assertEquals("C96", decoded.openingEco());
+        assertEquals("Ruy Lopez: Closed", decoded.openingName());
+        assertNull(decoded.startFen());
+        assertEquals(game.startedAtMillis(), decoded.startedAtMillis());
+        assertArrayEquals(game.moves(), decoded.moves());
+        assertArrayEquals(game.moveTimesMs(), decoded.moveTimesMs());
+
+        List<Move> rows = rows();
+        for (int ply = 1; ply <= GAME.length; ply++) {
+            assertEquals(rows.get(ply - 1).getFenAfter(), decoded.positionAt(ply).toFen());
+        }
+    }
+
+    @Test
+    void archiveIsTenTimesSmallerThanTheRows() {
+        // Column payload only; real rows also carry ids, keys and index entries
+        int rowBytes = 0;
+        for (Move row : rows()) {
+            rowBytes += 8 + 8 + 4 + 4 + 5 + 4 + 8;
+            rowBytes += row.getUci().length() + row.getSan().length();
+            rowBytes += row.getFenBefore().getBytes(StandardCharsets.UTF_8).length;
+            rowBytes += row.getFenAfter().getBytes(StandardCharsets.UTF_8).length;
+        }
+
+        int archiveBytes = GameArchive.encode(GameArchiver.fromRows(match(), rows())).length;
+        assertTrue(archiveBytes * 10 <= rowBytes, archiveBytes + " vs " + rowBytes);
+    }
+
+    @Test
+    void unknownTimesAndBrokenRowsKeepTheReplayablePrefix() {
+        List<Move> rows = rows();
+        rows.get(0).setMoveTimeMs(null);
+        rows.get(10).setUci("a1a8"); // illegal there
+
+        GameArchive.Game game = GameArchiver.fromRows(match(), rows);
+        GameArchive.Game decoded = GameArchive.decode(GameArchive.encode(game));
+
+        assertEquals(10, decoded.plies());
+        assertEquals(-1, decoded.moveTimesMs()[0]);
+        assertEquals(1_037, decoded.moveTimesMs()[1]);
+
+        // Readable as a prefix, but never archived: that would delete the rest
+        assertFalse(GameArchiver.isComplete(match(), rows, game));
+    }
+
+    @Test
+    void onlyRowsReachingTheCurrentPlyAreComplete() {
+        Match match = match();
+        List<Move> rows = rows();
+        match.setCurrentPly(GAME.length);
+        assertTrue(GameArchiver.isComplete(match, rows, GameArchiver.fromRows(match, rows)));
+
+        // Last plies still in the move journal
+        List<Move> head = rows.subList(0, 30);
+        assertFalse(GameArchiver.isComplete(match, head, GameArchiver.fromRows(match, head)));
+
+        // A gap: rows after it cannot be replayed
+        List<Move> gapped = new ArrayList<>(rows);
+        gapped.remove(20);
+        assertFalse(GameArchiver.isComplete(match, gapped, GameArchiver.fromRows(match, gapped)));
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.IndiChessBackend.service;
+
+import com.example.IndiChessBackend.model.GameType;
+import com.example.IndiChessBackend.model.Match;
+import com.example.IndiChessBackend.model.MatchStatus;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameClockTest {
+
+    private static Match match(GameType type) {
+        return new Match(null, null, MatchStatus.IN_PROGRESS, type);
+    }
+
+    @Test
+    void clocksStartInMillisFromTheGameType() {
+        Match bullet = match(GameType.BULLET);
+        assertEquals(60_000L, bullet.getWhiteTimeMs());
+        assertEquals(60_000L, bullet.getBlackTimeMs());
+
+        Match standard = match(GameType.STANDARD);
+        assertNull(standard.getWhiteTimeMs());
+        assertNull(standard.getBlackTimeMs());
+    }
+
+    @Test
+    void subSecondThinkTimeIsChargedToTheMover() {
+        Match match = match(GameType.RAPID);
+
+        GameService.updateClock(match, true, 1_234);
+        GameService.updateClock(match, false, 1);
+
+        assertEquals(598_766L, match.getWhiteTimeMs());
+        assertEquals(599_999L, match.getBlackTimeMs());
+        assertEquals(MatchStatus.IN_PROGRESS, match.getStatus());
+    }
+
+    @Test
+    void incrementIsAddedAfterEachMove() {
+        Match match = match(GameType.BLITZ);
+
+        GameService.updateClock(match, true, 400);
+
+        assertEquals(180_000L - 400 + 1_000, match.getWhiteTimeMs());
+        assertEquals(180_000L, match.getBlackTimeMs());
+    }
+
+    @Test
+    void flaggedPlayerLosesBeforeTheIncrement() {
+        Match match = match(GameType.BLITZ);
+        match.setBlackTimeMs(500L);
+
+        GameService.updateClock(match, false, 500);
+
+        assertEquals(0L, match.getBlackTimeMs());
+        assertEquals(MatchStatus.PLAYER1_WON, match.getStatus());
+
+        Match white = match(GameType.BULLET);
+        GameService.updateClock(white, true, 60_001);
+        assertEquals(0L, white.getWhiteTimeMs());
+        assertEquals(MatchStatus.PLAYER2_WON, white.getStatus());
+    }
+
+    @Test
+    void untimedGamesKeepNoClock() {
+        Match match = match(GameType.STANDARD);
+
+        GameService.updateClock(match, true, 90_000);
+
+        assertNull(match.getWhiteTimeMs());
+        assertEquals(MatchStatus.IN_PROGRESS, match.getStatus());
+    }
+}
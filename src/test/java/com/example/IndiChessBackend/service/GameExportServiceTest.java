@@ -0,0 +1,75 @@
+package com.example.IndiChessBackend.service;
+
+import com.example.IndiChessBackend.chess.Position;
+import com.example.IndiChessBackend.model.GameType;
+import com.example.IndiChessBackend.model.MatchStatus;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameExportServiceTest {
+
+    private static GameArchive.Game game(MatchStatus result, int[] times, String... uci) {
+        Position position = Position.startPosition();
+        int[] moves = new int[uci.length];
+        for (int i = 0; i < uci.length; i++) {
+            moves[i] = position.findLegalMove(uci[i]);
+            position.makeMove(moves[i]);
+        }
+        return new GameArchive.Game("alice", "bob \"the\" rook", result, GameType.BLITZ, "C20", "King's Pawn Game",
+                null, 0, 0, moves, times);
+    }
+
+    private static GameArchive.Game scholarsMate() {
+        return game(MatchStatus.PLAYER1_WON, new int[]{900, 1200, 800, 1500, 700, 2000, 600},
+                "e2e4", "e7e5", "f1c4", "b8c6", "d1h5", "g8f6", "h5f7");
+    }
+
+    @Test
+    void pgnHasSevenTagRosterAndSanMovetext() throws IOException {
+        StringWriter out = new StringWriter();
+        GameExportService.writePgn(out, 42L, scholarsMate());
+        String pgn = out.toString();
+
+        assertTrue(pgn.startsWith("[Event \"IndiChess blitz game\"]\n[Site \"IndiChess\"]\n[Date \"????.??.??\"]\n"), pgn);
+        assertTrue(pgn.contains("[Black \"bob \\\"the\\\" rook\"]\n"), pgn);
+        assertTrue(pgn.contains("[Result \"1-0\"]\n"), pgn);
+        assertTrue(pgn.contains("[TimeControl \"180+1\"]\n"), pgn);
+        assertTrue(pgn.contains("[GameId \"42\"]\n"), pgn);
+        assertTrue(pgn.endsWith("\n\n1. e4 e5 2. Bc4 Nc6 3. Qh5 Nf6 4. Qxf7# 1-0\n\n"), pgn);
+    }
+
+    @Test
+    void longMovetextWrapsAtEightyColumns() throws IOException {
+        String[] uci = new String[80];
+        for (int i = 0; i < uci.length; i += 4) {
+            uci[i] = "g1f3";
+            uci[i + 1] = "g8f6";
+            uci[i + 2] = "f3g1";
+            uci[i + 3] = "f6g8";
+        }
+        StringWriter out = new StringWriter();
+        GameExportService.writePgn(out, 1L, game(MatchStatus.DRAW, new int[80], uci));
+
+        String movetext = out.toString().split("\n\n")[1];
+        for (String line : movetext.split("\n")) {
+            assertTrue(line.length() <= 80, line);
+        }
+        assertTrue(movetext.replace("\n", " ").endsWith("40. Ng1 Ng8 1/2-1/2"), movetext);
+    }
+
+    @Test
+    void ndjsonIsOneObjectPerLine() throws IOException {
+        StringWriter out = new StringWriter();
+        GameExportService.writeNdjson(out, 42L, scholarsMate());
+
+        assertEquals("{\"id\":42,\"white\":\"alice\",\"black\":\"bob \\\"the\\\" rook\",\"result\":\"1-0\","
+                + "\"status\":\"PLAYER1_WON\",\"gameType\":\"BLITZ\",\"eco\":\"C20\",\"opening\":\"King's Pawn Game\","
+                + "\"startedAt\":null,\"finishedAt\":null,"
+                + "\"moves\":\"e4 e5 Bc4 Nc6 Qh5 Nf6 Qxf7#\",\"uci\":\"e2e4 e7e5 f1c4 b8c6 d1h5 g8f6 h5f7\","
+                + "\"moveTimesMs\":[900,1200,800,1500,700,2000,600]}\n", out.toString());
+    }
+}
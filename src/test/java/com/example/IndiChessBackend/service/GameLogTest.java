@@ -0,0 +1,137 @@
+package com.example.IndiChessBackend.service;
+
+import com.example.IndiChessBackend.chess.Position;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameLogTest {
+
+    private static final String[] OPENING = {"e2e4", "e7e5", "g1f3", "b8c6", "f1b5", "a7a6"};
+
+    @TempDir
+    Path dir;
+
+    // Intervals far longer than the test: snapshots only when called
+    private GameLog open() throws IOException {
+        GameLog log = new GameLog(new SimpleMeterRegistry(), dir.toString(), 1 << 16, 60_000, 60_000);
+        log.start();
+        return log;
+    }
+
+    private GameLog.GameRecord newGame(long matchId) {
+        return new GameLog.GameRecord(matchId, 0, Position.startPosition().toFen(), new int[0],
+                180_000L, 180_000L, "alice", "bob", null);
+    }
+
+    // Logs the opening moves the way GameService does; returns the final position
+    private Position play(GameLog log, long matchId, int plies) {
+        Position position = Position.startPosition();
+        for (int ply = 1; ply <= plies; ply++) {
+            int move = position.findLegalMove(OPENING[ply - 1]);
+            position.makeMove(move);
+            log.move(matchId, ply, move, 180_000L - ply, 180_000L - ply * 2L);
+        }
+        return position;
+    }
+
+    private static GameLog.RecoveredGame only(Collection<GameLog.RecoveredGame> games) {
+        assertEquals(1, games.size());
+        return games.iterator().next();
+    }
+
+    @Test
+    void restartReplaysTheLogWithoutAClosedShutdown() throws IOException {
+        GameLog log = open();
+        log.open(newGame(7L));
+        Position expected = play(log, 7L, 5);
+        log.drawOffer(7L, "bob");
+        log.open(newGame(8L));
+        log.gameOver(8L);
+        // No stop(): the JVM "died" here
+
+        GameLog.RecoveredGame game = only(open().recover());
+        assertEquals(7L, game.matchId);
+        assertEquals(5, game.seq);
+        assertEquals(expected.toFen(), game.position.toFen());
+        assertEquals(5, game.position.ply());
+        assertEquals(179_995L, game.whiteTimeMs);
+        assertEquals(179_990L, game.blackTimeMs);
+        assertEquals("bob", game.drawOfferFrom);
+    }
+
+    @Test
+    void snapshotCompactsOlderSegmentsAndReplayIsIdempotent() throws IOException {
+        GameLog log = open();
+        log.open(newGame(7L));
+        Position position = play(log, 7L, 4);
+
+        // Snapshot state as GameService would capture it, then two more moves
+        List<GameLog.GameRecord> games = new ArrayList<>();
+        int[] moves = new int[position.ply()];
+        for (int i = 0; i < moves.length; i++) {
+            moves[i] = position.moveAt(i);
+        }
+        games.add(new GameLog.GameRecord(7L, 4, Position.startPosition().toFen(), moves,
+                179_996L, 179_992L, "alice", "bob", null));
+        log.snapshotFrom(() -> games);
+        long covers = log.snapshot();
+
+        // The move before the roll appears again after it: must not apply twice
+        int fourth = moves[3];
+        log.move(7L, 4, fourth, 179_996L, 179_992L);
+        for (int ply = 5; ply <= 6; ply++) {
+            int move = position.findLegalMove(OPENING[ply - 1]);
+            position.makeMove(move);
+            log.move(7L, ply, move, 179_990L, 179_980L);
+        }
+
+        try (Stream<Path> files = Files.list(dir)) {
+            assertTrue(files.allMatch(path -> Long.parseLong(
+                    path.getFileName().toString().substring(0, 16)) >= covers));
+        }
+
+        GameLog.RecoveredGame game = only(open().recover());
+        assertEquals(6, game.seq);
+        assertEquals(position.toFen(), game.position.toFen());
+        assertEquals(179_980L, game.blackTimeMs);
+    }
+
+    @Test
+    void tornRecordEndsTheLog() throws IOException {
+        GameLog log = open();
+        log.open(newGame(7L));
+        play(log, 7L, 2);
+
+        // Corrupt the checksum of the last record: it must be ignored, not fail recovery
+        Path segment;
+        try (Stream<Path> files = Files.list(dir)) {
+            segment = files.filter(path -> path.toString().endsWith(".log")).findFirst().orElseThrow();
+        }
+        try (FileChannel file = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            var buffer = file.map(FileChannel.MapMode.READ_WRITE, 0, file.size());
+            int position = 0;
+            int last = 0;
+            while (buffer.getInt(position) > 0) {
+                last = position;
+                position += 8 + buffer.getInt(position);
+            }
+            buffer.putInt(last + 4, buffer.getInt(last + 4) ^ 1);
+        }
+
+        GameLog.RecoveredGame game = only(open().recover());
+        assertEquals(1, game.seq);
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.IndiChessBackend.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LagCompensatorTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    // 500 ms cap per move, +100 ms per move, bank of 1000 ms
+    private final LagCompensator lag = new LagCompensator(
+            new SimpMessagingTemplate((message, timeout) -> true), registry, 2_000, 500, 100, 1_000);
+
+    @Test
+    void unknownLatencyEarnsNoCredit() {
+        assertEquals(0, lag.credit("alice", 1_000, 1_000));
+
+        lag.register("s1", "alice");
+        assertEquals(0, lag.transitMillis("alice"));
+        assertEquals(0, lag.credit("alice", 1_000, 1_000));
+        assertEquals(0, registry.get("lag.credit").summary().count());
+    }
+
+    @Test
+    void creditIsHalfTheSmoothedRoundTrip() {
+        lag.register("s1", "alice");
+        lag.observe("s1", 200);
+        assertEquals(100, lag.transitMillis("alice"));
+
+        // EWMA with 1/8 gain: 200 + (1000 - 200) / 8
+        lag.observe("s1", 1_000);
+        assertEquals(150, lag.transitMillis("alice"));
+        assertEquals(150, lag.credit("alice", 1_000, 1_000));
+    }
+
+    @Test
+    void creditIsCappedByMoveLimitBankAndThinkTime() {
+        lag.register("s1", "alice");
+        lag.observe("s1", 3_000);
+
+        assertEquals(500, lag.allowance("alice", 1_000));
+        assertEquals(40, lag.allowance("alice", 40));
+        assertEquals(30, lag.credit("alice", 30, 1_000));
+        assertEquals(0, lag.credit("alice", 1_000, 0));
+    }
+
+    @Test
+    void latestSessionCountsAndDisconnectForgetsIt() {
+        lag.register("s1", "alice");
+        lag.observe("s1", 400);
+        lag.register("s2", "alice");
+        assertEquals(0, lag.transitMillis("alice"));
+
+        lag.observe("s2", 100);
+        assertEquals(50, lag.transitMillis("alice"));
+
+        // An older session going away does not drop the newer one
+        lag.unregister("s1");
+        assertEquals(50, lag.transitMillis("alice"));
+        lag.unregister("s2");
+        assertEquals(0, lag.transitMillis("alice"));
+    }
+
+    @Test
+    void bankSpendsCreditEarnsGainAndStaysCapped() {
+        assertEquals(1_000, lag.initialQuota());
+        assertEquals(1_000, lag.refill(1_000, 0));
+        assertEquals(1_000, lag.refill(950, 0));
+        assertEquals(600, lag.refill(1_000, 500));
+        assertEquals(100, lag.refill(0, 0));
+    }
+
+    @Test
+    void sessionRttsAreOneUntaggedDistribution() {
+        lag.register("s1", "alice");
+        lag.register("s2", "bob");
+        lag.observe("s1", 100);
+        lag.observe("s2", 300);
+
+        DistributionSummary rtts = registry.get("lag.session.rtt").summary();
+        assertEquals(2, rtts.count());
+        assertEquals(300, rtts.max());
+        assertTrue(rtts.getId().getTags().isEmpty());
+        assertEquals(1, registry.find("lag.session.rtt").meters().size());
+    }
+}
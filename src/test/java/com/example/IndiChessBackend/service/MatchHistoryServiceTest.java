@@ -0,0 +1,71 @@
+package com.example.IndiChessBackend.service;
+
+import com.example.IndiChessBackend.model.DTO.MatchHistoryDTO;
+import com.example.IndiChessBackend.model.GameType;
+import com.example.IndiChessBackend.model.MatchStatus;
+import com.example.IndiChessBackend.repo.MatchHeader;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MatchHistoryServiceTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 3, 1, 12, 0);
+
+    private static MatchHeader game(long id, int minute) {
+        LocalDateTime createdAt = T0.plusMinutes(minute);
+        return new MatchHeader() {
+            public Long getId() { return id; }
+            public String getWhite() { return "alice"; }
+            public String getBlack() { return "bob"; }
+            public MatchStatus getStatus() { return MatchStatus.DRAW; }
+            public GameType getGameType() { return GameType.BLITZ; }
+            public String getOpeningEco() { return null; }
+            public String getOpeningName() { return null; }
+            public LocalDateTime getStartedAt() { return createdAt; }
+            public LocalDateTime getFinishedAt() { return null; }
+            public LocalDateTime getCreatedAt() { return createdAt; }
+            public Integer getPlies() { return 0; }
+        };
+    }
+
+    private static List<Long> ids(List<MatchHeader> games) {
+        return games.stream().map(MatchHeader::getId).toList();
+    }
+
+    @Test
+    void mergeKeepsNewestFirstAcrossBothSides() {
+        List<MatchHeader> asWhite = List.of(game(9, 9), game(5, 5), game(4, 4));
+        List<MatchHeader> asBlack = List.of(game(8, 8), game(7, 5), game(1, 1));
+
+        // Same createdAt: higher id first
+        assertEquals(List.of(9L, 8L, 7L, 5L, 4L), ids(MatchHistoryService.merge(asWhite, asBlack, 5)));
+        assertEquals(List.of(9L, 8L, 7L, 5L, 4L, 1L), ids(MatchHistoryService.merge(asWhite, asBlack, 10)));
+    }
+
+    @Test
+    void gameAgainstOneselfIsListedOnce() {
+        MatchHeader self = game(6, 6);
+        List<MatchHeader> merged = MatchHistoryService.merge(
+                List.of(game(7, 7), self), List.of(self, game(2, 2)), 10);
+
+        assertEquals(List.of(7L, 6L, 2L), ids(merged));
+    }
+
+    @Test
+    void cursorPointsAtTheLastGameOfAFullPage() {
+        List<MatchHeader> merged = List.of(game(9, 9), game(8, 8), game(7, 7));
+
+        MatchHistoryDTO full = MatchHistoryService.page(merged, 2);
+        assertEquals(List.of(9L, 8L), ids(full.getGames()));
+        MatchHistoryService.Cursor cursor = MatchHistoryService.Cursor.parse(full.getNextCursor());
+        assertEquals(T0.plusMinutes(8), cursor.createdAt());
+        assertEquals(8L, cursor.id());
+
+        assertNull(MatchHistoryService.page(merged, 3).getNextCursor());
+        assertThrows(IllegalArgumentException.class, () -> MatchHistoryService.Cursor.parse("yesterday_12"));
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.IndiChessBackend.service;
+
+import com.example.IndiChessBackend.model.Match;
+import com.example.IndiChessBackend.repo.MatchRepo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MatchWriteBehindTest {
+
+    // Records the rows of every batch instead of talking to a database
+    private final List<List<MatchWriteBehind.LiveRow>> batches = new ArrayList<>();
+    private final List<Match> saved = new ArrayList<>();
+
+    private final JdbcTemplate jdbc = new JdbcTemplate() {
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> int[][] batchUpdate(
+                String sql,
+                Collection<T> batchArgs,
+                int batchSize,
+                ParameterizedPreparedStatementSetter<T> pss
+        ) {
+            batches.add(new ArrayList<>((Collection<MatchWriteBehind.LiveRow>) batchArgs));
+            return new int[0][];
+        }
+    };
+
+    private final MatchRepo matchRepo = (MatchRepo) Proxy.newProxyInstance(
+            MatchRepo.class.getClassLoader(),
+            new Class<?>[]{MatchRepo.class},
+            (proxy, method, args) -> {
+                if (method.getName().equals("save")) {
+                    saved.add((Match) args[0]);
+                    return args[0];
+                }
+                throw new UnsupportedOperationException(method.getName());
+            }
+    );
+
+    private final MatchWriteBehind writeBehind =
+            new MatchWriteBehind(jdbc, matchRepo, new SimpleMeterRegistry(), 60_000);
+
+    private GameState game(long matchId) {
+        Match match = new Match();
+        match.setId(matchId);
+        match.setCurrentPly(0);
+        GameState gameState = new GameState();
+        gameState.setMatch(match);
+        return gameState;
+    }
+
+    private void move(GameState gameState, int ply) {
+        Match match = gameState.getMatch();
+        match.setCurrentPly(ply);
+        match.setLastMoveUci("m" + ply);
+        writeBehind.markDirty(match.getId(), gameState);
+    }
+
+    @Test
+    void manyMovesCoalesceIntoOneRowPerGame() {
+        GameState first = game(1L);
+        GameState second = game(2L);
+
+        for (int ply = 1; ply <= 30; ply++) {
+            move(first, ply);
+            move(second, ply);
+        }
+
+        assertEquals(2, writeBehind.flush());
+        assertEquals(1, batches.size());
+        for (MatchWriteBehind.LiveRow row : batches.get(0)) {
+            assertEquals(30, row.currentPly());
+            assertEquals("m30", row.lastMoveUci());
+        }
+
+        // Nothing changed since: nothing to write
+        assertEquals(0, writeBehind.flush());
+        assertEquals(1, batches.size());
+    }
+
+    @Test
+    void flushNowSavesAtOnceAndLeavesNothingPending() {
+        GameState gameState = game(1L);
+        move(gameState, 1);
+
+        writeBehind.flushNow(gameState.getMatch());
+
+        assertEquals(1, saved.size());
+        assertEquals(0, writeBehind.flush());
+        assertTrue(batches.isEmpty());
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.IndiChessBackend.service;
+
+import com.example.IndiChessBackend.chess.Position;
+import com.example.IndiChessBackend.model.DTO.MoveHistoryDTO;
+import com.example.IndiChessBackend.model.DTO.MoveHistoryEntryDTO;
+import com.example.IndiChessBackend.model.GameType;
+import com.example.IndiChessBackend.model.MatchStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoveHistoryServiceTest {
+
+    private static GameArchive.Game scholarsMate() {
+        String[] uci = {"e2e4", "e7e5", "f1c4", "b8c6", "d1h5", "g8f6", "h5f7"};
+        Position position = Position.startPosition();
+        int[] moves = new int[uci.length];
+        int[] times = {900, -1, 800, 1500, 700, 2000, 600};
+        for (int i = 0; i < uci.length; i++) {
+            moves[i] = position.findLegalMove(uci[i]);
+            position.makeMove(moves[i]);
+        }
+        return new GameArchive.Game("alice", "bob", MatchStatus.PLAYER1_WON, GameType.BLITZ,
+                null, null, null, 0, 0, moves, times);
+    }
+
+    @Test
+    void archivedGamesGetSanFromReplay() {
+        List<MoveHistoryEntryDTO> moves = MoveHistoryService.fromArchive(scholarsMate());
+
+        assertEquals(7, moves.size());
+        assertEquals(new MoveHistoryEntryDTO(1, "e2e4", "e4", 900), moves.get(0));
+        assertNull(moves.get(1).getMoveTimeMs());
+        assertEquals(new MoveHistoryEntryDTO(7, "h5f7", "Qxf7#", 600), moves.get(6));
+    }
+
+    @Test
+    void sinceReturnsOnlyLaterPlies() {
+        MoveHistoryDTO whole = new MoveHistoryDTO(5L, false, 7, 0, MoveHistoryService.fromArchive(scholarsMate()));
+
+        MoveHistoryDTO tail = MoveHistoryService.slice(whole, 5);
+        assertEquals(5, tail.getSince());
+        assertEquals(7, tail.getPly());
+        assertEquals(List.of(6, 7), tail.getMoves().stream().map(MoveHistoryEntryDTO::getPly).toList());
+
+        assertEquals(0, MoveHistoryService.slice(whole, 7).getCount());
+        assertEquals(0, MoveHistoryService.slice(whole, 50).getCount());
+        assertEquals(7, MoveHistoryService.slice(whole, 0).getCount());
+    }
+
+    @Test
+    void etagChangesWithPlyAndWhenTheGameEnds() {
+        MoveHistoryDTO live = new MoveHistoryDTO(5L, true, 7, 0, List.of());
+        MoveHistoryDTO over = new MoveHistoryDTO(5L, false, 7, 0, List.of());
+
+        assertEquals("\"5-7-live\"", MoveHistoryService.etag(live));
+        assertEquals("\"5-7\"", MoveHistoryService.etag(over));
+        assertNotEquals(MoveHistoryService.etag(live),
+                MoveHistoryService.etag(new MoveHistoryDTO(5L, true, 8, 7, List.of())));
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.IndiChessBackend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoveJournalTest {
+
+    // Records batch sizes and plies instead of talking to a database
+    private final List<Integer> batches = new ArrayList<>();
+    private final List<Integer> plies = new ArrayList<>();
+
+    private final JdbcTemplate jdbc = new JdbcTemplate() {
+        @Override
+        public <T> int[][] batchUpdate(
+                String sql,
+                Collection<T> batchArgs,
+                int batchSize,
+                ParameterizedPreparedStatementSetter<T> pss
+        ) {
+            synchronized (batches) {
+                batches.add(batchArgs.size());
+                for (T entry : batchArgs) {
+                    plies.add(((MoveJournal.Entry) entry).ply());
+                }
+            }
+            return new int[0][];
+        }
+    };
+
+    private void append(MoveJournal journal, int ply) {
+        journal.append(1L, ply, ply % 2 == 1 ? "WHITE" : "BLACK", "e2e4", "e4", "fen", "fen", 100);
+    }
+
+    @Test
+    void appendsAreBatchedAndAcknowledgedInOrder() throws InterruptedException {
+        MoveJournal journal = new MoveJournal(jdbc, new SimpleMeterRegistry(), 10, 20, 1_000);
+        journal.start();
+
+        for (int ply = 1; ply <= 25; ply++) {
+            append(journal, ply);
+        }
+
+        assertTrue(journal.awaitFlushed(journal.lastSeq(), 5_000));
+        assertEquals(25, journal.flushedSeq());
+        journal.stop();
+
+        synchronized (batches) {
+            assertTrue(batches.stream().allMatch(size -> size <= 10));
+            assertEquals(25, plies.size());
+            for (int i = 0; i < plies.size(); i++) {
+                assertEquals(i + 1, plies.get(i));
+            }
+        }
+    }
+
+    @Test
+    void stopFlushesEverythingAppended() throws InterruptedException {
+        // Interval far longer than the test: only shutdown can trigger the write
+        MoveJournal journal = new MoveJournal(jdbc, new SimpleMeterRegistry(), 1_000, 60_000, 1_000);
+        journal.start();
+
+        for (int ply = 1; ply <= 5; ply++) {
+            append(journal, ply);
+        }
+        journal.stop();
+
+        assertEquals(5, journal.flushedSeq());
+        synchronized (batches) {
+            assertEquals(5, plies.size());
+        }
+    }
+
+    @Test
+    void outageKeepsTheBatchAndAcknowledgesNothing() throws InterruptedException {
+        AtomicBoolean down = new AtomicBoolean(true);
+        JdbcTemplate flaky = new JdbcTemplate() {
+            @Override
+            public <T> int[][] batchUpdate(
+                    String sql,
+                    Collection<T> batchArgs,
+                    int batchSize,
+                    ParameterizedPreparedStatementSetter<T> pss
+            ) {
+                if (down.get()) {
+                    throw new TransientDataAccessResourceException("connection refused");
+                }
+                return jdbc.batchUpdate(sql, batchArgs, batchSize, pss);
+            }
+        };
+        MoveJournal journal = new MoveJournal(flaky, new SimpleMeterRegistry(), 10, 20, 1_000);
+        journal.start();
+
+        for (int ply = 1; ply <= 5; ply++) {
+            append(journal, ply);
+        }
+        assertFalse(journal.awaitFlushed(5, 300));
+        assertEquals(0, journal.flushedSeq());
+
+        down.set(false);
+        assertTrue(journal.awaitFlushed(5, 5_000));
+        journal.stop();
+
+        synchronized (batches) {
+            assertEquals(List.of(1, 2, 3, 4, 5), plies);
+        }
+    }
+
+    @Test
+    void onlyTheRejectedRowIsDropped() throws InterruptedException {
+        List<Integer> single = new ArrayList<>();
+        JdbcTemplate strict = new JdbcTemplate() {
+            @Override
+            public <T> int[][] batchUpdate(
+                    String sql,
+                    Collection<T> batchArgs,
+                    int batchSize,
+                    ParameterizedPreparedStatementSetter<T> pss
+            ) {
+                throw new DataIntegrityViolationException("ply 3 too long");
+            }
+
+            @Override
+            public int update(String sql, PreparedStatementSetter pss) {
+                synchronized (single) {
+                    if (single.size() == 2) {
+                        single.add(-1); // the bad row, third in order
+                        throw new DataIntegrityViolationException("ply 3 too long");
+                    }
+                    single.add(single.size() + 1);
+                }
+                return 1;
+            }
+        };
+        MoveJournal journal = new MoveJournal(strict, new SimpleMeterRegistry(), 10, 20, 1_000);
+        journal.start();
+
+        for (int ply = 1; ply <= 5; ply++) {
+            append(journal, ply);
+        }
+        assertTrue(journal.awaitFlushed(5, 5_000));
+        journal.stop();
+
+        synchronized (single) {
+            assertEquals(5, single.size());
+            assertEquals(1, single.stream().filter(row -> row < 0).count());
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package com.example.IndiChessBackend.service;
+
+import com.example.IndiChessBackend.chess.Position;
+import com.example.IndiChessBackend.chess.TranspositionTable;
+import com.example.IndiChessBackend.model.DTO.GameDTO;
+import com.example.IndiChessBackend.model.DTO.GameStatusDTO;
+import com.example.IndiChessBackend.model.GameType;
+import com.example.IndiChessBackend.model.LiveGame;
+import com.example.IndiChessBackend.model.LiveGameMove;
+import com.example.IndiChessBackend.model.MatchStatus;
+import com.example.IndiChessBackend.model.MatchmakingEntry;
+import com.example.IndiChessBackend.model.User;
+import com.example.IndiChessBackend.repo.MatchAnalysisRepo;
+import com.example.IndiChessBackend.repo.MatchRepo;
+import com.example.IndiChessBackend.repo.MoveRepo;
+import com.example.IndiChessBackend.repo.UserRepo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.Cookie;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Path;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Two GameService "nodes" in one JVM, each with its own caches, game log and
+// JdbcGameStateStore, sharing only what real nodes share: one database (H2
+// standing in for MySQL) and the matches rows. No request sticks to a node.
+class MultiNodeGameTest {
+
+    private static final String[] OPENING = {"e2e4", "e7e5", "g1f3", "b8c6", "f1b5", "a7a6", "b5a4", "g8f6"};
+    private static final String[] FOOLS_MATE = {"f2f3", "e7e5", "g2g4", "d8h4"};
+
+    private static final User ALICE = ServiceFixtures.user(1L, "alice");
+    private static final User BOB = ServiceFixtures.user(2L, "bob");
+    private static final Principal AS_ALICE = ALICE::getUsername;
+    private static final Principal AS_BOB = BOB::getUsername;
+
+    @TempDir
+    Path dir;
+
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbc;
+    private final ServiceFixtures.InMemoryMatches matches = new ServiceFixtures.InMemoryMatches(ALICE, BOB);
+    private final List<GameService> nodes = new ArrayList<>();
+    private final Map<GameService, GameLog> gameLogs = new HashMap<>();
+    private GameService a;
+    private GameService b;
+
+    @BeforeEach
+    void setup() {
+        dataSource = new DriverManagerDataSource("jdbc:h2:mem:nodes" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        jdbc = new JdbcTemplate(dataSource);
+        createSchema();
+
+        a = node("a");
+        b = node("b");
+    }
+
+    // The shared tables as the entity mappings define them, as ddl-auto
+    // creates them in production, so the test cannot drift from the schema
+    private void createSchema() {
+        StandardServiceRegistry registry = new StandardServiceRegistryBuilder()
+                .applySetting(AvailableSettings.JAKARTA_NON_JTA_DATASOURCE, dataSource)
+                .applySetting(AvailableSettings.HBM2DDL_AUTO, "create")
+                .build();
+        new MetadataSources(registry)
+                .addAnnotatedClasses(LiveGame.class, LiveGameMove.class, MatchmakingEntry.class)
+                .buildMetadata()
+                .buildSessionFactory()
+                .close(); // also releases the registry; "create" leaves the tables
+    }
+
+    @AfterEach
+    void stopNodes() {
+        nodes.forEach(GameService::stopClocks);
+    }
+
+    // =========================
+    // NODES
+    // =========================
+    private GameService node(String name) {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        SimpMessagingTemplate broker = ServiceFixtures.discardingTemplate();
+
+        MoveJournal journal = new MoveJournal(ServiceFixtures.discardingJdbc(), registry, 500, 50, 100_000);
+        journal.start();
+        GameLog gameLog = new GameLog(registry, dir.resolve(name).toString(), 1 << 20, 60_000, 60_000);
+        try {
+            gameLog.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        GameService node = new GameService(
+                matches.repo,
+                ServiceFixtures.unsupported(UserRepo.class),
+                broker,
+                new OpeningClassifier(),
+                new ComputerPlayer(ServiceFixtures.unsupported(UserRepo.class), new TranspositionTable(10), registry, "computer", 1_000, 50, 1, 1),
+                new GameAnalysisService(ServiceFixtures.unsupported(MoveRepo.class), ServiceFixtures.unsupported(MatchRepo.class),
+                        ServiceFixtures.unsupported(MatchAnalysisRepo.class), new TranspositionTable(10), registry, 1_000, 16, 1),
+                new LagCompensator(broker, registry, 2_000, 500, 100, 1_000),
+                journal,
+                new MatchWriteBehind(ServiceFixtures.discardingJdbc(), matches.repo, registry, 60_000),
+                gameLog,
+                new FinishedGames(registry, 1_000, 120_000),
+                jdbcStore()
+        );
+        node.startClocks();
+        nodes.add(node);
+        gameLogs.put(node, gameLog);
+        return node;
+    }
+
+    // The node goes down: its log is flushed, its games are left in the store
+    private void stop(GameService node) {
+        node.stopClocks();
+        gameLogs.get(node).stop();
+    }
+
+    private MatchService matchmaking() {
+        UserRepo users = (UserRepo) Proxy.newProxyInstance(
+                UserRepo.class.getClassLoader(),
+                new Class<?>[]{UserRepo.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getUserByUsername" -> args[0].equals("alice") ? ALICE : BOB;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                }
+        );
+        return new MatchService(new JwtService(), users, matches.repo, null, jdbcStore());
+    }
+
+    private JdbcGameStateStore jdbcStore() {
+        return new JdbcGameStateStore(jdbc, new DataSourceTransactionManager(dataSource), 600_000, 60_000);
+    }
+
+    // =========================
+    // TESTS
+    // =========================
+    @Test
+    void everyMoveCanLandOnEitherNode() {
+        long matchId = matches.newMatch(GameType.BLITZ).getId();
+        a.handlePlayerJoin(matchId, null, AS_ALICE);
+        b.handlePlayerJoin(matchId, null, AS_BOB);
+
+        Position expected = Position.startPosition();
+        for (int ply = 0; ply < OPENING.length; ply++) {
+            // White's moves go to one node, black's to the other
+            boolean white = ply % 2 == 0;
+            GameService mover = white ? a : b;
+            GameService other = white ? b : a;
+
+            mover.processMove(matchId, ServiceFixtures.request(OPENING[ply], white), white ? AS_ALICE : AS_BOB);
+            expected.makeMove(expected.findLegalMove(OPENING[ply]));
+
+            GameDTO seenByMover = mover.getGameDetails(matchId, white ? AS_ALICE : AS_BOB);
+            GameDTO seenByOther = other.getGameDetails(matchId, white ? AS_BOB : AS_ALICE);
+            assertEquals(expected.toFen(), seenByOther.getFen());
+            assertTrue(seenByOther.isMyTurn());
+            assertEquals(seenByMover.getWhiteTimeMs(), seenByOther.getWhiteTimeMs());
+            assertEquals(seenByMover.getBlackTimeMs(), seenByOther.getBlackTimeMs());
+        }
+
+        // A node that never saw a move of this game picks it up from the store
+        GameService c = node("c");
+        GameStatusDTO snapshot = c.handleResync(matchId, AS_BOB);
+        assertEquals(OPENING.length, snapshot.getSeq());
+        assertEquals(expected.toFen(), snapshot.getFen());
+
+        c.processMove(matchId, ServiceFixtures.request("e1g1", true), AS_ALICE);
+        assertEquals(OPENING.length + 1, a.handleResync(matchId, AS_ALICE).getSeq());
+    }
+
+    @Test
+    void gameFinishedOnOneNodeIsOverOnAll() {
+        long matchId = matches.newMatch(GameType.STANDARD).getId();
+        a.handlePlayerJoin(matchId, null, AS_ALICE);
+        b.handlePlayerJoin(matchId, null, AS_BOB);
+
+        for (int ply = 0; ply < FOOLS_MATE.length; ply++) {
+            boolean white = ply % 2 == 0;
+            (white ? a : b).processMove(matchId, ServiceFixtures.request(FOOLS_MATE[ply], white), white ? AS_ALICE : AS_BOB);
+        }
+
+        assertEquals("GAME_OVER", a.getGameDetails(matchId, AS_ALICE).getStatus());
+        assertEquals("GAME_OVER", b.getGameDetails(matchId, AS_BOB).getStatus());
+        RuntimeException late = assertThrows(RuntimeException.class,
+                () -> a.processMove(matchId, ServiceFixtures.request("e2e4", true), AS_ALICE));
+        assertEquals("Game not active", late.getMessage());
+        assertEquals(MatchStatus.PLAYER2_WON, matches.rows.get(matchId).getStatus());
+    }
+
+    @Test
+    void aMoveOnAStaleCopyIsRetriedOnTheStoredGame() {
+        long matchId = matches.newMatch(GameType.BLITZ).getId();
+        a.handlePlayerJoin(matchId, null, AS_ALICE);
+        b.handlePlayerJoin(matchId, null, AS_BOB);
+
+        // No reads in between: each node still holds the game as it last saw it
+        a.processMove(matchId, ServiceFixtures.request("e2e4", true), AS_ALICE);
+        b.processMove(matchId, ServiceFixtures.request("e7e5", false), AS_BOB);
+        a.processMove(matchId, ServiceFixtures.request("g1f3", true), AS_ALICE);
+
+        GameStatusDTO snapshot = b.handleResync(matchId, AS_BOB);
+        assertEquals(3, snapshot.getSeq());
+        assertTrue(snapshot.isMyTurn());
+
+        // A move that is wrong on the current game is still turned down
+        RuntimeException illegal = assertThrows(RuntimeException.class,
+                () -> a.processMove(matchId, ServiceFixtures.request("f3g5", true), AS_ALICE));
+        assertEquals("Not your turn", illegal.getMessage());
+    }
+
+    @Test
+    void clocksStandStillWhileEveryNodeIsDown() throws InterruptedException {
+        long matchId = matches.newMatch(GameType.BLITZ).getId();
+        a.handlePlayerJoin(matchId, null, AS_ALICE);
+        b.handlePlayerJoin(matchId, null, AS_BOB);
+        a.processMove(matchId, ServiceFixtures.request("e2e4", true), AS_ALICE);
+
+        // Black's turn is running when both nodes go down
+        stop(a);
+        stop(b);
+        Thread.sleep(1_500);
+
+        GameService restarted = node("a");
+        restarted.processMove(matchId, ServiceFixtures.request("e7e5", false), AS_BOB);
+
+        // Charged only the moments after the restart, then the 1 s increment
+        long black = restarted.getGameDetails(matchId, AS_BOB).getBlackTimeMs();
+        assertTrue(black > 180_000, "outage charged to black: " + black + " ms left");
+    }
+
+    @Test
+    void staleWritesLoseTheCompareAndSet() {
+        assertCompareAndSet(jdbcStore(), jdbcStore());
+        InProcessGameStateStore local = new InProcessGameStateStore();
+        assertCompareAndSet(local, local);
+    }
+
+    private static void assertCompareAndSet(GameStateStore first, GameStateStore second) {
+        Position position = Position.startPosition();
+        int e4 = position.findLegalMove("e2e4");
+        position.makeMove(e4);
+        int e5 = position.findLegalMove("e7e5");
+
+        GameLog.GameRecord record = new GameLog.GameRecord(9L, 1, Position.START_FEN, new int[]{e4},
+                180_000L, 180_000L, "alice", "bob", null);
+        GameStateStore.SharedGame game = new GameStateStore.SharedGame(
+                record, 1_000L, 500, 500, false, true, new int[]{900}, false);
+
+        assertTrue(first.create(9L, game));
+        assertFalse(second.create(9L, game)); // created once
+
+        // Both nodes read version 1; only the first write from it lands
+        GameStateStore.Update reply = new GameStateStore.Update(2, 180_000L, 179_000L, null, 2_000L,
+                500, 400, false, true, 1, new int[]{e5}, new int[]{1_200}, false);
+        assertTrue(second.compareAndSet(9L, 1, reply));
+        assertFalse(first.compareAndSet(9L, 1, reply));
+        assertEquals(2, first.head(9L).orElseThrow().version());
+
+        GameStateStore.Versioned stored = first.load(9L).orElseThrow();
+        assertEquals(2, stored.version());
+        assertEquals(2, stored.game().game().seq());
+        assertArrayEquals(new int[]{e4, e5}, stored.game().game().moves());
+        assertArrayEquals(new int[]{900, 1_200}, stored.game().moveTimesMs());
+        assertEquals(179_000L, stored.game().game().blackTimeMs());
+        assertEquals("bob", stored.game().game().player2());
+        assertTrue(stored.game().blackDelta());
+        assertEquals(2_000L, stored.game().turnStartedAtMillis());
+
+        // A draw offer: no plies, just the new fields
+        GameStateStore.Update offer = new GameStateStore.Update(2, 180_000L, 179_000L, "alice", 2_000L,
+                500, 400, false, true, 2, new int[0], new int[0], false);
+        assertTrue(first.compareAndSet(9L, 2, offer));
+        assertEquals("alice", second.load(9L).orElseThrow().game().game().drawOfferFrom());
+        assertEquals(2, second.load(9L).orElseThrow().game().game().moves().length);
+    }
+
+    @Test
+    void playersWaitingOnDifferentNodesArePaired() {
+        MatchService onA = matchmaking();
+        MatchService onB = matchmaking();
+
+        assertEquals(Optional.of(-1L), onA.createMatch(request(ALICE), GameType.BLITZ));
+        Long matchId = onB.createMatch(request(BOB), GameType.BLITZ).orElseThrow();
+        assertTrue(matchId > 0);
+
+        assertEquals(Optional.of(matchId), onA.checkMatch(request(ALICE), GameType.BLITZ));
+        assertEquals(Optional.empty(), onB.checkMatch(request(ALICE), GameType.BLITZ)); // picked up once
+    }
+
+    private static MockHttpServletRequest request(User user) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setCookies(new Cookie("JWT", new JwtService().generateToken(user.getUsername())));
+        return request;
+    }
+}
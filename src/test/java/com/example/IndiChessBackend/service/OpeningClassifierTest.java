@@ -0,0 +1,52 @@
+package com.example.IndiChessBackend.service;
+
+import com.example.IndiChessBackend.chess.Position;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OpeningClassifierTest {
+
+    private final OpeningClassifier classifier = new OpeningClassifier();
+
+    private int play(String... uciMoves) {
+        Position position = Position.startPosition();
+        int node = classifier.root();
+        int opening = OpeningClassifier.UNKNOWN;
+
+        for (String uci : uciMoves) {
+            int move = position.findLegalMove(uci);
+            position.makeMove(move);
+            node = classifier.next(node, move, position.hash());
+            if (classifier.openingAt(node) != OpeningClassifier.UNKNOWN) {
+                opening = classifier.openingAt(node);
+            }
+        }
+        return opening;
+    }
+
+    @Test
+    void labelsDeepestBookLine() {
+        int opening = play("e2e4", "e7e5", "g1f3", "b8c6", "f1b5", "g8f6");
+        assertEquals("C65", classifier.eco(opening));
+        assertEquals("Ruy Lopez: Berlin Defense", classifier.name(opening));
+    }
+
+    @Test
+    void keepsLabelAfterLeavingBook() {
+        int opening = play("e2e4", "c7c5", "g1f3", "d7d6", "d2d4", "c5d4", "f3d4", "g8f6", "b1c3", "a7a6", "h2h4", "h7h5");
+        assertEquals("B90", classifier.eco(opening));
+    }
+
+    @Test
+    void resolvesTranspositions() {
+        // 1.c4 Nf6 2.d4 e6 reaches the 1.d4 Nf6 2.c4 e6 position
+        int opening = play("c2c4", "g8f6", "d2d4", "e7e6");
+        assertEquals("E00", classifier.eco(opening));
+    }
+
+    @Test
+    void unknownFirstMoveIsOutOfBook() {
+        assertEquals(OpeningClassifier.UNKNOWN, play("h2h4"));
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.IndiChessBackend.service;
+
+import com.example.IndiChessBackend.model.DTO.MoveRequest;
+import com.example.IndiChessBackend.model.GameType;
+import com.example.IndiChessBackend.model.Match;
+import com.example.IndiChessBackend.model.MatchStatus;
+import com.example.IndiChessBackend.model.User;
+import com.example.IndiChessBackend.repo.MatchRepo;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// In-memory stand-ins for driving GameService without Spring / MySQL, shared
+// by the service tests and the benchmarks (src/jmh, compiled as test sources)
+final class ServiceFixtures {
+
+    private ServiceFixtures() {
+    }
+
+    // =========================
+    // IN-MEMORY MATCH REPO
+    // =========================
+    // The matches table: every read and write is a copy, so callers (and
+    // nodes) share no Match objects, as with a real database
+    static final class InMemoryMatches {
+
+        final Map<Long, Match> rows = new ConcurrentHashMap<>();
+        private final AtomicLong ids = new AtomicLong();
+        private final User player1;
+        private final User player2;
+
+        final MatchRepo repo = (MatchRepo) Proxy.newProxyInstance(
+                MatchRepo.class.getClassLoader(),
+                new Class<?>[]{MatchRepo.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findById", "findWithPlayersById" ->
+                            Optional.ofNullable(rows.get((Long) args[0])).map(InMemoryMatches::copy);
+                    case "save" -> {
+                        Match match = (Match) args[0];
+                        if (match.getId() == null) {
+                            match.setId(ids.incrementAndGet());
+                        }
+                        rows.put(match.getId(), copy(match));
+                        yield match;
+                    }
+                    case "toString" -> "InMemoryMatchRepo";
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> throw new UnsupportedOperationException(method.getName());
+                }
+        );
+
+        InMemoryMatches(User player1, User player2) {
+            this.player1 = player1;
+            this.player2 = player2;
+        }
+
+        Match newMatch(GameType gameType) {
+            return repo.save(new Match(player1, player2, MatchStatus.IN_PROGRESS, gameType));
+        }
+
+        private static Match copy(Match row) {
+            Match copy = new Match(row.getPlayer1(), row.getPlayer2(), row.getStatus(), row.getGameType());
+            copy.setId(row.getId());
+            copy.setCurrentPly(row.getCurrentPly());
+            copy.setFenCurrent(row.getFenCurrent());
+            copy.setLastMoveUci(row.getLastMoveUci());
+            copy.setWhiteTimeMs(row.getWhiteTimeMs());
+            copy.setBlackTimeMs(row.getBlackTimeMs());
+            copy.setOpeningEco(row.getOpeningEco());
+            copy.setOpeningName(row.getOpeningName());
+            copy.setFinishedAt(row.getFinishedAt());
+            return copy;
+        }
+    }
+
+    // Repository stand-in for collaborators the path under test never calls
+    static <T> T unsupported(Class<T> type) {
+        return type.cast(Proxy.newProxyInstance(
+                type.getClassLoader(),
+                new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    throw new UnsupportedOperationException(method.getName());
+                }
+        ));
+    }
+
+    // Accepts and drops every batch (journal, write-behind)
+    static JdbcTemplate discardingJdbc() {
+        return new JdbcTemplate() {
+            @Override
+            public <T> int[][] batchUpdate(
+                    String sql,
+                    Collection<T> batchArgs,
+                    int batchSize,
+                    ParameterizedPreparedStatementSetter<T> pss
+            ) {
+                return new int[0][];
+            }
+        };
+    }
+
+    // Broker stand-in: accepts and drops every message
+    static SimpMessagingTemplate discardingTemplate() {
+        return new SimpMessagingTemplate((message, timeout) -> true);
+    }
+
+    static User user(Long id, String username) {
+        User user = new User();
+        user.setUserId(id);
+        user.setUsername(username);
+        user.setRating(1200);
+        return user;
+    }
+
+    // =========================
+    // MOVE REQUESTS
+    // =========================
+    static MoveRequest request(String uci, boolean white) {
+        MoveRequest request = new MoveRequest();
+        request.setFromCol(uci.charAt(0) - 'a');
+        request.setFromRow(8 - (uci.charAt(1) - '0'));
+        request.setToCol(uci.charAt(2) - 'a');
+        request.setToRow(8 - (uci.charAt(3) - '0'));
+        request.setPiece("?"); // the server derives it from its own position
+        request.setPlayerColor(white ? "white" : "black");
+        if (uci.length() > 4) {
+            request.setPromotedTo(uci.substring(4));
+        }
+        return request;
+    }
+
+    // White's move first
+    static MoveRequest[] requests(String[] uciMoves) {
+        MoveRequest[] requests = new MoveRequest[uciMoves.length];
+        for (int i = 0; i < uciMoves.length; i++) {
+            requests[i] = request(uciMoves[i], i % 2 == 0);
+        }
+        return requests;
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.IndiChessBackend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+
+    private static final long TICK = 10;
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final Map<Long, Long> firedAt = new HashMap<>();
+    private final TimingWheel wheel = new TimingWheel(
+            TICK, nanos::get, key -> firedAt.put(key, nanos.get() / 1_000_000L));
+
+    private void advanceTo(long millis) {
+        while (nanos.get() / 1_000_000L < millis) {
+            nanos.addAndGet(TICK * 1_000_000L);
+            wheel.advance();
+        }
+    }
+
+    @Test
+    void firesEveryDeadlineWithinOneTickAcrossAllLevels() {
+        SplittableRandom random = new SplittableRandom(7);
+        Map<Long, Long> deadlines = new HashMap<>();
+
+        // 1 ms .. 3 h: exercises every level and the cascades between them
+        for (long key = 0; key < 100_000; key++) {
+            long delay = 1 + random.nextLong(3 * 3_600_000L);
+            wheel.schedule(key, delay);
+            deadlines.put(key, delay);
+        }
+        assertEquals(100_000, wheel.size());
+
+        advanceTo(3 * 3_600_000L + 2 * TICK);
+
+        assertEquals(deadlines.size(), firedAt.size());
+        deadlines.forEach((key, deadline) -> {
+            long fired = firedAt.get(key);
+            assertTrue(fired >= deadline, key + " fired early");
+            assertTrue(fired - deadline < TICK, key + " fired late");
+        });
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void rescheduleReplacesDeadlineAndCancelRemovesIt() {
+        wheel.schedule(1L, 1_000);
+        wheel.schedule(2L, 1_000);
+
+        advanceTo(500);
+        wheel.schedule(1L, 60_000); // move played: new deadline
+        assertTrue(wheel.cancel(2L)); // game over
+
+        advanceTo(59_000);
+        assertTrue(firedAt.isEmpty());
+
+        advanceTo(61_000);
+        assertEquals(60_500L, firedAt.get(1L));
+        assertFalse(firedAt.containsKey(2L));
+    }
+
+    @Test
+    void zeroDelayFiresOnNextTick() {
+        advanceTo(105);
+        wheel.schedule(9L, 0);
+
+        advanceTo(120);
+        assertEquals(120L, firedAt.get(9L));
+    }
+}